@@ -0,0 +1,89 @@
+package whitaker.anthony.cache;
+
+/**
+ * Counts of {@link ProductNumberCache} activity, for sizing the cache against real traffic.
+ */
+public class CacheStats {
+
+	private final long evictions;
+	private final long expirations;
+	private final long hits;
+	private final long invalidations;
+	private final long maxSize;
+	private final long misses;
+	private final long negativeHits;
+	private final long size;
+
+	CacheStats(long hits, long negativeHits, long misses, long evictions, long expirations, long invalidations, long size, long maxSize) {
+		this.hits = hits;
+		this.negativeHits = negativeHits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.expirations = expirations;
+		this.invalidations = invalidations;
+		this.size = size;
+		this.maxSize = maxSize;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats{" +
+				"hits=" + hits +
+				", negativeHits=" + negativeHits +
+				", misses=" + misses +
+				", evictions=" + evictions +
+				", expirations=" + expirations +
+				", invalidations=" + invalidations +
+				", size=" + size +
+				", maxSize=" + maxSize +
+				'}';
+	}
+
+	/** Entries dropped to make room while still fresh; a high count relative to misses means the cache is too small. */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/** Entries dropped because their time to live had passed. */
+	public long getExpirations() {
+		return expirations;
+	}
+
+	/** Fraction of lookups answered from cache, found or missing, or 0 before the first lookup. */
+	public double getHitRate() {
+		long requests = getRequests();
+		return requests == 0 ? 0 : (double)(hits + negativeHits) / requests;
+	}
+
+	/** Lookups answered with a cached product. */
+	public long getHits() {
+		return hits;
+	}
+
+	/** Entries dropped because a write touched their number. */
+	public long getInvalidations() {
+		return invalidations;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	/** Lookups that went to the database. */
+	public long getMisses() {
+		return misses;
+	}
+
+	/** Lookups answered with a cached "no such number". */
+	public long getNegativeHits() {
+		return negativeHits;
+	}
+
+	public long getRequests() {
+		return hits + negativeHits + misses;
+	}
+
+	public long getSize() {
+		return size;
+	}
+}
@@ -0,0 +1,274 @@
+package whitaker.anthony.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductWriteListener;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of products by number, in front of number lookups against MongoDB.
+ * <p>
+ * Entries are spread over segments by hash, each a least-recently-used map behind its own lock, so concurrent lookups of
+ * different numbers rarely contend. An entry is evicted once its segment is full or its time to live has passed. Numbers not
+ * found are cached too, for a shorter time, so repeated scans of unknown numbers do not each reach the database.
+ * <p>
+ * Writes invalidate the numbers they touch, as reported by {@link whitaker.anthony.repository.ProductWriteEventListener}: the
+ * number saved and any number it replaced, the numbers deleted, and the cached products of a deleted category. Each segment counts its invalidations, and a lookup only stores what it loaded if
+ * no invalidation reached its segment meanwhile, so a load racing with a write can never put back the value the write replaced.
+ */
+@Component
+public class ProductNumberCache implements ProductWriteListener {
+
+	/** Largest number of segments; fewer are used for small caches so that each holds a useful number of entries. */
+	private static final int MAX_SEGMENTS = 16;
+	private static final int MIN_SEGMENT_SIZE = 64;
+
+	private final Clock clock;
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder expirations = new LongAdder();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+	private final long maxSize;
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder negativeHits = new LongAdder();
+	private final long negativeTimeToLiveMillis;
+	private final Segment[] segments;
+	private final long timeToLiveMillis;
+
+	/**
+	 * Constructs a ProductNumberCache.
+	 *
+	 * @param maxSize                  Largest number of entries held, at least 0; 0 disables caching.
+	 * @param timeToLiveMillis         How long a found product is served from cache, at least 0.
+	 * @param negativeTimeToLiveMillis How long a number not found is remembered as missing, at least 0.
+	 * @throws IllegalArgumentException If any value is negative.
+	 */
+	@Autowired
+	public ProductNumberCache(@Value("${inventory.cache.number.max-size:100000}") long maxSize,
+	                          @Value("${inventory.cache.number.ttl-ms:60000}") long timeToLiveMillis,
+	                          @Value("${inventory.cache.number.negative-ttl-ms:5000}") long negativeTimeToLiveMillis) {
+		this(Clock.systemUTC(), maxSize, timeToLiveMillis, negativeTimeToLiveMillis);
+	}
+
+	ProductNumberCache(Clock clock, long maxSize, long timeToLiveMillis, long negativeTimeToLiveMillis) {
+		if(clock == null)
+			throw new IllegalArgumentException("Parameters to ProductNumberCache constructor cannot be null.");
+		if(maxSize < 0 || timeToLiveMillis < 0 || negativeTimeToLiveMillis < 0)
+			throw new IllegalArgumentException("Size and times to live cannot be negative.");
+		this.clock = clock;
+		this.maxSize = maxSize;
+		this.timeToLiveMillis = timeToLiveMillis;
+		this.negativeTimeToLiveMillis = negativeTimeToLiveMillis;
+
+		int segmentCount = 1;
+		while(segmentCount < MAX_SEGMENTS && maxSize / (segmentCount * 2) >= MIN_SEGMENT_SIZE) {
+			segmentCount *= 2;
+		}
+		segments = new Segment[segmentCount];
+		for(int i = 0; i < segmentCount; i++) {
+			// Spread the remainder so that segment capacities add up to maxSize exactly.
+			segments[i] = new Segment((int)Math.min(Integer.MAX_VALUE, maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0)));
+		}
+	}
+
+	/**
+	 * Returns a cache that never holds anything, so every lookup goes to its loader.
+	 *
+	 * @return Disabled cache.
+	 */
+	public static ProductNumberCache disabled() {
+		return new ProductNumberCache(0, 0, 0);
+	}
+
+	/**
+	 * Returns the product with given number, from cache if present and not expired, otherwise from {@code loader}.
+	 *
+	 * @param number Product number, not null.
+	 * @param loader Looks up a product by number, returning null if there is none. Called without any lock held, not null.
+	 * @return Product with given number, or null if there is none.
+	 * @throws IllegalArgumentException If number or loader is null.
+	 */
+	public Product get(String number, Function<String, Product> loader) {
+		if(number == null || loader == null)
+			throw new IllegalArgumentException("Number and loader cannot be null.");
+		Segment segment = segmentFor(number);
+		long generation;
+		synchronized(segment) {
+			Entry entry = segment.get(number);
+			if(entry != null) {
+				if(entry.expiresAt - clock.millis() > 0) {
+					(entry.product == null ? negativeHits : hits).increment();
+					return entry.product;
+				}
+				segment.remove(number);
+				expirations.increment();
+			}
+			generation = segment.generation;
+		}
+
+		misses.increment();
+		Product product = loader.apply(number);
+		long timeToLive = product == null ? negativeTimeToLiveMillis : timeToLiveMillis;
+		if(segment.capacity > 0 && timeToLive > 0) {
+			synchronized(segment) {
+				if(segment.generation == generation)
+					segment.put(number, new Entry(product, clock.millis() + timeToLive));
+			}
+		}
+		return product;
+	}
+
+	/**
+	 * Drops any entry for given number, found or missing.
+	 *
+	 * @param number Product number, not null.
+	 */
+	public void invalidate(String number) {
+		Segment segment = segmentFor(number);
+		synchronized(segment) {
+			segment.generation++;
+			if(segment.remove(number) != null)
+				invalidations.increment();
+		}
+	}
+
+	/**
+	 * Drops every entry.
+	 */
+	public void invalidateAll() {
+		for(Segment segment : segments) {
+			synchronized(segment) {
+				segment.generation++;
+				invalidations.add(segment.size());
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Newly inserted products may have been cached as missing.
+	 */
+	@Override
+	public void productsInserted(List<Product> products) {
+		for(Product product : products) {
+			invalidate(product.getNumber());
+		}
+	}
+
+	/**
+	 * A new product may have been cached as missing; a replaced product may have changed number.
+	 */
+	@Override
+	public void productSaved(Product previous, Product saved) {
+		if(previous != null && !previous.getNumber().equals(saved.getNumber()))
+			invalidate(previous.getNumber());
+		invalidate(saved.getNumber());
+	}
+
+	@Override
+	public void productsDeleted(List<Product> products) {
+		for(Product product : products) {
+			invalidate(product.getNumber());
+		}
+	}
+
+	/**
+	 * Drops the cached products of given category; numbers cached as missing stay missing.
+	 */
+	@Override
+	public void categoryDeleted(Category category) {
+		for(Segment segment : segments) {
+			synchronized(segment) {
+				segment.generation++;
+				for(Iterator<Entry> entries = segment.values().iterator(); entries.hasNext(); ) {
+					Product product = entries.next().product;
+					if(product != null && product.getCategory() == category) {
+						entries.remove();
+						invalidations.increment();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns counts of cache activity since construction.
+	 *
+	 * @return Current statistics.
+	 */
+	public CacheStats getStats() {
+		return new CacheStats(hits.sum(), negativeHits.sum(), misses.sum(), evictions.sum(), expirations.sum(), invalidations.sum(), size(), maxSize);
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	public long getNegativeTimeToLiveMillis() {
+		return negativeTimeToLiveMillis;
+	}
+
+	public long getTimeToLiveMillis() {
+		return timeToLiveMillis;
+	}
+
+	public long size() {
+		long size = 0;
+		for(Segment segment : segments) {
+			synchronized(segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	private Segment segmentFor(String number) {
+		int hash = number.hashCode();
+		hash ^= hash >>> 16;
+		return segments[hash & (segments.length - 1)];
+	}
+
+	private static class Entry {
+		private final long expiresAt;
+		private final Product product;
+
+		private Entry(Product product, long expiresAt) {
+			this.product = product;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * Least-recently-used map of one share of the entries. Only accessed while holding its own lock.
+	 */
+	private class Segment extends LinkedHashMap<String, Entry> {
+		private final int capacity;
+		private long generation;
+
+		private Segment(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+			if(size() <= capacity)
+				return false;
+			if(eldest.getValue().expiresAt - clock.millis() > 0)
+				evictions.increment();
+			else
+				expirations.increment();
+			return true;
+		}
+	}
+}
@@ -0,0 +1,189 @@
+package whitaker.anthony.counts;
+
+import org.springframework.stereotype.Component;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ExpiryCount;
+import whitaker.anthony.repository.ProductWriteListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Exact number of stored products per category and per category per expiration month, kept up to date as products are saved,
+ * deleted and bulk loaded, so that these questions are answered without a count query or a scan.
+ * <p>
+ * Every count is an atomic cell indexed by category ordinal, so updates never lock and reads never block. Cells of a month are
+ * created on first use and kept once empty. A category delete zeroes that category's cells without counting what it removed.
+ * Counts only reflect writes that were reported here; {@link #reconcile} replaces
+ * them with counts taken from the database, correcting any drift. Writes reported while a reconciliation is being computed
+ * may be missed by it.
+ */
+@Component
+public class ProductCounters implements ProductWriteListener {
+
+	private static final Category[] CATEGORIES = Category.values();
+
+	private volatile Counts counts = new Counts();
+
+	/**
+	 * Counts given item.
+	 *
+	 * @param item Item that was stored, not null.
+	 */
+	public void add(InventoryItem item) {
+		add(item.getCategory(), item.getExpirationDate(), 1);
+	}
+
+	/**
+	 * Counts given items.
+	 *
+	 * @param items Items that were stored, not null.
+	 */
+	public void addAll(Collection<? extends InventoryItem> items) {
+		Counts current = counts;
+		for(InventoryItem item : items) {
+			current.add(item.getCategory(), item.getExpirationDate(), 1);
+		}
+	}
+
+	@Override
+	public void productsInserted(List<Product> products) {
+		addAll(products);
+	}
+
+	/**
+	 * Stops counting given item.
+	 *
+	 * @param item Item that was deleted, not null.
+	 */
+	public void remove(InventoryItem item) {
+		add(item.getCategory(), item.getExpirationDate(), -1);
+	}
+
+	@Override
+	public void productSaved(Product previous, Product saved) {
+		if(previous != null)
+			remove(previous);
+		add(saved);
+	}
+
+	@Override
+	public void productsDeleted(List<Product> products) {
+		Counts current = counts;
+		for(Product product : products) {
+			current.add(product.getCategory(), product.getExpirationDate(), -1);
+		}
+	}
+
+	@Override
+	public void categoryDeleted(Category category) {
+		counts.clear(category);
+	}
+
+	/**
+	 * Adds {@code delta} to the counts of given category and expiration date.
+	 *
+	 * @param category       Category of products, not null.
+	 * @param expirationDate Expiration date of products, not null.
+	 * @param delta          Number of products stored, negative for products deleted.
+	 */
+	public void add(Category category, LocalDate expirationDate, long delta) {
+		if(category == null || expirationDate == null)
+			throw new IllegalArgumentException("Category and expiration date cannot be null.");
+		counts.add(category, expirationDate, delta);
+	}
+
+	/**
+	 * Replaces all counts with given counts, taken from the database.
+	 *
+	 * @param expiryCounts Counts of every stored product per day and category, not null.
+	 * @return Number of category and month counts that were wrong and have been corrected.
+	 */
+	public int reconcile(Collection<ExpiryCount> expiryCounts) {
+		Counts reconciled = new Counts();
+		for(ExpiryCount expiryCount : expiryCounts) {
+			reconciled.add(expiryCount.getCategory(), expiryCount.getExpirationDate(), expiryCount.getCount());
+		}
+		ProductCounts before = snapshot();
+		counts = reconciled;
+		return before.differences(reconciled.snapshot());
+	}
+
+	/**
+	 * Returns a copy of all counts. Each count is exact, but counts may be read while a write is being applied to the others.
+	 *
+	 * @return Current counts.
+	 */
+	public ProductCounts snapshot() {
+		return counts.snapshot();
+	}
+
+	public long getCount(Category category) {
+		return counts.byCategory.get(category.ordinal());
+	}
+
+	public long getCount(Category category, YearMonth month) {
+		AtomicLongArray cells = counts.byMonth.get(month);
+		return cells == null ? 0 : cells.get(category.ordinal());
+	}
+
+	public long getTotal() {
+		AtomicLongArray byCategory = counts.byCategory;
+		long total = 0;
+		for(int i = 0; i < byCategory.length(); i++) {
+			total += byCategory.get(i);
+		}
+		return total;
+	}
+
+	/**
+	 * One generation of counts, replaced as a whole on reconciliation.
+	 */
+	private static class Counts {
+		private final AtomicLongArray byCategory = new AtomicLongArray(CATEGORIES.length);
+		private final ConcurrentHashMap<YearMonth, AtomicLongArray> byMonth = new ConcurrentHashMap<>();
+
+		private void add(Category category, LocalDate expirationDate, long delta) {
+			byCategory.addAndGet(category.ordinal(), delta);
+			byMonth.computeIfAbsent(YearMonth.from(expirationDate), month -> new AtomicLongArray(CATEGORIES.length))
+					.addAndGet(category.ordinal(), delta);
+		}
+
+		private void clear(Category category) {
+			byCategory.set(category.ordinal(), 0);
+			for(AtomicLongArray cells : byMonth.values()) {
+				cells.set(category.ordinal(), 0);
+			}
+		}
+
+		private ProductCounts snapshot() {
+			Map<Category, Long> categories = toMap(byCategory);
+			Map<YearMonth, Map<Category, Long>> months = new TreeMap<>();
+			byMonth.forEach((month, cells) -> {
+				Map<Category, Long> monthCounts = toMap(cells);
+				if(!monthCounts.isEmpty())
+					months.put(month, monthCounts);
+			});
+			return new ProductCounts(categories, months);
+		}
+
+		private static Map<Category, Long> toMap(AtomicLongArray cells) {
+			Map<Category, Long> map = new EnumMap<>(Category.class);
+			for(Category category : CATEGORIES) {
+				long count = cells.get(category.ordinal());
+				if(count != 0)
+					map.put(category, count);
+			}
+			return map;
+		}
+	}
+}
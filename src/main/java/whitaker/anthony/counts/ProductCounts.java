@@ -0,0 +1,71 @@
+package whitaker.anthony.counts;
+
+import whitaker.anthony.model.Category;
+
+import java.time.YearMonth;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copy of {@link ProductCounters} at one point in time. Categories and months without products are left out.
+ */
+public class ProductCounts {
+
+	private final Map<Category, Long> byCategory;
+	private final Map<YearMonth, Map<Category, Long>> byMonth;
+
+	ProductCounts(Map<Category, Long> byCategory, Map<YearMonth, Map<Category, Long>> byMonth) {
+		this.byCategory = Collections.unmodifiableMap(byCategory);
+		this.byMonth = Collections.unmodifiableMap(byMonth);
+	}
+
+	/**
+	 * Returns number of category and month counts that differ between this and given counts.
+	 */
+	int differences(ProductCounts other) {
+		int differences = 0;
+		for(Category category : Category.values()) {
+			if(getCount(category) != other.getCount(category))
+				differences++;
+		}
+		Set<YearMonth> months = new HashSet<>(byMonth.keySet());
+		months.addAll(other.byMonth.keySet());
+		for(YearMonth month : months) {
+			for(Category category : Category.values()) {
+				if(getCount(category, month) != other.getCount(category, month))
+					differences++;
+			}
+		}
+		return differences;
+	}
+
+	@Override
+	public String toString() {
+		return "ProductCounts{" +
+				"byCategory=" + byCategory +
+				", byMonth=" + byMonth +
+				'}';
+	}
+
+	public Map<Category, Long> getByCategory() {
+		return byCategory;
+	}
+
+	public Map<YearMonth, Map<Category, Long>> getByMonth() {
+		return byMonth;
+	}
+
+	public long getCount(Category category) {
+		return byCategory.getOrDefault(category, 0L);
+	}
+
+	public long getCount(Category category, YearMonth month) {
+		return byMonth.getOrDefault(month, Collections.emptyMap()).getOrDefault(category, 0L);
+	}
+
+	public long getTotal() {
+		return byCategory.values().stream().mapToLong(Long::longValue).sum();
+	}
+}
@@ -0,0 +1,36 @@
+package whitaker.anthony.counts;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import whitaker.anthony.repository.ProductRepository;
+
+/**
+ * Replaces {@link ProductCounters} with a recount of every stored product on the server, once the application is ready and
+ * whenever asked to.
+ */
+@Component
+public class ProductCountsReconciler {
+
+	private final ProductCounters productCounters;
+	private final ProductRepository productRepository;
+
+	@Autowired
+	public ProductCountsReconciler(ProductCounters productCounters, ProductRepository productRepository) {
+		if(productCounters == null || productRepository == null)
+			throw new IllegalArgumentException("Parameters to ProductCountsReconciler constructor cannot be null.");
+		this.productCounters = productCounters;
+		this.productRepository = productRepository;
+	}
+
+	/**
+	 * Replaces counters with a recount of every stored product.
+	 *
+	 * @return Number of category and month counts that were wrong and have been corrected.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public int reconcile() {
+		return productCounters.reconcile(productRepository.countByDayAndCategory());
+	}
+}
@@ -0,0 +1,55 @@
+package whitaker.anthony.expiration;
+
+import whitaker.anthony.model.InventoryItem;
+
+import java.time.LocalDate;
+
+/**
+ * Notification that a scheduled product is about to expire or has expired.
+ */
+public class ExpirationEvent {
+
+	public enum Type {
+		/** Product expires within the scheduler's warning period. */
+		EXPIRING_SOON,
+		/** Product's expiration date has passed. */
+		EXPIRED
+	}
+
+	private final LocalDate date;
+	private final InventoryItem item;
+	private final Type type;
+
+	public ExpirationEvent(Type type, InventoryItem item, LocalDate date) {
+		if(type == null || item == null || date == null)
+			throw new IllegalArgumentException("Parameters to ExpirationEvent constructor cannot be null.");
+		this.type = type;
+		this.item = item;
+		this.date = date;
+	}
+
+	@Override
+	public String toString() {
+		return "ExpirationEvent{" +
+				"type=" + type +
+				", number='" + item.getNumber() + '\'' +
+				", expirationDate=" + item.getExpirationDate() +
+				", date=" + date +
+				'}';
+	}
+
+	/**
+	 * Returns the day on which the event fired, which is later than its due day if the scheduler was not advanced for a while.
+	 */
+	public LocalDate getDate() {
+		return date;
+	}
+
+	public InventoryItem getItem() {
+		return item;
+	}
+
+	public Type getType() {
+		return type;
+	}
+}
@@ -0,0 +1,161 @@
+package whitaker.anthony.expiration;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import whitaker.anthony.expiration.ExpirationScheduler.Timer;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductRepository;
+import whitaker.anthony.repository.ProductWriteListener;
+
+import java.time.Clock;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Feeds stored products into an {@link ExpirationScheduler} and advances it periodically, passing its events to every
+ * {@link ExpirationListener} bean.
+ * <p>
+ * Products are loaded from a cursor on the first run, off the startup thread. After that the scheduler is kept in step by
+ * {@link whitaker.anthony.repository.ProductWriteEventListener} and by the bulk loader: each stored number holds one timer,
+ * which a save replaces, a delete cancels and a category delete cancels along with the rest of its category. A timer is dropped
+ * once its product has expired, so only products with events still to fire are held.
+ */
+@Component
+public class ExpirationJob implements ProductWriteListener {
+
+	/** Set once stored products have been loaded. Guarded by this. */
+	private boolean loaded;
+	private final ProductRepository productRepository;
+	private final ExpirationScheduler scheduler;
+	/** Timer of every stored product with events still to fire, by number. Guarded by this. */
+	private final Map<String, Timer> timers = new HashMap<>();
+
+	@Autowired
+	public ExpirationJob(ProductRepository productRepository,
+	                     @Autowired(required = false) List<ExpirationListener> listeners,
+	                     @Value("${inventory.expiration.warning-days:3}") int warningDays) {
+		this(productRepository, listeners, new ExpirationScheduler(Clock.systemDefaultZone(), warningDays));
+	}
+
+	ExpirationJob(ProductRepository productRepository, List<ExpirationListener> listeners, ExpirationScheduler scheduler) {
+		if(productRepository == null || scheduler == null)
+			throw new IllegalArgumentException("Parameters to ExpirationJob constructor cannot be null.");
+		this.productRepository = productRepository;
+		this.scheduler = scheduler;
+		scheduler.addListener(this::expirationEvent);
+		(listeners == null ? Collections.<ExpirationListener>emptyList() : listeners).forEach(scheduler::addListener);
+	}
+
+	/**
+	 * Loads stored products on the first run, then fires the events that have become due.
+	 *
+	 * @return Number of events fired.
+	 */
+	@Scheduled(fixedDelayString = "${inventory.expiration.check-interval-ms:3600000}")
+	public int run() {
+		load();
+		return scheduler.advance();
+	}
+
+	/**
+	 * Schedules given product, replacing the timer of any product stored under the same number. A product whose expiration date
+	 * is unchanged keeps its timer, so events it has already fired do not fire again.
+	 *
+	 * @param product Product that was stored, not null.
+	 */
+	public synchronized void schedule(Product product) {
+		Timer timer = timers.get(product.getNumber());
+		if(timer != null && timer.getItem().getExpirationDate().equals(product.getExpirationDate()))
+			return;
+		scheduler.cancel(timer);
+		timers.put(product.getNumber(), scheduler.schedule(product));
+	}
+
+	/**
+	 * Cancels the timer of the product stored under given number.
+	 *
+	 * @param number Number of product that was deleted.
+	 */
+	public synchronized void cancel(String number) {
+		scheduler.cancel(timers.remove(number));
+	}
+
+	@Override
+	public void productsInserted(List<Product> products) {
+		for(Product product : products) {
+			schedule(product);
+		}
+	}
+
+	/**
+	 * A product saved again with the same number and expiration date after it expired has no timer left and gets none, so its
+	 * events do not fire twice.
+	 */
+	@Override
+	public synchronized void productSaved(Product previous, Product saved) {
+		if(previous != null && !previous.getNumber().equals(saved.getNumber()))
+			cancel(previous.getNumber());
+		else if(previous != null && previous.getExpirationDate().equals(saved.getExpirationDate()) && !timers.containsKey(saved.getNumber()))
+			return;
+		schedule(saved);
+	}
+
+	@Override
+	public synchronized void productsDeleted(List<Product> products) {
+		for(Product product : products) {
+			cancel(product.getNumber());
+		}
+	}
+
+	@Override
+	public synchronized void categoryDeleted(Category category) {
+		for(Iterator<Timer> iterator = timers.values().iterator(); iterator.hasNext(); ) {
+			Timer timer = iterator.next();
+			if(timer.getItem().getCategory() == category) {
+				scheduler.cancel(timer);
+				iterator.remove();
+			}
+		}
+	}
+
+	private synchronized void load() {
+		if(loaded)
+			return;
+		loaded = true;
+		try(Stream<Product> products = productRepository.streamAll(null)) {
+			products.forEach(this::schedule);
+		}
+	}
+
+	/**
+	 * Drops the timer of a product that has expired, unless it was replaced after the event fired.
+	 */
+	private synchronized void expirationEvent(ExpirationEvent event) {
+		if(event.getType() != ExpirationEvent.Type.EXPIRED)
+			return;
+		Timer timer = timers.get(event.getItem().getNumber());
+		if(timer != null && timer.getItem() == event.getItem())
+			timers.remove(event.getItem().getNumber());
+	}
+
+	/**
+	 * Returns the scheduler, e.g. to add listeners.
+	 */
+	public ExpirationScheduler getScheduler() {
+		return scheduler;
+	}
+
+	/**
+	 * Returns the number of products with events still to fire.
+	 */
+	public synchronized int getTimerCount() {
+		return timers.size();
+	}
+}
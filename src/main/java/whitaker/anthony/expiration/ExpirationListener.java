@@ -0,0 +1,15 @@
+package whitaker.anthony.expiration;
+
+/**
+ * Receiver of events fired by an {@link ExpirationScheduler}.
+ */
+@FunctionalInterface
+public interface ExpirationListener {
+
+	/**
+	 * Called once per event, on the thread advancing the scheduler and outside its lock.
+	 *
+	 * @param event Event fired.
+	 */
+	void expirationEvent(ExpirationEvent event);
+}
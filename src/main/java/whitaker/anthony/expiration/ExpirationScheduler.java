@@ -0,0 +1,262 @@
+package whitaker.anthony.expiration;
+
+import whitaker.anthony.model.CompactProduct;
+import whitaker.anthony.model.InventoryItem;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fires "expiring soon" and "expired" events for scheduled products as the days of a {@link Clock} pass.
+ * <p>
+ * Pending timers live in a hierarchical, day-granular timing wheel: 256 daily slots for the coming 256 days, 64 slots of
+ * 256 days each beyond that, and an overflow list for anything further out. Each slot is a doubly-linked list, so scheduling
+ * and cancelling are constant time however many timers are pending. Advancing visits each elapsed day once, firing that day's
+ * slot and moving the next block of days down a level whenever a block boundary is crossed.
+ * <p>
+ * A product gets an {@link ExpirationEvent.Type#EXPIRING_SOON} event {@code warningDays} days before its expiration date and an
+ * {@link ExpirationEvent.Type#EXPIRED} event on the first day after it. Events already due when a product is scheduled fire on
+ * the next {@link #advance()}. Thread-safe; listeners are called outside the lock.
+ */
+public class ExpirationScheduler {
+
+	private static final int LEVEL_0_BITS = 8;
+	private static final int LEVEL_0_SIZE = 1 << LEVEL_0_BITS;
+	private static final int LEVEL_1_BITS = 6;
+	private static final int LEVEL_1_SIZE = 1 << LEVEL_1_BITS;
+	/** Timers due at least this many days ahead go to the overflow list. */
+	private static final int WHEEL_SPAN = LEVEL_0_SIZE * LEVEL_1_SIZE;
+
+	private final Clock clock;
+	/** Last day processed; timers due on or before it are in {@code due}. */
+	private long currentDay;
+	private final Slot due = new Slot();
+	private final Slot[] level0 = slots(LEVEL_0_SIZE);
+	private final Slot[] level1 = slots(LEVEL_1_SIZE);
+	private final List<ExpirationListener> listeners = new CopyOnWriteArrayList<>();
+	private final Slot overflow = new Slot();
+	private int pendingCount;
+	private final int warningDays;
+
+	/**
+	 * Constructs an ExpirationScheduler whose current day is today according to given clock.
+	 *
+	 * @param clock       Clock supplying today's date, not null.
+	 * @param warningDays Days before expiration date to fire the expiring soon event, at least 0.
+	 * @throws IllegalArgumentException If clock is null or if warningDays is negative.
+	 */
+	public ExpirationScheduler(Clock clock, int warningDays) {
+		if(clock == null)
+			throw new IllegalArgumentException("Parameters to ExpirationScheduler constructor cannot be null.");
+		if(warningDays < 0)
+			throw new IllegalArgumentException("Warning days cannot be negative.");
+		this.clock = clock;
+		this.warningDays = warningDays;
+		this.currentDay = LocalDate.now(clock).toEpochDay();
+	}
+
+	public void addListener(ExpirationListener listener) {
+		if(listener == null)
+			throw new IllegalArgumentException("Listener cannot be null.");
+		listeners.add(listener);
+	}
+
+	public void removeListener(ExpirationListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Schedules events for given product.
+	 *
+	 * @param item Product to watch, not null.
+	 * @return Timer that can be passed to {@link #cancel(Timer)}.
+	 * @throws IllegalArgumentException If item is null.
+	 */
+	public synchronized Timer schedule(InventoryItem item) {
+		if(item == null)
+			throw new IllegalArgumentException("Product cannot be null.");
+		long expirationDay = item instanceof CompactProduct ? ((CompactProduct)item).getEpochDay() : item.getExpirationDate().toEpochDay();
+		Timer timer = new Timer(item, expirationDay);
+		// A product that has already expired skips its expiring soon event.
+		timer.type = expirationDay < currentDay ? ExpirationEvent.Type.EXPIRED : ExpirationEvent.Type.EXPIRING_SOON;
+		insert(timer);
+		pendingCount++;
+		return timer;
+	}
+
+	/**
+	 * Cancels given timer, e.g. when its product is removed from inventory.
+	 *
+	 * @param timer Timer returned by {@link #schedule(InventoryItem)}.
+	 * @return true if timer was pending and will no longer fire.
+	 */
+	public synchronized boolean cancel(Timer timer) {
+		if(timer == null || timer.slot == null)
+			return false;
+		timer.unlink();
+		pendingCount--;
+		return true;
+	}
+
+	/**
+	 * Processes every day up to today according to the clock, firing the events that have become due.
+	 *
+	 * @return Number of events fired.
+	 */
+	public int advance() {
+		List<ExpirationEvent> events = new ArrayList<>();
+		synchronized(this) {
+			long today = LocalDate.now(clock).toEpochDay();
+			fire(due, events);
+			while(currentDay < today) {
+				currentDay++;
+				if((currentDay & (WHEEL_SPAN - 1)) == 0)
+					cascade(overflow);
+				if((currentDay & (LEVEL_0_SIZE - 1)) == 0)
+					cascade(level1[(int)(currentDay >> LEVEL_0_BITS) & (LEVEL_1_SIZE - 1)]);
+				fire(level0[(int)currentDay & (LEVEL_0_SIZE - 1)], events);
+				fire(due, events);
+			}
+		}
+		for(ExpirationEvent event : events) {
+			for(ExpirationListener listener : listeners) {
+				listener.expirationEvent(event);
+			}
+		}
+		return events.size();
+	}
+
+	/**
+	 * Fires every timer in given slot, rescheduling those that move on from expiring soon to expired.
+	 */
+	private void fire(Slot slot, List<ExpirationEvent> events) {
+		LocalDate today = LocalDate.ofEpochDay(currentDay);
+		Timer timer;
+		while((timer = slot.first()) != null) {
+			timer.unlink();
+			events.add(new ExpirationEvent(timer.type, timer.item, today));
+			if(timer.type == ExpirationEvent.Type.EXPIRING_SOON) {
+				timer.type = ExpirationEvent.Type.EXPIRED;
+				insert(timer);
+			}
+			else {
+				pendingCount--;
+			}
+		}
+	}
+
+	/**
+	 * Reinserts every timer of given slot, moving it to a finer level now that its due day is nearer.
+	 */
+	private void cascade(Slot slot) {
+		Timer timer;
+		Slot moved = new Slot();
+		while((timer = slot.first()) != null) {
+			timer.unlink();
+			moved.add(timer);
+		}
+		while((timer = moved.first()) != null) {
+			timer.unlink();
+			insert(timer);
+		}
+	}
+
+	private void insert(Timer timer) {
+		long dueDay = timer.dueDay(warningDays);
+		long delay = dueDay - currentDay;
+		if(delay <= 0)
+			due.add(timer);
+		else if(delay < LEVEL_0_SIZE)
+			level0[(int)dueDay & (LEVEL_0_SIZE - 1)].add(timer);
+		else if(delay < WHEEL_SPAN)
+			level1[(int)(dueDay >> LEVEL_0_BITS) & (LEVEL_1_SIZE - 1)].add(timer);
+		else
+			overflow.add(timer);
+	}
+
+	private static Slot[] slots(int count) {
+		Slot[] slots = new Slot[count];
+		for(int i = 0; i < count; i++) {
+			slots[i] = new Slot();
+		}
+		return slots;
+	}
+
+	/**
+	 * Returns day of the last {@link #advance()}, or of construction if it has not been advanced.
+	 */
+	public synchronized LocalDate getCurrentDate() {
+		return LocalDate.ofEpochDay(currentDay);
+	}
+
+	/**
+	 * Returns number of scheduled products that have not yet fired their expired event and have not been cancelled.
+	 */
+	public synchronized int getPendingCount() {
+		return pendingCount;
+	}
+
+	public int getWarningDays() {
+		return warningDays;
+	}
+
+	/**
+	 * Pending events of one scheduled product.
+	 */
+	public static final class Timer {
+		private final long expirationDay;
+		private final InventoryItem item;
+		private Timer next;
+		private Timer previous;
+		private Slot slot;
+		private ExpirationEvent.Type type;
+
+		private Timer(InventoryItem item, long expirationDay) {
+			this.item = item;
+			this.expirationDay = expirationDay;
+		}
+
+		private long dueDay(int warningDays) {
+			return type == ExpirationEvent.Type.EXPIRING_SOON ? expirationDay - warningDays : expirationDay + 1;
+		}
+
+		private void unlink() {
+			if(previous != null)
+				previous.next = next;
+			else
+				slot.head = next;
+			if(next != null)
+				next.previous = previous;
+			next = null;
+			previous = null;
+			slot = null;
+		}
+
+		public InventoryItem getItem() {
+			return item;
+		}
+	}
+
+	/**
+	 * Doubly-linked list of timers due in the same slot.
+	 */
+	private static final class Slot {
+		private Timer head;
+
+		private void add(Timer timer) {
+			timer.slot = this;
+			timer.previous = null;
+			timer.next = head;
+			if(head != null)
+				head.previous = timer;
+			head = timer;
+		}
+
+		private Timer first() {
+			return head;
+		}
+	}
+}
@@ -1,17 +1,28 @@
 package whitaker.anthony.generator;
 
+import whitaker.anthony.io.MappedProductReader;
+import whitaker.anthony.io.ParallelProductReader;
+import whitaker.anthony.io.ProductFileReader;
+import whitaker.anthony.io.ProductFileWriter;
+import whitaker.anthony.io.ProductSnapshotReader;
+import whitaker.anthony.io.ProductSnapshotWriter;
+import whitaker.anthony.io.TransferStats;
+import whitaker.anthony.model.Category;
 import whitaker.anthony.model.Product;
 import whitaker.anthony.model.ProductCandidate;
+import whitaker.anthony.model.ProductCodec;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -20,6 +31,8 @@ public class DataGenerator {
 	public static final String DEFAULT_EXPIRATION_DATE_FORMAT = "yyyy-MM-dd";
 	public static final Locale DEFAULT_EXPIRATION_DATE_LOCALE = Locale.US;
 
+	private final List<String> productCandidateNames;
+	private final List<ProductCandidate> productCandidates;
 	private final ProductGenerator productGenerator;
 	private String expirationDateFormat;
 	private Locale expirationDateLocale;
@@ -36,6 +49,8 @@ public class DataGenerator {
 	public DataGenerator(String filename, String delimiter, String expirationDateFormat, Locale expirationDateLocale) {
 		ArrayList<ProductCandidate> productCandidates = ProductGenerator.parseProductCandidateFile(filename, delimiter);
 		this.productGenerator = new ProductGenerator(productCandidates);
+		this.productCandidates = Collections.unmodifiableList(new ArrayList<>(productCandidates));
+		this.productCandidateNames = ProductSnapshotWriter.dictionaryOf(productCandidates);
 		this.setExpirationDateFormat(expirationDateFormat);
 		this.setExpirationDateLocale(expirationDateLocale);
 	}
@@ -50,7 +65,8 @@ public class DataGenerator {
 	 * @throws IllegalArgumentException If unable to parse file properly with given delimiter.
 	 */
 	public static List<Product> parseProducts(Stream<String> stream, String delimiter, String expirationDateFormat, Locale expirationDateLocale) {
-		return stream.map(s -> Product.parseProduct(s, delimiter, expirationDateFormat, expirationDateLocale))
+		ProductCodec codec = new ProductCodec(delimiter, expirationDateFormat, expirationDateLocale);
+		return stream.map(codec::parse)
 				.collect(Collectors.toList());
 	}
 
@@ -71,6 +87,87 @@ public class DataGenerator {
 		}
 	}
 
+	/**
+	 * Parse file containing products into a List by memory-mapping it and scanning its bytes directly.
+	 * Produces the same result as {@link #parseProductsFromFile} without a regular expression split or intermediate Strings per record,
+	 * which makes it the preferred choice for very large files. Unlike {@link #parseProductsFromFile}, the delimiter is matched literally.
+	 *
+	 * @param filename             Name of file to parse.
+	 * @param delimiter            Delimiter between product fields in file.
+	 * @param expirationDateFormat Date format of expiration date.
+	 * @param expirationDateLocale Locale of expiration date.
+	 * @return List of products based on file contents, in file order.
+	 * @throws IllegalArgumentException If unable to parse file properly with given delimiter.
+	 */
+	public static List<Product> parseProductsFromMappedFile(String filename, String delimiter, String expirationDateFormat, Locale expirationDateLocale) {
+		try {
+			return new MappedProductReader(delimiter, expirationDateFormat, expirationDateLocale).readAll(Paths.get(filename));
+		} catch(IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unable to parse \"" + filename + "\" with delimiter \"" + delimiter + "\"", e);
+		}
+	}
+
+	/**
+	 * Parse file containing products into a List using several threads, each parsing its own line-aligned range of the file.
+	 * Like {@link #parseProductsFromMappedFile}, the delimiter is matched literally.
+	 *
+	 * @param filename             Name of file to parse.
+	 * @param delimiter            Delimiter between product fields in file.
+	 * @param expirationDateFormat Date format of expiration date.
+	 * @param expirationDateLocale Locale of expiration date.
+	 * @param parallelism          Number of threads to parse with, at least 1.
+	 * @param preserveOrder        If true, products are returned in file order, otherwise in no particular order.
+	 * @return List of products based on file contents.
+	 * @throws IllegalArgumentException If unable to parse file properly with given delimiter or if parallelism is less than 1.
+	 */
+	public static List<Product> parseProductsFromFileInParallel(String filename, String delimiter, String expirationDateFormat, Locale expirationDateLocale, int parallelism, boolean preserveOrder) {
+		try {
+			ProductCodec codec = ProductCodec.of(delimiter, expirationDateFormat, expirationDateLocale);
+			return new ParallelProductReader(codec, parallelism).readAll(Paths.get(filename), preserveOrder);
+		} catch(IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unable to parse \"" + filename + "\" with delimiter \"" + delimiter + "\"", e);
+		}
+	}
+
+	/**
+	 * Parse file containing products, plain or GZIP compressed, handing each to {@code action} as soon as it is read.
+	 * The file is read as a stream through a single buffer, so memory use does not depend on its size. Like
+	 * {@link #parseProductsFromMappedFile}, the delimiter is matched literally.
+	 *
+	 * @param filename             Name of file to parse.
+	 * @param delimiter            Delimiter between product fields in file.
+	 * @param expirationDateFormat Date format of expiration date.
+	 * @param expirationDateLocale Locale of expiration date.
+	 * @param action               Receiver of products, in file order.
+	 * @return Records and bytes read, and speed.
+	 * @throws IllegalArgumentException If unable to parse file properly with given delimiter.
+	 * @see ProductFileReader
+	 */
+	public static TransferStats streamProductsFromFile(String filename, String delimiter, String expirationDateFormat, Locale expirationDateLocale,
+	                                                   Consumer<? super Product> action) {
+		try {
+			ProductCodec codec = ProductCodec.of(delimiter, expirationDateFormat, expirationDateLocale);
+			return new ProductFileReader(codec).read(Paths.get(filename), action);
+		} catch(IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unable to parse \"" + filename + "\" with delimiter \"" + delimiter + "\"", e);
+		}
+	}
+
+	/**
+	 * Read snapshot written by {@link #writeDataSetToSnapshot} into a List.
+	 *
+	 * @param filename Name of snapshot file to read.
+	 * @return List of products held in snapshot, in the order written.
+	 * @throws IllegalArgumentException If unable to read file or if it is not a product snapshot.
+	 */
+	public static List<Product> parseProductsFromSnapshot(String filename) {
+		try {
+			return ProductSnapshotReader.readAll(Paths.get(filename));
+		} catch(IOException | IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unable to read snapshot \"" + filename + "\"", e);
+		}
+	}
+
 	/**
 	 * Generates a dataset of the given size by generating random products based on the product previously set product candidates, random expiration dates within given bounds and random product numbers.
 	 *
@@ -85,6 +182,54 @@ public class DataGenerator {
 		return IntStream.range(0, size).mapToObj(i -> productGenerator.createRandomProduct(expirationDateMin, expirationDateMax)).collect(Collectors.toList());
 	}
 
+	/**
+	 * Generates a dataset of any size straight into a file, sampling this generator's product candidates with replacement.
+	 * Products are written as they are generated, so memory use does not depend on size. Use same delimiter when parsing back into program.
+	 *
+	 * @param size              Number of products to generate, at least 0.
+	 * @param expirationDateMin Lower bound for expiration date.
+	 * @param expirationDateMax Upper bound for expiration date.
+	 * @param categoryWeights   Relative frequency of each category, or null to pick candidates uniformly.
+	 * @param filename          Name of file to create/overwrite.
+	 * @param delimiter         Delimiter to use between product fields.
+	 * @throws IllegalArgumentException If unable to write file, or if size, dates or weights are invalid.
+	 * @see StreamingProductGenerator
+	 */
+	public void writeGeneratedDataSetToFile(long size, LocalDate expirationDateMin, LocalDate expirationDateMax, Map<Category, Double> categoryWeights,
+	                                        String filename, String delimiter) {
+		StreamingProductGenerator generator = new StreamingProductGenerator(productCandidates, categoryWeights, expirationDateMin, expirationDateMax);
+		try {
+			generator.generate(size, Paths.get(filename), ProductCodec.of(delimiter, expirationDateFormat, expirationDateLocale));
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to write to \"" + filename + "\"", e);
+		}
+	}
+
+	/**
+	 * Generates a reproducible dataset of any size straight into a file on several threads, sampling this generator's product
+	 * candidates with replacement. The file's contents depend only on seed, size, dates, weights and format, never on parallelism.
+	 *
+	 * @param size              Number of products to generate, at least 0.
+	 * @param expirationDateMin Lower bound for expiration date.
+	 * @param expirationDateMax Upper bound for expiration date.
+	 * @param categoryWeights   Relative frequency of each category, or null to pick candidates uniformly.
+	 * @param seed              Seed fixing which products are generated.
+	 * @param parallelism       Number of generating threads, at least 1.
+	 * @param filename          Name of file to create/overwrite.
+	 * @param delimiter         Delimiter to use between product fields.
+	 * @throws IllegalArgumentException If unable to write file, or if size, dates, weights or parallelism are invalid.
+	 * @see StreamingProductGenerator
+	 */
+	public void writeGeneratedDataSetToFile(long size, LocalDate expirationDateMin, LocalDate expirationDateMax, Map<Category, Double> categoryWeights,
+	                                        long seed, int parallelism, String filename, String delimiter) {
+		StreamingProductGenerator generator = new StreamingProductGenerator(productCandidates, categoryWeights, expirationDateMin, expirationDateMax);
+		try {
+			generator.generate(size, seed, parallelism, Paths.get(filename), ProductCodec.of(delimiter, expirationDateFormat, expirationDateLocale));
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to write to \"" + filename + "\"", e);
+		}
+	}
+
 	/**
 	 * Writes given dataset to file. Product fields are delimited with given delimiter. Use same delimiter when parsing back into program.
 	 *
@@ -93,10 +238,45 @@ public class DataGenerator {
 	 * @param delimiter Delimiter to use between product fields.
 	 */
 	public void writeDataSetToFile(Collection<Product> dataset, String filename, String delimiter) {
-		try(PrintWriter out = new PrintWriter(Files.newBufferedWriter(Paths.get(filename)))) {
-			dataset.stream()
-					.map(product -> product.toDelimitedString(delimiter, expirationDateFormat, expirationDateLocale))
-					.forEach(out::println);
+		writeDataSetToFile(dataset, filename, delimiter, false);
+	}
+
+	/**
+	 * Writes given dataset to file, optionally GZIP compressed. Product fields are delimited with given delimiter.
+	 * Read back with {@link #streamProductsFromFile}, which recognises compressed files by their contents.
+	 *
+	 * @param dataset   Dataset to write to file.
+	 * @param filename  Name of file to create/overwrite.
+	 * @param delimiter Delimiter to use between product fields.
+	 * @param compress  If true, the file is GZIP compressed.
+	 * @return Records and bytes written, and speed.
+	 * @throws IllegalArgumentException If unable to write file.
+	 * @see ProductFileWriter
+	 */
+	public TransferStats writeDataSetToFile(Collection<Product> dataset, String filename, String delimiter, boolean compress) {
+		ProductCodec codec = ProductCodec.of(delimiter, expirationDateFormat, expirationDateLocale);
+		try(ProductFileWriter out = ProductFileWriter.open(Paths.get(filename), codec, compress)) {
+			for(Product product : dataset) {
+				out.write(product);
+			}
+			return out.finish();
+		} catch(IOException e) {
+			throw new IllegalArgumentException("Unable to write to \"" + filename + "\"", e);
+		}
+	}
+
+	/**
+	 * Writes given dataset to file in the binary snapshot format, which is smaller and much faster to read back than delimited text.
+	 * Names of this generator's product candidates are stored once in the file header. Read back with {@link #parseProductsFromSnapshot}.
+	 *
+	 * @param dataset  Dataset to write to file.
+	 * @param filename Name of file to create/overwrite.
+	 */
+	public void writeDataSetToSnapshot(Collection<Product> dataset, String filename) {
+		try(ProductSnapshotWriter out = new ProductSnapshotWriter(Paths.get(filename), productCandidateNames)) {
+			for(Product product : dataset) {
+				out.write(product);
+			}
 		} catch(IOException e) {
 			throw new IllegalArgumentException("Unable to write to \"" + filename + "\"", e);
 		}
@@ -0,0 +1,39 @@
+package whitaker.anthony.generator;
+
+import whitaker.anthony.model.ProductNumbers;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates version 8 (custom) UUIDs of the form {@code nnnn0000-0000-8000-8ccc-cccccccccccc}: a 16-bit node id followed by
+ * a 62-bit counter taken with a single atomic increment. Numbers of one node sort by counter, so each node appends to its own
+ * contiguous range of the index.
+ */
+class NodeShardedCounterStrategy implements NumberStrategy {
+
+	static final long MAX_COUNTER = (1L << 62) - 1;
+	static final int MAX_NODE_ID = 0xFFFF;
+	private static final long VERSION_8 = 0x8000L;
+	private static final long VARIANT_RFC_4122 = 0x8000_0000_0000_0000L;
+
+	private final AtomicLong counter;
+	private final long mostSignificantBits;
+
+	NodeShardedCounterStrategy(int nodeId, long firstCounter) {
+		if(nodeId < 0 || nodeId > MAX_NODE_ID)
+			throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ".");
+		if(firstCounter < 0 || firstCounter > MAX_COUNTER)
+			throw new IllegalArgumentException("First counter must be between 0 and " + MAX_COUNTER + ".");
+		this.mostSignificantBits = (long)nodeId << 48 | VERSION_8;
+		this.counter = new AtomicLong(firstCounter);
+	}
+
+	@Override
+	public String nextNumber(SplittableRandom random) {
+		long value = counter.getAndIncrement();
+		if(value > MAX_COUNTER)
+			throw new IllegalStateException("Counter exhausted.");
+		return ProductNumbers.toNumber(mostSignificantBits, VARIANT_RFC_4122 | value);
+	}
+}
@@ -0,0 +1,60 @@
+package whitaker.anthony.generator;
+
+import java.time.Clock;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Way of generating unique product numbers. Every strategy produces canonical lower case UUID strings, so numbers are stored in
+ * their compact two-long form by {@link whitaker.anthony.model.CompactProduct}, and strategies can be mixed in one dataset.
+ * <p>
+ * Random numbers scatter inserts across the unique {@code number} index. {@link #timeOrderedUuid()} and
+ * {@link #nodeSharded(int, long)} generate increasing numbers, so inserts append to the index instead. Implementations are
+ * thread-safe and never lock.
+ */
+@FunctionalInterface
+public interface NumberStrategy {
+
+	/**
+	 * Returns a new product number.
+	 *
+	 * @param random Source of any random bits the strategy needs, confined to the calling thread.
+	 * @return A number never returned before by this strategy.
+	 */
+	String nextNumber(SplittableRandom random);
+
+	/**
+	 * Random version 4 UUIDs drawn from the caller's random, so seeded generation gives the same numbers every time.
+	 */
+	static NumberStrategy randomUuid() {
+		return StreamingProductGenerator::randomNumber;
+	}
+
+	/**
+	 * Random version 4 UUIDs from {@link UUID#randomUUID()}, which reads a shared {@code SecureRandom} and so contends when many
+	 * threads generate numbers at once. Matches {@link ProductGenerator#generateNumber()}.
+	 */
+	static NumberStrategy secureRandomUuid() {
+		return random -> UUID.randomUUID().toString();
+	}
+
+	/**
+	 * UUIDs that increase with the system clock, laid out as version 7 UUIDs.
+	 *
+	 * @see TimeOrderedUuidStrategy
+	 */
+	static NumberStrategy timeOrderedUuid() {
+		return new TimeOrderedUuidStrategy(Clock.systemUTC());
+	}
+
+	/**
+	 * UUIDs holding a node id and a per-node counter, so nodes never collide and each appends to its own part of the index.
+	 *
+	 * @param nodeId       Id of generating node, 0 to 65535, unique among nodes generating at the same time.
+	 * @param firstCounter First counter value, at least 0; after a restart, use one above the highest counter stored for the node.
+	 * @see NodeShardedCounterStrategy
+	 */
+	static NumberStrategy nodeSharded(int nodeId, long firstCounter) {
+		return new NodeShardedCounterStrategy(nodeId, firstCounter);
+	}
+}
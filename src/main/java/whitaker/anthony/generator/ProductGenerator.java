@@ -10,6 +10,7 @@ import java.nio.file.Paths;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.SplittableRandom;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
@@ -22,14 +23,30 @@ import static java.time.temporal.ChronoUnit.DAYS;
  */
 public class ProductGenerator {
 
+	private final NumberStrategy numberStrategy;
 	private ArrayList<ProductCandidate> productCandidates = new ArrayList<>();
+	private final SplittableRandom random = new SplittableRandom();
 
 	/**
-	 * Constructs a ProductGenerator.
+	 * Constructs a ProductGenerator numbering products with {@link NumberStrategy#secureRandomUuid()}.
 	 *
 	 * @param productCandidates List of potential products. If null, defaults to empty list.
 	 */
 	public ProductGenerator(Collection<ProductCandidate> productCandidates) {
+		this(productCandidates, NumberStrategy.secureRandomUuid());
+	}
+
+	/**
+	 * Constructs a ProductGenerator.
+	 *
+	 * @param productCandidates List of potential products. If null, defaults to empty list.
+	 * @param numberStrategy    Strategy generating product numbers, not null.
+	 * @throws IllegalArgumentException If numberStrategy is null.
+	 */
+	public ProductGenerator(Collection<ProductCandidate> productCandidates, NumberStrategy numberStrategy) {
+		if(numberStrategy == null)
+			throw new IllegalArgumentException("Number strategy cannot be null.");
+		this.numberStrategy = numberStrategy;
 		if(productCandidates != null) {
 			this.productCandidates.addAll(productCandidates);
 		}
@@ -37,6 +54,7 @@ public class ProductGenerator {
 
 	/**
 	 * Generates a unique number for use in a new Product's number field.
+	 * Draws from a shared secure random source; see {@link NumberStrategy} for alternatives that scale across threads.
 	 *
 	 * @return A unique number.
 	 */
@@ -118,8 +136,8 @@ public class ProductGenerator {
 		if(productCandidates.isEmpty())
 			throw new IllegalStateException("No product candidates available for product creation.");
 
-		String number = generateNumber();
-		ProductCandidate productCandidate = productCandidates.remove(getRandomIndex(productCandidates));
+		String number = numberStrategy.nextNumber(random);
+		ProductCandidate productCandidate = removeCandidate(getRandomIndex(productCandidates));
 		Category category = productCandidate.getCategory();
 		String name = productCandidate.getName();
 		LocalDate expirationDate = getRandomDate(startDate, endDate);
@@ -127,6 +145,17 @@ public class ProductGenerator {
 		return new Product(number, name, category, expirationDate);
 	}
 
+	/**
+	 * Removes candidate at given index in constant time by moving the last candidate into its place.
+	 * Candidates are picked at random, so their order does not matter.
+	 */
+	private ProductCandidate removeCandidate(int index) {
+		int last = productCandidates.size() - 1;
+		ProductCandidate removed = productCandidates.get(index);
+		productCandidates.set(index, productCandidates.get(last));
+		productCandidates.remove(last);
+		return removed;
+	}
 
 	public ArrayList<ProductCandidate> getProductCandidates() {
 		return productCandidates;
@@ -0,0 +1,344 @@
+package whitaker.anthony.generator;
+
+import whitaker.anthony.io.ProductFileWriter;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCandidate;
+import whitaker.anthony.model.ProductCodec;
+import whitaker.anthony.model.ProductNumbers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Generates any number of random products by sampling product candidates with replacement, for load-test datasets.
+ * <p>
+ * Unlike {@link ProductGenerator}, candidates are never used up, so a few hundred candidates can produce millions of products.
+ * Candidates are picked uniformly or, given category weights, by first picking a category in proportion to its weight and then
+ * a candidate of that category uniformly. Products are handed to a sink or written to a file one at a time, never collected,
+ * so memory use does not grow with the number generated.
+ * <p>
+ * Given a seed, generation is reproducible: products are produced in fixed-size chunks, each drawing from its own
+ * {@link SplittableRandom} split off a root generator in chunk order. Chunks are generated on several threads but delivered in
+ * order, and neither chunk size nor chunk seeds depend on the number of threads, so a seed and a count always give the same
+ * products, and the same file bytes, on any machine.
+ */
+public class StreamingProductGenerator {
+
+	/** Products per chunk of seeded generation. Changing it changes the products generated for a seed. */
+	static final int CHUNK_SIZE = 1 << 14;
+	/** Chunks generated ahead of the one being delivered, per thread. */
+	private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
+	/** Candidates of each picked category; a single group of every candidate when unweighted. */
+	private final ProductCandidate[][] candidatesByGroup;
+	/** Cumulative weight of groups up to and including each group, ending at 1. */
+	private final double[] cumulativeWeights;
+	private final long expirationEpochDayMax;
+	private final long expirationEpochDayMin;
+	private final NumberStrategy numberStrategy;
+
+	/**
+	 * Constructs a StreamingProductGenerator picking candidates uniformly.
+	 *
+	 * @param productCandidates Candidates to sample, not null or empty.
+	 * @param expirationDateMin Earliest expiration date, not null.
+	 * @param expirationDateMax Latest expiration date, not before expirationDateMin, not null.
+	 * @throws IllegalArgumentException If any parameters are null, if there are no candidates or if the dates are out of order.
+	 */
+	public StreamingProductGenerator(Collection<ProductCandidate> productCandidates, LocalDate expirationDateMin, LocalDate expirationDateMax) {
+		this(productCandidates, null, expirationDateMin, expirationDateMax);
+	}
+
+	/**
+	 * Constructs a StreamingProductGenerator.
+	 *
+	 * @param productCandidates Candidates to sample, not null or empty.
+	 * @param categoryWeights   Relative frequency of each category, or null to pick candidates uniformly. Categories left out
+	 *                          are never picked. Weights need not add up to 1.
+	 * @param expirationDateMin Earliest expiration date, not null.
+	 * @param expirationDateMax Latest expiration date, not before expirationDateMin, not null.
+	 * @throws IllegalArgumentException If any parameters other than categoryWeights are null, if there are no candidates,
+	 *                                  if the dates are out of order, if any weight is negative or not finite, if no weight is
+	 *                                  positive or if a category with positive weight has no candidates.
+	 */
+	public StreamingProductGenerator(Collection<ProductCandidate> productCandidates, Map<Category, Double> categoryWeights,
+	                                 LocalDate expirationDateMin, LocalDate expirationDateMax) {
+		this(productCandidates, categoryWeights, expirationDateMin, expirationDateMax, NumberStrategy.randomUuid());
+	}
+
+	/**
+	 * Constructs a StreamingProductGenerator.
+	 *
+	 * @param productCandidates Candidates to sample, not null or empty.
+	 * @param categoryWeights   Relative frequency of each category, or null to pick candidates uniformly. Categories left out
+	 *                          are never picked. Weights need not add up to 1.
+	 * @param expirationDateMin Earliest expiration date, not null.
+	 * @param expirationDateMax Latest expiration date, not before expirationDateMin, not null.
+	 * @param numberStrategy    Strategy generating product numbers, not null. Only {@link NumberStrategy#randomUuid()} keeps
+	 *                          seeded generation reproducible; the others give numbers that depend on time or on earlier calls.
+	 * @throws IllegalArgumentException If any parameters other than categoryWeights are null, if there are no candidates,
+	 *                                  if the dates are out of order, if any weight is negative or not finite, if no weight is
+	 *                                  positive or if a category with positive weight has no candidates.
+	 */
+	public StreamingProductGenerator(Collection<ProductCandidate> productCandidates, Map<Category, Double> categoryWeights,
+	                                 LocalDate expirationDateMin, LocalDate expirationDateMax, NumberStrategy numberStrategy) {
+		if(productCandidates == null || expirationDateMin == null || expirationDateMax == null || numberStrategy == null)
+			throw new IllegalArgumentException("Parameters to StreamingProductGenerator constructor cannot be null.");
+		if(productCandidates.isEmpty())
+			throw new IllegalArgumentException("No product candidates available for product creation.");
+		if(expirationDateMax.isBefore(expirationDateMin))
+			throw new IllegalArgumentException("Start date must not follow end date.");
+		this.expirationEpochDayMin = expirationDateMin.toEpochDay();
+		this.expirationEpochDayMax = expirationDateMax.toEpochDay();
+		this.numberStrategy = numberStrategy;
+
+		if(categoryWeights == null) {
+			candidatesByGroup = new ProductCandidate[][]{productCandidates.toArray(new ProductCandidate[0])};
+			cumulativeWeights = new double[]{1};
+			return;
+		}
+
+		Map<Category, List<ProductCandidate>> byCategory = new EnumMap<>(Category.class);
+		productCandidates.forEach(candidate -> byCategory.computeIfAbsent(candidate.getCategory(), category -> new ArrayList<>()).add(candidate));
+		List<ProductCandidate[]> groups = new ArrayList<>();
+		List<Double> weights = new ArrayList<>();
+		double total = 0;
+		for(Map.Entry<Category, Double> entry : new EnumMap<>(categoryWeights).entrySet()) {
+			double weight = entry.getValue() == null ? 0 : entry.getValue();
+			if(weight < 0 || Double.isNaN(weight) || Double.isInfinite(weight))
+				throw new IllegalArgumentException("Invalid weight " + entry.getValue() + " for category " + entry.getKey() + ".");
+			if(weight == 0)
+				continue;
+			List<ProductCandidate> candidates = byCategory.get(entry.getKey());
+			if(candidates == null)
+				throw new IllegalArgumentException("No product candidates available for category " + entry.getKey() + ".");
+			groups.add(candidates.toArray(new ProductCandidate[0]));
+			weights.add(weight);
+			total += weight;
+		}
+		if(groups.isEmpty())
+			throw new IllegalArgumentException("At least one category weight must be positive.");
+
+		candidatesByGroup = groups.toArray(new ProductCandidate[0][]);
+		cumulativeWeights = new double[weights.size()];
+		double cumulative = 0;
+		for(int i = 0; i < cumulativeWeights.length; i++) {
+			cumulative += weights.get(i);
+			cumulativeWeights[i] = cumulative / total;
+		}
+		cumulativeWeights[cumulativeWeights.length - 1] = 1;
+	}
+
+	/**
+	 * Creates one random product.
+	 *
+	 * @param random Source of randomness, not null.
+	 * @return A product with a number from this generator's number strategy, a randomly picked candidate's category and name
+	 * and a random expiration date within bounds.
+	 */
+	public Product next(SplittableRandom random) {
+		ProductCandidate[] candidates = candidatesByGroup[pickGroup(random.nextDouble())];
+		ProductCandidate candidate = candidates[candidates.length == 1 ? 0 : random.nextInt(candidates.length)];
+		long epochDay = random.nextLong(expirationEpochDayMin, expirationEpochDayMax + 1);
+		return new Product(numberStrategy.nextNumber(random), candidate.getName(), candidate.getCategory(), LocalDate.ofEpochDay(epochDay));
+	}
+
+	/**
+	 * Generates {@code count} products and hands each to {@code sink} as soon as it is created.
+	 *
+	 * @param count Number of products to generate, at least 0.
+	 * @param sink  Receiver of products, not null.
+	 * @throws IllegalArgumentException If count is negative or if sink is null.
+	 */
+	public void generate(long count, Consumer<? super Product> sink) {
+		if(count < 0 || sink == null)
+			throw new IllegalArgumentException("Count cannot be negative and sink cannot be null.");
+		SplittableRandom random = new SplittableRandom();
+		for(long i = 0; i < count; i++) {
+			sink.accept(next(random));
+		}
+	}
+
+	/**
+	 * Generates {@code count} products into given file, one delimited line each, readable by {@link ProductCodec#parse}.
+	 *
+	 * @param count Number of products to generate, at least 0.
+	 * @param path  File to create or overwrite, not null.
+	 * @param codec Codec formatting each product, not null.
+	 * @throws IOException              If file cannot be written.
+	 * @throws IllegalArgumentException If count is negative or if path or codec is null.
+	 */
+	public void generate(long count, Path path, ProductCodec codec) throws IOException {
+		if(count < 0 || path == null || codec == null)
+			throw new IllegalArgumentException("Count cannot be negative and path and codec cannot be null.");
+		SplittableRandom random = new SplittableRandom();
+		try(ProductFileWriter out = ProductFileWriter.open(path, codec, false)) {
+			for(long i = 0; i < count; i++) {
+				out.write(next(random));
+			}
+		}
+	}
+
+	/**
+	 * Generates {@code count} products to given writer, one delimited line each. The writer is neither flushed nor closed.
+	 *
+	 * @param count Number of products to generate, at least 0.
+	 * @param out   Writer to append to, not null.
+	 * @param codec Codec formatting each product, not null.
+	 * @throws IOException If writer fails.
+	 */
+	public void write(long count, Writer out, ProductCodec codec) throws IOException {
+		if(count < 0 || out == null || codec == null)
+			throw new IllegalArgumentException("Count cannot be negative and writer and codec cannot be null.");
+		SplittableRandom random = new SplittableRandom();
+		StringBuilder line = new StringBuilder(96);
+		for(long i = 0; i < count; i++) {
+			line.setLength(0);
+			codec.appendTo(line, next(random)).append('\n');
+			out.append(line);
+		}
+	}
+
+	/**
+	 * Generates {@code count} products reproducibly from {@code seed} on {@code parallelism} threads and hands each to {@code sink},
+	 * in order, from the calling thread.
+	 *
+	 * @param count       Number of products to generate, at least 0.
+	 * @param seed        Seed fixing which products are generated.
+	 * @param parallelism Number of generating threads, at least 1. Does not affect which products are generated.
+	 * @param sink        Receiver of products, not null.
+	 * @throws IllegalArgumentException If count is negative, if parallelism is less than 1 or if sink is null.
+	 */
+	public void generate(long count, long seed, int parallelism, Consumer<? super Product> sink) {
+		if(sink == null)
+			throw new IllegalArgumentException("Sink cannot be null.");
+		try {
+			generateChunks(count, seed, parallelism, (random, size) -> {
+				List<Product> products = new ArrayList<>(size);
+				for(int i = 0; i < size; i++) {
+					products.add(next(random));
+				}
+				return products;
+			}, products -> products.forEach(sink));
+		} catch(IOException e) {
+			throw new IllegalStateException("Sink cannot throw IOException.", e);
+		}
+	}
+
+	/**
+	 * Generates {@code count} products reproducibly from {@code seed} on {@code parallelism} threads into given file, one delimited
+	 * line each. Threads format whole chunks, which are written in order, so the file's bytes depend only on seed, count and codec.
+	 *
+	 * @param count       Number of products to generate, at least 0.
+	 * @param seed        Seed fixing which products are generated.
+	 * @param parallelism Number of generating threads, at least 1. Does not affect the file written.
+	 * @param path        File to create or overwrite, not null.
+	 * @param codec       Codec formatting each product, not null.
+	 * @throws IOException              If file cannot be written.
+	 * @throws IllegalArgumentException If count is negative, if parallelism is less than 1 or if path or codec is null.
+	 */
+	public void generate(long count, long seed, int parallelism, Path path, ProductCodec codec) throws IOException {
+		if(path == null || codec == null)
+			throw new IllegalArgumentException("Path and codec cannot be null.");
+		try(OutputStream out = Files.newOutputStream(path)) {
+			generateChunks(count, seed, parallelism, (random, size) -> {
+				StringBuilder lines = new StringBuilder(size * 96);
+				for(int i = 0; i < size; i++) {
+					codec.appendTo(lines, next(random)).append('\n');
+				}
+				return lines.toString().getBytes(StandardCharsets.UTF_8);
+			}, out::write);
+		}
+	}
+
+	/**
+	 * Generates chunks on a pool and delivers them in chunk order on the calling thread, keeping a bounded number in flight.
+	 * Chunk randoms are split off the root in chunk order on the calling thread, so they do not depend on scheduling.
+	 */
+	private <T> void generateChunks(long count, long seed, int parallelism, ChunkGenerator<T> generator, ChunkConsumer<T> consumer) throws IOException {
+		if(count < 0 || parallelism < 1)
+			throw new IllegalArgumentException("Count cannot be negative and parallelism must be at least 1.");
+		SplittableRandom root = new SplittableRandom(seed);
+		ExecutorService pool = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "product-generator");
+			thread.setDaemon(true);
+			return thread;
+		});
+		Deque<Future<T>> inFlight = new ArrayDeque<>();
+		try {
+			for(long start = 0; start < count || !inFlight.isEmpty(); ) {
+				if(start < count && inFlight.size() < parallelism * CHUNKS_IN_FLIGHT_PER_THREAD) {
+					SplittableRandom random = root.split();
+					int size = (int)Math.min(CHUNK_SIZE, count - start);
+					inFlight.add(pool.submit(() -> generator.generate(random, size)));
+					start += size;
+				}
+				else {
+					consumer.accept(take(inFlight.poll()));
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static <T> T take(Future<T> future) {
+		try {
+			return future.get();
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while generating products.", e);
+		} catch(ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException)
+				throw (RuntimeException)e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	private int pickGroup(double value) {
+		int group = 0;
+		while(cumulativeWeights[group] <= value && group < cumulativeWeights.length - 1) {
+			group++;
+		}
+		return group;
+	}
+
+	/**
+	 * Formats a random version 4 UUID, as {@link java.util.UUID#randomUUID()} would but without a secure random source, which
+	 * would dominate the cost of generating large datasets.
+	 */
+	static String randomNumber(SplittableRandom random) {
+		long mostSignificantBits = random.nextLong() & ~0xF000L | 0x4000L;
+		long leastSignificantBits = random.nextLong() & ~(0xC000L << 48) | 0x8000L << 48;
+		return ProductNumbers.toNumber(mostSignificantBits, leastSignificantBits);
+	}
+
+	@FunctionalInterface
+	private interface ChunkGenerator<T> {
+		T generate(SplittableRandom random, int size);
+	}
+
+	@FunctionalInterface
+	private interface ChunkConsumer<T> {
+		void accept(T chunk) throws IOException;
+	}
+}
@@ -0,0 +1,39 @@
+package whitaker.anthony.generator;
+
+import whitaker.anthony.model.ProductNumbers;
+
+import java.time.Clock;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates version 7 style UUIDs: 48 bits of Unix time in milliseconds, then a 12-bit sequence within the millisecond, then
+ * 62 random bits. Time and sequence together form a tick that is advanced with a compare-and-set, never a lock, and always
+ * increases, even if the clock steps back or more than 4096 numbers are needed in one millisecond (the tick then runs ahead of
+ * the clock until the clock catches up). Numbers from one generator therefore sort in generation order, as Strings too.
+ */
+class TimeOrderedUuidStrategy implements NumberStrategy {
+
+	private static final int SEQUENCE_BITS = 12;
+	private static final long VERSION_7 = 0x7000L;
+	private static final long VARIANT_MASK = 0xC000_0000_0000_0000L;
+	private static final long VARIANT_RFC_4122 = 0x8000_0000_0000_0000L;
+
+	private final Clock clock;
+	private final AtomicLong lastTick = new AtomicLong();
+
+	TimeOrderedUuidStrategy(Clock clock) {
+		if(clock == null)
+			throw new IllegalArgumentException("Parameters to TimeOrderedUuidStrategy constructor cannot be null.");
+		this.clock = clock;
+	}
+
+	@Override
+	public String nextNumber(SplittableRandom random) {
+		long now = clock.millis() << SEQUENCE_BITS;
+		long tick = lastTick.updateAndGet(last -> Math.max(last + 1, now));
+		long mostSignificantBits = (tick >>> SEQUENCE_BITS) << 16 | VERSION_7 | tick & ((1 << SEQUENCE_BITS) - 1);
+		long leastSignificantBits = random.nextLong() & ~VARIANT_MASK | VARIANT_RFC_4122;
+		return ProductNumbers.toNumber(mostSignificantBits, leastSignificantBits);
+	}
+}
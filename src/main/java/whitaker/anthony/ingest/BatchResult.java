@@ -0,0 +1,63 @@
+package whitaker.anthony.ingest;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a single bulk-insert batch.
+ */
+public class BatchResult {
+	private final List<String> duplicateNumbers;
+	private final int insertedCount;
+	private final long latencyNanos;
+	private final long sequence;
+	private final int size;
+
+	/**
+	 * Constructs a BatchResult.
+	 *
+	 * @param sequence         Zero-based position of batch in the load, in submission order.
+	 * @param size             Number of products sent in batch.
+	 * @param insertedCount    Number of products actually inserted.
+	 * @param duplicateNumbers Numbers of products rejected because their number already exists, not null.
+	 * @param latencyNanos     Time taken by the bulk write round trip.
+	 */
+	public BatchResult(long sequence, int size, int insertedCount, List<String> duplicateNumbers, long latencyNanos) {
+		this.sequence = sequence;
+		this.size = size;
+		this.insertedCount = insertedCount;
+		this.duplicateNumbers = Collections.unmodifiableList(duplicateNumbers);
+		this.latencyNanos = latencyNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "BatchResult{" +
+				"sequence=" + sequence +
+				", size=" + size +
+				", insertedCount=" + insertedCount +
+				", duplicateCount=" + duplicateNumbers.size() +
+				", latencyMillis=" + latencyNanos / 1_000_000.0 +
+				'}';
+	}
+
+	public List<String> getDuplicateNumbers() {
+		return duplicateNumbers;
+	}
+
+	public int getInsertedCount() {
+		return insertedCount;
+	}
+
+	public long getLatencyNanos() {
+		return latencyNanos;
+	}
+
+	public long getSequence() {
+		return sequence;
+	}
+
+	public int getSize() {
+		return size;
+	}
+}
@@ -0,0 +1,21 @@
+package whitaker.anthony.ingest;
+
+import whitaker.anthony.model.Product;
+
+import java.util.List;
+
+/**
+ * Told of products a {@link ProductBulkLoader} has inserted. Bulk writes raise no MongoDB mapping events, so anything kept in
+ * step with saves through those events must also be told of bulk inserts this way.
+ * Called from the loader's writer threads, possibly concurrently, so implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface BulkInsertListener {
+
+	/**
+	 * Called once per batch with the products that batch inserted, leaving out duplicates.
+	 *
+	 * @param products Products inserted.
+	 */
+	void productsInserted(List<Product> products);
+}
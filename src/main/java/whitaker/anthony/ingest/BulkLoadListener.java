@@ -0,0 +1,18 @@
+package whitaker.anthony.ingest;
+
+/**
+ * Receives progress from a {@link ProductBulkLoader}.
+ * Called from the loader's writer threads, possibly concurrently, so implementations must be thread-safe.
+ */
+@FunctionalInterface
+public interface BulkLoadListener {
+	BulkLoadListener NONE = result -> {
+	};
+
+	/**
+	 * Called once for every batch that has been written, in completion order.
+	 *
+	 * @param result Outcome of batch.
+	 */
+	void batchCompleted(BatchResult result);
+}
@@ -0,0 +1,91 @@
+package whitaker.anthony.ingest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Totals of a completed bulk load. Instances are built up by the loader's writer threads and only read once the load is over.
+ */
+public class BulkLoadResult {
+
+	/** Upper bound on duplicate numbers kept for reporting. All duplicates are still counted. */
+	static final int MAX_REPORTED_DUPLICATES = 1000;
+
+	private final List<String> duplicateNumbers = new ArrayList<>();
+	private long batchCount;
+	private long duplicateCount;
+	private long elapsedNanos;
+	private long insertedCount;
+	private long maxBatchLatencyNanos;
+	private long readCount;
+	private long totalBatchLatencyNanos;
+
+	synchronized void add(BatchResult batch) {
+		batchCount++;
+		insertedCount += batch.getInsertedCount();
+		duplicateCount += batch.getDuplicateNumbers().size();
+		for(String number : batch.getDuplicateNumbers()) {
+			if(duplicateNumbers.size() >= MAX_REPORTED_DUPLICATES)
+				break;
+			duplicateNumbers.add(number);
+		}
+		totalBatchLatencyNanos += batch.getLatencyNanos();
+		maxBatchLatencyNanos = Math.max(maxBatchLatencyNanos, batch.getLatencyNanos());
+	}
+
+	synchronized void complete(long readCount, long elapsedNanos) {
+		this.readCount = readCount;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "BulkLoadResult{" +
+				"readCount=" + readCount +
+				", insertedCount=" + insertedCount +
+				", duplicateCount=" + duplicateCount +
+				", batchCount=" + batchCount +
+				", averageBatchLatencyMillis=" + getAverageBatchLatencyNanos() / 1_000_000.0 +
+				", maxBatchLatencyMillis=" + maxBatchLatencyNanos / 1_000_000.0 +
+				", elapsedMillis=" + elapsedNanos / 1_000_000.0 +
+				'}';
+	}
+
+	public synchronized long getAverageBatchLatencyNanos() {
+		return batchCount == 0 ? 0 : totalBatchLatencyNanos / batchCount;
+	}
+
+	public synchronized long getBatchCount() {
+		return batchCount;
+	}
+
+	public synchronized long getDuplicateCount() {
+		return duplicateCount;
+	}
+
+	/**
+	 * Returns numbers of products rejected as duplicates, up to {@value #MAX_REPORTED_DUPLICATES} of them.
+	 *
+	 * @return Numbers of products rejected as duplicates, up to {@value #MAX_REPORTED_DUPLICATES} of them.
+	 */
+	public synchronized List<String> getDuplicateNumbers() {
+		return Collections.unmodifiableList(new ArrayList<>(duplicateNumbers));
+	}
+
+	public synchronized long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public synchronized long getInsertedCount() {
+		return insertedCount;
+	}
+
+	public synchronized long getMaxBatchLatencyNanos() {
+		return maxBatchLatencyNanos;
+	}
+
+	public synchronized long getReadCount() {
+		return readCount;
+	}
+}
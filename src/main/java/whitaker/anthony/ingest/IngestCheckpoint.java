@@ -0,0 +1,157 @@
+package whitaker.anthony.ingest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * Progress of a {@link ResumableIngestJob}, persisted after every committed batch.
+ * <p>
+ * {@code offset} is the position in the data file up to which every line has been either inserted or rejected.
+ * {@code rejectFileSize} is the size of the reject file at that point, so rejects written after the last checkpoint can be
+ * discarded on restart instead of being reported twice. Instances are immutable.
+ */
+public class IngestCheckpoint {
+	private final boolean complete;
+	private final long dataFileSize;
+	private final long duplicateCount;
+	private final long insertedCount;
+	private final long lineCount;
+	private final long offset;
+	private final long rejectFileSize;
+	private final long rejectedCount;
+
+	/**
+	 * Constructs an IngestCheckpoint.
+	 *
+	 * @param dataFileSize   Size of data file when ingest started.
+	 * @param offset         Offset of first line not yet committed.
+	 * @param lineCount      Number of lines committed.
+	 * @param insertedCount  Number of products inserted.
+	 * @param duplicateCount Number of products skipped because their number already exists.
+	 * @param rejectedCount  Number of lines written to the reject file.
+	 * @param rejectFileSize Size of reject file after last commit.
+	 * @param complete       Whether the whole data file has been committed.
+	 */
+	public IngestCheckpoint(long dataFileSize, long offset, long lineCount, long insertedCount, long duplicateCount, long rejectedCount, long rejectFileSize, boolean complete) {
+		this.dataFileSize = dataFileSize;
+		this.offset = offset;
+		this.lineCount = lineCount;
+		this.insertedCount = insertedCount;
+		this.duplicateCount = duplicateCount;
+		this.rejectedCount = rejectedCount;
+		this.rejectFileSize = rejectFileSize;
+		this.complete = complete;
+	}
+
+	/**
+	 * Returns a checkpoint for an ingest of a data file of the given size that has not started yet.
+	 *
+	 * @param dataFileSize Size of data file.
+	 * @return A checkpoint at offset 0.
+	 */
+	public static IngestCheckpoint start(long dataFileSize) {
+		return new IngestCheckpoint(dataFileSize, 0, 0, 0, 0, 0, 0, false);
+	}
+
+	/**
+	 * Reads a checkpoint previously written by {@link #store(Path)}.
+	 *
+	 * @param path Checkpoint file.
+	 * @return Checkpoint held in file.
+	 * @throws IOException              If file cannot be read.
+	 * @throws IllegalArgumentException If file is not a valid checkpoint.
+	 */
+	public static IngestCheckpoint load(Path path) throws IOException {
+		Properties properties = new Properties();
+		try(InputStream in = Files.newInputStream(path)) {
+			properties.load(in);
+		}
+		try {
+			return new IngestCheckpoint(
+					Long.parseLong(properties.getProperty("dataFileSize")),
+					Long.parseLong(properties.getProperty("offset")),
+					Long.parseLong(properties.getProperty("lineCount")),
+					Long.parseLong(properties.getProperty("insertedCount")),
+					Long.parseLong(properties.getProperty("duplicateCount")),
+					Long.parseLong(properties.getProperty("rejectedCount")),
+					Long.parseLong(properties.getProperty("rejectFileSize")),
+					Boolean.parseBoolean(properties.getProperty("complete")));
+		} catch(NumberFormatException e) {
+			throw new IllegalArgumentException("Invalid checkpoint file \"" + path + "\"", e);
+		}
+	}
+
+	/**
+	 * Writes this checkpoint to given file, replacing it atomically so a crash never leaves a partial checkpoint behind.
+	 *
+	 * @param path Checkpoint file.
+	 * @throws IOException If file cannot be written.
+	 */
+	public void store(Path path) throws IOException {
+		Properties properties = new Properties();
+		properties.setProperty("dataFileSize", Long.toString(dataFileSize));
+		properties.setProperty("offset", Long.toString(offset));
+		properties.setProperty("lineCount", Long.toString(lineCount));
+		properties.setProperty("insertedCount", Long.toString(insertedCount));
+		properties.setProperty("duplicateCount", Long.toString(duplicateCount));
+		properties.setProperty("rejectedCount", Long.toString(rejectedCount));
+		properties.setProperty("rejectFileSize", Long.toString(rejectFileSize));
+		properties.setProperty("complete", Boolean.toString(complete));
+
+		Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+		try(OutputStream out = Files.newOutputStream(temp)) {
+			properties.store(out, "Ingest checkpoint");
+		}
+		Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	@Override
+	public String toString() {
+		return "IngestCheckpoint{" +
+				"offset=" + offset +
+				", dataFileSize=" + dataFileSize +
+				", lineCount=" + lineCount +
+				", insertedCount=" + insertedCount +
+				", duplicateCount=" + duplicateCount +
+				", rejectedCount=" + rejectedCount +
+				", complete=" + complete +
+				'}';
+	}
+
+	public long getDataFileSize() {
+		return dataFileSize;
+	}
+
+	public long getDuplicateCount() {
+		return duplicateCount;
+	}
+
+	public long getInsertedCount() {
+		return insertedCount;
+	}
+
+	public long getLineCount() {
+		return lineCount;
+	}
+
+	public long getOffset() {
+		return offset;
+	}
+
+	public long getRejectFileSize() {
+		return rejectFileSize;
+	}
+
+	public long getRejectedCount() {
+		return rejectedCount;
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+}
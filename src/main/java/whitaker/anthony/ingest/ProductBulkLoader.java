@@ -0,0 +1,249 @@
+package whitaker.anthony.ingest;
+
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Component;
+import whitaker.anthony.io.MappedProductReader;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams products into MongoDB in unordered bulk-insert batches.
+ * <p>
+ * Records are read one at a time and grouped into batches of {@code batchSize}. Up to {@code maxBatchesInFlight} batches are
+ * written concurrently; once that many are outstanding, reading blocks until one completes, so memory use is bounded by
+ * batch size rather than file size. Products whose number already exists are reported as duplicates and the load carries on.
+ * Any other write failure stops the load once in-flight batches have drained.
+ */
+@Component
+public class ProductBulkLoader {
+
+	/** Server error codes for a unique index violation. */
+	private static final int DUPLICATE_KEY = 11000;
+	private static final int DUPLICATE_KEY_LEGACY = 11001;
+
+	private final int batchSize;
+	private final List<BulkInsertListener> insertListeners;
+	private final int maxBatchesInFlight;
+	private final MongoOperations mongoOperations;
+
+	/**
+	 * Constructs a ProductBulkLoader that tells nothing else of its inserts.
+	 *
+	 * @param mongoOperations    Operations used to write batches, not null.
+	 * @param batchSize          Number of products per bulk insert, at least 1.
+	 * @param maxBatchesInFlight Number of batches that may be written concurrently, at least 1.
+	 * @throws IllegalArgumentException If mongoOperations is null or if either size is less than 1.
+	 */
+	public ProductBulkLoader(MongoOperations mongoOperations, int batchSize, int maxBatchesInFlight) {
+		this(mongoOperations, Collections.emptyList(), batchSize, maxBatchesInFlight);
+	}
+
+	/**
+	 * Constructs a ProductBulkLoader.
+	 *
+	 * @param mongoOperations    Operations used to write batches, not null.
+	 * @param insertListeners    Listeners told of every product inserted, not null.
+	 * @param batchSize          Number of products per bulk insert, at least 1.
+	 * @param maxBatchesInFlight Number of batches that may be written concurrently, at least 1.
+	 * @throws IllegalArgumentException If mongoOperations or insertListeners is null or if either size is less than 1.
+	 */
+	@Autowired
+	public ProductBulkLoader(MongoOperations mongoOperations, List<BulkInsertListener> insertListeners,
+	                         @Value("${inventory.bulk-load.batch-size:1000}") int batchSize,
+	                         @Value("${inventory.bulk-load.max-batches-in-flight:4}") int maxBatchesInFlight) {
+		if(mongoOperations == null || insertListeners == null)
+			throw new IllegalArgumentException("Parameters to ProductBulkLoader constructor cannot be null.");
+		if(batchSize < 1 || maxBatchesInFlight < 1)
+			throw new IllegalArgumentException("Batch size and batches in flight must be at least 1.");
+		this.mongoOperations = mongoOperations;
+		this.insertListeners = new ArrayList<>(insertListeners);
+		this.batchSize = batchSize;
+		this.maxBatchesInFlight = maxBatchesInFlight;
+	}
+
+	/**
+	 * Loads every product in given delimited file. The file is memory-mapped and its delimiter is matched literally.
+	 *
+	 * @param path     File to load.
+	 * @param codec    Codec describing file's delimiter and expiration date format, not null.
+	 * @param listener Receiver of per-batch results, not null.
+	 * @return Totals of load.
+	 * @throws IOException                                 If file cannot be read.
+	 * @throws IllegalArgumentException                    If any record cannot be parsed.
+	 * @throws org.springframework.dao.DataAccessException If a batch fails for any reason other than duplicate numbers.
+	 */
+	public BulkLoadResult load(Path path, ProductCodec codec, BulkLoadListener listener) throws IOException {
+		MappedProductReader reader = new MappedProductReader(codec);
+		return load(action -> reader.read(path, action), listener);
+	}
+
+	/**
+	 * Loads every product in given stream. The stream is consumed lazily, in encounter order.
+	 *
+	 * @param products Products to load, not null.
+	 * @param listener Receiver of per-batch results, not null.
+	 * @return Totals of load.
+	 * @throws org.springframework.dao.DataAccessException If a batch fails for any reason other than duplicate numbers.
+	 */
+	public BulkLoadResult load(Stream<Product> products, BulkLoadListener listener) {
+		try {
+			return load(products::forEachOrdered, listener);
+		} catch(IOException e) {
+			throw new IllegalStateException("Stream source cannot throw IOException.", e);
+		}
+	}
+
+	private BulkLoadResult load(ProductSource source, BulkLoadListener listener) throws IOException {
+		long start = System.nanoTime();
+		Run run = new Run(listener);
+		try {
+			source.forEach(run::accept);
+			run.flush();
+		} finally {
+			run.drain();
+		}
+		return run.complete(System.nanoTime() - start);
+	}
+
+	/**
+	 * Writes one batch as an unordered bulk insert, separating duplicate-number rejections from real failures.
+	 */
+	BatchResult write(List<Product> batch, long sequence) {
+		long start = System.nanoTime();
+		BulkOperations operations = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class);
+		operations.insert(batch);
+		try {
+			BulkWriteResult writeResult = operations.execute();
+			inserted(batch);
+			return new BatchResult(sequence, batch.size(), writeResult.getInsertedCount(), new ArrayList<>(), System.nanoTime() - start);
+		} catch(BulkOperationException e) {
+			long latency = System.nanoTime() - start;
+			List<String> duplicates = new ArrayList<>();
+			BitSet rejected = new BitSet(batch.size());
+			for(BulkWriteError error : e.getErrors()) {
+				if(error.getCode() != DUPLICATE_KEY && error.getCode() != DUPLICATE_KEY_LEGACY)
+					throw e;
+				duplicates.add(batch.get(error.getIndex()).getNumber());
+				rejected.set(error.getIndex());
+			}
+			List<Product> inserted = new ArrayList<>(batch.size() - rejected.cardinality());
+			for(int i = rejected.nextClearBit(0); i < batch.size(); i = rejected.nextClearBit(i + 1)) {
+				inserted.add(batch.get(i));
+			}
+			inserted(inserted);
+			return new BatchResult(sequence, batch.size(), e.getResult().getInsertedCount(), duplicates, latency);
+		}
+	}
+
+	private void inserted(List<Product> products) {
+		if(products.isEmpty())
+			return;
+		for(BulkInsertListener listener : insertListeners) {
+			listener.productsInserted(products);
+		}
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public int getMaxBatchesInFlight() {
+		return maxBatchesInFlight;
+	}
+
+	public List<BulkInsertListener> getInsertListeners() {
+		return Collections.unmodifiableList(insertListeners);
+	}
+
+	/**
+	 * State of a single load: the batch being filled and the batches being written.
+	 */
+	private class Run {
+		private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+		private final BulkLoadListener listener;
+		private final Semaphore permits = new Semaphore(maxBatchesInFlight);
+		private final BulkLoadResult result = new BulkLoadResult();
+		private final ExecutorService writers = Executors.newFixedThreadPool(maxBatchesInFlight);
+		private List<Product> batch = new ArrayList<>(batchSize);
+		private long readCount;
+		private long sequence;
+
+		private Run(BulkLoadListener listener) {
+			this.listener = listener;
+		}
+
+		private void accept(Product product) {
+			readCount++;
+			batch.add(product);
+			if(batch.size() == batchSize)
+				flush();
+		}
+
+		/**
+		 * Hands the current batch to a writer, blocking while {@code maxBatchesInFlight} batches are outstanding.
+		 */
+		private void flush() {
+			if(batch.isEmpty())
+				return;
+			List<Product> full = batch;
+			long batchSequence = sequence++;
+			batch = new ArrayList<>(batchSize);
+
+			permits.acquireUninterruptibly();
+			if(failure.get() != null) {
+				permits.release();
+				throw failure.get();
+			}
+			writers.execute(() -> {
+				try {
+					BatchResult batchResult = write(full, batchSequence);
+					result.add(batchResult);
+					listener.batchCompleted(batchResult);
+				} catch(RuntimeException e) {
+					failure.compareAndSet(null, e);
+				} finally {
+					permits.release();
+				}
+			});
+		}
+
+		private void drain() {
+			permits.acquireUninterruptibly(maxBatchesInFlight);
+			writers.shutdown();
+		}
+
+		private BulkLoadResult complete(long elapsedNanos) {
+			if(failure.get() != null)
+				throw failure.get();
+			result.complete(readCount, elapsedNanos);
+			return result;
+		}
+	}
+
+	/**
+	 * Push-style source of products, so both streams and memory-mapped files can feed the loader.
+	 */
+	@FunctionalInterface
+	private interface ProductSource {
+		void forEach(Consumer<Product> action) throws IOException;
+	}
+}
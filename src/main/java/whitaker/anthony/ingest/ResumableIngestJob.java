@@ -0,0 +1,197 @@
+package whitaker.anthony.ingest;
+
+import whitaker.anthony.io.LineVisitor;
+import whitaker.anthony.io.MappedProductReader;
+import whitaker.anthony.io.ProductLineParser;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads a delimited product file into MongoDB in batches, recording a checkpoint after every batch so that a failed load can be
+ * restarted where it stopped instead of from the beginning.
+ * <p>
+ * Lines that cannot be parsed do not stop the load; they are appended to a reject file as {@code reason<TAB>line}. A restart
+ * resumes at the checkpointed offset and trims the reject file back to its checkpointed size, so no line is reparsed, reinserted
+ * or rejected twice. If the job dies between a batch being written and its checkpoint being stored, that one batch is written
+ * again on restart; its products then collide on the unique number index and are counted as duplicates rather than inserted twice.
+ */
+public class ResumableIngestJob {
+
+	private final Path checkpointFile;
+	private final ProductCodec codec;
+	private final Path dataFile;
+	private final ProductBulkLoader loader;
+	private final Path rejectFile;
+
+	/**
+	 * Constructs a ResumableIngestJob keeping its checkpoint and rejects next to the data file,
+	 * as {@code <dataFile>.checkpoint} and {@code <dataFile>.rejects}.
+	 *
+	 * @param loader   Loader used to write batches. Its batch size sets how often a checkpoint is taken, not null.
+	 * @param codec    Codec describing data file's delimiter and expiration date format. The delimiter is matched literally, not null.
+	 * @param dataFile File to load, not null.
+	 * @throws IllegalArgumentException If any parameters are null.
+	 */
+	public ResumableIngestJob(ProductBulkLoader loader, ProductCodec codec, Path dataFile) {
+		this(loader, codec, dataFile,
+				dataFile == null ? null : Paths.get(dataFile + ".checkpoint"),
+				dataFile == null ? null : Paths.get(dataFile + ".rejects"));
+	}
+
+	/**
+	 * Constructs a ResumableIngestJob.
+	 *
+	 * @param loader         Loader used to write batches. Its batch size sets how often a checkpoint is taken, not null.
+	 * @param codec          Codec describing data file's delimiter and expiration date format. The delimiter is matched literally, not null.
+	 * @param dataFile       File to load, not null.
+	 * @param checkpointFile File holding progress; created on first run, not null.
+	 * @param rejectFile     File receiving lines that could not be parsed, not null.
+	 * @throws IllegalArgumentException If any parameters are null.
+	 */
+	public ResumableIngestJob(ProductBulkLoader loader, ProductCodec codec, Path dataFile, Path checkpointFile, Path rejectFile) {
+		if(loader == null || codec == null || dataFile == null || checkpointFile == null || rejectFile == null)
+			throw new IllegalArgumentException("Parameters to ResumableIngestJob constructor cannot be null.");
+		this.loader = loader;
+		this.codec = codec;
+		this.dataFile = dataFile;
+		this.checkpointFile = checkpointFile;
+		this.rejectFile = rejectFile;
+	}
+
+	/**
+	 * Runs the job from its last checkpoint, or from the start if there is none. Does nothing if a previous run completed.
+	 *
+	 * @return Final checkpoint, marked complete.
+	 * @throws IOException                                 If any file cannot be read or written.
+	 * @throws IllegalStateException                       If the data file has changed size since the checkpoint was taken.
+	 * @throws org.springframework.dao.DataAccessException If a batch fails for any reason other than duplicate numbers.
+	 *                                                     Progress up to the previous batch is kept.
+	 */
+	public IngestCheckpoint run() throws IOException {
+		long dataFileSize = Files.size(dataFile);
+		IngestCheckpoint checkpoint = Files.exists(checkpointFile) ? IngestCheckpoint.load(checkpointFile) : IngestCheckpoint.start(dataFileSize);
+		if(checkpoint.isComplete())
+			return checkpoint;
+		if(checkpoint.getDataFileSize() != dataFileSize)
+			throw new IllegalStateException("\"" + dataFile + "\" has changed since checkpoint " + checkpoint + " was taken.");
+
+		truncateRejects(checkpoint.getRejectFileSize());
+		try(Writer rejects = new BufferedWriter(new OutputStreamWriter(
+				Files.newOutputStream(rejectFile, StandardOpenOption.CREATE, StandardOpenOption.APPEND), StandardCharsets.UTF_8))) {
+			Run run = new Run(checkpoint, rejects);
+			try {
+				MappedProductReader.scan(dataFile, checkpoint.getOffset(), run);
+			} catch(UncheckedIOException e) {
+				throw e.getCause();
+			}
+			return run.commit(true);
+		}
+	}
+
+	private void truncateRejects(long size) throws IOException {
+		try(FileChannel channel = FileChannel.open(rejectFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			channel.truncate(size);
+		}
+	}
+
+	public Path getCheckpointFile() {
+		return checkpointFile;
+	}
+
+	public Path getRejectFile() {
+		return rejectFile;
+	}
+
+	/**
+	 * State of a single run: the batch being filled and the counts since the last checkpoint.
+	 */
+	private class Run implements LineVisitor {
+		private final List<Product> batch = new ArrayList<>(loader.getBatchSize());
+		private final ProductLineParser parser = new ProductLineParser(codec);
+		private final Writer rejects;
+		private IngestCheckpoint checkpoint;
+		private long lineCount;
+		private long offset;
+		private long rejectedCount;
+		private long sequence;
+
+		private Run(IngestCheckpoint checkpoint, Writer rejects) {
+			this.checkpoint = checkpoint;
+			this.rejects = rejects;
+			this.offset = checkpoint.getOffset();
+			this.lineCount = checkpoint.getLineCount();
+			this.rejectedCount = checkpoint.getRejectedCount();
+		}
+
+		@Override
+		public void visit(ByteBuffer buffer, int start, int end, long nextOffset) {
+			lineCount++;
+			offset = nextOffset;
+			try {
+				batch.add(parser.parse(buffer, start, end));
+			} catch(IllegalArgumentException | DateTimeException e) {
+				reject(e.getMessage(), buffer, start, end);
+			}
+			if(batch.size() == loader.getBatchSize()) {
+				try {
+					commit(false);
+				} catch(IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		}
+
+		private void reject(String reason, ByteBuffer buffer, int start, int end) {
+			byte[] line = new byte[end - start];
+			for(int i = 0; i < line.length; i++) {
+				line[i] = buffer.get(start + i);
+			}
+			try {
+				rejects.write(reason.replace('\t', ' ').replace('\n', ' '));
+				rejects.write('\t');
+				rejects.write(new String(line, StandardCharsets.UTF_8));
+				rejects.write('\n');
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			rejectedCount++;
+		}
+
+		/**
+		 * Writes the current batch, then records everything up to {@code offset} as done.
+		 */
+		private IngestCheckpoint commit(boolean complete) throws IOException {
+			long inserted = 0;
+			long duplicates = 0;
+			if(!batch.isEmpty()) {
+				BatchResult result = loader.write(batch, sequence++);
+				inserted = result.getInsertedCount();
+				duplicates = result.getDuplicateNumbers().size();
+				batch.clear();
+			}
+			rejects.flush();
+
+			checkpoint = new IngestCheckpoint(checkpoint.getDataFileSize(), offset, lineCount,
+					checkpoint.getInsertedCount() + inserted, checkpoint.getDuplicateCount() + duplicates,
+					rejectedCount, Files.size(rejectFile), complete);
+			checkpoint.store(checkpointFile);
+			return checkpoint;
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package whitaker.anthony.inventory;
+
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.NameDictionary;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-memory inventory answering the same queries as {@link whitaker.anthony.repository.ProductRepository} without MongoDB.
+ * <p>
+ * Products are held in a {@link ProductStore} and found through a {@link ProductIndex} that is kept up to date as datasets are
+ * added and removed, and can be read in order through {@link SortedView}s. Like the repository's unique index, numbers must be
+ * unique. Once deleted rows outnumber both live rows and one store page, the store is compacted and the index and views rebuilt;
+ * the page minimum keeps small inventories from rebuilding on every few deletes. Not thread-safe.
+ */
+public class Inventory {
+
+	private final ProductIndex index;
+	private final ProductStore store;
+	private final List<SortedView> views = new ArrayList<>();
+
+	/**
+	 * Constructs an empty Inventory with its own name dictionary.
+	 */
+	public Inventory() {
+		this(new NameDictionary());
+	}
+
+	/**
+	 * Constructs an empty Inventory.
+	 *
+	 * @param nameDictionary Dictionary supplying shared name instances, not null.
+	 * @throws IllegalArgumentException If nameDictionary is null.
+	 */
+	public Inventory(NameDictionary nameDictionary) {
+		this.store = new ProductStore(nameDictionary);
+		this.index = new ProductIndex(store);
+	}
+
+	/**
+	 * Adds every given product. Either all are added or, if any number is already present, none are.
+	 *
+	 * @param items Products to add, not null.
+	 * @return Number of products added.
+	 * @throws IllegalArgumentException If items is null or contains null, or if any number is already present or repeated.
+	 */
+	public int addAll(Collection<? extends InventoryItem> items) {
+		if(items == null)
+			throw new IllegalArgumentException("Products cannot be null.");
+		Set<String> numbers = new HashSet<>(items.size() * 2);
+		for(InventoryItem item : items) {
+			if(item == null)
+				throw new IllegalArgumentException("Products cannot contain null.");
+			if(!numbers.add(item.getNumber()) || index.rowByNumber(item.getNumber()) >= 0)
+				throw new IllegalArgumentException("Duplicate product number \"" + item.getNumber() + "\".");
+		}
+		int[] rows = new int[items.size()];
+		int added = 0;
+		for(InventoryItem item : items) {
+			rows[added] = store.append(item);
+			index.rowAdded(rows[added++]);
+		}
+		views.forEach(view -> view.addRows(rows));
+		return added;
+	}
+
+	/**
+	 * Removes product with given number.
+	 *
+	 * @param number Number of product to remove.
+	 * @return true if a product was removed.
+	 */
+	public boolean remove(String number) {
+		int row = index.rowByNumber(number);
+		if(row < 0)
+			return false;
+		index.rowRemoved(row);
+		store.delete(row);
+		compactIfSparse();
+		return true;
+	}
+
+	/**
+	 * Removes every given product that is present, matching by number, e.g. to take back a dataset added earlier.
+	 *
+	 * @param items Products to remove, not null.
+	 * @return Number of products removed.
+	 * @throws IllegalArgumentException If items is null.
+	 */
+	public int removeAll(Collection<? extends InventoryItem> items) {
+		if(items == null)
+			throw new IllegalArgumentException("Products cannot be null.");
+		int removed = 0;
+		for(InventoryItem item : items) {
+			int row = index.rowByNumber(item.getNumber());
+			if(row >= 0) {
+				index.rowRemoved(row);
+				store.delete(row);
+				removed++;
+			}
+		}
+		compactIfSparse();
+		return removed;
+	}
+
+	/**
+	 * Removes every product of given category at once. The cost does not depend on how many products the category holds.
+	 *
+	 * @param category Category to remove, not null.
+	 * @return Number of products removed.
+	 * @throws IllegalArgumentException If category is null.
+	 */
+	public int removeCategory(Category category) {
+		int removed = store.deleteCategory(category);
+		index.categoryRemoved(category);
+		compactIfSparse();
+		return removed;
+	}
+
+	/**
+	 * Returns a view of this inventory ordered by given keys, kept sorted as products are added and removed.
+	 * Views stay registered for the life of the inventory, so create one per ordering and reuse it.
+	 *
+	 * @param keys Keys to order by, first key first, at least one.
+	 * @return Sorted view of this inventory.
+	 * @throws IllegalArgumentException If keys are null or empty.
+	 */
+	public SortedView sortedView(SortKey... keys) {
+		SortedView view = new SortedView(store, keys);
+		views.add(view);
+		return view;
+	}
+
+	public List<Product> findByCategory(Category category) {
+		return toProducts(index.rowsByCategory(category));
+	}
+
+	public List<Product> findByExpirationDate(LocalDate expirationDate) {
+		return toProducts(index.rowsByEpochDay(toEpochDay(expirationDate)));
+	}
+
+	/**
+	 * Returns products expiring between given dates, inclusive, ordered by expiration date.
+	 */
+	public List<Product> findByExpirationDateBetween(LocalDate from, LocalDate to) {
+		return toProducts(index.rowsByEpochDayBetween(toEpochDay(from), toEpochDay(to)));
+	}
+
+	public List<Product> findByName(String name) {
+		return toProducts(index.rowsByName(name));
+	}
+
+	/**
+	 * Returns products whose name starts with given prefix, ordered by name.
+	 */
+	public List<Product> findByNameStartingWith(String prefix) {
+		return toProducts(index.rowsByNameStartingWith(prefix));
+	}
+
+	/**
+	 * Returns product with given number, or null if there is none.
+	 */
+	public Product findByNumber(String number) {
+		int row = index.rowByNumber(number);
+		return row < 0 ? null : store.toProduct(row);
+	}
+
+	private void compactIfSparse() {
+		if(store.getRowCount() - store.size() > Math.max(store.size(), ProductStore.PAGE_SIZE)) {
+			store.compact();
+			index.rebuild();
+			views.forEach(SortedView::rebuild);
+		}
+	}
+
+	private List<Product> toProducts(int[] rows) {
+		List<Product> products = new ArrayList<>(rows.length);
+		for(int row : rows) {
+			products.add(store.toProduct(row));
+		}
+		return products;
+	}
+
+	private static int toEpochDay(LocalDate date) {
+		return Math.toIntExact(date.toEpochDay());
+	}
+
+	public ProductIndex getIndex() {
+		return index;
+	}
+
+	/**
+	 * Returns underlying store, for row-level iteration and sorting. Rows must not be appended or deleted through it directly.
+	 */
+	public ProductStore getStore() {
+		return store;
+	}
+
+	public int size() {
+		return store.size();
+	}
+}
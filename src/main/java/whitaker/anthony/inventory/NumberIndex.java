@@ -0,0 +1,126 @@
+package whitaker.anthony.inventory;
+
+import whitaker.anthony.model.ProductNumbers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hash index from product number to row of a {@link ProductStore}.
+ * <p>
+ * UUID numbers are looked up by their two longs in an open-addressing table of row numbers that reads the keys back from the
+ * store's columns, so the index holds one int per slot and no number Strings. Other numbers use a plain HashMap.
+ * Deleted rows are never found, so rows dropped in bulk with their category may stay in the index until it is cleared.
+ */
+class NumberIndex {
+
+	private static final int INITIAL_CAPACITY = 1 << 10;
+
+	private final Map<String, Integer> nonUuidRows = new HashMap<>();
+	/** Row + 1 per slot, 0 for an empty slot. */
+	private int[] slots = new int[INITIAL_CAPACITY];
+	private int size;
+	private final ProductStore store;
+
+	NumberIndex(ProductStore store) {
+		this.store = store;
+	}
+
+	/**
+	 * Returns row holding given number, or -1 if there is none.
+	 */
+	int find(String number) {
+		if(!ProductNumbers.isUuid(number)) {
+			Integer row = nonUuidRows.get(number);
+			return row == null || store.isDeleted(row) ? -1 : row;
+		}
+		long mostSignificantBits = ProductNumbers.mostSignificantBits(number);
+		long leastSignificantBits = ProductNumbers.leastSignificantBits(number);
+		int mask = slots.length - 1;
+		for(int slot = hash(mostSignificantBits, leastSignificantBits) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+			int row = slots[slot] - 1;
+			if(store.getNumberMostSignificantBits(row) == mostSignificantBits && store.getNumberLeastSignificantBits(row) == leastSignificantBits
+					&& store.hasUuidNumber(row) && !store.isDeleted(row))
+				return row;
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds given row under the number already stored in it. Caller ensures the number is not indexed yet.
+	 */
+	void add(int row) {
+		if(!store.hasUuidNumber(row)) {
+			// Replaces any deleted row still indexed under this number.
+			nonUuidRows.put(store.getNumber(row), row);
+			return;
+		}
+		if(++size * 2 > slots.length)
+			resize(slots.length * 2);
+		insert(row);
+	}
+
+	/**
+	 * Removes given row, which must have been added.
+	 */
+	void remove(int row) {
+		if(!store.hasUuidNumber(row)) {
+			nonUuidRows.remove(store.getNumber(row), row);
+			return;
+		}
+		int mask = slots.length - 1;
+		int slot = home(row);
+		while(slots[slot] != row + 1) {
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = 0;
+		size--;
+
+		// Shift back any later entry of the same probe run whose home slot is at or before the emptied slot.
+		for(int next = (slot + 1) & mask; slots[next] != 0; next = (next + 1) & mask) {
+			int nextHome = home(slots[next] - 1);
+			boolean movable = slot <= next ? nextHome <= slot || nextHome > next : nextHome <= slot && nextHome > next;
+			if(movable) {
+				slots[slot] = slots[next];
+				slots[next] = 0;
+				slot = next;
+			}
+		}
+	}
+
+	/**
+	 * Drops every entry, e.g. before re-adding rows renumbered by {@link ProductStore#compact()}.
+	 */
+	void clear() {
+		nonUuidRows.clear();
+		slots = new int[INITIAL_CAPACITY];
+		size = 0;
+	}
+
+	private void insert(int row) {
+		int mask = slots.length - 1;
+		int slot = home(row);
+		while(slots[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		slots[slot] = row + 1;
+	}
+
+	private void resize(int capacity) {
+		int[] old = slots;
+		slots = new int[capacity];
+		for(int entry : old) {
+			if(entry != 0)
+				insert(entry - 1);
+		}
+	}
+
+	private int home(int row) {
+		return hash(store.getNumberMostSignificantBits(row), store.getNumberLeastSignificantBits(row)) & (slots.length - 1);
+	}
+
+	private static int hash(long mostSignificantBits, long leastSignificantBits) {
+		long hash = (mostSignificantBits ^ leastSignificantBits * 0x9E3779B97F4A7C15L) * 0xC2B2AE3D27D4EB4FL;
+		return (int)(hash ^ hash >>> 32);
+	}
+}
@@ -0,0 +1,136 @@
+package whitaker.anthony.inventory;
+
+import whitaker.anthony.model.Category;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secondary indexes over the rows of a {@link ProductStore}: by category, by expiration day, by name (sorted) and by number.
+ * <p>
+ * Indexes are updated one row at a time as rows are added and removed. Category, day and name postings list rows in ascending
+ * row order; a removed row stays in those postings until the next {@link #rebuild()} and is skipped when read, so removing
+ * a row is cheap. Not thread-safe.
+ */
+public class ProductIndex {
+
+	private final Map<Category, RowBuffer> byCategory = new EnumMap<>(Category.class);
+	private final NavigableMap<Integer, RowBuffer> byEpochDay = new TreeMap<>();
+	private final NavigableMap<String, RowBuffer> byName = new TreeMap<>();
+	private final NumberIndex byNumber;
+	private final ProductStore store;
+
+	/**
+	 * Constructs a ProductIndex over every live row of given store.
+	 *
+	 * @param store Store to index, not null.
+	 * @throws IllegalArgumentException If store is null.
+	 */
+	public ProductIndex(ProductStore store) {
+		if(store == null)
+			throw new IllegalArgumentException("Parameters to ProductIndex constructor cannot be null.");
+		this.store = store;
+		this.byNumber = new NumberIndex(store);
+		rebuild();
+	}
+
+	/**
+	 * Indexes given row, which must be live and must not share its number with another indexed row.
+	 */
+	public void rowAdded(int row) {
+		byCategory.computeIfAbsent(store.getCategory(row), category -> new RowBuffer()).add(row);
+		byEpochDay.computeIfAbsent(store.getEpochDay(row), day -> new RowBuffer()).add(row);
+		byName.computeIfAbsent(store.getName(row), name -> new RowBuffer()).add(row);
+		byNumber.add(row);
+	}
+
+	/**
+	 * Unindexes given row, called before or after the row is deleted from the store.
+	 */
+	public void rowRemoved(int row) {
+		byNumber.remove(row);
+	}
+
+	/**
+	 * Unindexes every row of given category at once, called when the category is deleted from the store with
+	 * {@link ProductStore#deleteCategory(Category)}. The category's number entries are skipped until the next rebuild.
+	 */
+	public void categoryRemoved(Category category) {
+		byCategory.remove(category);
+	}
+
+	/**
+	 * Rebuilds every index from the store's live rows, e.g. after {@link ProductStore#compact()} has renumbered them.
+	 */
+	public void rebuild() {
+		byCategory.clear();
+		byEpochDay.clear();
+		byName.clear();
+		byNumber.clear();
+		store.forEachRow(this::rowAdded);
+	}
+
+	/**
+	 * Returns live rows of given category, in row order.
+	 */
+	public int[] rowsByCategory(Category category) {
+		return live(byCategory.get(category), new RowBuffer()).toArray();
+	}
+
+	/**
+	 * Returns live rows expiring on given epoch day, in row order.
+	 */
+	public int[] rowsByEpochDay(int epochDay) {
+		return live(byEpochDay.get(epochDay), new RowBuffer()).toArray();
+	}
+
+	/**
+	 * Returns live rows expiring between given epoch days, inclusive, ordered by day then row.
+	 */
+	public int[] rowsByEpochDayBetween(int fromEpochDay, int toEpochDay) {
+		RowBuffer rows = new RowBuffer();
+		if(fromEpochDay <= toEpochDay)
+			byEpochDay.subMap(fromEpochDay, true, toEpochDay, true).values().forEach(postings -> live(postings, rows));
+		return rows.toArray();
+	}
+
+	/**
+	 * Returns live rows with given name, in row order.
+	 */
+	public int[] rowsByName(String name) {
+		return live(byName.get(name), new RowBuffer()).toArray();
+	}
+
+	/**
+	 * Returns live rows whose name starts with given prefix, ordered by name then row.
+	 */
+	public int[] rowsByNameStartingWith(String prefix) {
+		RowBuffer rows = new RowBuffer();
+		for(Map.Entry<String, RowBuffer> entry : byName.tailMap(prefix, true).entrySet()) {
+			if(!entry.getKey().startsWith(prefix))
+				break;
+			live(entry.getValue(), rows);
+		}
+		return rows.toArray();
+	}
+
+	/**
+	 * Returns live row holding given number, or -1 if there is none.
+	 */
+	public int rowByNumber(String number) {
+		return byNumber.find(number);
+	}
+
+	private RowBuffer live(RowBuffer postings, RowBuffer target) {
+		if(postings != null) {
+			for(int i = 0; i < postings.size(); i++) {
+				int row = postings.get(i);
+				if(!store.isDeleted(row))
+					target.add(row);
+			}
+		}
+		return target;
+	}
+}
@@ -0,0 +1,225 @@
+package whitaker.anthony.inventory;
+
+import whitaker.anthony.model.CompactProduct;
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.ProductNumbers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Stable sorts of products by one or more {@link SortKey}s that compare primitive keys instead of calling comparators.
+ * <p>
+ * Keys are extracted once into long arrays: category ordinal, epoch day, the rank of each name among the distinct names and a
+ * UUID number's two longs. The items are then ordered by a least-significant-digit radix sort over those keys, one counting
+ * pass per byte that actually varies, so sorting by category is a single pass and sorting by expiration date usually two.
+ * Composite orderings such as category then expiration date sort by the last key first; every pass is stable, so equal items
+ * keep their input order. Key extraction runs in parallel for large inputs.
+ */
+public final class ProductSorter {
+
+	/** Inputs smaller than this extract keys on the calling thread. */
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	private ProductSorter() {
+	}
+
+	/**
+	 * Returns a new List holding given items ordered by given keys, in priority order.
+	 *
+	 * @param items Items to sort, not null and without null elements.
+	 * @param keys  Keys to order by, first key first, at least one.
+	 * @return Sorted copy of items.
+	 * @throws IllegalArgumentException If items or keys are null or if no key is given.
+	 */
+	public static <T extends InventoryItem> List<T> sort(List<T> items, SortKey... keys) {
+		if(items == null)
+			throw new IllegalArgumentException("Items cannot be null.");
+		checkKeys(keys);
+		List<T> source = items instanceof RandomAccess ? items : new ArrayList<>(items);
+		int size = source.size();
+		List<long[]> columns = new ArrayList<>();
+		for(SortKey key : keys) {
+			switch(key) {
+				case CATEGORY:
+					columns.add(extract(size, i -> source.get(i).getCategory().ordinal()));
+					break;
+				case EXPIRATION_DATE:
+					columns.add(extract(size, i -> unsigned(epochDay(source.get(i)))));
+					break;
+				case NAME:
+					columns.add(ranks(size, i -> source.get(i).getName()));
+					break;
+				case NUMBER:
+					addNumberColumns(columns, size, i -> source.get(i).getNumber());
+					break;
+			}
+		}
+		int[] order = order(size, columns);
+		List<T> sorted = new ArrayList<>(size);
+		for(int position : order) {
+			sorted.add(source.get(position));
+		}
+		return sorted;
+	}
+
+	/**
+	 * Returns given rows of a store ordered by given keys, in priority order. Reads the store's columns directly.
+	 *
+	 * @param store Store holding rows, not null.
+	 * @param rows  Rows to sort, not null. Not modified.
+	 * @param keys  Keys to order by, first key first, at least one.
+	 * @return Sorted copy of rows.
+	 * @throws IllegalArgumentException If store, rows or keys are null or if no key is given.
+	 */
+	public static int[] sortRows(ProductStore store, int[] rows, SortKey... keys) {
+		if(store == null || rows == null)
+			throw new IllegalArgumentException("Store and rows cannot be null.");
+		checkKeys(keys);
+		int size = rows.length;
+		List<long[]> columns = new ArrayList<>();
+		for(SortKey key : keys) {
+			switch(key) {
+				case CATEGORY:
+					columns.add(extract(size, i -> store.getCategory(rows[i]).ordinal()));
+					break;
+				case EXPIRATION_DATE:
+					columns.add(extract(size, i -> unsigned(store.getEpochDay(rows[i]))));
+					break;
+				case NAME:
+					long[] nameRanks = nameIdRanks(store);
+					columns.add(extract(size, i -> nameRanks[store.getNameId(rows[i])]));
+					break;
+				case NUMBER:
+					if(IntStream.of(rows).allMatch(store::hasUuidNumber)) {
+						columns.add(extract(size, i -> store.getNumberMostSignificantBits(rows[i])));
+						columns.add(extract(size, i -> store.getNumberLeastSignificantBits(rows[i])));
+					}
+					else {
+						columns.add(ranks(size, i -> store.getNumber(rows[i])));
+					}
+					break;
+			}
+		}
+		int[] order = order(size, columns);
+		int[] sorted = new int[size];
+		for(int i = 0; i < size; i++) {
+			sorted[i] = rows[order[i]];
+		}
+		return sorted;
+	}
+
+	/**
+	 * Returns positions {@code 0..size-1} ordered by the given key columns, compared as unsigned longs, first column first.
+	 * Positions with equal keys keep their natural order.
+	 */
+	static int[] order(int size, List<long[]> columns) {
+		int[] order = new int[size];
+		Arrays.setAll(order, i -> i);
+		int[] buffer = new int[size];
+		int[] counts = new int[257];
+		for(int column = columns.size() - 1; column >= 0; column--) {
+			long[] keys = columns.get(column);
+			long varying = 0;
+			for(int i = 1; i < size; i++) {
+				varying |= keys[i] ^ keys[0];
+			}
+			for(int shift = 0; shift < Long.SIZE; shift += 8) {
+				if((varying >>> shift & 0xFF) == 0)
+					continue;
+				Arrays.fill(counts, 0);
+				for(int position : order) {
+					counts[(int)(keys[position] >>> shift & 0xFF) + 1]++;
+				}
+				for(int digit = 0; digit < 256; digit++) {
+					counts[digit + 1] += counts[digit];
+				}
+				for(int position : order) {
+					buffer[counts[(int)(keys[position] >>> shift & 0xFF)]++] = position;
+				}
+				int[] swap = order;
+				order = buffer;
+				buffer = swap;
+			}
+		}
+		return order;
+	}
+
+	private static void addNumberColumns(List<long[]> columns, int size, IntFunction<String> numbers) {
+		boolean allUuid = true;
+		for(int i = 0; i < size && allUuid; i++) {
+			allUuid = ProductNumbers.isUuid(numbers.apply(i));
+		}
+		if(allUuid) {
+			columns.add(extract(size, i -> ProductNumbers.mostSignificantBits(numbers.apply(i))));
+			columns.add(extract(size, i -> ProductNumbers.leastSignificantBits(numbers.apply(i))));
+		}
+		else {
+			columns.add(ranks(size, numbers));
+		}
+	}
+
+	/**
+	 * Returns, per position, the rank of its String among the distinct Strings in natural order.
+	 */
+	private static long[] ranks(int size, IntFunction<String> values) {
+		Map<String, Long> rankByValue = new HashMap<>();
+		for(int i = 0; i < size; i++) {
+			rankByValue.put(values.apply(i), 0L);
+		}
+		String[] distinct = rankByValue.keySet().toArray(new String[0]);
+		Arrays.sort(distinct);
+		for(int rank = 0; rank < distinct.length; rank++) {
+			rankByValue.put(distinct[rank], (long)rank);
+		}
+		return extract(size, i -> rankByValue.get(values.apply(i)));
+	}
+
+	/**
+	 * Returns, per name id of given store, the rank of its name among all of the store's names in natural order.
+	 */
+	private static long[] nameIdRanks(ProductStore store) {
+		Integer[] nameIds = new Integer[store.getNameCount()];
+		Arrays.setAll(nameIds, i -> i);
+		Arrays.sort(nameIds, (id1, id2) -> store.getNameForId(id1).compareTo(store.getNameForId(id2)));
+		long[] ranks = new long[nameIds.length];
+		for(int rank = 0; rank < nameIds.length; rank++) {
+			ranks[nameIds[rank]] = rank;
+		}
+		return ranks;
+	}
+
+	private static long[] extract(int size, KeyFunction key) {
+		long[] keys = new long[size];
+		IntStream positions = IntStream.range(0, size);
+		(size >= PARALLEL_THRESHOLD ? positions.parallel() : positions).forEach(i -> keys[i] = key.apply(i));
+		return keys;
+	}
+
+	private static int epochDay(InventoryItem item) {
+		return item instanceof CompactProduct ? ((CompactProduct)item).getEpochDay() : Math.toIntExact(item.getExpirationDate().toEpochDay());
+	}
+
+	/**
+	 * Maps a signed int onto a long whose unsigned order matches the int's signed order.
+	 */
+	private static long unsigned(int value) {
+		return (value ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+	}
+
+	private static void checkKeys(SortKey[] keys) {
+		if(keys == null || keys.length == 0)
+			throw new IllegalArgumentException("At least one sort key is required.");
+	}
+
+	@FunctionalInterface
+	private interface KeyFunction {
+		long apply(int position);
+	}
+}
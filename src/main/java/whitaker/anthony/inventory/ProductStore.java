@@ -0,0 +1,446 @@
+package whitaker.anthony.inventory;
+
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.CompactProduct;
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.NameDictionary;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductNumbers;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Columnar in-memory store of products.
+ * <p>
+ * Each field is held in its own primitive column: the number as two longs, the name as an id into the store's name table,
+ * the category as its ordinal and the expiration date as an epoch day. Rows are addressed by number, in append order, and
+ * can be filtered, deleted and iterated in any {@link RowComparator} order without building a Product per row. Columns grow
+ * in fixed-size pages, so appending never copies existing data and no single allocation grows with the store.
+ * <p>
+ * Deleting a row only marks it; {@link #compact()} reclaims deleted rows. {@link #deleteCategory(Category)} deletes a whole
+ * category in constant time by recording, per category, the row count below which that category's rows are deleted.
+ * Not thread-safe.
+ */
+public class ProductStore {
+
+	static final int PAGE_BITS = 16;
+	static final int PAGE_SIZE = 1 << PAGE_BITS;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+	private static final Category[] CATEGORIES = Category.values();
+
+	private byte[][] categories = new byte[0][];
+	/** Per category ordinal, rows of that category below this row are deleted. */
+	private final int[] categoryDeletedBefore = new int[CATEGORIES.length];
+	/** Per category ordinal, number of live rows. */
+	private final int[] categorySizes = new int[CATEGORIES.length];
+	private long[][] deleted = new long[0][];
+	private int deletedCount;
+	private int[][] epochDays = new int[0][];
+	private final NameDictionary nameDictionary;
+	private int[][] nameIds = new int[0][];
+	private final Map<String, Integer> nameIdsByName = new HashMap<>();
+	private final List<String> names = new ArrayList<>();
+	/** Numbers that are not canonical UUIDs, by row. Their UUID columns hold zero. */
+	private Map<Integer, String> nonUuidNumbers = new HashMap<>();
+	private long[][] numberLeastSignificantBits = new long[0][];
+	private long[][] numberMostSignificantBits = new long[0][];
+	private int rowCount;
+
+	/**
+	 * Constructs an empty ProductStore with its own name dictionary.
+	 */
+	public ProductStore() {
+		this(new NameDictionary());
+	}
+
+	/**
+	 * Constructs an empty ProductStore.
+	 *
+	 * @param nameDictionary Dictionary supplying shared name instances, e.g. one seeded with the product candidates, not null.
+	 * @throws IllegalArgumentException If nameDictionary is null.
+	 */
+	public ProductStore(NameDictionary nameDictionary) {
+		if(nameDictionary == null)
+			throw new IllegalArgumentException("Parameters to ProductStore constructor cannot be null.");
+		this.nameDictionary = nameDictionary;
+	}
+
+	/**
+	 * Appends given product as a new row.
+	 *
+	 * @param item Product to append, not null.
+	 * @return Row number of appended product.
+	 * @throws IllegalArgumentException If item is null.
+	 * @throws IllegalStateException    If store is full.
+	 */
+	public int append(InventoryItem item) {
+		if(item == null)
+			throw new IllegalArgumentException("Product cannot be null.");
+		if(rowCount == Integer.MAX_VALUE)
+			throw new IllegalStateException("ProductStore is full.");
+		int row = rowCount;
+		int page = row >>> PAGE_BITS;
+		if(page == categories.length)
+			addPage();
+		int index = row & PAGE_MASK;
+
+		String number = item.getNumber();
+		if(ProductNumbers.isUuid(number)) {
+			numberMostSignificantBits[page][index] = ProductNumbers.mostSignificantBits(number);
+			numberLeastSignificantBits[page][index] = ProductNumbers.leastSignificantBits(number);
+		}
+		else {
+			nonUuidNumbers.put(row, number);
+		}
+		nameIds[page][index] = nameId(item.getName());
+		categories[page][index] = (byte)item.getCategory().ordinal();
+		categorySizes[item.getCategory().ordinal()]++;
+		epochDays[page][index] = item instanceof CompactProduct
+				? ((CompactProduct)item).getEpochDay()
+				: Math.toIntExact(item.getExpirationDate().toEpochDay());
+		rowCount++;
+		return row;
+	}
+
+	/**
+	 * Appends every given product, in iteration order.
+	 *
+	 * @param items Products to append, not null.
+	 * @return Row number of first appended product; following products occupy the following rows.
+	 * @throws IllegalArgumentException If items is null or contains null.
+	 */
+	public int appendAll(Collection<? extends InventoryItem> items) {
+		if(items == null)
+			throw new IllegalArgumentException("Products cannot be null.");
+		int first = rowCount;
+		items.forEach(this::append);
+		return first;
+	}
+
+	/**
+	 * Marks given row deleted. Deleted rows are skipped by iteration and filtering.
+	 *
+	 * @param row Row to delete.
+	 * @return true if row was live and is now deleted.
+	 * @throws IndexOutOfBoundsException If row does not exist.
+	 */
+	public boolean delete(int row) {
+		if(isDeleted(row))
+			return false;
+		int index = row & PAGE_MASK;
+		deleted[row >>> PAGE_BITS][index >>> 6] |= 1L << index;
+		categorySizes[categories[row >>> PAGE_BITS][index]]--;
+		deletedCount++;
+		return true;
+	}
+
+	/**
+	 * Deletes every row of given category in constant time, regardless of how many rows it holds.
+	 * Rows of the category appended afterwards are live.
+	 *
+	 * @param category Category to delete, not null.
+	 * @return Number of rows deleted.
+	 * @throws IllegalArgumentException If category is null.
+	 */
+	public int deleteCategory(Category category) {
+		if(category == null)
+			throw new IllegalArgumentException("Category cannot be null.");
+		int ordinal = category.ordinal();
+		int count = categorySizes[ordinal];
+		categoryDeletedBefore[ordinal] = rowCount;
+		categorySizes[ordinal] = 0;
+		deletedCount += count;
+		return count;
+	}
+
+	/**
+	 * Deletes every live row matching given predicate.
+	 *
+	 * @param predicate Test applied to each live row number, not null.
+	 * @return Number of rows deleted.
+	 */
+	public int deleteIf(IntPredicate predicate) {
+		int[] count = new int[1];
+		forEachRow(row -> {
+			if(predicate.test(row) && delete(row))
+				count[0]++;
+		});
+		return count[0];
+	}
+
+	/**
+	 * Returns live rows matching given predicate, in row order.
+	 *
+	 * @param predicate Test applied to each live row number, not null.
+	 * @return Matching row numbers, ascending.
+	 */
+	public int[] filter(IntPredicate predicate) {
+		RowBuffer matches = new RowBuffer();
+		forEachRow(row -> {
+			if(predicate.test(row))
+				matches.add(row);
+		});
+		return matches.toArray();
+	}
+
+	/**
+	 * Hands every live row number to given action, in row order.
+	 *
+	 * @param action Receiver of row numbers, not null.
+	 */
+	public void forEachRow(IntConsumer action) {
+		for(int page = 0; page < deleted.length; page++) {
+			long[] deletedBits = deleted[page];
+			int base = page << PAGE_BITS;
+			int end = Math.min(PAGE_SIZE, rowCount - base);
+			byte[] categoryOrdinals = categories[page];
+			for(int index = 0; index < end; index++) {
+				if((deletedBits[index >>> 6] & 1L << index) == 0 && base + index >= categoryDeletedBefore[categoryOrdinals[index]])
+					action.accept(base + index);
+			}
+		}
+	}
+
+	/**
+	 * Returns every live row number, ordered by given comparator. Rows that compare equal keep their row order.
+	 *
+	 * @param comparator Order of rows, not null.
+	 * @return Ordered row numbers.
+	 */
+	public int[] sortedRows(RowComparator comparator) {
+		int[] rows = filter(row -> true);
+		RowSort.sort(rows, comparator);
+		return rows;
+	}
+
+	/**
+	 * Returns every live row number, ordered by given keys in priority order, using {@link ProductSorter}'s radix sort.
+	 * Rows with equal keys keep their row order.
+	 *
+	 * @param keys Keys to order by, first key first, at least one.
+	 * @return Ordered row numbers.
+	 */
+	public int[] sortedRows(SortKey... keys) {
+		return ProductSorter.sortRows(this, filter(row -> true), keys);
+	}
+
+	/**
+	 * Drops deleted rows, moving live rows down so that row numbers are again contiguous and in their previous relative order.
+	 * Row numbers obtained before compacting are no longer valid afterwards.
+	 *
+	 * @return Number of rows reclaimed.
+	 */
+	public int compact() {
+		int reclaimed = deletedCount;
+		if(reclaimed == 0)
+			return 0;
+		int[] target = new int[1];
+		Map<Integer, String> movedNumbers = new HashMap<>();
+		forEachRow(row -> {
+			int to = target[0]++;
+			String nonUuidNumber = nonUuidNumbers.get(row);
+			if(nonUuidNumber != null)
+				movedNumbers.put(to, nonUuidNumber);
+			if(to == row)
+				return;
+			int fromPage = row >>> PAGE_BITS, fromIndex = row & PAGE_MASK;
+			int toPage = to >>> PAGE_BITS, toIndex = to & PAGE_MASK;
+			numberMostSignificantBits[toPage][toIndex] = numberMostSignificantBits[fromPage][fromIndex];
+			numberLeastSignificantBits[toPage][toIndex] = numberLeastSignificantBits[fromPage][fromIndex];
+			nameIds[toPage][toIndex] = nameIds[fromPage][fromIndex];
+			categories[toPage][toIndex] = categories[fromPage][fromIndex];
+			epochDays[toPage][toIndex] = epochDays[fromPage][fromIndex];
+		});
+		rowCount = target[0];
+		nonUuidNumbers = movedNumbers;
+		deletedCount = 0;
+		Arrays.fill(categoryDeletedBefore, 0);
+
+		int pages = (rowCount + PAGE_MASK) >>> PAGE_BITS;
+		categories = Arrays.copyOf(categories, pages);
+		deleted = new long[pages][];
+		epochDays = Arrays.copyOf(epochDays, pages);
+		nameIds = Arrays.copyOf(nameIds, pages);
+		numberLeastSignificantBits = Arrays.copyOf(numberLeastSignificantBits, pages);
+		numberMostSignificantBits = Arrays.copyOf(numberMostSignificantBits, pages);
+		for(int page = 0; page < pages; page++) {
+			deleted[page] = new long[PAGE_SIZE / 64];
+		}
+		return reclaimed;
+	}
+
+	/**
+	 * Builds a Product from given row, e.g. for saving or printing.
+	 *
+	 * @param row Row to read.
+	 * @return A new Product holding row's fields.
+	 * @throws IndexOutOfBoundsException If row does not exist.
+	 */
+	public Product toProduct(int row) {
+		checkRow(row);
+		return new Product(getNumber(row), getName(row), getCategory(row), LocalDate.ofEpochDay(getEpochDay(row)));
+	}
+
+	/**
+	 * Returns the comparator matching given key, e.g. {@link #byName()} for {@link SortKey#NAME}.
+	 */
+	public RowComparator comparator(SortKey key) {
+		switch(key) {
+			case CATEGORY:
+				return byCategory();
+			case EXPIRATION_DATE:
+				return byExpirationDate();
+			case NAME:
+				return byName();
+			case NUMBER:
+				return byNumber();
+			default:
+				throw new IllegalArgumentException("Unknown sort key " + key + ".");
+		}
+	}
+
+	public RowComparator byCategory() {
+		return (row1, row2) -> Integer.compare(categories[row1 >>> PAGE_BITS][row1 & PAGE_MASK], categories[row2 >>> PAGE_BITS][row2 & PAGE_MASK]);
+	}
+
+	public RowComparator byExpirationDate() {
+		return (row1, row2) -> Integer.compare(getEpochDay(row1), getEpochDay(row2));
+	}
+
+	public RowComparator byName() {
+		return (row1, row2) -> {
+			int nameId1 = getNameId(row1);
+			int nameId2 = getNameId(row2);
+			return nameId1 == nameId2 ? 0 : names.get(nameId1).compareTo(names.get(nameId2));
+		};
+	}
+
+	/**
+	 * Orders rows the way {@code Product.BY_NUMBER} orders their number Strings.
+	 */
+	public RowComparator byNumber() {
+		return (row1, row2) -> {
+			if(!hasUuidNumber(row1) || !hasUuidNumber(row2))
+				return getNumber(row1).compareTo(getNumber(row2));
+			return ProductNumbers.compare(getNumberMostSignificantBits(row1), getNumberLeastSignificantBits(row1),
+					getNumberMostSignificantBits(row2), getNumberLeastSignificantBits(row2));
+		};
+	}
+
+	private int nameId(String name) {
+		Integer id = nameIdsByName.get(name);
+		if(id == null) {
+			id = names.size();
+			names.add(nameDictionary.intern(name));
+			nameIdsByName.put(names.get(id), id);
+		}
+		return id;
+	}
+
+	private void addPage() {
+		int pages = categories.length + 1;
+		categories = Arrays.copyOf(categories, pages);
+		categories[pages - 1] = new byte[PAGE_SIZE];
+		deleted = Arrays.copyOf(deleted, pages);
+		deleted[pages - 1] = new long[PAGE_SIZE / 64];
+		epochDays = Arrays.copyOf(epochDays, pages);
+		epochDays[pages - 1] = new int[PAGE_SIZE];
+		nameIds = Arrays.copyOf(nameIds, pages);
+		nameIds[pages - 1] = new int[PAGE_SIZE];
+		numberLeastSignificantBits = Arrays.copyOf(numberLeastSignificantBits, pages);
+		numberLeastSignificantBits[pages - 1] = new long[PAGE_SIZE];
+		numberMostSignificantBits = Arrays.copyOf(numberMostSignificantBits, pages);
+		numberMostSignificantBits[pages - 1] = new long[PAGE_SIZE];
+	}
+
+	private void checkRow(int row) {
+		if(row < 0 || row >= rowCount)
+			throw new IndexOutOfBoundsException("Row " + row + " does not exist.");
+	}
+
+	public boolean isDeleted(int row) {
+		checkRow(row);
+		int page = row >>> PAGE_BITS;
+		int index = row & PAGE_MASK;
+		return (deleted[page][index >>> 6] & 1L << index) != 0 || row < categoryDeletedBefore[categories[page][index]];
+	}
+
+	public Category getCategory(int row) {
+		return CATEGORIES[categories[row >>> PAGE_BITS][row & PAGE_MASK]];
+	}
+
+	/**
+	 * Returns number of live rows of given category.
+	 */
+	public int getCategorySize(Category category) {
+		return categorySizes[category.ordinal()];
+	}
+
+	public int getEpochDay(int row) {
+		return epochDays[row >>> PAGE_BITS][row & PAGE_MASK];
+	}
+
+	public String getName(int row) {
+		return names.get(getNameId(row));
+	}
+
+	/**
+	 * Returns id of given row's name. Ids are assigned in order of first appearance and never change.
+	 */
+	public int getNameId(int row) {
+		return nameIds[row >>> PAGE_BITS][row & PAGE_MASK];
+	}
+
+	/**
+	 * Returns name with given id.
+	 */
+	public String getNameForId(int nameId) {
+		return names.get(nameId);
+	}
+
+	public int getNameCount() {
+		return names.size();
+	}
+
+	public String getNumber(int row) {
+		String nonUuidNumber = nonUuidNumbers.isEmpty() ? null : nonUuidNumbers.get(row);
+		return nonUuidNumber != null ? nonUuidNumber : ProductNumbers.toNumber(getNumberMostSignificantBits(row), getNumberLeastSignificantBits(row));
+	}
+
+	public long getNumberLeastSignificantBits(int row) {
+		return numberLeastSignificantBits[row >>> PAGE_BITS][row & PAGE_MASK];
+	}
+
+	public long getNumberMostSignificantBits(int row) {
+		return numberMostSignificantBits[row >>> PAGE_BITS][row & PAGE_MASK];
+	}
+
+	/**
+	 * Returns true if given row's number is held in its UUID columns rather than as a String.
+	 */
+	public boolean hasUuidNumber(int row) {
+		return nonUuidNumbers.isEmpty() || !nonUuidNumbers.containsKey(row);
+	}
+
+	/**
+	 * Returns number of rows, including deleted rows. Valid row numbers are 0 to {@code getRowCount() - 1}.
+	 */
+	public int getRowCount() {
+		return rowCount;
+	}
+
+	/**
+	 * Returns number of live rows.
+	 */
+	public int size() {
+		return rowCount - deletedCount;
+	}
+}
@@ -0,0 +1,29 @@
+package whitaker.anthony.inventory;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of row numbers, so collecting rows does not box them.
+ */
+class RowBuffer {
+	private int[] rows = new int[16];
+	private int size;
+
+	void add(int row) {
+		if(size == rows.length)
+			rows = Arrays.copyOf(rows, rows.length + (rows.length >> 1));
+		rows[size++] = row;
+	}
+
+	int get(int index) {
+		return rows[index];
+	}
+
+	int[] toArray() {
+		return Arrays.copyOf(rows, size);
+	}
+
+	int size() {
+		return size;
+	}
+}
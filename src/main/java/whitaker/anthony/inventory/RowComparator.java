@@ -0,0 +1,32 @@
+package whitaker.anthony.inventory;
+
+/**
+ * Comparison of two rows of a {@link ProductStore} by row number, so rows can be ordered without building product objects.
+ */
+@FunctionalInterface
+public interface RowComparator {
+
+	/**
+	 * Compares the products held in two rows.
+	 *
+	 * @param row1 First row.
+	 * @param row2 Second row.
+	 * @return A negative integer, zero, or a positive integer as the first row orders before, equal to, or after the second.
+	 */
+	int compare(int row1, int row2);
+
+	/**
+	 * Returns a comparator that orders by this comparator, then by {@code other} where this one finds rows equal.
+	 *
+	 * @param other Comparator used to break ties, not null.
+	 * @return Composed comparator.
+	 */
+	default RowComparator thenComparing(RowComparator other) {
+		if(other == null)
+			throw new IllegalArgumentException("Parameters to thenComparing method cannot be null.");
+		return (row1, row2) -> {
+			int result = compare(row1, row2);
+			return result != 0 ? result : other.compare(row1, row2);
+		};
+	}
+}
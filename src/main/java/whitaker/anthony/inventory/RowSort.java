@@ -0,0 +1,54 @@
+package whitaker.anthony.inventory;
+
+/**
+ * Stable sort of row numbers by a {@link RowComparator}, done on the int array itself so no row is boxed.
+ */
+final class RowSort {
+
+	/** Runs shorter than this are insertion sorted. */
+	private static final int INSERTION_SORT_THRESHOLD = 32;
+
+	private RowSort() {
+	}
+
+	/**
+	 * Sorts given rows in place. Rows that compare equal keep their relative order.
+	 */
+	static void sort(int[] rows, RowComparator comparator) {
+		if(rows.length < 2)
+			return;
+		int[] buffer = rows.clone();
+		mergeSort(buffer, rows, 0, rows.length, comparator);
+	}
+
+	/**
+	 * Sorts {@code source[from, to)} into {@code target[from, to)}; both must hold the same rows on entry.
+	 */
+	private static void mergeSort(int[] source, int[] target, int from, int to, RowComparator comparator) {
+		if(to - from < INSERTION_SORT_THRESHOLD) {
+			for(int i = from + 1; i < to; i++) {
+				int row = target[i];
+				int j = i - 1;
+				while(j >= from && comparator.compare(target[j], row) > 0) {
+					target[j + 1] = target[j];
+					j--;
+				}
+				target[j + 1] = row;
+			}
+			return;
+		}
+		int middle = (from + to) >>> 1;
+		mergeSort(target, source, from, middle, comparator);
+		mergeSort(target, source, middle, to, comparator);
+		if(comparator.compare(source[middle - 1], source[middle]) <= 0) {
+			System.arraycopy(source, from, target, from, to - from);
+			return;
+		}
+		for(int i = from, left = from, right = middle; i < to; i++) {
+			if(right >= to || left < middle && comparator.compare(source[left], source[right]) <= 0)
+				target[i] = source[left++];
+			else
+				target[i] = source[right++];
+		}
+	}
+}
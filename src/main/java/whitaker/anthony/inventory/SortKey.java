@@ -0,0 +1,29 @@
+package whitaker.anthony.inventory;
+
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.Product;
+
+import java.util.Comparator;
+
+/**
+ * Orderings understood by {@link ProductSorter}, each matching one of the {@code Product.BY_*} comparators.
+ */
+public enum SortKey {
+	CATEGORY(Product.BY_CATEGORY),
+	EXPIRATION_DATE(Product.BY_EXPIRATION_DATE),
+	NAME(Product.BY_NAME),
+	NUMBER(Product.BY_NUMBER);
+
+	private final Comparator<InventoryItem> comparator;
+
+	SortKey(Comparator<InventoryItem> comparator) {
+		this.comparator = comparator;
+	}
+
+	/**
+	 * Returns comparator giving the same order as this key.
+	 */
+	public Comparator<InventoryItem> getComparator() {
+		return comparator;
+	}
+}
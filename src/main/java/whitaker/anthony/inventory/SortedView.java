@@ -0,0 +1,133 @@
+package whitaker.anthony.inventory;
+
+import whitaker.anthony.model.Product;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Rows of a {@link ProductStore} kept in {@link SortKey} order as batches of rows are added.
+ * <p>
+ * Each batch is radix sorted on its own and pushed as a sorted run. Runs are kept in decreasing size, each at least twice the
+ * next; a new run is merged with the runs before it only while that would be broken, so a row takes part in at most a
+ * logarithmic number of merges and adding a batch costs in proportion to the batch rather than to the whole view. Reading
+ * merges the few remaining runs on the fly. Deleted rows are skipped when read and dropped at the next merge that touches them.
+ * Rows that compare equal keep their row order. Not thread-safe.
+ */
+public class SortedView {
+
+	private final RowComparator comparator;
+	private final SortKey[] keys;
+	/** Sorted runs, largest first. */
+	private final List<int[]> runs = new ArrayList<>();
+	private final ProductStore store;
+
+	/**
+	 * Constructs a SortedView over every live row of given store.
+	 *
+	 * @param store Store holding rows, not null.
+	 * @param keys  Keys to order by, first key first, at least one.
+	 * @throws IllegalArgumentException If store or keys are null or if no key is given.
+	 */
+	public SortedView(ProductStore store, SortKey... keys) {
+		if(store == null || keys == null || keys.length == 0)
+			throw new IllegalArgumentException("Parameters to SortedView constructor cannot be null or empty.");
+		this.store = store;
+		this.keys = keys.clone();
+		RowComparator composed = store.comparator(keys[0]);
+		for(int i = 1; i < keys.length; i++) {
+			composed = composed.thenComparing(store.comparator(keys[i]));
+		}
+		this.comparator = composed.thenComparing(Integer::compare);
+		rebuild();
+	}
+
+	/**
+	 * Adds given rows, which must be newer than every row already in the view.
+	 *
+	 * @param rows Rows to add, in any order, not null.
+	 */
+	public void addRows(int[] rows) {
+		if(rows.length == 0)
+			return;
+		int[] run = ProductSorter.sortRows(store, rows, keys);
+		while(!runs.isEmpty() && runs.get(runs.size() - 1).length <= run.length * 2) {
+			run = merge(runs.remove(runs.size() - 1), run);
+		}
+		runs.add(run);
+	}
+
+	/**
+	 * Resorts view from the store's live rows, e.g. after {@link ProductStore#compact()} has renumbered them.
+	 */
+	public void rebuild() {
+		runs.clear();
+		addRows(store.filter(row -> true));
+	}
+
+	/**
+	 * Hands every live row to given action, in view order.
+	 *
+	 * @param action Receiver of row numbers, not null.
+	 */
+	public void forEachRow(IntConsumer action) {
+		int runCount = runs.size();
+		int[] positions = new int[runCount];
+		while(true) {
+			int best = -1;
+			for(int run = 0; run < runCount; run++) {
+				int[] rows = runs.get(run);
+				while(positions[run] < rows.length && store.isDeleted(rows[positions[run]])) {
+					positions[run]++;
+				}
+				if(positions[run] < rows.length && (best < 0 || comparator.compare(rows[positions[run]], runs.get(best)[positions[best]]) < 0))
+					best = run;
+			}
+			if(best < 0)
+				return;
+			action.accept(runs.get(best)[positions[best]++]);
+		}
+	}
+
+	/**
+	 * Returns every live row, in view order.
+	 */
+	public int[] rows() {
+		RowBuffer rows = new RowBuffer();
+		forEachRow(rows::add);
+		return rows.toArray();
+	}
+
+	/**
+	 * Returns a Product for every live row, in view order.
+	 */
+	public List<Product> products() {
+		List<Product> products = new ArrayList<>();
+		forEachRow(row -> products.add(store.toProduct(row)));
+		return products;
+	}
+
+	/**
+	 * Merges two sorted runs, dropping deleted rows. Rows of {@code older} win ties, keeping row order.
+	 */
+	private int[] merge(int[] older, int[] newer) {
+		RowBuffer merged = new RowBuffer();
+		int i = 0;
+		int j = 0;
+		while(i < older.length || j < newer.length) {
+			int row;
+			if(j >= newer.length || i < older.length && comparator.compare(older[i], newer[j]) <= 0)
+				row = older[i++];
+			else
+				row = newer[j++];
+			if(!store.isDeleted(row))
+				merged.add(row);
+		}
+		return merged.toArray();
+	}
+
+	int getRunCount() {
+		return runs.size();
+	}
+}
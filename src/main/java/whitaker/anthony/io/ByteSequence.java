@@ -0,0 +1,51 @@
+package whitaker.anthony.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reusable CharSequence view over a range of single-byte characters in a buffer. Lets ASCII fields be handed to text parsers
+ * without decoding them into a String first.
+ */
+class ByteSequence implements CharSequence {
+	private ByteBuffer buffer;
+	private int start;
+	private int end;
+
+	/**
+	 * Points this view at the bytes of {@code buffer} between {@code start} (inclusive) and {@code end} (exclusive).
+	 *
+	 * @return This view.
+	 */
+	ByteSequence reset(ByteBuffer buffer, int start, int end) {
+		this.buffer = buffer;
+		this.start = start;
+		this.end = end;
+		return this;
+	}
+
+	@Override
+	public int length() {
+		return end - start;
+	}
+
+	@Override
+	public char charAt(int index) {
+		if(index < 0 || index >= length())
+			throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length());
+		return (char)(buffer.get(start + index) & 0xFF);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return toString().subSequence(start, end);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(length());
+		for(int i = start; i < end; i++) {
+			builder.append((char)(buffer.get(i) & 0xFF));
+		}
+		return builder.toString();
+	}
+}
@@ -0,0 +1,20 @@
+package whitaker.anthony.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receives raw lines found while scanning a file, together with where the next line starts.
+ */
+@FunctionalInterface
+public interface LineVisitor {
+
+	/**
+	 * Called once per line, in file order.
+	 *
+	 * @param buffer     Buffer holding line. Only valid for the duration of the call.
+	 * @param start      Absolute index of first byte of line in buffer.
+	 * @param end        Absolute index one past last byte of line, excluding its terminator.
+	 * @param nextOffset File offset at which the following line starts.
+	 */
+	void visit(ByteBuffer buffer, int start, int end, long nextOffset);
+}
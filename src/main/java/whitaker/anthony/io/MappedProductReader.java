@@ -0,0 +1,144 @@
+package whitaker.anthony.io;
+
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Reads delimited product files by memory-mapping them and scanning their bytes for line terminators and delimiters.
+ * <p>
+ * Files larger than a single mapping are read through consecutive windows; a record straddling the end of a window is re-read
+ * at the start of the next one. Lines may end with {@code \n} or {@code \r\n}.
+ */
+public class MappedProductReader {
+
+	/** Largest region a single MappedByteBuffer can address. */
+	static final long MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+
+	private final ProductCodec codec;
+	private final long windowSize;
+
+	/**
+	 * Constructs a MappedProductReader.
+	 *
+	 * @param delimiter            Delimiter between product fields, matched literally, not null.
+	 * @param expirationDateFormat Date format of expiration date, not null.
+	 * @param expirationDateLocale Locale of expiration date, not null.
+	 * @throws IllegalArgumentException If any parameters are null or if {@code expirationDateFormat} is invalid.
+	 */
+	public MappedProductReader(String delimiter, String expirationDateFormat, Locale expirationDateLocale) {
+		this(ProductCodec.of(delimiter, expirationDateFormat, expirationDateLocale), MAX_WINDOW_SIZE);
+	}
+
+	/**
+	 * Constructs a MappedProductReader using the delimiter and date format of given codec. The delimiter is matched literally.
+	 *
+	 * @param codec Codec supplying delimiter and expiration date format, not null.
+	 * @throws IllegalArgumentException If codec is null or if its delimiter is empty.
+	 */
+	public MappedProductReader(ProductCodec codec) {
+		this(codec, MAX_WINDOW_SIZE);
+	}
+
+	MappedProductReader(ProductCodec codec, long windowSize) {
+		new ProductLineParser(codec); // Fail fast on invalid arguments.
+		if(windowSize < 1 || windowSize > MAX_WINDOW_SIZE)
+			throw new IllegalArgumentException("Invalid window size.");
+		this.codec = codec;
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Parses every record in the given file, in file order, into a List.
+	 *
+	 * @param path File to read.
+	 * @return Products contained in file.
+	 * @throws IOException              If file cannot be read.
+	 * @throws IllegalArgumentException If any record cannot be parsed.
+	 */
+	public List<Product> readAll(Path path) throws IOException {
+		List<Product> products = new ArrayList<>();
+		read(path, products::add);
+		return products;
+	}
+
+	/**
+	 * Parses every record in the given file, in file order, handing each Product to {@code action} as soon as it is parsed.
+	 *
+	 * @param path   File to read.
+	 * @param action Receiver of parsed products.
+	 * @throws IOException              If file cannot be read.
+	 * @throws IllegalArgumentException If any record cannot be parsed or if a single record does not fit in one mapping window.
+	 */
+	public void read(Path path, Consumer<? super Product> action) throws IOException {
+		ProductLineParser parser = new ProductLineParser(codec);
+		scan(path, 0, windowSize, (buffer, start, end, nextOffset) -> action.accept(parser.parse(buffer, start, end)));
+	}
+
+	/**
+	 * Hands every line of given file, starting at {@code fromOffset}, to {@code visitor} without parsing it.
+	 * Lets callers resume part way through a file and track how far they have got.
+	 *
+	 * @param path       File to read.
+	 * @param fromOffset Offset of first line to visit; must be 0 or the start of a line.
+	 * @param visitor    Receiver of lines.
+	 * @throws IOException              If file cannot be read.
+	 * @throws IllegalArgumentException If offset is outside file or if a single line does not fit in one mapping window.
+	 */
+	public static void scan(Path path, long fromOffset, LineVisitor visitor) throws IOException {
+		scan(path, fromOffset, MAX_WINDOW_SIZE, visitor);
+	}
+
+	static void scan(Path path, long fromOffset, long windowSize, LineVisitor visitor) throws IOException {
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if(fromOffset < 0 || fromOffset > size)
+				throw new IllegalArgumentException("Offset " + fromOffset + " is outside \"" + path + "\".");
+			long windowStart = fromOffset;
+			while(windowStart < size) {
+				long length = Math.min(windowSize, size - windowStart);
+				boolean lastWindow = windowStart + length == size;
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, length);
+				int consumed = readLines(buffer, (int)length, lastWindow, windowStart, visitor);
+				if(consumed == 0)
+					throw new IllegalArgumentException("Record at byte " + windowStart + " of \"" + path + "\" exceeds mapping window size.");
+				windowStart += consumed;
+			}
+		}
+	}
+
+	/**
+	 * Visits every complete line in the first {@code length} bytes of {@code buffer}.
+	 *
+	 * @param baseOffset File offset of first byte of buffer.
+	 * @return Number of bytes consumed; a trailing partial line is left unconsumed unless {@code lastWindow} is set.
+	 */
+	static int readLines(ByteBuffer buffer, int length, boolean lastWindow, long baseOffset, LineVisitor visitor) {
+		int lineStart = 0;
+		for(int i = 0; i < length; i++) {
+			if(buffer.get(i) == '\n') {
+				visitor.visit(buffer, lineStart, trimCarriageReturn(buffer, lineStart, i), baseOffset + i + 1);
+				lineStart = i + 1;
+			}
+		}
+		if(lastWindow && lineStart < length) {
+			visitor.visit(buffer, lineStart, trimCarriageReturn(buffer, lineStart, length), baseOffset + length);
+			lineStart = length;
+		}
+		return lineStart;
+	}
+
+	private static int trimCarriageReturn(ByteBuffer buffer, int lineStart, int lineEnd) {
+		return lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+	}
+}
@@ -0,0 +1,196 @@
+package whitaker.anthony.io;
+
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Reads a single delimited product file on several cores.
+ * <p>
+ * The file is divided into byte ranges whose boundaries are moved forward to the next line start, so every range holds whole
+ * records. Ranges are memory-mapped and parsed independently on a dedicated fork-join pool, each with its own
+ * {@link ProductLineParser}. Results are returned either in file order or in whatever order the ranges complete.
+ */
+public class ParallelProductReader {
+
+	/** Ranges smaller than this are not worth a task of their own. */
+	static final long DEFAULT_MIN_CHUNK_SIZE = 1 << 20;
+	/** Ranges per worker, so that workers finishing early can steal remaining work. */
+	private static final int CHUNKS_PER_THREAD = 4;
+
+	private final ProductCodec codec;
+	private final int parallelism;
+	private final long minChunkSize;
+
+	/**
+	 * Constructs a ParallelProductReader that uses one worker per available processor.
+	 *
+	 * @param codec Codec supplying delimiter and expiration date format. The delimiter is matched literally, not null.
+	 * @throws IllegalArgumentException If codec is null or if its delimiter is empty.
+	 */
+	public ParallelProductReader(ProductCodec codec) {
+		this(codec, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a ParallelProductReader.
+	 *
+	 * @param codec       Codec supplying delimiter and expiration date format. The delimiter is matched literally, not null.
+	 * @param parallelism Number of worker threads, at least 1.
+	 * @throws IllegalArgumentException If codec is null, if its delimiter is empty or if parallelism is less than 1.
+	 */
+	public ParallelProductReader(ProductCodec codec, int parallelism) {
+		this(codec, parallelism, DEFAULT_MIN_CHUNK_SIZE);
+	}
+
+	ParallelProductReader(ProductCodec codec, int parallelism, long minChunkSize) {
+		new ProductLineParser(codec); // Fail fast on invalid arguments.
+		if(parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be at least 1.");
+		if(minChunkSize < 1)
+			throw new IllegalArgumentException("Invalid chunk size.");
+		this.codec = codec;
+		this.parallelism = parallelism;
+		this.minChunkSize = minChunkSize;
+	}
+
+	/**
+	 * Parses every record in the given file.
+	 *
+	 * @param path          File to read.
+	 * @param preserveOrder If true, products are returned in file order. If false, they are returned in no particular order,
+	 *                      which saves reassembling the ranges.
+	 * @return Products contained in file.
+	 * @throws IOException              If file cannot be read.
+	 * @throws IllegalArgumentException If any record cannot be parsed or if a single record is larger than a mapping window.
+	 */
+	public List<Product> readAll(Path path, boolean preserveOrder) throws IOException {
+		try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long[] boundaries = chunkBoundaries(channel);
+			int chunks = boundaries.length - 1;
+			if(chunks == 0)
+				return new ArrayList<>();
+
+			List<List<Product>> results = new ArrayList<>(Collections.nCopies(chunks, null));
+			List<Product> unordered = Collections.synchronizedList(new ArrayList<>());
+			ForkJoinPool pool = new ForkJoinPool(parallelism);
+			try {
+				pool.invoke(new ChunkTask(channel, boundaries, 0, chunks, preserveOrder ? results : null, unordered));
+			} catch(UncheckedIOException e) {
+				throw e.getCause();
+			} finally {
+				pool.shutdown();
+			}
+
+			if(!preserveOrder)
+				return unordered;
+			List<Product> products = new ArrayList<>(results.stream().mapToInt(List::size).sum());
+			results.forEach(products::addAll);
+			return products;
+		}
+	}
+
+	/**
+	 * Splits the file into ranges that each start at the beginning of a line.
+	 *
+	 * @return Ascending offsets where {@code [boundaries[i], boundaries[i + 1])} is range i; first is 0 and last is file size.
+	 */
+	long[] chunkBoundaries(FileChannel channel) throws IOException {
+		long size = channel.size();
+		long chunkCount = Math.max(1, Math.min(size / minChunkSize, (long)parallelism * CHUNKS_PER_THREAD));
+		chunkCount = Math.max(chunkCount, (size + MappedProductReader.MAX_WINDOW_SIZE / 2 - 1) / (MappedProductReader.MAX_WINDOW_SIZE / 2));
+		long nominalSize = size / chunkCount;
+
+		List<Long> boundaries = new ArrayList<>();
+		boundaries.add(0L);
+		ByteBuffer probe = ByteBuffer.allocate(8192);
+		for(long i = 1; i < chunkCount && size > 0; i++) {
+			long boundary = nextLineStart(channel, Math.max(i * nominalSize, boundaries.get(boundaries.size() - 1)), size, probe);
+			if(boundary >= size)
+				break;
+			if(boundary > boundaries.get(boundaries.size() - 1))
+				boundaries.add(boundary);
+		}
+		if(size > 0)
+			boundaries.add(size);
+		return boundaries.stream().mapToLong(Long::longValue).toArray();
+	}
+
+	/**
+	 * Returns the offset just past the first line terminator at or after {@code from - 1}, so an offset already at a line start is kept.
+	 */
+	private static long nextLineStart(FileChannel channel, long from, long size, ByteBuffer probe) throws IOException {
+		long position = from - 1;
+		while(position < size) {
+			probe.clear();
+			int read = channel.read(probe, position);
+			if(read <= 0)
+				break;
+			for(int i = 0; i < read; i++) {
+				if(probe.get(i) == '\n')
+					return position + i + 1;
+			}
+			position += read;
+		}
+		return size;
+	}
+
+	private class ChunkTask extends RecursiveAction {
+		private final long[] boundaries;
+		private final FileChannel channel;
+		private final int from;
+		private final List<List<Product>> ordered;
+		private final int to;
+		private final List<Product> unordered;
+
+		private ChunkTask(FileChannel channel, long[] boundaries, int from, int to, List<List<Product>> ordered, List<Product> unordered) {
+			this.channel = channel;
+			this.boundaries = boundaries;
+			this.from = from;
+			this.to = to;
+			this.ordered = ordered;
+			this.unordered = unordered;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ChunkTask(channel, boundaries, from, middle, ordered, unordered),
+						new ChunkTask(channel, boundaries, middle, to, ordered, unordered));
+				return;
+			}
+
+			List<Product> products = parseChunk(boundaries[from], boundaries[to]);
+			if(ordered != null)
+				ordered.set(from, products);
+			else
+				unordered.addAll(products);
+		}
+
+		private List<Product> parseChunk(long start, long end) {
+			List<Product> products = new ArrayList<>();
+			try {
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+				ProductLineParser parser = new ProductLineParser(codec);
+				MappedProductReader.readLines(buffer, (int)(end - start), true, start,
+						(chunk, lineStart, lineEnd, nextOffset) -> products.add(parser.parse(chunk, lineStart, lineEnd)));
+			} catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return products;
+		}
+	}
+}
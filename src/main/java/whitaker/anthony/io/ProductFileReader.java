@@ -0,0 +1,161 @@
+package whitaker.anthony.io;
+
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads delimited product files as a stream, plain or GZIP compressed, in the format {@link ProductFileWriter} writes.
+ * <p>
+ * Unlike {@link MappedProductReader}, which needs a file it can map, this reads through one reusable byte buffer: lines are
+ * parsed straight from the buffer with a {@link ProductLineParser} and a trailing partial line is moved to the front before the
+ * next read. Compressed files are recognised by their GZIP header rather than their name. Lines may end with {@code \n} or
+ * {@code \r\n}.
+ */
+public class ProductFileReader {
+
+	static final int BUFFER_SIZE = 1 << 16;
+	private static final int GZIP_MAGIC_1 = 0x1f;
+	private static final int GZIP_MAGIC_2 = 0x8b;
+
+	private final ProductCodec codec;
+
+	/**
+	 * Constructs a ProductFileReader using the delimiter and date format of given codec. The delimiter is matched literally.
+	 *
+	 * @param codec Codec supplying delimiter and expiration date format, not null.
+	 * @throws IllegalArgumentException If codec is null or if its delimiter is empty.
+	 */
+	public ProductFileReader(ProductCodec codec) {
+		new ProductLineParser(codec); // Fail fast on invalid arguments.
+		this.codec = codec;
+	}
+
+	/**
+	 * Parses every record in the given file, in file order, into a List.
+	 *
+	 * @param path File to read, plain or GZIP compressed.
+	 * @return Products contained in file.
+	 * @throws IOException              If file cannot be read or decompressed.
+	 * @throws IllegalArgumentException If any record cannot be parsed.
+	 */
+	public List<Product> readAll(Path path) throws IOException {
+		List<Product> products = new ArrayList<>();
+		read(path, products::add);
+		return products;
+	}
+
+	/**
+	 * Parses every record in the given file, in file order, handing each Product to {@code action} as soon as it is parsed.
+	 *
+	 * @param path   File to read, plain or GZIP compressed.
+	 * @param action Receiver of parsed products.
+	 * @return Records and bytes read, and speed.
+	 * @throws IOException              If file cannot be read or decompressed.
+	 * @throws IllegalArgumentException If any record cannot be parsed.
+	 */
+	public TransferStats read(Path path, Consumer<? super Product> action) throws IOException {
+		try(InputStream in = Files.newInputStream(path)) {
+			return read(in, action);
+		}
+	}
+
+	/**
+	 * Parses every record in the given stream, plain or GZIP compressed. The stream is read to its end but not closed.
+	 *
+	 * @param in     Stream to read.
+	 * @param action Receiver of parsed products.
+	 * @return Records and bytes read, and speed.
+	 * @throws IOException              If stream cannot be read or decompressed.
+	 * @throws IllegalArgumentException If any record cannot be parsed.
+	 */
+	public TransferStats read(InputStream in, Consumer<? super Product> action) throws IOException {
+		long start = System.nanoTime();
+		CountingInputStream file = new CountingInputStream(in);
+		InputStream records = isGzip(file) ? new GZIPInputStream(file, BUFFER_SIZE) : file;
+
+		ProductLineParser parser = new ProductLineParser(codec);
+		long[] recordCount = new long[1];
+		LineVisitor visitor = (buffer, lineStart, lineEnd, nextOffset) -> {
+			action.accept(parser.parse(buffer, lineStart, lineEnd));
+			recordCount[0]++;
+		};
+
+		byte[] bytes = new byte[BUFFER_SIZE];
+		long offset = 0;
+		int length = 0;
+		while(true) {
+			if(length == bytes.length)
+				bytes = Arrays.copyOf(bytes, bytes.length * 2);
+			int read = records.read(bytes, length, bytes.length - length);
+			boolean end = read < 0;
+			if(!end)
+				length += read;
+			int consumed = MappedProductReader.readLines(ByteBuffer.wrap(bytes), length, end, offset, visitor);
+			System.arraycopy(bytes, consumed, bytes, 0, length - consumed);
+			length -= consumed;
+			offset += consumed;
+			if(end)
+				break;
+		}
+		return new TransferStats(recordCount[0], offset, file.count, System.nanoTime() - start);
+	}
+
+	/**
+	 * Peeks at the first two bytes for the GZIP header, leaving them to be read again.
+	 */
+	private static boolean isGzip(PushbackInputStream in) throws IOException {
+		int first = in.read();
+		if(first < 0)
+			return false;
+		int second = in.read();
+		if(second >= 0)
+			in.unread(second);
+		in.unread(first);
+		return first == GZIP_MAGIC_1 && second == GZIP_MAGIC_2;
+	}
+
+	/**
+	 * Counts bytes read from the file, before any decompression.
+	 */
+	private static class CountingInputStream extends PushbackInputStream {
+		private long count;
+
+		private CountingInputStream(InputStream in) {
+			super(in, 2);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if(b >= 0)
+				count++;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = super.read(b, off, len);
+			if(read > 0)
+				count += read;
+			return read;
+		}
+
+		@Override
+		public void unread(int b) throws IOException {
+			super.unread(b);
+			count--;
+		}
+	}
+}
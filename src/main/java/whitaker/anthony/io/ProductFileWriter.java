@@ -0,0 +1,237 @@
+package whitaker.anthony.io;
+
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes products as delimited UTF-8 lines, in the format {@link ProductCodec#format} produces, optionally GZIP compressed.
+ * <p>
+ * Records are encoded straight into one reusable byte buffer that is handed to the stream only when full: ASCII text is copied
+ * a char at a time, category text and delimiter are encoded once up front and ISO dates are written as digits, so writing a
+ * record creates no objects. Not thread-safe.
+ */
+public class ProductFileWriter implements Closeable {
+
+	static final int BUFFER_SIZE = 1 << 16;
+	private static final int ISO_DATE_LENGTH = 10;
+
+	private final byte[][] categoryBytes = new byte[Category.values().length][];
+	private final ProductCodec codec;
+	private final StringBuilder dateScratch = new StringBuilder(32);
+	private final byte[] delimiter;
+	/** Counts bytes reaching the underlying stream, after any compression. */
+	private final CountingOutputStream file;
+	/** Stream receiving encoded records: the counting stream itself, or a compressor in front of it. */
+	private final OutputStream out;
+	private final long start = System.nanoTime();
+	private byte[] buffer = new byte[BUFFER_SIZE];
+	private long bytes;
+	private long elapsedNanos = -1;
+	private int position;
+	private long records;
+
+	/**
+	 * Constructs a ProductFileWriter writing uncompressed records to given stream, which is closed with this writer.
+	 *
+	 * @param out   Stream to write to, not null.
+	 * @param codec Codec supplying delimiter and expiration date format, not null.
+	 * @throws IllegalArgumentException If any parameters are null.
+	 */
+	public ProductFileWriter(OutputStream out, ProductCodec codec) {
+		this(out == null ? null : new CountingOutputStream(out), null, codec);
+	}
+
+	private ProductFileWriter(CountingOutputStream file, OutputStream compressor, ProductCodec codec) {
+		if(file == null || codec == null)
+			throw new IllegalArgumentException("Parameters to ProductFileWriter constructor cannot be null.");
+		this.file = file;
+		this.out = compressor != null ? compressor : file;
+		this.codec = codec;
+		this.delimiter = codec.getDelimiter().getBytes(StandardCharsets.UTF_8);
+		for(Category category : Category.values()) {
+			categoryBytes[category.ordinal()] = category.toString().getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	/**
+	 * Opens a ProductFileWriter creating or overwriting given file.
+	 *
+	 * @param path     File to write, not null.
+	 * @param codec    Codec supplying delimiter and expiration date format, not null.
+	 * @param compress If true, the file is GZIP compressed.
+	 * @return Writer, to be closed by caller.
+	 * @throws IOException If file cannot be created.
+	 */
+	public static ProductFileWriter open(Path path, ProductCodec codec, boolean compress) throws IOException {
+		if(codec == null)
+			throw new IllegalArgumentException("Codec cannot be null.");
+		CountingOutputStream file = new CountingOutputStream(Files.newOutputStream(path));
+		return new ProductFileWriter(file, compress ? new GZIPOutputStream(file, BUFFER_SIZE) : null, codec);
+	}
+
+	/**
+	 * Writes given product as one line.
+	 *
+	 * @param item Product to write, not null.
+	 * @throws IOException If stream fails.
+	 */
+	public void write(InventoryItem item) throws IOException {
+		String number = item.getNumber();
+		String name = item.getName();
+		byte[] category = categoryBytes[item.getCategory().ordinal()];
+		LocalDate date = item.getExpirationDate();
+		boolean isoDate = codec.isIsoDate() && date.getYear() > 0 && date.getYear() <= 9999;
+		if(!isoDate) {
+			dateScratch.setLength(0);
+			codec.appendDate(dateScratch, date);
+		}
+		ensureCapacity(3 * (number.length() + name.length() + (isoDate ? ISO_DATE_LENGTH : dateScratch.length())) + 3 * delimiter.length + category.length + 1);
+
+		int recordStart = position;
+		putText(number);
+		putBytes(delimiter);
+		putText(name);
+		putBytes(delimiter);
+		putBytes(category);
+		putBytes(delimiter);
+		if(isoDate)
+			putIsoDate(date);
+		else
+			putText(dateScratch);
+		buffer[position++] = '\n';
+		bytes += position - recordStart;
+		records++;
+		if(position >= BUFFER_SIZE)
+			flushBuffer();
+	}
+
+	/**
+	 * Writes buffered records to the stream and flushes it.
+	 *
+	 * @throws IOException If stream fails.
+	 */
+	public void flush() throws IOException {
+		flushBuffer();
+		out.flush();
+	}
+
+	/**
+	 * Closes this writer and returns the final totals, so that a writer opened in a try-with-resources statement can report
+	 * them from inside it. Closing again on exit is a no-op.
+	 *
+	 * @return Records and bytes written, and speed, including the compressed size once the stream is closed.
+	 * @throws IOException If stream fails.
+	 */
+	public TransferStats finish() throws IOException {
+		close();
+		return getStats();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if(elapsedNanos >= 0)
+			return;
+		try {
+			flushBuffer();
+			out.close();
+		} finally {
+			elapsedNanos = System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Returns what has been written so far, or in total once closed. File bytes only include records already handed to the stream.
+	 *
+	 * @return Records and bytes written, and speed.
+	 */
+	public TransferStats getStats() {
+		long elapsed = elapsedNanos >= 0 ? elapsedNanos : System.nanoTime() - start;
+		return new TransferStats(records, bytes, file.count, elapsed);
+	}
+
+	private void flushBuffer() throws IOException {
+		if(position > 0) {
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+	private void ensureCapacity(int length) throws IOException {
+		if(buffer.length - position >= length)
+			return;
+		flushBuffer();
+		if(buffer.length < length)
+			buffer = new byte[Math.max(length, buffer.length * 2)];
+	}
+
+	private void putBytes(byte[] bytes) {
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	/**
+	 * Copies ASCII text a char at a time, falling back to a full UTF-8 encode for anything else. Capacity for three bytes per
+	 * char has been ensured, which covers every char of a UTF-8 encoding, surrogate pairs included.
+	 */
+	private void putText(CharSequence text) {
+		int length = text.length();
+		for(int i = 0; i < length; i++) {
+			char c = text.charAt(i);
+			if(c >= 0x80) {
+				putBytes(text.subSequence(i, length).toString().getBytes(StandardCharsets.UTF_8));
+				return;
+			}
+			buffer[position++] = (byte)c;
+		}
+	}
+
+	private void putIsoDate(LocalDate date) {
+		putDigits(date.getYear(), 4);
+		buffer[position++] = '-';
+		putDigits(date.getMonthValue(), 2);
+		buffer[position++] = '-';
+		putDigits(date.getDayOfMonth(), 2);
+	}
+
+	private void putDigits(int value, int width) {
+		for(int i = position + width - 1; i >= position; i--) {
+			buffer[i] = (byte)('0' + value % 10);
+			value /= 10;
+		}
+		position += width;
+	}
+
+	/**
+	 * Counts bytes passing through, without the byte-at-a-time writes of {@link FilterOutputStream}.
+	 */
+	static class CountingOutputStream extends FilterOutputStream {
+		private long count;
+
+		CountingOutputStream(OutputStream out) {
+			super(out);
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			count++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			count += len;
+		}
+	}
+}
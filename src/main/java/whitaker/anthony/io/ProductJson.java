@@ -0,0 +1,50 @@
+package whitaker.anthony.io;
+
+import whitaker.anthony.model.InventoryItem;
+
+/**
+ * Writes products as single-line JSON objects, one per line in NDJSON exports.
+ * <p>
+ * i.e. {@code {"number":"...","name":"...","category":"BEVERAGES","expirationDate":"2018-04-16"}}, with the category by
+ * enum name as stored in MongoDB and the date in ISO format.
+ */
+public final class ProductJson {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private ProductJson() {
+	}
+
+	/**
+	 * Appends the JSON object representing given product to {@code builder}, without a line terminator.
+	 *
+	 * @param builder Builder to append to, not null.
+	 * @param item    Product to write, not null.
+	 * @return Given builder.
+	 */
+	public static StringBuilder appendTo(StringBuilder builder, InventoryItem item) {
+		builder.append("{\"number\":");
+		appendString(builder, item.getNumber());
+		builder.append(",\"name\":");
+		appendString(builder, item.getName());
+		builder.append(",\"category\":\"").append(item.getCategory().name());
+		return builder.append("\",\"expirationDate\":\"").append(item.getExpirationDate()).append("\"}");
+	}
+
+	private static void appendString(StringBuilder builder, String value) {
+		builder.append('"');
+		for(int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if(c == '"' || c == '\\') {
+				builder.append('\\').append(c);
+			}
+			else if(c < 0x20) {
+				builder.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+			}
+			else {
+				builder.append(c);
+			}
+		}
+		builder.append('"');
+	}
+}
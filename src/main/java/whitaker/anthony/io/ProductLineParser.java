@@ -0,0 +1,219 @@
+package whitaker.anthony.io;
+
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Parses delimited product records directly from the bytes of a buffer.
+ * <p>
+ * Fields are located by scanning for the delimiter's bytes, so no regular expression is involved and only the objects a Product
+ * actually holds are created. Categories are matched against their encoded text without decoding, and names are shared between
+ * records carrying the same name. Expiration dates in the {@value ProductCodec#ISO_DATE_FORMAT} format are parsed in place without
+ * decoding. Text is expected to be UTF-8.
+ * <p>
+ * Instances are not thread-safe. Use one parser per thread.
+ */
+public class ProductLineParser {
+
+	/** Upper bound on distinct names remembered for sharing. Names beyond this are still parsed, just not shared. */
+	private static final int MAX_SHARED_NAMES = 1 << 14;
+
+	private static final byte[][] CATEGORY_BYTES = new byte[Category.values().length][];
+
+	static {
+		for(Category category : Category.values()) {
+			CATEGORY_BYTES[category.ordinal()] = category.getText().getBytes(StandardCharsets.UTF_8);
+		}
+	}
+
+	private final ProductCodec codec;
+	private final ByteSequence dateText = new ByteSequence();
+	private final byte[] delimiter;
+	private NameEntry[] names = new NameEntry[256];
+	private int nameCount;
+	private byte[] scratch = new byte[64];
+
+	/**
+	 * Constructs a ProductLineParser.
+	 *
+	 * @param delimiter            Delimiter between product fields, matched literally, not null or empty.
+	 * @param expirationDateFormat Date format of expiration date, not null.
+	 * @param expirationDateLocale Locale of expiration date, not null.
+	 * @throws IllegalArgumentException If any parameters are null, if delimiter is empty or if {@code expirationDateFormat} is invalid.
+	 */
+	public ProductLineParser(String delimiter, String expirationDateFormat, Locale expirationDateLocale) {
+		this(ProductCodec.of(delimiter, expirationDateFormat, expirationDateLocale));
+	}
+
+	/**
+	 * Constructs a ProductLineParser using the delimiter and date format of given codec. The delimiter is matched literally.
+	 *
+	 * @param codec Codec supplying delimiter and expiration date format, not null.
+	 * @throws IllegalArgumentException If codec is null or if its delimiter is empty.
+	 */
+	public ProductLineParser(ProductCodec codec) {
+		if(codec == null)
+			throw new IllegalArgumentException("Parameters to ProductLineParser constructor cannot be null.");
+		if(codec.getDelimiter().isEmpty())
+			throw new IllegalArgumentException("Delimiter cannot be empty.");
+		this.codec = codec;
+		this.delimiter = codec.getDelimiter().getBytes(StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Parses the record held in {@code buffer} between {@code start} (inclusive) and {@code end} (exclusive) as a Product.
+	 * The range must not include the line terminator. Buffer position and limit are left untouched.
+	 *
+	 * @param buffer Buffer containing record.
+	 * @param start  Absolute index of first byte of record.
+	 * @param end    Absolute index one past last byte of record.
+	 * @return Product represented by given bytes.
+	 * @throws IllegalArgumentException                If record does not contain exactly four fields or if any field is invalid.
+	 * @throws java.time.format.DateTimeParseException If expiration date cannot be parsed.
+	 */
+	public Product parse(ByteBuffer buffer, int start, int end) {
+		int numberEnd = indexOfDelimiter(buffer, start, end);
+		int nameStart = numberEnd + delimiter.length;
+		int nameEnd = indexOfDelimiter(buffer, nameStart, end);
+		int categoryStart = nameEnd + delimiter.length;
+		int categoryEnd = indexOfDelimiter(buffer, categoryStart, end);
+		int dateStart = categoryEnd + delimiter.length;
+		int dateEnd = indexOfDelimiter(buffer, dateStart, end);
+
+		if(numberEnd == end || nameEnd == end || categoryEnd == end || !onlyDelimiters(buffer, dateEnd, end))
+			throw new IllegalArgumentException("Unable to parse \"" + decode(buffer, start, end) + "\" with delimiter \"" + codec.getDelimiter() + "\"");
+
+		String number = decode(buffer, start, numberEnd);
+		String name = sharedName(buffer, nameStart, nameEnd);
+		Category category = category(buffer, categoryStart, categoryEnd);
+		LocalDate expirationDate = codec.isIsoDate()
+				? codec.parseDate(dateText.reset(buffer, dateStart, dateEnd))
+				: codec.parseDate(decode(buffer, dateStart, dateEnd));
+		return new Product(number, name, category, expirationDate);
+	}
+
+	/**
+	 * Returns index of first delimiter at or after {@code from}, or {@code end} if there is none before {@code end}.
+	 */
+	private int indexOfDelimiter(ByteBuffer buffer, int from, int end) {
+		int last = end - delimiter.length;
+		byte first = delimiter[0];
+		for(int i = from; i <= last; i++) {
+			if(buffer.get(i) == first && matchesDelimiter(buffer, i))
+				return i;
+		}
+		return end;
+	}
+
+	private boolean matchesDelimiter(ByteBuffer buffer, int index) {
+		for(int j = 1; j < delimiter.length; j++) {
+			if(buffer.get(index + j) != delimiter[j])
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Mirrors {@link String#split(String)}, which discards trailing empty fields: anything after the fourth field may only be delimiters.
+	 */
+	private boolean onlyDelimiters(ByteBuffer buffer, int from, int end) {
+		for(int i = from; i < end; i += delimiter.length) {
+			if(end - i < delimiter.length || !(buffer.get(i) == delimiter[0] && matchesDelimiter(buffer, i)))
+				return false;
+		}
+		return true;
+	}
+
+	private static Category category(ByteBuffer buffer, int start, int end) {
+		int length = end - start;
+		for(Category category : Category.values()) {
+			byte[] text = CATEGORY_BYTES[category.ordinal()];
+			if(text.length == length && regionEquals(buffer, start, text))
+				return category;
+		}
+		return null;
+	}
+
+	private static boolean regionEquals(ByteBuffer buffer, int start, byte[] bytes) {
+		for(int i = 0; i < bytes.length; i++) {
+			if(buffer.get(start + i) != bytes[i])
+				return false;
+		}
+		return true;
+	}
+
+	private String decode(ByteBuffer buffer, int start, int end) {
+		int length = end - start;
+		if(buffer.hasArray())
+			return new String(buffer.array(), buffer.arrayOffset() + start, length, StandardCharsets.UTF_8);
+		return new String(copy(buffer, start, length), 0, length, StandardCharsets.UTF_8);
+	}
+
+	private byte[] copy(ByteBuffer buffer, int start, int length) {
+		if(scratch.length < length)
+			scratch = new byte[Math.max(length, scratch.length * 2)];
+		for(int i = 0; i < length; i++) {
+			scratch[i] = buffer.get(start + i);
+		}
+		return scratch;
+	}
+
+	/**
+	 * Returns the name held between {@code start} and {@code end}, reusing the String from an earlier record with identical bytes.
+	 */
+	private String sharedName(ByteBuffer buffer, int start, int end) {
+		int length = end - start;
+		int hash = 1;
+		for(int i = start; i < end; i++) {
+			hash = 31 * hash + buffer.get(i);
+		}
+
+		int mask = names.length - 1;
+		int slot = hash & mask;
+		for(NameEntry entry = names[slot]; entry != null; entry = names[slot = (slot + 1) & mask]) {
+			if(entry.hash == hash && entry.bytes.length == length && regionEquals(buffer, start, entry.bytes))
+				return entry.name;
+		}
+
+		String name = decode(buffer, start, end);
+		if(nameCount < MAX_SHARED_NAMES) {
+			names[slot] = new NameEntry(hash, name.getBytes(StandardCharsets.UTF_8), name);
+			if(++nameCount * 2 > names.length)
+				growNames();
+		}
+		return name;
+	}
+
+	private void growNames() {
+		NameEntry[] old = names;
+		names = new NameEntry[old.length * 2];
+		int mask = names.length - 1;
+		for(NameEntry entry : old) {
+			if(entry != null) {
+				int slot = entry.hash & mask;
+				while(names[slot] != null) {
+					slot = (slot + 1) & mask;
+				}
+				names[slot] = entry;
+			}
+		}
+	}
+
+	private static class NameEntry {
+		private final byte[] bytes;
+		private final int hash;
+		private final String name;
+
+		private NameEntry(int hash, byte[] bytes, String name) {
+			this.hash = hash;
+			this.bytes = bytes;
+			this.name = name;
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package whitaker.anthony.io;
+
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductNumbers;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static whitaker.anthony.io.ProductSnapshotWriter.*;
+
+/**
+ * Reads snapshots written by {@link ProductSnapshotWriter}. Products carrying the same name share one String.
+ */
+public final class ProductSnapshotReader {
+
+	private static final Category[] CATEGORIES = Category.values();
+
+	private ProductSnapshotReader() {
+	}
+
+	/**
+	 * Reads every product in given snapshot, in the order written, into a List.
+	 *
+	 * @param path Snapshot file.
+	 * @return Products held in snapshot.
+	 * @throws IOException              If file cannot be read.
+	 * @throws IllegalArgumentException If file is not a valid snapshot.
+	 */
+	public static List<Product> readAll(Path path) throws IOException {
+		List<Product> products = new ArrayList<>();
+		read(path, products::add);
+		return products;
+	}
+
+	/**
+	 * Reads every product in given snapshot, in the order written, handing each to {@code action}.
+	 *
+	 * @param path   Snapshot file.
+	 * @param action Receiver of products.
+	 * @throws IOException              If file cannot be read.
+	 * @throws IllegalArgumentException If file is not a valid snapshot.
+	 */
+	public static void read(Path path, Consumer<? super Product> action) throws IOException {
+		try(DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+			if(in.readInt() != MAGIC)
+				throw new IllegalArgumentException("\"" + path + "\" is not a product snapshot.");
+			byte version = in.readByte();
+			if(version != VERSION)
+				throw new IllegalArgumentException("Unsupported snapshot version " + version + " in \"" + path + "\".");
+
+			int dictionarySize = readVarInt(in);
+			List<String> names = new ArrayList<>(dictionarySize);
+			for(int i = 0; i < dictionarySize; i++) {
+				names.add(in.readUTF());
+			}
+
+			byte flags;
+			while((flags = in.readByte()) != END) {
+				String number = (flags & FLAG_NUMBER_UUID) != 0 ? ProductNumbers.toNumber(in.readLong(), in.readLong()) : in.readUTF();
+				String name;
+				if((flags & FLAG_NEW_NAME) != 0) {
+					name = in.readUTF();
+					names.add(name);
+				}
+				else {
+					int nameId = readVarInt(in);
+					if(nameId >= names.size())
+						throw new IllegalArgumentException("Unknown name id " + nameId + " in \"" + path + "\".");
+					name = names.get(nameId);
+				}
+				int categoryOrdinal = in.readUnsignedByte();
+				if(categoryOrdinal >= CATEGORIES.length)
+					throw new IllegalArgumentException("Unknown category " + categoryOrdinal + " in \"" + path + "\".");
+				LocalDate expirationDate = LocalDate.ofEpochDay(in.readInt());
+				action.accept(new Product(number, name, CATEGORIES[categoryOrdinal], expirationDate));
+			}
+		}
+	}
+
+	private static int readVarInt(DataInputStream in) throws IOException {
+		int value = 0;
+		for(int shift = 0; shift < 32; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (b & 0x7F) << shift;
+			if((b & 0x80) == 0)
+				return value;
+		}
+		throw new IllegalArgumentException("Malformed snapshot: varint too long.");
+	}
+}
@@ -0,0 +1,136 @@
+package whitaker.anthony.io;
+
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCandidate;
+import whitaker.anthony.model.ProductNumbers;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes products to a compact binary snapshot, read back with {@link ProductSnapshotReader}.
+ * <p>
+ * Layout, all big-endian:
+ * <pre>
+ * header:  int magic "INVS", byte version, varint name count, name count x modified UTF-8 name
+ * record:  byte flags,
+ *          number:   two longs if flags has NUMBER_UUID, otherwise modified UTF-8 string,
+ *          name:     modified UTF-8 string if flags has NEW_NAME (it takes the next dictionary id), otherwise varint dictionary id,
+ *          byte category ordinal,
+ *          int expiration date epoch day
+ * trailer: byte END
+ * </pre>
+ * The dictionary is seeded from product candidate names, so generated datasets store every name as a one or two byte id.
+ * Names missing from it are defined inline the first time they appear. Instances are not thread-safe.
+ */
+public class ProductSnapshotWriter implements Closeable {
+
+	static final int MAGIC = 0x494E5653;
+	static final byte VERSION = 1;
+	static final int FLAG_NUMBER_UUID = 1;
+	static final int FLAG_NEW_NAME = 2;
+	static final byte END = (byte)0x80;
+
+	private final Map<String, Integer> nameIds = new HashMap<>();
+	private final DataOutputStream out;
+	private long count;
+
+	/**
+	 * Creates or overwrites a snapshot file.
+	 *
+	 * @param path       File to write.
+	 * @param dictionary Names to store once in the header, typically those of the product candidates, not null.
+	 * @throws IOException If file cannot be written.
+	 */
+	public ProductSnapshotWriter(Path path, Collection<String> dictionary) throws IOException {
+		this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), 1 << 16));
+		Set<String> names = new LinkedHashSet<>(dictionary);
+		out.writeInt(MAGIC);
+		out.writeByte(VERSION);
+		writeVarInt(names.size());
+		for(String name : names) {
+			nameIds.put(name, nameIds.size());
+			out.writeUTF(name);
+		}
+	}
+
+	/**
+	 * Returns the distinct names of given candidates, for use as a snapshot dictionary.
+	 *
+	 * @param candidates Product candidates, not null.
+	 * @return Distinct candidate names.
+	 */
+	public static List<String> dictionaryOf(Collection<ProductCandidate> candidates) {
+		List<String> names = new ArrayList<>(candidates.size());
+		candidates.forEach(candidate -> names.add(candidate.getName()));
+		return names;
+	}
+
+	/**
+	 * Appends given product to snapshot.
+	 *
+	 * @param product Product to write, not null.
+	 * @throws IOException If file cannot be written.
+	 */
+	public void write(Product product) throws IOException {
+		String number = product.getNumber();
+		boolean uuid = ProductNumbers.isUuid(number);
+		Integer nameId = nameIds.get(product.getName());
+
+		out.writeByte((uuid ? FLAG_NUMBER_UUID : 0) | (nameId == null ? FLAG_NEW_NAME : 0));
+		if(uuid) {
+			out.writeLong(ProductNumbers.mostSignificantBits(number));
+			out.writeLong(ProductNumbers.leastSignificantBits(number));
+		}
+		else {
+			out.writeUTF(number);
+		}
+		if(nameId == null) {
+			nameIds.put(product.getName(), nameIds.size());
+			out.writeUTF(product.getName());
+		}
+		else {
+			writeVarInt(nameId);
+		}
+		out.writeByte(product.getCategory().ordinal());
+		out.writeInt(Math.toIntExact(product.getExpirationDate().toEpochDay()));
+		count++;
+	}
+
+	private void writeVarInt(int value) throws IOException {
+		while((value & ~0x7F) != 0) {
+			out.writeByte(value & 0x7F | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	/**
+	 * Writes trailer and closes file.
+	 *
+	 * @throws IOException If file cannot be written.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			out.writeByte(END);
+		} finally {
+			out.close();
+		}
+	}
+
+	public long getCount() {
+		return count;
+	}
+}
@@ -0,0 +1,57 @@
+package whitaker.anthony.io;
+
+/**
+ * Volume and speed of one file read or write by {@link ProductFileReader} or {@link ProductFileWriter}.
+ * Throughput is measured on uncompressed record bytes, so compressed and plain transfers compare directly.
+ */
+public class TransferStats {
+
+	private static final double BYTES_PER_MEGABYTE = 1_000_000;
+	private static final double NANOS_PER_SECOND = 1_000_000_000;
+
+	private final long bytes;
+	private final long elapsedNanos;
+	private final long fileBytes;
+	private final long records;
+
+	TransferStats(long records, long bytes, long fileBytes, long elapsedNanos) {
+		this.records = records;
+		this.bytes = bytes;
+		this.fileBytes = fileBytes;
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%d records, %.1f MB (%.1f MB on disk) in %.3f s, %.1f MB/s",
+				records, bytes / BYTES_PER_MEGABYTE, fileBytes / BYTES_PER_MEGABYTE, elapsedNanos / NANOS_PER_SECOND, getMegabytesPerSecond());
+	}
+
+	/** Uncompressed bytes of records, including line terminators. */
+	public long getBytes() {
+		return bytes;
+	}
+
+	/** Ratio of record bytes to file bytes; 1 for uncompressed files. */
+	public double getCompressionRatio() {
+		return fileBytes == 0 ? 1 : (double)bytes / fileBytes;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/** Bytes read from or written to the file, compressed if the file is. */
+	public long getFileBytes() {
+		return fileBytes;
+	}
+
+	/** Uncompressed megabytes (10^6 bytes) per second, or 0 if no time has passed. */
+	public double getMegabytesPerSecond() {
+		return elapsedNanos == 0 ? 0 : bytes / BYTES_PER_MEGABYTE / (elapsedNanos / NANOS_PER_SECOND);
+	}
+
+	public long getRecords() {
+		return records;
+	}
+}
@@ -0,0 +1,144 @@
+package whitaker.anthony.model;
+
+import java.time.LocalDate;
+
+/**
+ * Immutable, memory-compact form of a {@link Product} for large in-memory working sets.
+ * <p>
+ * A canonical UUID number is held as two longs instead of a 36 character String, the name is the shared instance from a
+ * {@link NameDictionary}, and the expiration date is held as an epoch day instead of a LocalDate. Numbers that are not canonical
+ * UUIDs are kept as given. Getters rebuild the number and date on each call, so code that reads them in a tight loop should
+ * prefer {@link #getEpochDay()} and the {@code Product.BY_*} comparators, which compare the compact fields directly.
+ */
+public final class CompactProduct implements InventoryItem {
+
+	private final Category category;
+	private final int epochDay;
+	private final String name;
+	/** Number when it is not a canonical UUID, otherwise null. */
+	private final String nonUuidNumber;
+	private final long numberLeastSignificantBits;
+	private final long numberMostSignificantBits;
+
+	/**
+	 * Constructs a CompactProduct based on given values.
+	 *
+	 * @param number         Unique generated product number.
+	 * @param name           Product name.
+	 * @param category       Product category.
+	 * @param expirationDate Product expiration date.
+	 * @param names          Dictionary supplying the shared instance of name.
+	 * @throws IllegalArgumentException If any parameters are {@code null}.
+	 */
+	public CompactProduct(String number, String name, Category category, LocalDate expirationDate, NameDictionary names) {
+		if(number == null || name == null || category == null || expirationDate == null || names == null)
+			throw new IllegalArgumentException("Parameters to CompactProduct constructor cannot be null.");
+		if(ProductNumbers.isUuid(number)) {
+			this.numberMostSignificantBits = ProductNumbers.mostSignificantBits(number);
+			this.numberLeastSignificantBits = ProductNumbers.leastSignificantBits(number);
+			this.nonUuidNumber = null;
+		}
+		else {
+			this.numberMostSignificantBits = 0;
+			this.numberLeastSignificantBits = 0;
+			this.nonUuidNumber = number;
+		}
+		this.name = names.intern(name);
+		this.category = category;
+		this.epochDay = Math.toIntExact(expirationDate.toEpochDay());
+	}
+
+	/**
+	 * Returns compact form of given product.
+	 *
+	 * @param item  Product to compact, not null.
+	 * @param names Dictionary supplying the shared instance of name, not null.
+	 * @return Compact form of given product.
+	 * @throws IllegalArgumentException If any parameters are {@code null}.
+	 */
+	public static CompactProduct of(InventoryItem item, NameDictionary names) {
+		if(item == null)
+			throw new IllegalArgumentException("Parameters to of method cannot be null.");
+		if(item instanceof CompactProduct)
+			return (CompactProduct)item;
+		return new CompactProduct(item.getNumber(), item.getName(), item.getCategory(), item.getExpirationDate(), names);
+	}
+
+	/**
+	 * Returns a regular Product with the same fields, e.g. for saving to the repository.
+	 *
+	 * @return A new Product with the same fields.
+	 */
+	public Product toProduct() {
+		return new Product(getNumber(), name, category, getExpirationDate());
+	}
+
+	/**
+	 * Compares numbers in the same order as comparing {@link #getNumber()} Strings, without building them when both are UUIDs.
+	 */
+	static int compareNumbers(CompactProduct first, CompactProduct second) {
+		if(first.nonUuidNumber == null && second.nonUuidNumber == null)
+			return ProductNumbers.compare(first.numberMostSignificantBits, first.numberLeastSignificantBits,
+					second.numberMostSignificantBits, second.numberLeastSignificantBits);
+		return first.getNumber().compareTo(second.getNumber());
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(o == null || getClass() != o.getClass()) return false;
+
+		CompactProduct that = (CompactProduct)o;
+
+		return epochDay == that.epochDay
+				&& numberMostSignificantBits == that.numberMostSignificantBits
+				&& numberLeastSignificantBits == that.numberLeastSignificantBits
+				&& category == that.category
+				&& name.equals(that.name)
+				&& (nonUuidNumber == null ? that.nonUuidNumber == null : nonUuidNumber.equals(that.nonUuidNumber));
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Long.hashCode(numberMostSignificantBits ^ numberLeastSignificantBits);
+		result = 31 * result + (nonUuidNumber == null ? 0 : nonUuidNumber.hashCode());
+		result = 31 * result + name.hashCode();
+		result = 31 * result + category.hashCode();
+		result = 31 * result + epochDay;
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "CompactProduct{" +
+				"number='" + getNumber() + '\'' +
+				", name='" + name + '\'' +
+				", category='" + category + '\'' +
+				", expirationDate=" + getExpirationDate() +
+				'}';
+	}
+
+	@Override
+	public Category getCategory() {
+		return category;
+	}
+
+	public int getEpochDay() {
+		return epochDay;
+	}
+
+	@Override
+	public LocalDate getExpirationDate() {
+		return LocalDate.ofEpochDay(epochDay);
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getNumber() {
+		return nonUuidNumber != null ? nonUuidNumber : ProductNumbers.toNumber(numberMostSignificantBits, numberLeastSignificantBits);
+	}
+}
@@ -0,0 +1,18 @@
+package whitaker.anthony.model;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only view of a product's fields, shared by {@link Product} and its memory-compact form {@link CompactProduct},
+ * so either can be sorted with the {@code Product.BY_*} comparators.
+ */
+public interface InventoryItem {
+
+	Category getCategory();
+
+	LocalDate getExpirationDate();
+
+	String getName();
+
+	String getNumber();
+}
@@ -0,0 +1,50 @@
+package whitaker.anthony.model;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Canonical instances of product names, so that every product carrying a name shares one String.
+ * Seeded from the product candidates; names outside the candidates are added on first use. Thread-safe.
+ */
+public class NameDictionary {
+
+	private final ConcurrentMap<String, String> names = new ConcurrentHashMap<>();
+
+	/**
+	 * Constructs an empty NameDictionary.
+	 */
+	public NameDictionary() {
+	}
+
+	/**
+	 * Constructs a NameDictionary holding the names of given product candidates.
+	 *
+	 * @param productCandidates Candidates whose names are known up front, not null.
+	 * @throws IllegalArgumentException If productCandidates is null.
+	 */
+	public NameDictionary(Collection<ProductCandidate> productCandidates) {
+		if(productCandidates == null)
+			throw new IllegalArgumentException("Parameters to NameDictionary constructor cannot be null.");
+		productCandidates.forEach(candidate -> intern(candidate.getName()));
+	}
+
+	/**
+	 * Returns the canonical instance of given name, adding it if not already present.
+	 *
+	 * @param name Name to look up, not null.
+	 * @return String equal to name that is shared by every caller.
+	 * @throws IllegalArgumentException If name is null.
+	 */
+	public String intern(String name) {
+		if(name == null)
+			throw new IllegalArgumentException("Name cannot be null.");
+		String existing = names.putIfAbsent(name, name);
+		return existing == null ? name : existing;
+	}
+
+	public int size() {
+		return names.size();
+	}
+}
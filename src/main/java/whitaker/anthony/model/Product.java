@@ -2,21 +2,34 @@ package whitaker.anthony.model;
 
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.PersistenceConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.Comparator;
 import java.util.Locale;
 
 @Document
-public class Product {
-
-	public static final Comparator<Product> BY_CATEGORY = Comparator.comparing(Product::getCategory);
-	public static final Comparator<Product> BY_EXPIRATION_DATE = Comparator.comparing(Product::getExpirationDate);
-	public static final Comparator<Product> BY_NAME = Comparator.comparing(Product::getName);
-	public static final Comparator<Product> BY_NUMBER = Comparator.comparing(Product::getNumber);
+@CompoundIndexes({
+		@CompoundIndex(name = "category_expirationDate", def = "{'category': 1, 'expirationDate': 1}"),
+		@CompoundIndex(name = "category_number", def = "{'category': 1, 'number': 1}"),
+		@CompoundIndex(name = "expirationDate_number", def = "{'expirationDate': 1, 'number': 1}"),
+		@CompoundIndex(name = "name_number", def = "{'name': 1, 'number': 1}")
+})
+public class Product implements InventoryItem {
+
+	public static final Comparator<InventoryItem> BY_CATEGORY = Comparator.comparing(InventoryItem::getCategory);
+	public static final Comparator<InventoryItem> BY_EXPIRATION_DATE = (first, second) ->
+			first instanceof CompactProduct && second instanceof CompactProduct
+					? Integer.compare(((CompactProduct)first).getEpochDay(), ((CompactProduct)second).getEpochDay())
+					: first.getExpirationDate().compareTo(second.getExpirationDate());
+	public static final Comparator<InventoryItem> BY_NAME = Comparator.comparing(InventoryItem::getName);
+	public static final Comparator<InventoryItem> BY_NUMBER = (first, second) ->
+			first instanceof CompactProduct && second instanceof CompactProduct
+					? CompactProduct.compareNumbers((CompactProduct)first, (CompactProduct)second)
+					: first.getNumber().compareTo(second.getNumber());
 
 	/** Product category. */
 	@Indexed
@@ -54,6 +67,7 @@ public class Product {
 
 	/**
 	 * Parses {@code productString} as a Product.
+	 * For bulk parsing, build a {@link ProductCodec} once and reuse it.
 	 *
 	 * @param productString        Delimited string containing product representation to be parsed.
 	 * @param delimiter            Delimiter for {@code productString}.
@@ -69,36 +83,14 @@ public class Product {
 		if(productString == null || delimiter == null || expirationDateFormat == null || expirationDateLocale == null)
 			throw new IllegalArgumentException("Parameters to parseProduct method cannot be null.");
 
-		String[] productParts = productString.split(delimiter);
-
-		if(productParts.length != 4)
-			throw new IllegalArgumentException("Unable to parse \"" + productString + "\" with delimiter \"" + delimiter + "\"");
-
-		String number = productParts[0];
-		String name = productParts[1];
-		String categoryString = productParts[2];
-		String expirationDateString = productParts[3];
-		return new Product(number, name, Category.forText(categoryString), parseStringToDate(expirationDateString, expirationDateFormat, expirationDateLocale));
-	}
-
-	/**
-	 * Obtains an instance of LocalDate from a text string using a formatter based on given format and locale.
-	 *
-	 * @param dateString String representation of date to parse.
-	 * @param dateFormat Date format of {@code dateString}.
-	 * @param dateLocale Locale of date.
-	 * @return The parsed local date, not null.
-	 * @throws java.time.format.DateTimeParseException If {@code dateString} cannot be parsed.
-	 */
-	private static LocalDate parseStringToDate(String dateString, String dateFormat, Locale dateLocale) {
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(dateFormat).withLocale(dateLocale);
-		return LocalDate.parse(dateString, formatter);
+		return ProductCodec.of(delimiter, expirationDateFormat, expirationDateLocale).parse(productString);
 	}
 
 	/**
 	 * Returns a String representing this Product's fields delimited by given delimiter.
 	 * <p>
 	 * i.e. when delimited by ';': number;name;category;expirationDate
+	 * For bulk formatting, build a {@link ProductCodec} once and reuse it.
 	 *
 	 * @param delimiter            String used to separate fields. Recommend using an expression that does not appear in Product dataset, not null.
 	 * @param expirationDateFormat Date format of expiration date, not null.
@@ -111,14 +103,7 @@ public class Product {
 		if(delimiter == null || expirationDateFormat == null || expirationDateLocale == null)
 			throw new IllegalArgumentException("Parameters for toDelimitedString method cannot be null.");
 
-		DateTimeFormatter formatter = DateTimeFormatter.ofPattern(expirationDateFormat).withLocale(expirationDateLocale);
-		String expirationDateString = expirationDate.format(formatter);
-
-		return number + delimiter +
-				name + delimiter +
-				category + delimiter +
-				expirationDateString;
-
+		return ProductCodec.of(delimiter, expirationDateFormat, expirationDateLocale).format(this);
 	}
 
 	@Override
@@ -132,18 +117,22 @@ public class Product {
 	}
 
 
+	@Override
 	public Category getCategory() {
 		return category;
 	}
 
+	@Override
 	public LocalDate getExpirationDate() {
 		return expirationDate;
 	}
 
+	@Override
 	public String getName() {
 		return name;
 	}
 
+	@Override
 	public String getNumber() {
 		return number;
 	}
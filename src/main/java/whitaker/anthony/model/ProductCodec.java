@@ -0,0 +1,306 @@
+package whitaker.anthony.model;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+
+/**
+ * Converts Products to and from their delimited text representation (i.e. when delimited by ';': number;name;category;expirationDate).
+ * <p>
+ * A codec resolves its delimiter and date formatter once, so it should be built once and reused for every record. Instances are
+ * immutable and thread-safe. When the date format is {@value #ISO_DATE_FORMAT}, expiration dates are parsed and printed by hand
+ * instead of through {@link DateTimeFormatter}, falling back to the formatter for anything outside the common case so results and
+ * error messages are unchanged.
+ */
+public final class ProductCodec {
+
+	public static final String ISO_DATE_FORMAT = "yyyy-MM-dd";
+
+	private static final int MAX_CACHED_CODECS = 64;
+	private static final ConcurrentMap<Key, ProductCodec> CACHE = new ConcurrentHashMap<>();
+	private static final String REGEX_METACHARACTERS = ".$|()[]{}^?*+\\";
+
+	private final String delimiter;
+	/** Compiled on first parse, so that formatting with any delimiter never compiles it; null while not yet needed. */
+	private volatile Pattern delimiterPattern;
+	private final String expirationDateFormat;
+	private final DateTimeFormatter expirationDateFormatter;
+	private final Locale expirationDateLocale;
+	private final boolean isoDate;
+	private final boolean literalDelimiter;
+
+	/**
+	 * Constructs a ProductCodec.
+	 *
+	 * @param delimiter            Delimiter between product fields. Interpreted as a regular expression when parsing, as does
+	 *                             {@link String#split(String)}, and written literally when formatting, not null. It is only
+	 *                             compiled on first parse, so a codec used for formatting accepts any delimiter.
+	 * @param expirationDateFormat Date format of expiration date, not null.
+	 * @param expirationDateLocale Locale of expiration date, not null.
+	 * @throws IllegalArgumentException If any parameters are null or if {@code expirationDateFormat} is invalid.
+	 */
+	public ProductCodec(String delimiter, String expirationDateFormat, Locale expirationDateLocale) {
+		if(delimiter == null || expirationDateFormat == null || expirationDateLocale == null)
+			throw new IllegalArgumentException("Parameters to ProductCodec constructor cannot be null.");
+		this.delimiter = delimiter;
+		this.literalDelimiter = isLiteral(delimiter);
+		this.expirationDateFormat = expirationDateFormat;
+		this.expirationDateLocale = expirationDateLocale;
+		this.expirationDateFormatter = DateTimeFormatter.ofPattern(expirationDateFormat).withLocale(expirationDateLocale);
+		this.isoDate = ISO_DATE_FORMAT.equals(expirationDateFormat);
+	}
+
+	/**
+	 * Returns a shared codec for the given settings, constructing it on first use.
+	 *
+	 * @param delimiter            Delimiter between product fields, not null.
+	 * @param expirationDateFormat Date format of expiration date, not null.
+	 * @param expirationDateLocale Locale of expiration date, not null.
+	 * @return A codec for the given settings.
+	 * @throws IllegalArgumentException If any parameters are null or if {@code expirationDateFormat} is invalid.
+	 */
+	public static ProductCodec of(String delimiter, String expirationDateFormat, Locale expirationDateLocale) {
+		Key key = new Key(delimiter, expirationDateFormat, expirationDateLocale);
+		ProductCodec codec = CACHE.get(key);
+		if(codec == null) {
+			codec = new ProductCodec(delimiter, expirationDateFormat, expirationDateLocale);
+			if(CACHE.size() >= MAX_CACHED_CODECS)
+				CACHE.clear();
+			CACHE.putIfAbsent(key, codec);
+		}
+		return codec;
+	}
+
+	/**
+	 * Delimiters without regular expression metacharacters match themselves, so they can be found with {@link String#indexOf(String, int)}.
+	 */
+	private static boolean isLiteral(String delimiter) {
+		if(delimiter.isEmpty())
+			return false;
+		for(int i = 0; i < delimiter.length(); i++) {
+			if(REGEX_METACHARACTERS.indexOf(delimiter.charAt(i)) >= 0)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Parses {@code productString} as a Product.
+	 *
+	 * @param productString Delimited string containing product representation to be parsed, not null.
+	 * @return Product represented in given string.
+	 * @throws IllegalArgumentException                If {@code productString} is null or if any fields are unable to be parsed from it.
+	 * @throws java.time.format.DateTimeParseException If expiration date cannot be parsed.
+	 * @throws java.util.regex.PatternSyntaxException  If the delimiter is not a valid regular expression.
+	 */
+	public Product parse(String productString) {
+		if(productString == null)
+			throw new IllegalArgumentException("Parameters to parse method cannot be null.");
+
+		String[] productParts = split(productString);
+
+		if(productParts.length != 4)
+			throw new IllegalArgumentException("Unable to parse \"" + productString + "\" with delimiter \"" + delimiter + "\"");
+
+		String number = productParts[0];
+		String name = productParts[1];
+		String categoryString = productParts[2];
+		String expirationDateString = productParts[3];
+		return new Product(number, name, Category.forText(categoryString), parseDate(expirationDateString));
+	}
+
+	/**
+	 * Splits {@code text} exactly as {@code text.split(delimiter)} would, without running a regular expression for literal delimiters.
+	 */
+	private String[] split(String text) {
+		if(!literalDelimiter) {
+			Pattern pattern = delimiterPattern;
+			if(pattern == null)
+				delimiterPattern = pattern = Pattern.compile(delimiter);
+			return pattern.split(text);
+		}
+
+		List<String> parts = new ArrayList<>(4);
+		int start = 0;
+		int index;
+		while((index = text.indexOf(delimiter, start)) >= 0) {
+			parts.add(text.substring(start, index));
+			start = index + delimiter.length();
+		}
+		if(parts.isEmpty())
+			return new String[]{text};
+		parts.add(text.substring(start));
+
+		int size = parts.size();
+		while(size > 0 && parts.get(size - 1).isEmpty()) {
+			size--;
+		}
+		return parts.subList(0, size).toArray(new String[size]);
+	}
+
+	/**
+	 * Returns a String representing given Product's fields delimited by this codec's delimiter.
+	 *
+	 * @param product Product to format, not null.
+	 * @return String representing given Product's fields delimited by this codec's delimiter.
+	 * @throws java.time.DateTimeException If an error occurs during printing expiration date.
+	 */
+	public String format(Product product) {
+		return appendTo(new StringBuilder(96), product).toString();
+	}
+
+	/**
+	 * Appends the delimited representation of given Product to {@code builder}.
+	 *
+	 * @param builder Builder to append to, not null.
+	 * @param product Product to format, not null.
+	 * @return Given builder.
+	 * @throws java.time.DateTimeException If an error occurs during printing expiration date.
+	 */
+	public StringBuilder appendTo(StringBuilder builder, Product product) {
+		builder.append(product.getNumber()).append(delimiter)
+				.append(product.getName()).append(delimiter)
+				.append(product.getCategory()).append(delimiter);
+		appendDate(builder, product.getExpirationDate());
+		return builder;
+	}
+
+	/**
+	 * Obtains an instance of LocalDate from text using this codec's date format and locale.
+	 *
+	 * @param text Text to parse, not null.
+	 * @return The parsed local date, not null.
+	 * @throws java.time.format.DateTimeParseException If {@code text} cannot be parsed.
+	 */
+	public LocalDate parseDate(CharSequence text) {
+		if(isoDate) {
+			LocalDate date = parseIsoDate(text);
+			if(date != null)
+				return date;
+		}
+		return LocalDate.parse(text, expirationDateFormatter);
+	}
+
+	/**
+	 * Appends given date to {@code builder} using this codec's date format and locale.
+	 *
+	 * @param builder Builder to append to, not null.
+	 * @param date    Date to format, not null.
+	 * @return Given builder.
+	 * @throws java.time.DateTimeException If an error occurs during printing.
+	 */
+	public StringBuilder appendDate(StringBuilder builder, LocalDate date) {
+		int year = date.getYear();
+		if(isoDate && year > 0 && year <= 9999) {
+			appendDigits(builder, year, 4).append('-');
+			appendDigits(builder, date.getMonthValue(), 2).append('-');
+			return appendDigits(builder, date.getDayOfMonth(), 2);
+		}
+		expirationDateFormatter.formatTo(date, builder);
+		return builder;
+	}
+
+	private static StringBuilder appendDigits(StringBuilder builder, int value, int width) {
+		for(int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+			builder.append((char)('0' + value / divisor % 10));
+		}
+		return builder;
+	}
+
+	/**
+	 * Parses text of the exact form {@code dddd-dd-dd} naming a valid date between years 1 and 9999.
+	 *
+	 * @return The parsed date, or null if {@code text} is anything else and should be left to the formatter.
+	 */
+	private static LocalDate parseIsoDate(CharSequence text) {
+		if(text.length() != 10 || text.charAt(4) != '-' || text.charAt(7) != '-')
+			return null;
+		int year = digits(text, 0, 4);
+		int month = digits(text, 5, 7);
+		int day = digits(text, 8, 10);
+		if(year < 1 || month < 1 || month > 12 || day < 1 || day > 28 && day > monthLength(year, month))
+			return null;
+		return LocalDate.of(year, month, day);
+	}
+
+	private static int digits(CharSequence text, int start, int end) {
+		int value = 0;
+		for(int i = start; i < end; i++) {
+			int digit = text.charAt(i) - '0';
+			if(digit < 0 || digit > 9)
+				return -1;
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+
+	private static int monthLength(int year, int month) {
+		switch(month) {
+			case 2:
+				return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0) ? 29 : 28;
+			case 4:
+			case 6:
+			case 9:
+			case 11:
+				return 30;
+			default:
+				return 31;
+		}
+	}
+
+	public String getDelimiter() {
+		return delimiter;
+	}
+
+	public String getExpirationDateFormat() {
+		return expirationDateFormat;
+	}
+
+	public Locale getExpirationDateLocale() {
+		return expirationDateLocale;
+	}
+
+	/**
+	 * Returns true if expiration dates use the {@value #ISO_DATE_FORMAT} fast path.
+	 *
+	 * @return true if expiration dates use the {@value #ISO_DATE_FORMAT} fast path.
+	 */
+	public boolean isIsoDate() {
+		return isoDate;
+	}
+
+	private static class Key {
+		private final String delimiter;
+		private final String expirationDateFormat;
+		private final Locale expirationDateLocale;
+
+		private Key(String delimiter, String expirationDateFormat, Locale expirationDateLocale) {
+			this.delimiter = delimiter;
+			this.expirationDateFormat = expirationDateFormat;
+			this.expirationDateLocale = expirationDateLocale;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if(this == o) return true;
+			if(o == null || getClass() != o.getClass()) return false;
+
+			Key that = (Key)o;
+
+			return Objects.equals(delimiter, that.delimiter)
+					&& Objects.equals(expirationDateFormat, that.expirationDateFormat)
+					&& Objects.equals(expirationDateLocale, that.expirationDateLocale);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(delimiter, expirationDateFormat, expirationDateLocale);
+		}
+	}
+}
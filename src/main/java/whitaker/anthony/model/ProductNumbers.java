@@ -0,0 +1,104 @@
+package whitaker.anthony.model;
+
+/**
+ * Conversions between product numbers and their compact two-long form.
+ * <p>
+ * Generated product numbers are canonical UUID strings (36 characters, lower case hex, dashes at 8, 13, 18 and 23), which
+ * hold exactly 128 bits. Only numbers in that form are converted, so converting back always reproduces the original String.
+ */
+public final class ProductNumbers {
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private ProductNumbers() {
+	}
+
+	/**
+	 * Returns true if given number is a canonical lower case UUID and can therefore be stored as two longs.
+	 *
+	 * @param number Product number, may be null.
+	 * @return true if given number is a canonical lower case UUID.
+	 */
+	public static boolean isUuid(String number) {
+		if(number == null || number.length() != 36)
+			return false;
+		for(int i = 0; i < 36; i++) {
+			char c = number.charAt(i);
+			if(i == 8 || i == 13 || i == 18 || i == 23) {
+				if(c != '-')
+					return false;
+			}
+			else if(!(c >= '0' && c <= '9' || c >= 'a' && c <= 'f')) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the most significant 64 bits of a canonical UUID number.
+	 *
+	 * @param number Number for which {@link #isUuid(String)} is true.
+	 * @return The most significant 64 bits.
+	 */
+	public static long mostSignificantBits(String number) {
+		return hex(number, 0, 8) << 32 | hex(number, 9, 13) << 16 | hex(number, 14, 18);
+	}
+
+	/**
+	 * Returns the least significant 64 bits of a canonical UUID number.
+	 *
+	 * @param number Number for which {@link #isUuid(String)} is true.
+	 * @return The least significant 64 bits.
+	 */
+	public static long leastSignificantBits(String number) {
+		return hex(number, 19, 23) << 48 | hex(number, 24, 36);
+	}
+
+	/**
+	 * Formats two longs as a canonical lower case UUID number.
+	 *
+	 * @param mostSignificantBits  Most significant 64 bits.
+	 * @param leastSignificantBits Least significant 64 bits.
+	 * @return Canonical UUID String.
+	 */
+	public static String toNumber(long mostSignificantBits, long leastSignificantBits) {
+		char[] chars = new char[36];
+		digits(chars, 0, mostSignificantBits >>> 32, 8);
+		chars[8] = '-';
+		digits(chars, 9, mostSignificantBits >>> 16, 4);
+		chars[13] = '-';
+		digits(chars, 14, mostSignificantBits, 4);
+		chars[18] = '-';
+		digits(chars, 19, leastSignificantBits >>> 48, 4);
+		chars[23] = '-';
+		digits(chars, 24, leastSignificantBits, 12);
+		return new String(chars);
+	}
+
+	/**
+	 * Compares two numbers held as two longs in the same order as {@link String#compareTo(String)} orders their canonical Strings.
+	 * Lower case hex sorts as unsigned values, so the halves are compared unsigned.
+	 *
+	 * @return A negative integer, zero, or a positive integer as the first number is less than, equal to, or greater than the second.
+	 */
+	public static int compare(long mostSignificantBits1, long leastSignificantBits1, long mostSignificantBits2, long leastSignificantBits2) {
+		int result = Long.compareUnsigned(mostSignificantBits1, mostSignificantBits2);
+		return result != 0 ? result : Long.compareUnsigned(leastSignificantBits1, leastSignificantBits2);
+	}
+
+	private static long hex(String text, int start, int end) {
+		long value = 0;
+		for(int i = start; i < end; i++) {
+			value = value << 4 | Character.digit(text.charAt(i), 16);
+		}
+		return value;
+	}
+
+	private static void digits(char[] chars, int offset, long value, int count) {
+		for(int i = offset + count - 1; i >= offset; i--) {
+			chars[i] = HEX_DIGITS[(int)(value & 0xF)];
+			value >>>= 4;
+		}
+	}
+}
@@ -0,0 +1,66 @@
+package whitaker.anthony.repository;
+
+import org.springframework.data.annotation.PersistenceConstructor;
+import whitaker.anthony.model.Category;
+
+import java.time.LocalDate;
+
+/**
+ * Number of products of one category expiring on one day, as counted by {@link ProductRepositoryCustom#countExpiringByDayAndCategory}.
+ */
+public class ExpiryCount {
+
+	private final Category category;
+	private final long count;
+	private final LocalDate expirationDate;
+
+	@PersistenceConstructor
+	public ExpiryCount(LocalDate expirationDate, Category category, long count) {
+		if(expirationDate == null || category == null)
+			throw new IllegalArgumentException("Parameters to ExpiryCount constructor cannot be null.");
+		this.expirationDate = expirationDate;
+		this.category = category;
+		this.count = count;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if(this == o) return true;
+		if(o == null || getClass() != o.getClass()) return false;
+
+		ExpiryCount that = (ExpiryCount)o;
+
+		if(count != that.count) return false;
+		if(category != that.category) return false;
+		return expirationDate.equals(that.expirationDate);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = category.hashCode();
+		result = 31 * result + Long.hashCode(count);
+		result = 31 * result + expirationDate.hashCode();
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return "ExpiryCount{" +
+				"expirationDate=" + expirationDate +
+				", category='" + category + '\'' +
+				", count=" + count +
+				'}';
+	}
+
+	public Category getCategory() {
+		return category;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public LocalDate getExpirationDate() {
+		return expirationDate;
+	}
+}
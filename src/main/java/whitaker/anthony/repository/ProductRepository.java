@@ -1,12 +1,14 @@
 package whitaker.anthony.repository;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.rest.core.annotation.RestResource;
+import whitaker.anthony.model.Category;
 import whitaker.anthony.model.Product;
 
 import java.time.LocalDate;
 import java.util.List;
 
-public interface ProductRepository extends MongoRepository<Product, String> {
+public interface ProductRepository extends MongoRepository<Product, String>, ProductRepositoryCustom {
 	List<Product> findByCategory(String category);
 
 	List<Product> findByExpirationDate(LocalDate expirationDate);
@@ -14,4 +16,13 @@ public interface ProductRepository extends MongoRepository<Product, String> {
 	List<Product> findByName(String name);
 
 	Product findByNumber(String number);
+
+	/**
+	 * Deletes every product of given category with a single server-side delete, without loading the products first.
+	 *
+	 * @param category Category to delete.
+	 * @return Number of products deleted.
+	 */
+	@RestResource(exported = false)
+	Long deleteByCategory(Category category);
 }
@@ -0,0 +1,76 @@
+package whitaker.anthony.repository;
+
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Queries of {@link ProductRepository} implemented by hand in {@link ProductRepositoryImpl}.
+ */
+public interface ProductRepositoryCustom {
+
+	/**
+	 * Returns the page of products following {@code after} in given order, using keyset (seek) pagination: the query starts
+	 * from the previous page's last product instead of skipping over earlier pages, so every page costs the same as the first.
+	 * Products with equal sort values are ordered by number, which is unique, so no product is skipped or repeated.
+	 *
+	 * @param sortKey Order of pages, matching the corresponding {@code Product.BY_*} comparator, not null.
+	 * @param after   Last product of the previous page, or null for the first page.
+	 * @param limit   Maximum number of products in page, at least 1.
+	 * @return Next page; a page with fewer than {@code limit} products is the last.
+	 * @throws IllegalArgumentException If sortKey is null or if limit is less than 1.
+	 */
+	List<Product> findPage(SortKey sortKey, Product after, int limit);
+
+	/**
+	 * Returns the first products to expire on or after given date, soonest first.
+	 *
+	 * @param from  Earliest expiration date to include, not null.
+	 * @param limit Maximum number of products to return, at least 1.
+	 * @return Up to {@code limit} products ordered by expiration date, then number.
+	 * @throws IllegalArgumentException If from is null or if limit is less than 1.
+	 */
+	List<Product> findNextToExpire(LocalDate from, int limit);
+
+	/**
+	 * Returns products expiring between given dates, inclusive, soonest first.
+	 *
+	 * @param from     First expiration date to include, not null.
+	 * @param to       Last expiration date to include, not null.
+	 * @param category Category of products to return, or null for every category.
+	 * @return Matching products ordered by expiration date, then number.
+	 * @throws IllegalArgumentException If from or to is null.
+	 */
+	List<Product> findExpiringBetween(LocalDate from, LocalDate to, Category category);
+
+	/**
+	 * Counts products expiring between given dates, inclusive, per day and category, on the server.
+	 * Days and categories without products are left out.
+	 *
+	 * @param from First expiration date to include, not null.
+	 * @param to   Last expiration date to include, not null.
+	 * @return Counts ordered by expiration date, then category in declaration order.
+	 * @throws IllegalArgumentException If from or to is null.
+	 */
+	List<ExpiryCount> countExpiringByDayAndCategory(LocalDate from, LocalDate to);
+
+	/**
+	 * Counts every product per expiration date and category, on the server. Combinations without products are left out.
+	 *
+	 * @return Counts ordered by expiration date, then category in declaration order.
+	 */
+	List<ExpiryCount> countByDayAndCategory();
+
+	/**
+	 * Returns products read lazily from a server-side cursor, so any number of products can be processed in constant memory.
+	 * The cursor does not time out while idle; close the stream to release it.
+	 *
+	 * @param category Category of products to return, or null for every product.
+	 * @return Stream of products in no particular order, to be closed by caller.
+	 */
+	Stream<Product> streamAll(Category category);
+}
@@ -0,0 +1,153 @@
+package whitaker.anthony.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Implementation of {@link ProductRepositoryCustom}. Each query is served by one of the compound indexes declared on
+ * {@link Product}. Those used for paging end in the unique number so that a page can start exactly after the previous one;
+ * {@code (category, expirationDate)} serves expiration windows within a category.
+ */
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+	static final String CATEGORY = "category";
+	static final String COUNT = "count";
+	static final String EXPIRATION_DATE = "expirationDate";
+	static final String NAME = "name";
+	static final String NUMBER = "number";
+	private static final Category[] CATEGORIES = Category.values();
+
+	private final MongoOperations mongoOperations;
+
+	@Autowired
+	public ProductRepositoryImpl(MongoOperations mongoOperations) {
+		if(mongoOperations == null)
+			throw new IllegalArgumentException("Parameters to ProductRepositoryImpl constructor cannot be null.");
+		this.mongoOperations = mongoOperations;
+	}
+
+	@Override
+	public List<Product> findPage(SortKey sortKey, Product after, int limit) {
+		if(sortKey == null)
+			throw new IllegalArgumentException("Sort key cannot be null.");
+		checkLimit(limit);
+		switch(sortKey) {
+			case CATEGORY:
+				return findCategoryPage(after, limit);
+			case EXPIRATION_DATE:
+				return findPage(EXPIRATION_DATE, after == null ? null : after.getExpirationDate(), after, limit);
+			case NAME:
+				return findPage(NAME, after == null ? null : after.getName(), after, limit);
+			case NUMBER:
+				Criteria criteria = after == null ? new Criteria() : where(NUMBER).gt(after.getNumber());
+				return mongoOperations.find(new Query(criteria).with(new Sort(Sort.Direction.ASC, NUMBER)).limit(limit), Product.class);
+			default:
+				throw new IllegalArgumentException("Unknown sort key " + sortKey + ".");
+		}
+	}
+
+	@Override
+	public List<Product> findNextToExpire(LocalDate from, int limit) {
+		if(from == null)
+			throw new IllegalArgumentException("Date cannot be null.");
+		checkLimit(limit);
+		Query query = new Query(where(EXPIRATION_DATE).gte(from))
+				.with(new Sort(Sort.Direction.ASC, EXPIRATION_DATE, NUMBER))
+				.limit(limit);
+		return mongoOperations.find(query, Product.class);
+	}
+
+	@Override
+	public List<Product> findExpiringBetween(LocalDate from, LocalDate to, Category category) {
+		Criteria criteria = expiringBetween(from, to);
+		if(category != null)
+			criteria = criteria.and(CATEGORY).is(category);
+		return mongoOperations.find(new Query(criteria).with(new Sort(Sort.Direction.ASC, EXPIRATION_DATE, NUMBER)), Product.class);
+	}
+
+	@Override
+	public List<ExpiryCount> countExpiringByDayAndCategory(LocalDate from, LocalDate to) {
+		return countByDayAndCategory(expiringBetween(from, to));
+	}
+
+	@Override
+	public List<ExpiryCount> countByDayAndCategory() {
+		return countByDayAndCategory(new Criteria());
+	}
+
+	private List<ExpiryCount> countByDayAndCategory(Criteria criteria) {
+		Aggregation aggregation = Aggregation.newAggregation(
+				Aggregation.match(criteria),
+				Aggregation.group(EXPIRATION_DATE, CATEGORY).count().as(COUNT),
+				Aggregation.project(EXPIRATION_DATE, CATEGORY, COUNT).andExclude("_id"));
+		List<ExpiryCount> counts = new ArrayList<>(mongoOperations.aggregate(aggregation, Product.class, ExpiryCount.class).getMappedResults());
+		counts.sort(Comparator.comparing(ExpiryCount::getExpirationDate).thenComparing(ExpiryCount::getCategory));
+		return counts;
+	}
+
+	@Override
+	public Stream<Product> streamAll(Category category) {
+		Query query = new Query(category == null ? new Criteria() : where(CATEGORY).is(category)).noCursorTimeout();
+		CloseableIterator<Product> cursor = mongoOperations.stream(query, Product.class);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(cursor, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(cursor::close);
+	}
+
+	private static Criteria expiringBetween(LocalDate from, LocalDate to) {
+		if(from == null || to == null)
+			throw new IllegalArgumentException("Dates cannot be null.");
+		return where(EXPIRATION_DATE).gte(from).lte(to);
+	}
+
+	/**
+	 * Seeks past {@code (value, after.number)} in {@code (field, number)} order.
+	 */
+	private List<Product> findPage(String field, Object value, Product after, int limit) {
+		Criteria criteria = after == null
+				? new Criteria()
+				: new Criteria().orOperator(where(field).gt(value), where(field).is(value).and(NUMBER).gt(after.getNumber()));
+		Query query = new Query(criteria).with(new Sort(Sort.Direction.ASC, field, NUMBER)).limit(limit);
+		return mongoOperations.find(query, Product.class);
+	}
+
+	/**
+	 * Categories are stored by name, whose order differs from {@code Product.BY_CATEGORY}'s declaration order, so a category page
+	 * is read one category at a time, in declaration order, each by number.
+	 */
+	private List<Product> findCategoryPage(Product after, int limit) {
+		List<Product> page = new ArrayList<>(limit);
+		int first = after == null ? 0 : after.getCategory().ordinal();
+		for(int ordinal = first; ordinal < CATEGORIES.length && page.size() < limit; ordinal++) {
+			Criteria criteria = where(CATEGORY).is(CATEGORIES[ordinal]);
+			if(after != null && ordinal == first)
+				criteria = criteria.and(NUMBER).gt(after.getNumber());
+			Query query = new Query(criteria).with(new Sort(Sort.Direction.ASC, NUMBER)).limit(limit - page.size());
+			page.addAll(mongoOperations.find(query, Product.class));
+		}
+		return page;
+	}
+
+	private static void checkLimit(int limit) {
+		if(limit < 1)
+			throw new IllegalArgumentException("Limit must be at least 1.");
+	}
+}
@@ -0,0 +1,131 @@
+package whitaker.anthony.repository;
+
+import com.mongodb.DBObject;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static whitaker.anthony.repository.ProductRepositoryImpl.CATEGORY;
+import static whitaker.anthony.repository.ProductRepositoryImpl.EXPIRATION_DATE;
+import static whitaker.anthony.repository.ProductRepositoryImpl.NAME;
+import static whitaker.anthony.repository.ProductRepositoryImpl.NUMBER;
+
+/**
+ * Works out which products each save and delete through {@code MongoTemplate} touches, once, and tells every
+ * {@link ProductWriteListener} bean. This covers the repository and its REST resource; bulk writes raise no events and are
+ * reported by the bulk loader instead.
+ * <p>
+ * A save without an id is an insert and needs no read. A save with an id replaces the stored product, which is read by id just
+ * before, projected to the fields listeners use. A delete is given as a query: one on category alone is reported as such without
+ * any read, and any other has its products read the same way first, a single indexed lookup for a delete by id or number.
+ */
+@Component
+public class ProductWriteEventListener extends AbstractMongoEventListener<Product> {
+
+	private static final String ID = "_id";
+	/** Entries of writes that failed between their before and after events are discarded once a thread holds more than this many. */
+	private static final int MAX_PENDING = 1024;
+
+	private final List<ProductWriteListener> listeners;
+	private final MongoOperations mongoOperations;
+	/** Products about to be replaced or deleted, by the DBObject of the save or delete, per thread. */
+	private final ThreadLocal<Map<DBObject, List<Product>>> pending = ThreadLocal.withInitial(IdentityHashMap::new);
+
+	@Autowired
+	public ProductWriteEventListener(MongoOperations mongoOperations, List<ProductWriteListener> listeners) {
+		if(mongoOperations == null || listeners == null)
+			throw new IllegalArgumentException("Parameters to ProductWriteEventListener constructor cannot be null.");
+		this.mongoOperations = mongoOperations;
+		this.listeners = new ArrayList<>(listeners);
+	}
+
+	@Override
+	public void onBeforeSave(BeforeSaveEvent<Product> event) {
+		Object id = event.getDBObject() == null ? null : event.getDBObject().get(ID);
+		if(id != null)
+			expect(event.getDBObject(), new Query(where(ID).is(id)));
+	}
+
+	@Override
+	public void onAfterSave(AfterSaveEvent<Product> event) {
+		List<Product> replaced = take(event.getDBObject());
+		Product previous = replaced.isEmpty() ? null : replaced.get(0);
+		for(ProductWriteListener listener : listeners) {
+			listener.productSaved(previous, event.getSource());
+		}
+	}
+
+	@Override
+	public void onBeforeDelete(BeforeDeleteEvent<Product> event) {
+		if(categoryOf(event.getDBObject()) == null)
+			expect(event.getDBObject(), new BasicQuery(event.getDBObject()));
+	}
+
+	@Override
+	public void onAfterDelete(AfterDeleteEvent<Product> event) {
+		Category category = categoryOf(event.getDBObject());
+		List<Product> deleted = category == null ? take(event.getDBObject()) : null;
+		for(ProductWriteListener listener : listeners) {
+			if(category != null)
+				listener.categoryDeleted(category);
+			else if(!deleted.isEmpty())
+				listener.productsDeleted(deleted);
+		}
+	}
+
+	/**
+	 * Returns the category a delete query clears, or null if it is not a query on category alone.
+	 */
+	private static Category categoryOf(DBObject query) {
+		if(query == null || query.keySet().size() != 1)
+			return null;
+		Object category = query.get(CATEGORY);
+		if(category instanceof Category)
+			return (Category)category;
+		if(category instanceof String) {
+			try {
+				return Category.valueOf((String)category);
+			} catch(IllegalArgumentException e) {
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private void expect(DBObject key, Query query) {
+		query.fields().include(NUMBER).include(NAME).include(CATEGORY).include(EXPIRATION_DATE);
+		DBObject queryObject = query.getQueryObject();
+		List<Product> products;
+		if(queryObject.keySet().size() == 1 && (queryObject.containsField(ID) || queryObject.containsField(NUMBER))) {
+			Product product = mongoOperations.findOne(query, Product.class);
+			products = product == null ? Collections.emptyList() : Collections.singletonList(product);
+		}
+		else {
+			products = mongoOperations.find(query, Product.class);
+		}
+		if(pending.get().size() >= MAX_PENDING)
+			pending.get().clear();
+		pending.get().put(key, products);
+	}
+
+	private List<Product> take(DBObject key) {
+		List<Product> products = pending.get().remove(key);
+		return products == null ? Collections.emptyList() : products;
+	}
+}
@@ -0,0 +1,37 @@
+package whitaker.anthony.repository;
+
+import whitaker.anthony.ingest.BulkInsertListener;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.util.List;
+
+/**
+ * Told of every product written through {@code MongoTemplate}, by {@link ProductWriteEventListener}, and of bulk inserts, by the
+ * bulk loader, so that anything kept in memory alongside stored products can follow writes without querying for them.
+ * Called on the writing thread once the write is done, possibly concurrently, so implementations must be thread-safe.
+ */
+public interface ProductWriteListener extends BulkInsertListener {
+
+	/**
+	 * Called once a product has been saved.
+	 *
+	 * @param previous Stored product the save replaced, or null if the product is new.
+	 * @param saved    Product as saved, not null.
+	 */
+	void productSaved(Product previous, Product saved);
+
+	/**
+	 * Called once products have been deleted one by one or by a query other than on category.
+	 *
+	 * @param products Products deleted, as stored just before the delete; only number, name, category and expiration date are set.
+	 */
+	void productsDeleted(List<Product> products);
+
+	/**
+	 * Called once every product of a category has been deleted. The products are not read first.
+	 *
+	 * @param category Category cleared, not null.
+	 */
+	void categoryDeleted(Category category);
+}
@@ -0,0 +1,44 @@
+package whitaker.anthony.search;
+
+/**
+ * One result of a {@link NameSearchIndex} query.
+ */
+public class NameMatch {
+
+	private final int count;
+	private final String name;
+	private final double score;
+
+	NameMatch(String name, double score, int count) {
+		this.name = name;
+		this.score = score;
+		this.count = count;
+	}
+
+	@Override
+	public String toString() {
+		return "NameMatch{" +
+				"name='" + name + '\'' +
+				", score=" + score +
+				", count=" + count +
+				'}';
+	}
+
+	/**
+	 * Returns number of indexed products carrying this name; 0 for a candidate name no product uses yet.
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Returns relevance between 0 and 1; 1 is an exact match ignoring case and punctuation.
+	 */
+	public double getScore() {
+		return score;
+	}
+}
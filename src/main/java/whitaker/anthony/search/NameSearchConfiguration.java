@@ -0,0 +1,32 @@
+package whitaker.anthony.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import whitaker.anthony.generator.ProductGenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Provides the application's {@link NameSearchIndex}, seeded with the product candidate names on the classpath.
+ */
+@Configuration
+public class NameSearchConfiguration {
+
+	@Bean
+	public NameSearchIndex nameSearchIndex(@Value("${inventory.candidates.resource:ProductCandidates.txt}") String resource,
+	                                       @Value("${inventory.candidates.delimiter:;}") String delimiter) {
+		NameSearchIndex index = new NameSearchIndex();
+		try(BufferedReader reader = new BufferedReader(new InputStreamReader(new ClassPathResource(resource).getInputStream(), StandardCharsets.UTF_8))) {
+			index.addCandidates(ProductGenerator.parseProductCandidates(reader.lines(), delimiter));
+		} catch(IOException e) {
+			throw new UncheckedIOException("Unable to read product candidates \"" + resource + "\"", e);
+		}
+		return index;
+	}
+}
@@ -0,0 +1,349 @@
+package whitaker.anthony.search;
+
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCandidate;
+import whitaker.anthony.repository.ProductWriteListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Typeahead and fuzzy search over product names, in memory.
+ * <p>
+ * Names are normalized to lower case words, ignoring punctuation, so "soda coke" finds "Soda, can (Coke product)". Two
+ * structures are kept over the distinct names: a sorted array of every (word, name) pair, searched by binary search for word
+ * prefixes, and an inverted index from each trigram of the normalized name to the names containing it, for misspellings.
+ * <p>
+ * Matches are ranked exact match first, then names in which every query word prefixes a word (higher when the first words
+ * line up), then names sharing enough trigrams with the query, by Dice similarity. Ties go to the name carried by more
+ * products, then alphabetical order. The sorted word array is rebuilt on the first query after names are added. Thread-safe.
+ * <p>
+ * Product counts are kept per name and category, so that a category delete can clear them without reading the products it
+ * removed. They follow saves and deletes through {@link whitaker.anthony.repository.ProductWriteEventListener} and bulk
+ * inserts through {@link #productsInserted}; names stay searchable once their count drops to 0.
+ */
+public class NameSearchIndex implements ProductWriteListener {
+
+	private static final Category[] CATEGORIES = Category.values();
+	/** Fuzzy matches need at least this Dice similarity of trigrams. */
+	static final double MIN_SIMILARITY = 0.35;
+	private static final Comparator<NameMatch> RANKING = Comparator.comparingDouble(NameMatch::getScore).reversed()
+			.thenComparing(Comparator.comparingInt(NameMatch::getCount).reversed())
+			.thenComparing(NameMatch::getName);
+
+	/** Product counts of every name id, indexed by category ordinal. */
+	private final List<int[]> counts = new ArrayList<>();
+	private final Map<String, Integer> idsByName = new HashMap<>();
+	private final List<String> names = new ArrayList<>();
+	private final List<String> normalizedNames = new ArrayList<>();
+	private final List<String[]> normalizedWords = new ArrayList<>();
+	private final Map<String, IdList> trigrams = new HashMap<>();
+	private final List<Integer> trigramCounts = new ArrayList<>();
+	/** Sorted (word, name id) pairs; null when names were added since last built. */
+	private WordEntry[] words;
+
+	/**
+	 * Adds every candidate name, without counting a product for it.
+	 *
+	 * @param productCandidates Candidates whose names are searchable, not null.
+	 */
+	public synchronized void addCandidates(Collection<ProductCandidate> productCandidates) {
+		productCandidates.forEach(candidate -> id(candidate.getName()));
+	}
+
+	/**
+	 * Replaces every product count with given counts, e.g. from a scan of stored products. Names not given are counted as
+	 * carried by no product; new names are added.
+	 *
+	 * @param nameCounts Number of products by name and category, not null.
+	 */
+	public synchronized void reconcile(NameCounts nameCounts) {
+		for(int[] nameCount : counts) {
+			Arrays.fill(nameCount, 0);
+		}
+		nameCounts.byName.forEach((name, nameCount) -> {
+			int[] current = counts.get(id(name));
+			for(int i = 0; i < current.length; i++) {
+				current[i] += nameCount[i];
+			}
+		});
+	}
+
+	/**
+	 * Counts {@code count} more products carrying given name in given category, adding the name if it is new.
+	 *
+	 * @param name     Product name, not null.
+	 * @param category Product category, not null.
+	 * @param count    Number of products added, at least 0.
+	 * @throws IllegalArgumentException If name or category is null or if count is negative.
+	 */
+	public synchronized void add(String name, Category category, int count) {
+		if(category == null)
+			throw new IllegalArgumentException("Category cannot be null.");
+		if(count < 0)
+			throw new IllegalArgumentException("Count cannot be negative.");
+		counts.get(id(name))[category.ordinal()] += count;
+	}
+
+	/**
+	 * Counts {@code count} fewer products carrying given name in given category. The name stays searchable with a count of at least 0.
+	 *
+	 * @param name     Product name.
+	 * @param category Product category, not null.
+	 * @param count    Number of products removed, at least 0.
+	 */
+	public synchronized void remove(String name, Category category, int count) {
+		Integer id = idsByName.get(name);
+		if(id != null) {
+			int[] nameCount = counts.get(id);
+			nameCount[category.ordinal()] = Math.max(0, nameCount[category.ordinal()] - count);
+		}
+	}
+
+	@Override
+	public synchronized void productsInserted(List<Product> products) {
+		for(Product product : products) {
+			add(product.getName(), product.getCategory(), 1);
+		}
+	}
+
+	@Override
+	public synchronized void productSaved(Product previous, Product saved) {
+		if(previous != null)
+			remove(previous.getName(), previous.getCategory(), 1);
+		add(saved.getName(), saved.getCategory(), 1);
+	}
+
+	@Override
+	public synchronized void productsDeleted(List<Product> products) {
+		for(Product product : products) {
+			remove(product.getName(), product.getCategory(), 1);
+		}
+	}
+
+	@Override
+	public synchronized void categoryDeleted(Category category) {
+		for(int[] nameCount : counts) {
+			nameCount[category.ordinal()] = 0;
+		}
+	}
+
+	/**
+	 * Returns the best matches for given query.
+	 *
+	 * @param query Text typed so far, not null.
+	 * @param limit Maximum number of matches, at least 1.
+	 * @return Up to {@code limit} matches, best first; empty if query holds no letters or digits.
+	 * @throws IllegalArgumentException If query is null or if limit is less than 1.
+	 */
+	public synchronized List<NameMatch> search(String query, int limit) {
+		if(query == null)
+			throw new IllegalArgumentException("Query cannot be null.");
+		if(limit < 1)
+			throw new IllegalArgumentException("Limit must be at least 1.");
+		String normalizedQuery = normalize(query);
+		if(normalizedQuery.isEmpty())
+			return new ArrayList<>();
+
+		double[] scores = new double[names.size()];
+		scorePrefixes(normalizedQuery, scores);
+		scoreTrigrams(normalizedQuery, scores);
+
+		List<NameMatch> matches = new ArrayList<>();
+		for(int id = 0; id < scores.length; id++) {
+			if(scores[id] > 0)
+				matches.add(new NameMatch(names.get(id), scores[id], Arrays.stream(counts.get(id)).sum()));
+		}
+		matches.sort(RANKING);
+		return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+	}
+
+	/**
+	 * Scores names in which every query word is a prefix of a word of the name: 1 for an exact match, otherwise between 0.6 and
+	 * 0.9, higher when the query's words prefix the name's words in order from the start.
+	 */
+	private void scorePrefixes(String normalizedQuery, double[] scores) {
+		String[] queryWords = normalizedQuery.split(" ");
+		int[] matchedWords = new int[names.size()];
+		boolean[] leading = new boolean[names.size()];
+		Arrays.fill(leading, true);
+		WordEntry[] entries = words();
+		for(int w = 0; w < queryWords.length; w++) {
+			String queryWord = queryWords[w];
+			int[] seenAt = new int[names.size()];
+			for(int i = lowerBound(entries, queryWord); i < entries.length && entries[i].word.startsWith(queryWord); i++) {
+				WordEntry entry = entries[i];
+				if(matchedWords[entry.nameId] == w && seenAt[entry.nameId] == 0) {
+					seenAt[entry.nameId] = 1;
+					matchedWords[entry.nameId]++;
+				}
+			}
+			for(int id = 0; id < names.size(); id++) {
+				if(seenAt[id] != 0 && leading[id]) {
+					String[] nameWords = normalizedWords.get(id);
+					leading[id] = w < nameWords.length && nameWords[w].startsWith(queryWord);
+				}
+			}
+		}
+		for(int id = 0; id < names.size(); id++) {
+			if(normalizedNames.get(id).equals(normalizedQuery))
+				scores[id] = 1;
+			else if(matchedWords[id] == queryWords.length)
+				scores[id] = leading[id] ? 0.9 : 0.6 + 0.2 * queryWords.length / normalizedWords.get(id).length;
+		}
+	}
+
+	/**
+	 * Scores remaining names by Dice similarity of trigrams, scaled below every prefix match.
+	 */
+	private void scoreTrigrams(String normalizedQuery, double[] scores) {
+		List<String> queryTrigrams = trigrams(normalizedQuery);
+		int[] shared = new int[names.size()];
+		for(String trigram : queryTrigrams) {
+			IdList ids = trigrams.get(trigram);
+			if(ids != null) {
+				for(int i = 0; i < ids.size; i++) {
+					shared[ids.ids[i]]++;
+				}
+			}
+		}
+		for(int id = 0; id < names.size(); id++) {
+			double similarity = 2.0 * shared[id] / (queryTrigrams.size() + trigramCounts.get(id));
+			if(scores[id] == 0 && similarity >= MIN_SIMILARITY)
+				scores[id] = 0.6 * similarity;
+		}
+	}
+
+	private int id(String name) {
+		if(name == null)
+			throw new IllegalArgumentException("Name cannot be null.");
+		Integer id = idsByName.get(name);
+		if(id != null)
+			return id;
+		id = names.size();
+		String normalized = normalize(name);
+		idsByName.put(name, id);
+		names.add(name);
+		normalizedNames.add(normalized);
+		normalizedWords.add(normalized.isEmpty() ? new String[0] : normalized.split(" "));
+		counts.add(new int[CATEGORIES.length]);
+		List<String> nameTrigrams = trigrams(normalized);
+		trigramCounts.add(nameTrigrams.size());
+		for(String trigram : nameTrigrams) {
+			trigrams.computeIfAbsent(trigram, key -> new IdList()).add(id);
+		}
+		words = null;
+		return id;
+	}
+
+	private WordEntry[] words() {
+		if(words == null) {
+			List<WordEntry> entries = new ArrayList<>();
+			for(int id = 0; id < normalizedWords.size(); id++) {
+				for(String word : normalizedWords.get(id)) {
+					entries.add(new WordEntry(word, id));
+				}
+			}
+			words = entries.toArray(new WordEntry[0]);
+			Arrays.sort(words, Comparator.comparing((WordEntry entry) -> entry.word).thenComparingInt(entry -> entry.nameId));
+		}
+		return words;
+	}
+
+	private static int lowerBound(WordEntry[] entries, String word) {
+		int low = 0;
+		int high = entries.length;
+		while(low < high) {
+			int middle = (low + high) >>> 1;
+			if(entries[middle].word.compareTo(word) < 0)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the distinct trigrams of given normalized text, padded so that word starts and ends count.
+	 */
+	static List<String> trigrams(String normalized) {
+		String padded = "  " + normalized + " ";
+		List<String> result = new ArrayList<>();
+		for(int i = 0; i + 3 <= padded.length(); i++) {
+			String trigram = padded.substring(i, i + 3);
+			if(!result.contains(trigram))
+				result.add(trigram);
+		}
+		return result;
+	}
+
+	/**
+	 * Lower cases given text and reduces every run of characters other than letters and digits to one space.
+	 */
+	static String normalize(String text) {
+		StringBuilder builder = new StringBuilder(text.length());
+		for(int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if(Character.isLetterOrDigit(c))
+				builder.append(c);
+			else if(builder.length() > 0 && builder.charAt(builder.length() - 1) != ' ')
+				builder.append(' ');
+		}
+		int length = builder.length();
+		if(length > 0 && builder.charAt(length - 1) == ' ')
+			builder.setLength(length - 1);
+		return builder.toString().toLowerCase(Locale.ROOT);
+	}
+
+	public synchronized int size() {
+		return names.size();
+	}
+
+	/**
+	 * Product counts by name and category, gathered from a scan of stored products for {@link #reconcile}. Not thread-safe.
+	 */
+	public static final class NameCounts {
+		private final Map<String, int[]> byName = new HashMap<>();
+
+		/**
+		 * Counts given item.
+		 *
+		 * @param item Stored item, not null.
+		 */
+		public void add(InventoryItem item) {
+			byName.computeIfAbsent(item.getName(), name -> new int[CATEGORIES.length])[item.getCategory().ordinal()]++;
+		}
+	}
+
+	private static final class WordEntry {
+		private final int nameId;
+		private final String word;
+
+		private WordEntry(String word, int nameId) {
+			this.word = word;
+			this.nameId = nameId;
+		}
+	}
+
+	/**
+	 * Growable list of name ids, so postings do not box them.
+	 */
+	private static final class IdList {
+		private int[] ids = new int[4];
+		private int size;
+
+		private void add(int id) {
+			if(size == ids.length)
+				ids = Arrays.copyOf(ids, size * 2);
+			ids[size++] = id;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package whitaker.anthony.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductRepository;
+import whitaker.anthony.search.NameSearchIndex;
+
+import java.util.stream.Stream;
+
+/**
+ * Counts the names of stored products into the {@link NameSearchIndex}, reading them from a cursor on a background thread once
+ * the application is ready, so that startup does not wait for it. Nothing is retained but the counts; the index keeps them
+ * current from then on.
+ * <p>
+ * Progress is logged every {@code progressInterval} products and can be read from {@link #getLoadedCount()} while running.
+ * The counts are only published once complete.
+ */
+@Component
+public class InventoryWarmUp {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(InventoryWarmUp.class);
+
+	public enum State {
+		DISABLED, PENDING, RUNNING, COMPLETE, FAILED
+	}
+
+	private final boolean enabled;
+	private volatile long expectedCount;
+	private volatile long loadedCount;
+	private final NameSearchIndex nameSearchIndex;
+	private final ProductRepository productRepository;
+	private final long progressInterval;
+	private final StartupTimings startupTimings;
+	private volatile State state;
+
+	/**
+	 * Constructs an InventoryWarmUp.
+	 *
+	 * @param productRepository Source of products, not null.
+	 * @param nameSearchIndex   Index whose name counts are warmed, not null.
+	 * @param startupTimings    Receives warm-up start and end, not null.
+	 * @param enabled           If false, nothing is loaded.
+	 * @param progressInterval  Number of products between progress messages, at least 1.
+	 * @throws IllegalArgumentException If any object is null or if progressInterval is less than 1.
+	 */
+	@Autowired
+	public InventoryWarmUp(ProductRepository productRepository, NameSearchIndex nameSearchIndex, StartupTimings startupTimings,
+	                       @Value("${inventory.warm-up.enabled:true}") boolean enabled,
+	                       @Value("${inventory.warm-up.progress-interval:100000}") long progressInterval) {
+		if(productRepository == null || nameSearchIndex == null || startupTimings == null)
+			throw new IllegalArgumentException("Parameters to InventoryWarmUp constructor cannot be null.");
+		if(progressInterval < 1)
+			throw new IllegalArgumentException("Progress interval must be at least 1.");
+		this.productRepository = productRepository;
+		this.nameSearchIndex = nameSearchIndex;
+		this.startupTimings = startupTimings;
+		this.enabled = enabled;
+		this.progressInterval = progressInterval;
+		this.state = enabled ? State.PENDING : State.DISABLED;
+	}
+
+	/**
+	 * Starts warm-up on a daemon thread, unless disabled.
+	 *
+	 * @return Thread running warm-up, or null if disabled.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public Thread start() {
+		if(!enabled)
+			return null;
+		Thread thread = new Thread(this::run, "inventory-warm-up");
+		thread.setDaemon(true);
+		thread.start();
+		return thread;
+	}
+
+	/**
+	 * Runs warm-up on the calling thread.
+	 */
+	void run() {
+		state = State.RUNNING;
+		startupTimings.warmUpStarted();
+		try {
+			expectedCount = productRepository.count();
+			LOGGER.info("Warm-up: counting {} products.", expectedCount);
+			NameSearchIndex.NameCounts nameCounts = new NameSearchIndex.NameCounts();
+			try(Stream<Product> products = productRepository.streamAll(null)) {
+				products.forEach(product -> {
+					nameCounts.add(product);
+					if(++loadedCount % progressInterval == 0)
+						LOGGER.info("Warm-up: {} of {} products ({}%).", loadedCount, expectedCount,
+								expectedCount == 0 ? 100 : loadedCount * 100 / expectedCount);
+				});
+			}
+			nameSearchIndex.reconcile(nameCounts);
+			state = State.COMPLETE;
+			LOGGER.info("Warm-up: counted {} products.", loadedCount);
+		} catch(RuntimeException e) {
+			state = State.FAILED;
+			LOGGER.error("Warm-up failed after " + loadedCount + " products.", e);
+		} finally {
+			startupTimings.warmUpEnded();
+		}
+	}
+
+	/**
+	 * Returns how far warm-up has got, for reporting.
+	 *
+	 * @return Current progress.
+	 */
+	public WarmUpProgress getProgress() {
+		return new WarmUpProgress(state, loadedCount, expectedCount);
+	}
+
+	/** Number of products stored when warm-up started, or 0 before then. */
+	public long getExpectedCount() {
+		return expectedCount;
+	}
+
+	public long getLoadedCount() {
+		return loadedCount;
+	}
+
+	public State getState() {
+		return state;
+	}
+}
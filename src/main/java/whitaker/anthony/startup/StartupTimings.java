@@ -0,0 +1,110 @@
+package whitaker.anthony.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Records how long each part of startup took, so cold-start regressions show up in the log and at {@code GET /startup}.
+ * <p>
+ * Times are milliseconds of JVM uptime. MongoDB indexes declared on documents are created while the {@code mongoTemplate}
+ * bean is constructed, so that bean's construction is reported as index creation.
+ */
+@Component
+public class StartupTimings extends InstantiationAwareBeanPostProcessorAdapter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StartupTimings.class);
+	static final String MONGO_TEMPLATE = "mongoTemplate";
+	static final long UNKNOWN = -1;
+
+	private volatile long contextRefreshedAt = UNKNOWN;
+	private final long contextStartedAt;
+	private volatile long indexCreationEndedAt = UNKNOWN;
+	private volatile long indexCreationStartedAt = UNKNOWN;
+	private volatile long readyAt = UNKNOWN;
+	private volatile long warmUpEndedAt = UNKNOWN;
+	private volatile long warmUpStartedAt = UNKNOWN;
+
+	/**
+	 * Constructs StartupTimings. Post-processors are among the first beans created, so construction marks the start of the context.
+	 */
+	public StartupTimings() {
+		this.contextStartedAt = uptime();
+	}
+
+	@Override
+	public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+		if(MONGO_TEMPLATE.equals(beanName))
+			indexCreationStartedAt = uptime();
+		return null;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+		if(MONGO_TEMPLATE.equals(beanName))
+			indexCreationEndedAt = uptime();
+		return bean;
+	}
+
+	@EventListener(ContextRefreshedEvent.class)
+	public void contextRefreshed() {
+		if(contextRefreshedAt == UNKNOWN)
+			contextRefreshedAt = uptime();
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void ready() {
+		readyAt = uptime();
+		LOGGER.info("Startup: JVM {} ms, context {} ms (index creation {} ms), ready at {} ms.",
+				contextStartedAt, getContextMillis(), getIndexCreationMillis(), readyAt);
+	}
+
+	void warmUpStarted() {
+		warmUpStartedAt = uptime();
+	}
+
+	void warmUpEnded() {
+		warmUpEndedAt = uptime();
+		LOGGER.info("Startup: warm-up {} ms, complete at {} ms.", getWarmUpMillis(), warmUpEndedAt);
+	}
+
+	private static long uptime() {
+		return ManagementFactory.getRuntimeMXBean().getUptime();
+	}
+
+	private static long between(long start, long end) {
+		return start == UNKNOWN || end == UNKNOWN ? UNKNOWN : end - start;
+	}
+
+	/** Time from context start to refresh, or -1 if not refreshed yet. */
+	public long getContextMillis() {
+		return between(contextStartedAt, contextRefreshedAt);
+	}
+
+	/** Time spent creating MongoDB indexes, included in context time, or -1 if not known. */
+	public long getIndexCreationMillis() {
+		return between(indexCreationStartedAt, indexCreationEndedAt);
+	}
+
+	/** Time from JVM start to context start, spent in class loading and Spring Boot's own setup. */
+	public long getJvmMillis() {
+		return contextStartedAt;
+	}
+
+	/** Time from JVM start to the application accepting requests, or -1 if not ready yet. */
+	public long getReadyMillis() {
+		return readyAt;
+	}
+
+	/** Time spent warming in-memory structures, or -1 if warm-up has not finished or is disabled. */
+	public long getWarmUpMillis() {
+		return between(warmUpStartedAt, warmUpEndedAt);
+	}
+}
@@ -0,0 +1,45 @@
+package whitaker.anthony.startup;
+
+/**
+ * State of an {@link InventoryWarmUp} at one point in time.
+ */
+public class WarmUpProgress {
+
+	private final long expectedCount;
+	private final long loadedCount;
+	private final InventoryWarmUp.State state;
+
+	WarmUpProgress(InventoryWarmUp.State state, long loadedCount, long expectedCount) {
+		this.state = state;
+		this.loadedCount = loadedCount;
+		this.expectedCount = expectedCount;
+	}
+
+	@Override
+	public String toString() {
+		return "WarmUpProgress{" +
+				"state=" + state +
+				", loadedCount=" + loadedCount +
+				", expectedCount=" + expectedCount +
+				'}';
+	}
+
+	public long getExpectedCount() {
+		return expectedCount;
+	}
+
+	public long getLoadedCount() {
+		return loadedCount;
+	}
+
+	/** Percentage of expected products loaded, 100 once complete. */
+	public int getPercentComplete() {
+		if(state == InventoryWarmUp.State.COMPLETE)
+			return 100;
+		return expectedCount == 0 ? 0 : (int)Math.min(100, loadedCount * 100 / expectedCount);
+	}
+
+	public InventoryWarmUp.State getState() {
+		return state;
+	}
+}
@@ -0,0 +1,36 @@
+package whitaker.anthony.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.repository.ProductRepository;
+
+/**
+ * Clears a whole category, e.g. when a supplier recall pulls it, with one server-side delete instead of one request per product.
+ */
+@RestController
+public class CategoryDeleteController {
+
+	private final ProductRepository productRepository;
+
+	@Autowired
+	public CategoryDeleteController(ProductRepository productRepository) {
+		if(productRepository == null)
+			throw new IllegalArgumentException("Parameters to CategoryDeleteController constructor cannot be null.");
+		this.productRepository = productRepository;
+	}
+
+	/**
+	 * Deletes every product of given category.
+	 *
+	 * @param category Category to clear.
+	 * @return Number of products deleted.
+	 */
+	@DeleteMapping("/categories/{category}/products")
+	public long deleteCategory(@PathVariable Category category) {
+		Long deleted = productRepository.deleteByCategory(category);
+		return deleted == null ? 0 : deleted;
+	}
+}
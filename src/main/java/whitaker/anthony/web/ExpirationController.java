@@ -0,0 +1,73 @@
+package whitaker.anthony.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ExpiryCount;
+import whitaker.anthony.repository.ProductRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Answers "what expires in the next N days", either as the products themselves or as per-day, per-category counts
+ * computed on the server for dashboards.
+ */
+@RestController
+public class ExpirationController {
+
+	private final Clock clock;
+	private final ProductRepository productRepository;
+
+	@Autowired
+	public ExpirationController(ProductRepository productRepository) {
+		this(productRepository, Clock.systemDefaultZone());
+	}
+
+	ExpirationController(ProductRepository productRepository, Clock clock) {
+		if(productRepository == null || clock == null)
+			throw new IllegalArgumentException("Parameters to ExpirationController constructor cannot be null.");
+		this.productRepository = productRepository;
+		this.clock = clock;
+	}
+
+	/**
+	 * Returns products expiring within {@code days} days of {@code from}, inclusive of both ends, soonest first.
+	 *
+	 * @param days     Length of window in days, at least 0; 0 means {@code from} only.
+	 * @param from     First day of window, defaults to today.
+	 * @param category Category to return, or null for every category.
+	 * @return Matching products, or 400 if days is negative.
+	 */
+	@GetMapping("/expiring")
+	public ResponseEntity<List<Product>> expiring(@RequestParam(defaultValue = "7") int days,
+	                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+	                                              @RequestParam(required = false) Category category) {
+		if(days < 0)
+			return ResponseEntity.badRequest().build();
+		LocalDate start = from != null ? from : LocalDate.now(clock);
+		return ResponseEntity.ok(productRepository.findExpiringBetween(start, start.plusDays(days), category));
+	}
+
+	/**
+	 * Returns per-day, per-category counts of products expiring within {@code days} days of {@code from}, inclusive of both ends.
+	 *
+	 * @param days Length of window in days, at least 0; 0 means {@code from} only.
+	 * @param from First day of window, defaults to today.
+	 * @return Counts ordered by day, then category, or 400 if days is negative.
+	 */
+	@GetMapping("/expiring/counts")
+	public ResponseEntity<List<ExpiryCount>> expiringCounts(@RequestParam(defaultValue = "7") int days,
+	                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from) {
+		if(days < 0)
+			return ResponseEntity.badRequest().build();
+		LocalDate start = from != null ? from : LocalDate.now(clock);
+		return ResponseEntity.ok(productRepository.countExpiringByDayAndCategory(start, start.plusDays(days)));
+	}
+}
@@ -0,0 +1,44 @@
+package whitaker.anthony.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import whitaker.anthony.search.NameMatch;
+import whitaker.anthony.search.NameSearchIndex;
+
+import java.util.List;
+
+/**
+ * Typeahead over product names, answered from the in-memory {@link NameSearchIndex} rather than by querying MongoDB.
+ */
+@RestController
+public class NameSearchController {
+
+	/** Largest number of matches a client may ask for. */
+	static final int MAX_LIMIT = 100;
+
+	private final NameSearchIndex nameSearchIndex;
+
+	@Autowired
+	public NameSearchController(NameSearchIndex nameSearchIndex) {
+		if(nameSearchIndex == null)
+			throw new IllegalArgumentException("Parameters to NameSearchController constructor cannot be null.");
+		this.nameSearchIndex = nameSearchIndex;
+	}
+
+	/**
+	 * Returns best matching names for given query, best first.
+	 *
+	 * @param q     Text typed so far.
+	 * @param limit Maximum number of matches, 1 to {@value #MAX_LIMIT}.
+	 * @return Matches, or 400 if limit is out of range.
+	 */
+	@GetMapping("/search/names")
+	public ResponseEntity<List<NameMatch>> searchNames(@RequestParam String q, @RequestParam(defaultValue = "10") int limit) {
+		if(limit < 1 || limit > MAX_LIMIT)
+			return ResponseEntity.badRequest().build();
+		return ResponseEntity.ok(nameSearchIndex.search(q, limit));
+	}
+}
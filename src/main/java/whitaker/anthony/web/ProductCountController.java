@@ -0,0 +1,48 @@
+package whitaker.anthony.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import whitaker.anthony.counts.ProductCounters;
+import whitaker.anthony.counts.ProductCounts;
+import whitaker.anthony.counts.ProductCountsReconciler;
+
+/**
+ * Product counts per category and per category per expiration month, read from {@link ProductCounters} without touching MongoDB.
+ */
+@RestController
+public class ProductCountController {
+
+	private final ProductCounters productCounters;
+	private final ProductCountsReconciler productCountsReconciler;
+
+	@Autowired
+	public ProductCountController(ProductCounters productCounters, ProductCountsReconciler productCountsReconciler) {
+		if(productCounters == null || productCountsReconciler == null)
+			throw new IllegalArgumentException("Parameters to ProductCountController constructor cannot be null.");
+		this.productCounters = productCounters;
+		this.productCountsReconciler = productCountsReconciler;
+	}
+
+	/**
+	 * Returns current counts.
+	 *
+	 * @return Counts per category and per month, then category.
+	 */
+	@GetMapping("/counts")
+	public ProductCounts counts() {
+		return productCounters.snapshot();
+	}
+
+	/**
+	 * Recounts every product on the server and replaces the counters with the result.
+	 *
+	 * @return Counts after reconciliation.
+	 */
+	@PostMapping("/counts/reconcile")
+	public ProductCounts reconcile() {
+		productCountsReconciler.reconcile();
+		return productCounters.snapshot();
+	}
+}
@@ -0,0 +1,130 @@
+package whitaker.anthony.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptorAdapter;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import whitaker.anthony.io.ProductJson;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+import whitaker.anthony.repository.ProductRepository;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.stream.Stream;
+
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+
+/**
+ * Streams every product, or every product of one category, as NDJSON or in the delimited dataset format.
+ * <p>
+ * Products are read from a server-side cursor and written as they arrive, so an export of any size runs in constant memory
+ * and the first bytes are sent as soon as the first product is read.
+ */
+@RestController
+public class ProductExportController {
+
+	static final MediaType APPLICATION_NDJSON = MediaType.valueOf("application/x-ndjson;charset=UTF-8");
+	static final String FORMAT_DELIMITED = "delimited";
+	static final String FORMAT_NDJSON = "ndjson";
+	/** Longest delimiter accepted from a client. */
+	static final int MAX_DELIMITER_LENGTH = 8;
+	/** Products written between explicit flushes once the first product has been sent. */
+	private static final int FLUSH_INTERVAL = 1000;
+	private static final MediaType TEXT_PLAIN_UTF8 = MediaType.valueOf("text/plain;charset=UTF-8");
+
+	private final ProductRepository productRepository;
+	private final long timeoutMillis;
+
+	/**
+	 * Constructs a ProductExportController.
+	 *
+	 * @param productRepository Source of products, not null.
+	 * @param timeoutMillis     How long an export may take before it is abandoned; 0 or less for no limit.
+	 * @throws IllegalArgumentException If productRepository is null.
+	 */
+	@Autowired
+	public ProductExportController(ProductRepository productRepository, @Value("${inventory.export.timeout-ms:3600000}") long timeoutMillis) {
+		if(productRepository == null)
+			throw new IllegalArgumentException("Parameters to ProductExportController constructor cannot be null.");
+		this.productRepository = productRepository;
+		this.timeoutMillis = timeoutMillis;
+	}
+
+	/**
+	 * Exports products.
+	 *
+	 * @param format    {@value #FORMAT_NDJSON} for one JSON object per line, or {@value #FORMAT_DELIMITED} for the format read by
+	 *                  {@code DataGenerator.parseProductsFromFile}, matching {@code Product.toDelimitedString}.
+	 * @param delimiter Delimiter between fields of the delimited format, written literally.
+	 * @param category  Category to export, or null for every product.
+	 * @param request   Current request, whose async timeout is set to the export timeout.
+	 * @return Streaming response, or 400 if format is unknown or delimiter is empty, longer than {@value #MAX_DELIMITER_LENGTH}
+	 * characters or contains a line break.
+	 */
+	@GetMapping("/export/products")
+	public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = FORMAT_NDJSON) String format,
+	                                                    @RequestParam(defaultValue = ";") String delimiter,
+	                                                    @RequestParam(required = false) Category category,
+	                                                    HttpServletRequest request) {
+		if(FORMAT_NDJSON.equals(format))
+			return ResponseEntity.ok().contentType(APPLICATION_NDJSON).body(body(category, ProductJson::appendTo, request));
+		if(FORMAT_DELIMITED.equals(format) && isUsable(delimiter)) {
+			// Built per request rather than shared through ProductCodec.of, so client delimiters cannot crowd out cached codecs.
+			ProductCodec codec = new ProductCodec(delimiter, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+			return ResponseEntity.ok().contentType(TEXT_PLAIN_UTF8).body(body(category, codec::appendTo, request));
+		}
+		return ResponseEntity.badRequest().build();
+	}
+
+	private static boolean isUsable(String delimiter) {
+		return !delimiter.isEmpty() && delimiter.length() <= MAX_DELIMITER_LENGTH
+				&& delimiter.indexOf('\n') < 0 && delimiter.indexOf('\r') < 0;
+	}
+
+	private StreamingResponseBody body(Category category, LineFormat lineFormat, HttpServletRequest request) {
+		// Exports outlast the application's default async timeout, so only this request's is raised.
+		WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(ProductExportController.class, new CallableProcessingInterceptorAdapter() {
+			@Override
+			public <T> void beforeConcurrentHandling(NativeWebRequest asyncRequest, Callable<T> task) {
+				((AsyncWebRequest)asyncRequest).setTimeout(timeoutMillis);
+			}
+		});
+		return outputStream -> {
+			Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 1 << 16);
+			StringBuilder line = new StringBuilder(128);
+			long count = 0;
+			try(Stream<Product> products = productRepository.streamAll(category)) {
+				Iterator<Product> iterator = products.iterator();
+				while(iterator.hasNext()) {
+					line.setLength(0);
+					lineFormat.appendTo(line, iterator.next()).append('\n');
+					out.append(line);
+					if(++count % FLUSH_INTERVAL == 1)
+						out.flush();
+				}
+			}
+			out.flush();
+		};
+	}
+
+	@FunctionalInterface
+	private interface LineFormat {
+		StringBuilder appendTo(StringBuilder builder, Product product);
+	}
+}
@@ -0,0 +1,52 @@
+package whitaker.anthony.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import whitaker.anthony.cache.CacheStats;
+import whitaker.anthony.cache.ProductNumberCache;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductRepository;
+
+/**
+ * Lookups by product number, as made by scanners, served through {@link ProductNumberCache} in front of
+ * {@link ProductRepository#findByNumber}, which stays uncached and exported as {@code /products/search/findByNumber}.
+ */
+@RestController
+public class ProductLookupController {
+
+	private final ProductNumberCache productNumberCache;
+	private final ProductRepository productRepository;
+
+	@Autowired
+	public ProductLookupController(ProductRepository productRepository, ProductNumberCache productNumberCache) {
+		if(productRepository == null || productNumberCache == null)
+			throw new IllegalArgumentException("Parameters to ProductLookupController constructor cannot be null.");
+		this.productRepository = productRepository;
+		this.productNumberCache = productNumberCache;
+	}
+
+	/**
+	 * Returns the product with given number.
+	 *
+	 * @param number Product number.
+	 * @return Product, or 404 if there is none.
+	 */
+	@GetMapping("/lookup/{number}")
+	public ResponseEntity<Product> lookup(@PathVariable String number) {
+		Product product = productNumberCache.get(number, productRepository::findByNumber);
+		return product == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(product);
+	}
+
+	/**
+	 * Returns hit, miss and eviction counts of the number cache.
+	 *
+	 * @return Current statistics.
+	 */
+	@GetMapping("/lookup/cache")
+	public CacheStats cacheStats() {
+		return productNumberCache.getStats();
+	}
+}
@@ -0,0 +1,46 @@
+package whitaker.anthony.web;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import whitaker.anthony.startup.InventoryWarmUp;
+import whitaker.anthony.startup.StartupTimings;
+import whitaker.anthony.startup.WarmUpProgress;
+
+/**
+ * Startup timing breakdown and warm-up progress, for tracking cold-start regressions.
+ */
+@RestController
+public class StartupController {
+
+	private final InventoryWarmUp inventoryWarmUp;
+	private final StartupTimings startupTimings;
+
+	@Autowired
+	public StartupController(StartupTimings startupTimings, InventoryWarmUp inventoryWarmUp) {
+		if(startupTimings == null || inventoryWarmUp == null)
+			throw new IllegalArgumentException("Parameters to StartupController constructor cannot be null.");
+		this.startupTimings = startupTimings;
+		this.inventoryWarmUp = inventoryWarmUp;
+	}
+
+	/**
+	 * Returns how long each part of startup took, in milliseconds; -1 for parts not finished.
+	 *
+	 * @return Startup timings.
+	 */
+	@GetMapping("/startup")
+	public StartupTimings timings() {
+		return startupTimings;
+	}
+
+	/**
+	 * Returns how far background warm-up has got.
+	 *
+	 * @return Warm-up progress.
+	 */
+	@GetMapping("/startup/warm-up")
+	public WarmUpProgress warmUp() {
+		return inventoryWarmUp.getProgress();
+	}
+}
@@ -0,0 +1,195 @@
+package whitaker.anthony.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+
+public class ProductNumberCacheTest {
+
+	private static final Product LEMONS = new Product("1", "Lemons", Category.PRODUCE, LocalDate.of(2017, 10, 8));
+
+	private ProductNumberCache cache;
+	private MutableClock clock;
+	private Map<String, Product> database;
+	private AtomicInteger loads;
+	private Function<String, Product> loader;
+
+	@Before
+	public void setup() {
+		clock = new MutableClock();
+		cache = new ProductNumberCache(clock, 100, 1000, 100);
+		database = new HashMap<>();
+		database.put(LEMONS.getNumber(), LEMONS);
+		loads = new AtomicInteger();
+		loader = number -> {
+			loads.incrementAndGet();
+			return database.get(number);
+		};
+	}
+
+	@Test
+	public void testGet_ReadsThrough() {
+		assertSame(LEMONS, cache.get("1", loader));
+		assertSame(LEMONS, cache.get("1", loader));
+		assertEquals(1, loads.get());
+
+		CacheStats stats = cache.getStats();
+		assertEquals(1, stats.getHits());
+		assertEquals(1, stats.getMisses());
+		assertEquals(0.5, stats.getHitRate(), 0);
+		assertEquals(1, stats.getSize());
+	}
+
+	@Test
+	public void testGet_CachesMissingNumbersBriefly() {
+		assertNull(cache.get("2", loader));
+		assertNull(cache.get("2", loader));
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.getStats().getNegativeHits());
+
+		clock.advance(100);
+		assertNull(cache.get("2", loader));
+		assertEquals(2, loads.get());
+		assertEquals(1, cache.getStats().getExpirations());
+	}
+
+	@Test
+	public void testGet_Expires() {
+		cache.get("1", loader);
+		clock.advance(999);
+		cache.get("1", loader);
+		assertEquals(1, loads.get());
+		clock.advance(1);
+		cache.get("1", loader);
+		assertEquals(2, loads.get());
+	}
+
+	@Test
+	public void testGet_EvictsLeastRecentlyUsed() {
+		for(int i = 0; i < 100; i++) {
+			cache.get("n" + i, loader);
+		}
+		cache.get("n0", loader);
+		cache.get("n100", loader);
+
+		assertEquals(100, cache.size());
+		assertEquals(1, cache.getStats().getEvictions());
+		int before = loads.get();
+		cache.get("n0", loader);
+		assertEquals(before, loads.get());
+		cache.get("n1", loader);
+		assertEquals(before + 1, loads.get());
+	}
+
+	@Test
+	public void testGet_SegmentedCacheHoldsMaxSize() {
+		ProductNumberCache large = new ProductNumberCache(clock, 1000, 1000, 1000);
+		for(int i = 0; i < 5000; i++) {
+			large.get(Integer.toString(i), loader);
+		}
+		assertTrue(large.size() <= 1000);
+		assertTrue(large.size() > 900);
+		assertEquals(5000 - large.size(), large.getStats().getEvictions());
+	}
+
+	@Test
+	public void testGet_Disabled() {
+		ProductNumberCache disabled = ProductNumberCache.disabled();
+		disabled.get("1", loader);
+		disabled.get("1", loader);
+		assertEquals(2, loads.get());
+		assertEquals(0, disabled.size());
+	}
+
+	@Test
+	public void testInvalidate_DuringLoadIsNotOverwritten() {
+		Product replacement = new Product("1", "Limes", Category.PRODUCE, LocalDate.of(2017, 11, 2));
+		assertSame(LEMONS, cache.get("1", number -> {
+			// A write lands between the read and the cache being filled.
+			database.put("1", replacement);
+			cache.invalidate("1");
+			return LEMONS;
+		}));
+		assertSame(replacement, cache.get("1", loader));
+	}
+
+	@Test
+	public void testProductsInserted_DropsMissingEntries() {
+		cache.get("2", loader);
+		Product inserted = new Product("2", "Limes", Category.PRODUCE, LocalDate.of(2017, 11, 2));
+		database.put("2", inserted);
+		cache.productsInserted(Collections.singletonList(inserted));
+
+		assertSame(inserted, cache.get("2", loader));
+		assertEquals(1, cache.getStats().getInvalidations());
+	}
+
+	@Test
+	public void testWriteListener() {
+		Product limes = new Product("2", "Limes", Category.PRODUCE, LocalDate.of(2017, 11, 2));
+		Product cola = new Product("3", "Cola", Category.BEVERAGES, LocalDate.of(2017, 11, 2));
+		database.put(cola.getNumber(), cola);
+		cache.get("1", loader);
+		cache.get("2", loader);
+		cache.get("3", loader);
+
+		cache.productSaved(null, limes);
+		assertEquals(2, cache.size());
+
+		cache.productSaved(LEMONS, new Product("4", "Lemons", Category.PRODUCE, LocalDate.of(2017, 10, 8)));
+		assertEquals(1, cache.size());
+
+		cache.get("1", loader);
+		cache.productsDeleted(Collections.singletonList(cola));
+		assertEquals(1, cache.size());
+
+		cache.get("2", loader);
+		cache.get("3", loader);
+		cache.categoryDeleted(Category.PRODUCE);
+		assertEquals(2, cache.size());
+		assertNull(cache.get("2", loader));
+		assertEquals(6, loads.get());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_NegativeSize() {
+		new ProductNumberCache(clock, -1, 0, 0);
+	}
+
+	private static class MutableClock extends Clock {
+		private Instant instant = Instant.EPOCH;
+
+		private void advance(long millis) {
+			instant = instant.plusMillis(millis);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package whitaker.anthony.counts;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.BeforeSaveEvent;
+import org.springframework.data.mongodb.core.query.Query;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ExpiryCount;
+import whitaker.anthony.repository.ProductWriteEventListener;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ProductCountersTest {
+
+	private static final LocalDate OCTOBER = LocalDate.of(2017, 10, 8);
+	private static final LocalDate NOVEMBER = LocalDate.of(2017, 11, 2);
+
+	private ProductCounters counters;
+
+	@Before
+	public void setup() {
+		counters = new ProductCounters();
+	}
+
+	@Test
+	public void testAddAndRemove() {
+		Product lemons = new Product("1", "Lemons", Category.PRODUCE, OCTOBER);
+		counters.addAll(Arrays.asList(lemons,
+				new Product("2", "Limes", Category.PRODUCE, NOVEMBER),
+				new Product("3", "Cola", Category.BEVERAGES, OCTOBER)));
+		counters.remove(lemons);
+
+		assertEquals(2, counters.getTotal());
+		assertEquals(1, counters.getCount(Category.PRODUCE));
+		assertEquals(1, counters.getCount(Category.BEVERAGES));
+		assertEquals(0, counters.getCount(Category.PRODUCE, YearMonth.of(2017, 10)));
+		assertEquals(1, counters.getCount(Category.PRODUCE, YearMonth.of(2017, 11)));
+		assertEquals(0, counters.getCount(Category.FROZEN, YearMonth.of(2018, 1)));
+
+		ProductCounts snapshot = counters.snapshot();
+		assertEquals(2, snapshot.getTotal());
+		assertEquals(2, snapshot.getByCategory().size());
+		assertEquals(Collections.singletonMap(Category.BEVERAGES, 1L), snapshot.getByMonth().get(YearMonth.of(2017, 10)));
+		assertEquals(Arrays.asList(YearMonth.of(2017, 10), YearMonth.of(2017, 11)), Arrays.asList(snapshot.getByMonth().keySet().toArray()));
+	}
+
+	@Test
+	public void testAdd_Concurrent() {
+		IntStream.range(0, 10_000).parallel()
+				.forEach(i -> counters.add(Category.values()[i % 7], OCTOBER.plusDays(i % 90), 1));
+
+		assertEquals(10_000, counters.getTotal());
+		assertEquals(10_000, counters.snapshot().getByMonth().values().stream()
+				.flatMap(month -> month.values().stream()).mapToLong(Long::longValue).sum());
+	}
+
+	@Test
+	public void testReconcile() {
+		counters.add(Category.PRODUCE, OCTOBER, 3);
+		counters.add(Category.FROZEN, NOVEMBER, 1);
+
+		int corrected = counters.reconcile(Arrays.asList(
+				new ExpiryCount(OCTOBER, Category.PRODUCE, 2),
+				new ExpiryCount(OCTOBER.plusDays(1), Category.PRODUCE, 1),
+				new ExpiryCount(NOVEMBER, Category.BEVERAGES, 4)));
+
+		// FROZEN and BEVERAGES totals, and FROZEN and BEVERAGES in November.
+		assertEquals(4, corrected);
+		assertEquals(3, counters.getCount(Category.PRODUCE));
+		assertEquals(0, counters.getCount(Category.FROZEN));
+		assertEquals(4, counters.getCount(Category.BEVERAGES, YearMonth.of(2017, 11)));
+		assertEquals(0, counters.reconcile(Arrays.asList(
+				new ExpiryCount(OCTOBER, Category.PRODUCE, 3),
+				new ExpiryCount(NOVEMBER, Category.BEVERAGES, 4))));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAdd_NullCategory() {
+		counters.add(null, OCTOBER, 1);
+	}
+
+	@Test
+	public void testWriteListener() {
+		Product limes = new Product("2", "Limes", Category.PRODUCE, NOVEMBER);
+		counters.productSaved(null, limes);
+		counters.productSaved(limes, new Product("2", "Limes", Category.PRODUCE, OCTOBER));
+		counters.add(Category.FROZEN, NOVEMBER, 2);
+		assertEquals(3, counters.getTotal());
+		assertEquals(0, counters.getCount(Category.PRODUCE, YearMonth.of(2017, 11)));
+		assertEquals(1, counters.getCount(Category.PRODUCE, YearMonth.of(2017, 10)));
+
+		counters.categoryDeleted(Category.PRODUCE);
+		assertEquals(2, counters.getTotal());
+		assertEquals(0, counters.getCount(Category.PRODUCE, YearMonth.of(2017, 10)));
+		assertEquals(2, counters.getCount(Category.FROZEN, YearMonth.of(2017, 11)));
+
+		counters.productsDeleted(Collections.singletonList(new Product("3", "Peas", Category.FROZEN, NOVEMBER)));
+		assertEquals(1, counters.getCount(Category.FROZEN));
+	}
+
+	@Test
+	public void testEventListener_SaveAndDelete() {
+		MongoOperations mongoOperations = mock(MongoOperations.class);
+		ProductWriteEventListener listener = new ProductWriteEventListener(mongoOperations, Collections.singletonList(counters));
+		Product limes = new Product("2", "Limes", Category.PRODUCE, NOVEMBER);
+
+		DBObject inserted = new BasicDBObject("number", "2");
+		listener.onBeforeSave(new BeforeSaveEvent<>(limes, inserted, "product"));
+		listener.onAfterSave(new AfterSaveEvent<>(limes, inserted, "product"));
+		verifyZeroInteractions(mongoOperations);
+		assertEquals(1, counters.getCount(Category.PRODUCE, YearMonth.of(2017, 11)));
+
+		when(mongoOperations.findOne(any(Query.class), eq(Product.class))).thenReturn(limes);
+		Product replacement = new Product("2", "Limes", Category.PRODUCE, OCTOBER);
+		DBObject updated = new BasicDBObject("_id", "abc").append("number", "2");
+		listener.onBeforeSave(new BeforeSaveEvent<>(replacement, updated, "product"));
+		listener.onAfterSave(new AfterSaveEvent<>(replacement, updated, "product"));
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoOperations).findOne(captor.capture(), eq(Product.class));
+		assertEquals("{ \"_id\" : \"abc\"}", captor.getValue().getQueryObject().toString());
+		assertEquals(4, captor.getValue().getFieldsObject().keySet().size());
+		assertEquals(1, counters.getTotal());
+		assertEquals(0, counters.getCount(Category.PRODUCE, YearMonth.of(2017, 11)));
+		assertEquals(1, counters.getCount(Category.PRODUCE, YearMonth.of(2017, 10)));
+
+		DBObject byId = new BasicDBObject("_id", "abc");
+		when(mongoOperations.findOne(any(Query.class), eq(Product.class))).thenReturn(replacement);
+		listener.onBeforeDelete(new BeforeDeleteEvent<>(byId, Product.class, "product"));
+		assertEquals(1, counters.getTotal());
+		listener.onAfterDelete(new AfterDeleteEvent<>(byId, Product.class, "product"));
+		assertEquals(0, counters.getTotal());
+
+		counters.add(Category.PRODUCE, OCTOBER, 2);
+		DBObject byCategory = new BasicDBObject("category", Category.PRODUCE);
+		listener.onBeforeDelete(new BeforeDeleteEvent<>(byCategory, Product.class, "product"));
+		listener.onAfterDelete(new AfterDeleteEvent<>(byCategory, Product.class, "product"));
+		assertEquals(0, counters.getTotal());
+		verify(mongoOperations, times(2)).findOne(any(Query.class), eq(Product.class));
+		verify(mongoOperations, never()).find(any(Query.class), eq(Product.class));
+	}
+}
@@ -0,0 +1,235 @@
+package whitaker.anthony.expiration;
+
+import org.junit.Before;
+import org.junit.Test;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ExpirationSchedulerTest {
+
+	private static final LocalDate START = LocalDate.of(2018, 1, 1);
+
+	private MutableClock clock;
+	private List<ExpirationEvent> events;
+	private ExpirationScheduler scheduler;
+
+	@Before
+	public void setup() {
+		clock = new MutableClock(START);
+		events = new ArrayList<>();
+		scheduler = new ExpirationScheduler(clock, 3);
+		scheduler.addListener(events::add);
+	}
+
+	@Test
+	public void testAdvance_FiresWarningThenExpired() {
+		Product product = product("1", START.plusDays(10));
+		scheduler.schedule(product);
+
+		clock.set(START.plusDays(6));
+		assertEquals(0, scheduler.advance());
+		clock.set(START.plusDays(7));
+		assertEquals(1, scheduler.advance());
+		assertEquals(ExpirationEvent.Type.EXPIRING_SOON, events.get(0).getType());
+		assertEquals(START.plusDays(7), events.get(0).getDate());
+		assertSame(product, events.get(0).getItem());
+
+		clock.set(START.plusDays(10));
+		assertEquals(0, scheduler.advance());
+		clock.set(START.plusDays(11));
+		assertEquals(1, scheduler.advance());
+		assertEquals(ExpirationEvent.Type.EXPIRED, events.get(1).getType());
+		assertEquals(0, scheduler.getPendingCount());
+	}
+
+	@Test
+	public void testSchedule_AlreadyDueFiresOnNextAdvance() {
+		scheduler.schedule(product("1", START.plusDays(1)));
+		scheduler.schedule(product("2", START.minusDays(1)));
+		scheduler.schedule(product("3", START));
+
+		assertEquals(3, scheduler.advance());
+		assertEquals(2, events.stream().filter(event -> event.getType() == ExpirationEvent.Type.EXPIRING_SOON).count());
+		assertEquals("2", events.stream().filter(event -> event.getType() == ExpirationEvent.Type.EXPIRED).findFirst().get().getItem().getNumber());
+		assertEquals(2, scheduler.getPendingCount());
+	}
+
+	@Test
+	public void testCancel() {
+		ExpirationScheduler.Timer timer = scheduler.schedule(product("1", START.plusDays(10)));
+		assertTrue(scheduler.cancel(timer));
+		assertFalse(scheduler.cancel(timer));
+
+		clock.set(START.plusYears(1));
+		assertEquals(0, scheduler.advance());
+		assertEquals(0, scheduler.getPendingCount());
+	}
+
+	@Test
+	public void testAdvance_MatchesDayByDayScanAcrossLevels() {
+		Random random = new Random(13);
+		Map<String, LocalDate> expirationDates = new HashMap<>();
+		List<ExpirationScheduler.Timer> timers = new ArrayList<>();
+		for(int i = 0; i < 20000; i++) {
+			LocalDate expirationDate = START.plusDays(random.nextInt(i % 100 == 0 ? 40000 : 3000) - 10);
+			expirationDates.put(Integer.toString(i), expirationDate);
+			timers.add(scheduler.schedule(product(Integer.toString(i), expirationDate)));
+		}
+		for(int i = 0; i < timers.size(); i += 7) {
+			scheduler.cancel(timers.get(i));
+			expirationDates.remove(Integer.toString(i));
+		}
+
+		LocalDate end = START.plusDays(45000);
+		for(LocalDate day = START; !day.isAfter(end); day = day.plusDays(random.nextInt(400) + 1)) {
+			clock.set(day);
+			scheduler.advance();
+		}
+		clock.set(end);
+		scheduler.advance();
+
+		assertEquals(0, scheduler.getPendingCount());
+		Map<String, LocalDate> expired = new HashMap<>();
+		for(ExpirationEvent event : events) {
+			LocalDate expirationDate = expirationDates.get(event.getItem().getNumber());
+			assertNotNull(expirationDate);
+			if(event.getType() == ExpirationEvent.Type.EXPIRED) {
+				assertNull(expired.put(event.getItem().getNumber(), event.getDate()));
+				assertTrue(event.getDate().isAfter(expirationDate));
+			}
+			else {
+				assertFalse(event.getDate().isBefore(expirationDate.minusDays(3)));
+				assertTrue(expirationDate.isAfter(START.minusDays(1)));
+			}
+		}
+		assertEquals(expirationDates.keySet(), expired.keySet());
+	}
+
+	@Test
+	public void testAdvance_FiresOnExactDayWhenAdvancedDaily() {
+		for(int offset : new int[]{1, 255, 256, 257, 300, 16383, 16384, 16385, 20000}) {
+			scheduler.schedule(product(Integer.toString(offset), START.plusDays(offset)));
+		}
+		for(LocalDate day = START; day.isBefore(START.plusDays(20010)); day = day.plusDays(1)) {
+			clock.set(day);
+			scheduler.advance();
+		}
+		for(ExpirationEvent event : events) {
+			LocalDate expected = event.getType() == ExpirationEvent.Type.EXPIRED
+					? event.getItem().getExpirationDate().plusDays(1)
+					: event.getItem().getExpirationDate().minusDays(3);
+			assertEquals(event.toString(), expected.isBefore(START) ? START : expected, event.getDate());
+		}
+		assertEquals(18, events.size());
+	}
+
+	@Test
+	public void testJob_LoadsOnceThenAdvances() {
+		ProductRepository productRepository = mock(ProductRepository.class);
+		when(productRepository.streamAll(null)).thenAnswer(invocation -> Stream.of(product("1", START.plusDays(1))));
+		ExpirationJob job = new ExpirationJob(productRepository, Collections.singletonList(events::add), new ExpirationScheduler(clock, 3));
+
+		assertEquals(1, job.run());
+		clock.set(START.plusDays(2));
+		assertEquals(1, job.run());
+		verify(productRepository, times(1)).streamAll(null);
+		assertEquals(2, events.size());
+	}
+
+	@Test
+	public void testJob_DeletedProductFiresNoEvent() {
+		ProductRepository productRepository = mock(ProductRepository.class);
+		when(productRepository.streamAll(null)).thenAnswer(invocation -> Stream.of(product("1", START.plusDays(5)), product("2", START.plusDays(5))));
+		ExpirationJob job = new ExpirationJob(productRepository, Collections.singletonList(events::add), new ExpirationScheduler(clock, 3));
+		assertEquals(0, job.run());
+
+		job.productsDeleted(Collections.singletonList(product("1", START.plusDays(5))));
+		clock.set(START.plusDays(2));
+		assertEquals(1, job.run());
+		assertEquals("2", events.get(0).getItem().getNumber());
+		verify(productRepository, times(1)).streamAll(null);
+	}
+
+	@Test
+	public void testJob_FollowsWritesAndDropsExpiredTimers() {
+		ProductRepository productRepository = mock(ProductRepository.class);
+		when(productRepository.streamAll(null)).thenAnswer(invocation -> Stream.of(product("1", START.plusDays(1))));
+		ExpirationJob job = new ExpirationJob(productRepository, Collections.singletonList(events::add), new ExpirationScheduler(clock, 3));
+		assertEquals(1, job.run());
+
+		job.productSaved(null, product("2", START.plusDays(10)));
+		job.productsInserted(Collections.singletonList(new Product("3", "Peas", Category.FROZEN, START.plusDays(20))));
+		assertEquals(3, job.getScheduler().getPendingCount());
+
+		// Moving the expiration date replaces the timer rather than adding one; changing the number cancels the old one.
+		job.productSaved(product("2", START.plusDays(10)), product("2", START.plusDays(2)));
+		assertEquals(3, job.getScheduler().getPendingCount());
+		job.productSaved(product("1", START.plusDays(1)), product("4", START.plusDays(1)));
+		assertEquals(3, job.getTimerCount());
+
+		job.categoryDeleted(Category.FROZEN);
+		assertEquals(2, job.getTimerCount());
+		assertEquals(2, job.run());
+		assertEquals(ExpirationEvent.Type.EXPIRING_SOON, events.get(2).getType());
+		assertEquals(2, job.getScheduler().getPendingCount());
+
+		clock.set(START.plusDays(30));
+		assertEquals(2, job.run());
+		assertEquals(5, events.size());
+		assertEquals(0, job.getScheduler().getPendingCount());
+		assertEquals(0, job.getTimerCount());
+
+		// Saving an expired product unchanged does not fire its events again.
+		job.productSaved(product("2", START.plusDays(2)), product("2", START.plusDays(2)));
+		assertEquals(0, job.run());
+		verify(productRepository, times(1)).streamAll(null);
+	}
+
+	private static Product product(String number, LocalDate expirationDate) {
+		return new Product(number, "Lemons", Category.PRODUCE, expirationDate);
+	}
+
+	private static class MutableClock extends Clock {
+		private Instant instant;
+
+		private MutableClock(LocalDate date) {
+			set(date);
+		}
+
+		private void set(LocalDate date) {
+			instant = date.atStartOfDay(ZoneOffset.UTC).toInstant();
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return instant;
+		}
+	}
+}
@@ -0,0 +1,148 @@
+package whitaker.anthony.generator;
+
+import org.junit.Test;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.ProductCandidate;
+import whitaker.anthony.model.ProductNumbers;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class NumberStrategyTest {
+
+	@Test
+	public void testTimeOrderedUuid_IncreasesWithinAndAcrossMilliseconds() {
+		MutableClock clock = new MutableClock(1_500_000_000_000L);
+		NumberStrategy strategy = new TimeOrderedUuidStrategy(clock);
+		SplittableRandom random = new SplittableRandom(1);
+
+		List<String> numbers = new ArrayList<>();
+		for(int i = 0; i < 5000; i++) {
+			numbers.add(strategy.nextNumber(random));
+		}
+		clock.millis = 1_500_000_000_001L;
+		numbers.add(strategy.nextNumber(random));
+		clock.millis = 1_400_000_000_000L;
+		numbers.add(strategy.nextNumber(random));
+		clock.millis = 1_500_000_000_100L;
+		numbers.add(strategy.nextNumber(random));
+
+		List<String> sorted = new ArrayList<>(numbers);
+		Collections.sort(sorted);
+		assertEquals(numbers, sorted);
+		assertEquals(numbers.size(), new HashSet<>(numbers).size());
+		for(String number : numbers) {
+			assertTrue(ProductNumbers.isUuid(number));
+			assertEquals(7, UUID.fromString(number).version());
+			assertEquals(2, UUID.fromString(number).variant());
+		}
+		assertEquals(1_500_000_000_100L, Long.parseLong(numbers.get(numbers.size() - 1).replace("-", "").substring(0, 12), 16));
+	}
+
+	@Test
+	public void testTimeOrderedUuid_ConcurrentNumbersAreUniqueAndOrderedPerThread() {
+		NumberStrategy strategy = NumberStrategy.timeOrderedUuid();
+		Set<String> all = ConcurrentHashMap.newKeySet();
+		IntStream.range(0, 4).parallel().forEach(thread -> {
+			SplittableRandom random = new SplittableRandom(thread);
+			String previous = "";
+			for(int i = 0; i < 20_000; i++) {
+				String number = strategy.nextNumber(random);
+				assertTrue(number.compareTo(previous) > 0);
+				all.add(number);
+				previous = number;
+			}
+		});
+		assertEquals(80_000, all.size());
+	}
+
+	@Test
+	public void testNodeSharded_OrderedPerNodeAndDistinctAcrossNodes() {
+		NumberStrategy first = NumberStrategy.nodeSharded(1, 0);
+		NumberStrategy second = NumberStrategy.nodeSharded(2, 0);
+
+		List<String> numbers = IntStream.range(0, 1000).mapToObj(i -> first.nextNumber(null)).collect(Collectors.toList());
+		List<String> sorted = new ArrayList<>(numbers);
+		Collections.sort(sorted);
+		assertEquals(numbers, sorted);
+		assertEquals("00010000-0000-8000-8000-000000000000", numbers.get(0));
+		assertEquals("00010000-0000-8000-8000-0000000003e7", numbers.get(999));
+		assertEquals("00020000-0000-8000-8000-000000000000", second.nextNumber(null));
+		assertEquals(8, UUID.fromString(numbers.get(0)).version());
+		assertEquals("00010000-0000-8000-8000-00000000002a", NumberStrategy.nodeSharded(1, 42).nextNumber(null));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNodeSharded_InvalidNode() {
+		NumberStrategy.nodeSharded(NodeShardedCounterStrategy.MAX_NODE_ID + 1, 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testNodeSharded_Exhausted() {
+		NumberStrategy strategy = NumberStrategy.nodeSharded(1, NodeShardedCounterStrategy.MAX_COUNTER);
+		strategy.nextNumber(null);
+		strategy.nextNumber(null);
+	}
+
+	@Test
+	public void testRandomUuid_Seeded() {
+		assertEquals(NumberStrategy.randomUuid().nextNumber(new SplittableRandom(5)), NumberStrategy.randomUuid().nextNumber(new SplittableRandom(5)));
+		assertEquals(4, UUID.fromString(NumberStrategy.secureRandomUuid().nextNumber(null)).version());
+	}
+
+	@Test
+	public void testGenerators_UseStrategy() {
+		List<ProductCandidate> candidates = Collections.singletonList(new ProductCandidate(Category.PRODUCE, "Lemons"));
+		ProductGenerator productGenerator = new ProductGenerator(candidates, NumberStrategy.nodeSharded(3, 0));
+		assertEquals("00030000-0000-8000-8000-000000000000", productGenerator.createRandomProduct(LocalDate.of(2017, 10, 1), LocalDate.of(2017, 10, 2)).getNumber());
+
+		List<String> numbers = new ArrayList<>();
+		new StreamingProductGenerator(candidates, null, LocalDate.of(2017, 10, 1), LocalDate.of(2017, 10, 2), NumberStrategy.nodeSharded(4, 0))
+				.generate(3, 1, 2, product -> numbers.add(product.getNumber()));
+		assertEquals(3, new HashSet<>(numbers).size());
+		assertTrue(numbers.stream().allMatch(number -> number.startsWith("00040000")));
+	}
+
+	private static class MutableClock extends Clock {
+		private long millis;
+
+		private MutableClock(long millis) {
+			this.millis = millis;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZoneOffset.UTC;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public long millis() {
+			return millis;
+		}
+
+		@Override
+		public Instant instant() {
+			return Instant.ofEpochMilli(millis);
+		}
+	}
+}
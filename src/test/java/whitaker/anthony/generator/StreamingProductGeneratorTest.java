@@ -0,0 +1,148 @@
+package whitaker.anthony.generator;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCandidate;
+import whitaker.anthony.model.ProductCodec;
+import whitaker.anthony.model.ProductNumbers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class StreamingProductGeneratorTest {
+
+	private static final LocalDate MAX = LocalDate.of(2017, 10, 31);
+	private static final LocalDate MIN = LocalDate.of(2017, 10, 1);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private List<ProductCandidate> candidates;
+
+	@Before
+	public void setup() {
+		candidates = ProductGenerator.parseProductCandidateFile("src/main/resources/ProductCandidates.txt", DELIMITER);
+	}
+
+	@Test
+	public void testGenerate_MoreProductsThanCandidates() {
+		long[] count = new long[1];
+		new StreamingProductGenerator(candidates, MIN, MAX).generate(10 * candidates.size(), product -> {
+			count[0]++;
+			assertFalse(product.getExpirationDate().isBefore(MIN));
+			assertFalse(product.getExpirationDate().isAfter(MAX));
+			assertTrue(ProductNumbers.isUuid(product.getNumber()));
+			assertEquals(4, UUID.fromString(product.getNumber()).version());
+		});
+		assertEquals(10 * candidates.size(), count[0]);
+	}
+
+	@Test
+	public void testNext_CoversDateRangeInclusive() {
+		StreamingProductGenerator generator = new StreamingProductGenerator(candidates, MIN, MIN.plusDays(1));
+		SplittableRandom random = new SplittableRandom(1);
+		boolean first = false;
+		boolean last = false;
+		for(int i = 0; i < 1000; i++) {
+			LocalDate date = generator.next(random).getExpirationDate();
+			first |= date.equals(MIN);
+			last |= date.equals(MIN.plusDays(1));
+		}
+		assertTrue(first && last);
+	}
+
+	@Test
+	public void testNext_CategoryWeights() {
+		Map<Category, Double> weights = new EnumMap<>(Category.class);
+		weights.put(Category.PRODUCE, 3.0);
+		weights.put(Category.FROZEN, 1.0);
+		weights.put(Category.BEVERAGES, 0.0);
+		StreamingProductGenerator generator = new StreamingProductGenerator(candidates, weights, MIN, MAX);
+
+		Map<Category, Integer> counts = new EnumMap<>(Category.class);
+		SplittableRandom random = new SplittableRandom(42);
+		for(int i = 0; i < 40_000; i++) {
+			counts.merge(generator.next(random).getCategory(), 1, Integer::sum);
+		}
+		assertEquals(2, counts.size());
+		assertEquals(30_000, counts.get(Category.PRODUCE), 600);
+		assertEquals(10_000, counts.get(Category.FROZEN), 600);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_WeightedCategoryWithoutCandidates() {
+		Map<Category, Double> weights = new EnumMap<>(Category.class);
+		weights.put(Category.PRODUCE, 1.0);
+		new StreamingProductGenerator(Collections.singletonList(new ProductCandidate(Category.BEVERAGES, "Coffee")), weights, MIN, MAX);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_NoPositiveWeight() {
+		Map<Category, Double> weights = new EnumMap<>(Category.class);
+		weights.put(Category.PRODUCE, 0.0);
+		new StreamingProductGenerator(candidates, weights, MIN, MAX);
+	}
+
+	@Test
+	public void testGenerate_File() throws IOException {
+		Path path = folder.newFile("generated.txt").toPath();
+		DataGenerator dataGenerator = new DataGenerator("src/main/resources/ProductCandidates.txt", DELIMITER, null, null);
+		dataGenerator.writeGeneratedDataSetToFile(1000, MIN, MAX, null, path.toString(), DELIMITER);
+
+		List<Product> products = DataGenerator.parseProductsFromFile(path.toString(), DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		assertEquals(1000, products.size());
+		assertEquals(1000, products.stream().map(Product::getNumber).distinct().count());
+		ProductCodec codec = ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		assertEquals(products.get(0).getNumber(), codec.parse(codec.format(products.get(0))).getNumber());
+	}
+
+	@Test
+	public void testGenerate_SeededFileIsIdenticalForAnyParallelism() throws IOException {
+		StreamingProductGenerator generator = new StreamingProductGenerator(candidates, MIN, MAX);
+		ProductCodec codec = ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		long count = 2 * StreamingProductGenerator.CHUNK_SIZE + 17;
+		Path single = folder.newFile("single.txt").toPath();
+		Path parallel = folder.newFile("parallel.txt").toPath();
+		Path otherSeed = folder.newFile("other.txt").toPath();
+
+		generator.generate(count, 7, 1, single, codec);
+		generator.generate(count, 7, 4, parallel, codec);
+		generator.generate(count, 8, 4, otherSeed, codec);
+
+		assertArrayEquals(Files.readAllBytes(single), Files.readAllBytes(parallel));
+		assertFalse(Arrays.equals(Files.readAllBytes(single), Files.readAllBytes(otherSeed)));
+		assertEquals(count, Files.lines(single).count());
+	}
+
+	@Test
+	public void testGenerate_SeededSinkMatchesFile() throws IOException {
+		StreamingProductGenerator generator = new StreamingProductGenerator(candidates, MIN, MAX);
+		ProductCodec codec = ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		Path path = folder.newFile("seeded.txt").toPath();
+		generator.generate(StreamingProductGenerator.CHUNK_SIZE + 1, 99, 3, path, codec);
+
+		List<String> lines = new ArrayList<>();
+		generator.generate(StreamingProductGenerator.CHUNK_SIZE + 1, 99, 2, product -> lines.add(codec.format(product)));
+
+		assertEquals(Files.readAllLines(path), lines);
+	}
+}
@@ -0,0 +1,112 @@
+package whitaker.anthony.ingest;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.BulkWriteError;
+import com.mongodb.BulkWriteResult;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class ProductBulkLoaderTest {
+
+	private static final String FILENAME_DATASET_1 = "src/test/resources/dataset1.txt";
+
+	private BulkOperations bulkOperations;
+	private MongoOperations mongoOperations;
+	private List<List<Product>> written;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		written = Collections.synchronizedList(new ArrayList<>());
+		mongoOperations = mock(MongoOperations.class);
+		bulkOperations = mock(BulkOperations.class);
+		when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+		when(bulkOperations.insert(anyListOf(Object.class))).thenAnswer(invocation -> {
+			written.add(new ArrayList<>((List<Product>)invocation.getArguments()[0]));
+			return bulkOperations;
+		});
+	}
+
+	@Test
+	public void testLoad_BatchesFile() throws IOException {
+		BulkWriteResult writeResult = mock(BulkWriteResult.class);
+		when(writeResult.getInsertedCount()).thenReturn(10, 10, 5);
+		when(bulkOperations.execute()).thenReturn(writeResult);
+
+		List<BatchResult> batches = Collections.synchronizedList(new ArrayList<>());
+		ProductBulkLoader loader = new ProductBulkLoader(mongoOperations, 10, 2);
+		BulkLoadResult result = loader.load(Paths.get(FILENAME_DATASET_1), ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE), batches::add);
+
+		assertEquals(25, result.getReadCount());
+		assertEquals(25, result.getInsertedCount());
+		assertEquals(3, result.getBatchCount());
+		assertEquals(3, batches.size());
+		assertEquals(3, written.size());
+		assertEquals(25, written.stream().mapToInt(List::size).sum());
+		assertTrue(written.stream().allMatch(batch -> batch.size() <= 10));
+	}
+
+	@Test
+	public void testLoad_ReportsDuplicates() {
+		BulkWriteResult writeResult = mock(BulkWriteResult.class);
+		when(writeResult.getInsertedCount()).thenReturn(1);
+		BulkOperationException exception = mock(BulkOperationException.class);
+		when(exception.getErrors()).thenReturn(Collections.singletonList(new BulkWriteError(11000, "E11000 duplicate key error", new BasicDBObject(), 1)));
+		when(exception.getResult()).thenReturn(writeResult);
+		when(bulkOperations.execute()).thenThrow(exception);
+
+		Product first = new Product("1", "Lemons", Category.PRODUCE, LocalDate.of(2017, 10, 8));
+		Product second = new Product("2", "Limes", Category.PRODUCE, LocalDate.of(2017, 10, 8));
+		List<Product> inserted = Collections.synchronizedList(new ArrayList<>());
+		ProductBulkLoader loader = new ProductBulkLoader(mongoOperations, Collections.singletonList(inserted::addAll), 2, 1);
+		BulkLoadResult result = loader.load(Stream.of(first, second), BulkLoadListener.NONE);
+
+		assertEquals(2, result.getReadCount());
+		assertEquals(1, result.getInsertedCount());
+		assertEquals(1, result.getDuplicateCount());
+		assertEquals(Collections.singletonList("2"), result.getDuplicateNumbers());
+		assertEquals(Collections.singletonList(first), inserted);
+	}
+
+	@Test
+	public void testLoad_OtherErrorsAbort() {
+		BulkOperationException exception = mock(BulkOperationException.class);
+		when(exception.getErrors()).thenReturn(Collections.singletonList(new BulkWriteError(2, "BadValue", new BasicDBObject(), 0)));
+		when(bulkOperations.execute()).thenThrow(exception);
+
+		Product product = new Product("1", "Lemons", Category.PRODUCE, LocalDate.of(2017, 10, 8));
+		try {
+			new ProductBulkLoader(mongoOperations, 1, 1).load(Stream.of(product, product, product), BulkLoadListener.NONE);
+			fail();
+		} catch(BulkOperationException e) {
+			assertSame(exception, e);
+		}
+		verify(bulkOperations, atMost(2)).execute();
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_Exception() {
+		new ProductBulkLoader(mongoOperations, 0, 1);
+	}
+}
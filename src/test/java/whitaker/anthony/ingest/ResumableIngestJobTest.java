@@ -0,0 +1,138 @@
+package whitaker.anthony.ingest;
+
+import com.mongodb.BulkWriteResult;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class ResumableIngestJobTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private Path dataFile;
+	private ProductBulkLoader loader;
+	private List<String> written;
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setup() throws IOException {
+		List<String> lines = new ArrayList<>(Files.readAllLines(Paths.get("src/test/resources/dataset1.txt")));
+		lines.add(3, "not a product");
+		lines.add(17, "08f7751c-c495-469d-b4ca-5b1f118c91a7;Lemons;Produce;2017-13-08");
+		dataFile = folder.newFile("dataset.txt").toPath();
+		Files.write(dataFile, lines);
+
+		written = new ArrayList<>();
+		List<Product> pending = new ArrayList<>();
+		MongoOperations mongoOperations = mock(MongoOperations.class);
+		BulkOperations bulkOperations = mock(BulkOperations.class);
+		BulkWriteResult writeResult = mock(BulkWriteResult.class);
+		when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+		when(bulkOperations.insert(anyListOf(Object.class))).thenAnswer(invocation -> {
+			pending.clear();
+			pending.addAll((List<Product>)invocation.getArguments()[0]);
+			return bulkOperations;
+		});
+		when(bulkOperations.execute()).thenAnswer(invocation -> {
+			pending.forEach(product -> written.add(product.getNumber()));
+			return writeResult;
+		});
+		when(writeResult.getInsertedCount()).thenAnswer(invocation -> pending.size());
+		loader = new ProductBulkLoader(mongoOperations, 10, 1);
+	}
+
+	@Test
+	public void testRun_RejectsBadLines() throws IOException {
+		ResumableIngestJob job = new ResumableIngestJob(loader, codec(), dataFile);
+		IngestCheckpoint checkpoint = job.run();
+
+		assertTrue(checkpoint.isComplete());
+		assertEquals(27, checkpoint.getLineCount());
+		assertEquals(25, checkpoint.getInsertedCount());
+		assertEquals(2, checkpoint.getRejectedCount());
+		assertEquals(Files.size(dataFile), checkpoint.getOffset());
+		assertEquals(25, written.size());
+
+		List<String> rejects = Files.readAllLines(job.getRejectFile(), StandardCharsets.UTF_8);
+		assertEquals(2, rejects.size());
+		assertTrue(rejects.get(0).endsWith("\tnot a product"));
+		assertTrue(rejects.get(1).endsWith("\t08f7751c-c495-469d-b4ca-5b1f118c91a7;Lemons;Produce;2017-13-08"));
+	}
+
+	@Test
+	public void testRun_ResumesFromCheckpoint() throws IOException {
+		ResumableIngestJob job = new ResumableIngestJob(loader, codec(), dataFile);
+		// Let the first batch through, then fail the second.
+		ResumableIngestJob failing = new ResumableIngestJob(new ProductBulkLoader(mockFailingAfter(1), 10, 1), codec(), dataFile);
+		try {
+			failing.run();
+			fail();
+		} catch(DataAccessResourceFailureException e) {
+			assertEquals("Connection lost", e.getMessage());
+		}
+		IngestCheckpoint partial = IngestCheckpoint.load(job.getCheckpointFile());
+		assertFalse(partial.isComplete());
+		assertEquals(11, partial.getLineCount()); // Ten products and the first rejected line.
+		assertEquals(10, partial.getInsertedCount());
+		assertEquals(1, partial.getRejectedCount());
+
+		IngestCheckpoint checkpoint = job.run();
+		assertTrue(checkpoint.isComplete());
+		assertEquals(27, checkpoint.getLineCount());
+		assertEquals(25, checkpoint.getInsertedCount());
+		assertEquals(15, written.size()); // Only what the failed run had not committed.
+		assertEquals(2, Files.readAllLines(job.getRejectFile(), StandardCharsets.UTF_8).size());
+
+		assertEquals(checkpoint.getLineCount(), job.run().getLineCount());
+		assertEquals(15, written.size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testRun_DataFileChanged() throws IOException {
+		new IngestCheckpoint(1, 0, 0, 0, 0, 0, 0, false).store(Paths.get(dataFile + ".checkpoint"));
+		new ResumableIngestJob(loader, codec(), dataFile).run();
+	}
+
+	private MongoOperations mockFailingAfter(int successfulWrites) {
+		MongoOperations mongoOperations = mock(MongoOperations.class);
+		BulkOperations bulkOperations = mock(BulkOperations.class);
+		BulkWriteResult writeResult = mock(BulkWriteResult.class);
+		int[] writes = {0};
+		when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, Product.class)).thenReturn(bulkOperations);
+		when(bulkOperations.insert(anyListOf(Object.class))).thenReturn(bulkOperations);
+		when(bulkOperations.execute()).thenAnswer(invocation -> {
+			if(writes[0]++ >= successfulWrites)
+				throw new DataAccessResourceFailureException("Connection lost");
+			return writeResult;
+		});
+		when(writeResult.getInsertedCount()).thenReturn(10);
+		return mongoOperations;
+	}
+
+	private static ProductCodec codec() {
+		return ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+	}
+}
@@ -0,0 +1,154 @@
+package whitaker.anthony.inventory;
+
+import org.junit.Before;
+import org.junit.Test;
+import whitaker.anthony.generator.DataGenerator;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class InventoryTest {
+
+	private static final String[] DATASETS = {"src/test/resources/dataset1.txt", "src/test/resources/dataset2.txt", "src/test/resources/dataset3.txt"};
+
+	private Inventory inventory;
+	private List<List<Product>> datasets;
+
+	@Before
+	public void setup() {
+		inventory = new Inventory();
+		datasets = new ArrayList<>();
+		for(String dataset : DATASETS) {
+			List<Product> products = DataGenerator.parseProductsFromFile(dataset, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+			datasets.add(products);
+			inventory.addAll(products);
+		}
+	}
+
+	@Test
+	public void testFinders_MatchScan() {
+		List<Product> all = all();
+		for(Category category : Category.values()) {
+			assertMatches(all, product -> product.getCategory() == category, inventory.findByCategory(category));
+		}
+		for(Product product : all) {
+			assertMatches(all, other -> other.getName().equals(product.getName()), inventory.findByName(product.getName()));
+			assertMatches(all, other -> other.getExpirationDate().equals(product.getExpirationDate()), inventory.findByExpirationDate(product.getExpirationDate()));
+			assertEquals(product.toString(), inventory.findByNumber(product.getNumber()).toString());
+		}
+		assertNull(inventory.findByNumber(UUID.randomUUID().toString()));
+		assertNull(inventory.findByNumber("12346567"));
+	}
+
+	@Test
+	public void testRangeFinders_MatchScan() {
+		List<Product> all = all();
+		LocalDate from = all.get(10).getExpirationDate();
+		LocalDate to = from.plusMonths(3);
+		List<Product> between = inventory.findByExpirationDateBetween(from, to);
+		assertMatches(all, product -> !product.getExpirationDate().isBefore(from) && !product.getExpirationDate().isAfter(to), between);
+		for(int i = 1; i < between.size(); i++) {
+			assertFalse(between.get(i).getExpirationDate().isBefore(between.get(i - 1).getExpirationDate()));
+		}
+		assertTrue(inventory.findByExpirationDateBetween(to, from).isEmpty());
+
+		assertMatches(all, product -> product.getName().startsWith("C"), inventory.findByNameStartingWith("C"));
+	}
+
+	@Test
+	public void testRemoveAll_UpdatesIndexes() {
+		assertEquals(25, inventory.removeAll(datasets.get(1)));
+		assertEquals(50, inventory.size());
+		List<Product> remaining = new ArrayList<>(datasets.get(0));
+		remaining.addAll(datasets.get(2));
+
+		for(Product product : datasets.get(1)) {
+			assertNull(inventory.findByNumber(product.getNumber()));
+		}
+		for(Category category : Category.values()) {
+			assertMatches(remaining, product -> product.getCategory() == category, inventory.findByCategory(category));
+		}
+		assertFalse(inventory.remove(datasets.get(1).get(0).getNumber()));
+		assertTrue(inventory.remove(datasets.get(0).get(0).getNumber()));
+
+		inventory.addAll(datasets.get(1));
+		assertEquals(74, inventory.size());
+	}
+
+	@Test
+	public void testRemoveCategory() {
+		List<Product> canned = all().stream().filter(product -> product.getCategory() == Category.CANNED_PACKAGED).collect(Collectors.toList());
+		assertFalse(canned.isEmpty());
+
+		assertEquals(canned.size(), inventory.removeCategory(Category.CANNED_PACKAGED));
+		assertEquals(75 - canned.size(), inventory.size());
+		assertEquals(0, inventory.getStore().getCategorySize(Category.CANNED_PACKAGED));
+		assertTrue(inventory.findByCategory(Category.CANNED_PACKAGED).isEmpty());
+		assertNull(inventory.findByNumber(canned.get(0).getNumber()));
+		assertTrue(inventory.findByName(canned.get(0).getName()).stream().noneMatch(product -> product.getCategory() == Category.CANNED_PACKAGED));
+		assertEquals(0, inventory.removeCategory(Category.CANNED_PACKAGED));
+
+		inventory.addAll(canned.subList(0, 1));
+		assertEquals(1, inventory.findByCategory(Category.CANNED_PACKAGED).size());
+		assertEquals(canned.get(0).toString(), inventory.findByNumber(canned.get(0).getNumber()).toString());
+	}
+
+	@Test
+	public void testAddAll_RejectsDuplicateNumbers() {
+		try {
+			inventory.addAll(Collections.singletonList(datasets.get(0).get(3)));
+			fail();
+		} catch(IllegalArgumentException e) {
+			assertEquals(75, inventory.size());
+		}
+		Product product = new Product("12346567", "Lemons", Category.PRODUCE, LocalDate.of(2017, 10, 8));
+		try {
+			inventory.addAll(Arrays.asList(product, product));
+			fail();
+		} catch(IllegalArgumentException e) {
+			assertEquals(75, inventory.size());
+		}
+	}
+
+	@Test
+	public void testManyAddsAndRemoves_CompactsAndKeepsNumberIndex() {
+		Inventory large = new Inventory();
+		Random random = new Random(3);
+		List<Product> products = new ArrayList<>();
+		for(int i = 0; i < ProductStore.PAGE_SIZE * 3; i++) {
+			products.add(new Product(new UUID(random.nextLong(), random.nextLong()).toString(), "Name " + i % 10, Category.PRODUCE, LocalDate.ofEpochDay(17000 + i % 100)));
+		}
+		large.addAll(products);
+		large.removeAll(products.subList(0, ProductStore.PAGE_SIZE * 2 + 1));
+
+		assertEquals(ProductStore.PAGE_SIZE - 1, large.size());
+		assertEquals(large.size(), large.getStore().getRowCount());
+		for(int i = 0; i < products.size(); i += 997) {
+			Product found = large.findByNumber(products.get(i).getNumber());
+			assertEquals(i > ProductStore.PAGE_SIZE * 2, found != null);
+		}
+	}
+
+	private List<Product> all() {
+		return datasets.stream().flatMap(List::stream).collect(Collectors.toList());
+	}
+
+	private static void assertMatches(List<Product> products, Predicate<Product> predicate, List<Product> actual) {
+		List<String> expected = products.stream().filter(predicate).map(Product::toString).sorted().collect(Collectors.toList());
+		assertEquals(expected, actual.stream().map(Product::toString).sorted().collect(Collectors.toList()));
+	}
+}
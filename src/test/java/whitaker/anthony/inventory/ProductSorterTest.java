@@ -0,0 +1,96 @@
+package whitaker.anthony.inventory;
+
+import org.junit.Test;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.CompactProduct;
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.NameDictionary;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class ProductSorterTest {
+
+	private static final SortKey[][] ORDERINGS = {
+			{SortKey.CATEGORY}, {SortKey.EXPIRATION_DATE}, {SortKey.NAME}, {SortKey.NUMBER},
+			{SortKey.CATEGORY, SortKey.EXPIRATION_DATE}, {SortKey.NAME, SortKey.EXPIRATION_DATE, SortKey.NUMBER}};
+
+	@Test
+	public void testSort_MatchesStableComparatorSort() {
+		for(boolean withNonUuidNumbers : new boolean[]{false, true}) {
+			List<Product> products = randomProducts(new Random(11), 5000, withNonUuidNumbers);
+			for(SortKey[] keys : ORDERINGS) {
+				assertEquals(Arrays.toString(keys), expected(products, keys), ProductSorter.sort(products, keys));
+			}
+		}
+	}
+
+	@Test
+	public void testSort_CompactProductsAndLinkedList() {
+		NameDictionary names = new NameDictionary();
+		List<CompactProduct> compacts = randomProducts(new Random(5), 1000, false).stream()
+				.map(product -> CompactProduct.of(product, names)).collect(Collectors.toCollection(LinkedList::new));
+		for(SortKey[] keys : ORDERINGS) {
+			assertEquals(expected(compacts, keys), ProductSorter.sort(compacts, keys));
+		}
+	}
+
+	@Test
+	public void testSortRows_MatchesSortOfProducts() {
+		List<Product> products = randomProducts(new Random(17), 3000, true);
+		ProductStore store = new ProductStore();
+		store.appendAll(products);
+		store.deleteIf(row -> row % 7 == 0);
+		List<Product> liveProducts = Arrays.stream(store.filter(row -> true)).mapToObj(products::get).collect(Collectors.toList());
+
+		for(SortKey[] keys : ORDERINGS) {
+			List<String> actual = Arrays.stream(store.sortedRows(keys)).mapToObj(row -> store.toProduct(row).toString()).collect(Collectors.toList());
+			assertEquals(expected(liveProducts, keys).stream().map(Product::toString).collect(Collectors.toList()), actual);
+		}
+	}
+
+	@Test
+	public void testSort_NegativeEpochDaysAndEmpty() {
+		List<Product> products = Arrays.asList(
+				new Product("1", "A", Category.PRODUCE, LocalDate.of(1969, 12, 31)),
+				new Product("2", "A", Category.PRODUCE, LocalDate.of(1970, 1, 1)),
+				new Product("3", "A", Category.PRODUCE, LocalDate.of(1901, 1, 1)));
+		assertEquals(Arrays.asList(products.get(2), products.get(0), products.get(1)), ProductSorter.sort(products, SortKey.EXPIRATION_DATE));
+		assertTrue(ProductSorter.sort(new ArrayList<Product>(), SortKey.NUMBER).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSort_NoKeys() {
+		ProductSorter.sort(new ArrayList<Product>());
+	}
+
+	private static <T extends InventoryItem> List<T> expected(List<T> items, SortKey[] keys) {
+		Comparator<InventoryItem> comparator = keys[0].getComparator();
+		for(int i = 1; i < keys.length; i++) {
+			comparator = comparator.thenComparing(keys[i].getComparator());
+		}
+		List<T> sorted = new ArrayList<>(items);
+		sorted.sort(comparator);
+		return sorted;
+	}
+
+	private static List<Product> randomProducts(Random random, int count, boolean withNonUuidNumbers) {
+		List<Product> products = new ArrayList<>();
+		for(int i = 0; i < count; i++) {
+			String number = withNonUuidNumbers && i % 10 == 0 ? Integer.toString(random.nextInt(100000)) : new UUID(random.nextLong(), random.nextLong()).toString();
+			products.add(new Product(number, "Name " + random.nextInt(60), Category.values()[random.nextInt(Category.values().length)],
+					LocalDate.ofEpochDay(16000 + random.nextInt(2000))));
+		}
+		return products;
+	}
+}
@@ -0,0 +1,127 @@
+package whitaker.anthony.inventory;
+
+import org.junit.Test;
+import whitaker.anthony.generator.DataGenerator;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class ProductStoreTest {
+
+	private static final String[] DATASETS = {"src/test/resources/dataset1.txt", "src/test/resources/dataset2.txt", "src/test/resources/dataset3.txt"};
+
+	@Test
+	public void testSiftingWorkflow_MatchesList() {
+		ProductStore store = new ProductStore();
+		List<Product> products = new ArrayList<>();
+		for(String dataset : DATASETS) {
+			List<Product> parsed = DataGenerator.parseProductsFromFile(dataset, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+			products.addAll(parsed);
+			store.appendAll(parsed);
+		}
+		assertEquals(75, store.size());
+		assertSameOrder(products, Product.BY_NAME, store, store.byName());
+		assertSameOrder(products, Product.BY_CATEGORY, store, store.byCategory());
+		assertSameOrder(products, Product.BY_EXPIRATION_DATE, store, store.byExpirationDate());
+
+		int deleted = store.deleteIf(row -> store.getCategory(row) == Category.CANNED_PACKAGED);
+		products = products.stream().filter(product -> !Category.CANNED_PACKAGED.equals(product.getCategory())).collect(Collectors.toList());
+		assertTrue(deleted > 0);
+		assertEquals(products.size(), store.size());
+		assertEquals(0, store.filter(row -> store.getCategory(row) == Category.CANNED_PACKAGED).length);
+		assertSameOrder(products, Product.BY_NUMBER, store, store.byNumber());
+	}
+
+	@Test
+	public void testAppend_AcrossPagesAndCompact() {
+		ProductStore store = new ProductStore();
+		Random random = new Random(7);
+		List<Product> products = new ArrayList<>();
+		for(int i = 0; i < ProductStore.PAGE_SIZE * 2 + 10; i++) {
+			String number = i % 1000 == 0 ? "N" + i : new UUID(random.nextLong(), random.nextLong()).toString();
+			Product product = new Product(number, "Name " + random.nextInt(50), Category.values()[random.nextInt(Category.values().length)],
+					LocalDate.ofEpochDay(17000 + random.nextInt(400)));
+			products.add(product);
+			assertEquals(i, store.append(product));
+		}
+		assertEquals(50, store.getNameCount());
+		assertEquals(products.get(ProductStore.PAGE_SIZE + 3).toString(), store.toProduct(ProductStore.PAGE_SIZE + 3).toString());
+
+		store.deleteIf(row -> row % 3 == 0);
+		assertTrue(store.isDeleted(0));
+		assertFalse(store.delete(0));
+		List<Product> remaining = new ArrayList<>();
+		for(int i = 0; i < products.size(); i++) {
+			if(i % 3 != 0)
+				remaining.add(products.get(i));
+		}
+
+		assertEquals(products.size() - remaining.size(), store.compact());
+		assertEquals(remaining.size(), store.getRowCount());
+		assertSameOrder(remaining, Product.BY_NUMBER, store, store.byNumber());
+		assertSameOrder(remaining, Product.BY_EXPIRATION_DATE, store, store.byExpirationDate());
+		assertEquals(remaining.get(remaining.size() - 1).toString(), store.toProduct(store.getRowCount() - 1).toString());
+	}
+
+	@Test
+	public void testSortedRows_ThenComparingIsStable() {
+		ProductStore store = new ProductStore();
+		store.appendAll(Arrays.asList(
+				new Product("3", "B", Category.PRODUCE, LocalDate.of(2018, 1, 2)),
+				new Product("1", "A", Category.PRODUCE, LocalDate.of(2018, 1, 1)),
+				new Product("2", "A", Category.BEVERAGES, LocalDate.of(2018, 1, 2)),
+				new Product("4", "A", Category.PRODUCE, LocalDate.of(2018, 1, 2))));
+
+		assertArrayEquals(new int[]{2, 1, 3, 0}, store.sortedRows(store.byCategory().thenComparing(store.byName())));
+		assertArrayEquals(new int[]{1, 0, 2, 3}, store.sortedRows(store.byExpirationDate()));
+	}
+
+	@Test
+	public void testDeleteCategory_ThenAppendAndCompact() {
+		ProductStore store = new ProductStore();
+		store.appendAll(Arrays.asList(
+				new Product("1", "A", Category.PRODUCE, LocalDate.of(2018, 1, 1)),
+				new Product("2", "B", Category.FROZEN, LocalDate.of(2018, 1, 1)),
+				new Product("3", "C", Category.PRODUCE, LocalDate.of(2018, 1, 1))));
+		store.delete(0);
+
+		assertEquals(1, store.deleteCategory(Category.PRODUCE));
+		assertEquals(1, store.size());
+		assertTrue(store.isDeleted(2));
+		assertFalse(store.delete(2));
+
+		store.append(new Product("4", "D", Category.PRODUCE, LocalDate.of(2018, 1, 1)));
+		assertEquals(1, store.getCategorySize(Category.PRODUCE));
+		assertArrayEquals(new int[]{1, 3}, store.filter(row -> true));
+
+		assertEquals(2, store.compact());
+		assertEquals("2", store.getNumber(0));
+		assertEquals("4", store.getNumber(1));
+		assertFalse(store.isDeleted(1));
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testDelete_MissingRow() {
+		new ProductStore().delete(0);
+	}
+
+	private static void assertSameOrder(List<Product> products, Comparator<InventoryItem> comparator, ProductStore store, RowComparator rowComparator) {
+		List<String> expected = products.stream().sorted(comparator).map(Product::toString).collect(Collectors.toList());
+		List<String> actual = Arrays.stream(store.sortedRows(rowComparator)).mapToObj(row -> store.toProduct(row).toString()).collect(Collectors.toList());
+		assertEquals(expected, actual);
+	}
+}
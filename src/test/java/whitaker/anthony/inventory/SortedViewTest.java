@@ -0,0 +1,79 @@
+package whitaker.anthony.inventory;
+
+import org.junit.Test;
+import whitaker.anthony.generator.DataGenerator;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.InventoryItem;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class SortedViewTest {
+
+	private static final String[] DATASETS = {"src/test/resources/dataset1.txt", "src/test/resources/dataset2.txt", "src/test/resources/dataset3.txt"};
+
+	@Test
+	public void testSiftingWorkflow_ViewsStaySorted() {
+		Inventory inventory = new Inventory();
+		SortedView byName = inventory.sortedView(SortKey.NAME);
+		SortedView byCategory = inventory.sortedView(SortKey.CATEGORY);
+		SortedView byExpirationDate = inventory.sortedView(SortKey.EXPIRATION_DATE);
+		SortedView byNumber = inventory.sortedView(SortKey.NUMBER);
+		List<Product> products = new ArrayList<>();
+
+		for(String dataset : DATASETS) {
+			List<Product> parsed = DataGenerator.parseProductsFromFile(dataset, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+			products.addAll(parsed);
+			inventory.addAll(parsed);
+
+			assertSorted(products, Product.BY_NAME, byName);
+			assertSorted(products, Product.BY_CATEGORY, byCategory);
+			assertSorted(products, Product.BY_EXPIRATION_DATE, byExpirationDate);
+			assertSorted(products, Product.BY_NUMBER, byNumber);
+		}
+
+		inventory.removeCategory(Category.CANNED_PACKAGED);
+		products.removeIf(product -> product.getCategory() == Category.CANNED_PACKAGED);
+		assertSorted(products, Product.BY_NUMBER, byNumber);
+	}
+
+	@Test
+	public void testManyBatches_FewRunsAndRemovals() {
+		Inventory inventory = new Inventory();
+		SortedView view = inventory.sortedView(SortKey.CATEGORY, SortKey.EXPIRATION_DATE);
+		Random random = new Random(23);
+		List<Product> products = new ArrayList<>();
+		for(int batch = 0; batch < 200; batch++) {
+			List<Product> parsed = new ArrayList<>();
+			for(int i = 0; i < 1 + random.nextInt(500); i++) {
+				parsed.add(new Product(new UUID(random.nextLong(), random.nextLong()).toString(), "Name " + random.nextInt(20),
+						Category.values()[random.nextInt(Category.values().length)], LocalDate.ofEpochDay(17000 + random.nextInt(300))));
+			}
+			products.addAll(parsed);
+			inventory.addAll(parsed);
+			assertTrue(view.getRunCount() <= 2 * (32 - Integer.numberOfLeadingZeros(products.size())));
+		}
+		assertSorted(products, Product.BY_CATEGORY.thenComparing(Product.BY_EXPIRATION_DATE), view);
+
+		List<Product> removed = products.subList(0, products.size() * 3 / 4);
+		inventory.removeAll(removed);
+		removed.clear();
+		assertSorted(products, Product.BY_CATEGORY.thenComparing(Product.BY_EXPIRATION_DATE), view);
+	}
+
+	private static void assertSorted(List<Product> products, Comparator<InventoryItem> comparator, SortedView view) {
+		List<String> expected = products.stream().sorted(comparator).map(Product::toString).collect(Collectors.toList());
+		assertEquals(expected, view.products().stream().map(Product::toString).collect(Collectors.toList()));
+	}
+}
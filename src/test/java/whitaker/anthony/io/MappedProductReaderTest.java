@@ -0,0 +1,87 @@
+package whitaker.anthony.io;
+
+import org.junit.After;
+import org.junit.Test;
+import whitaker.anthony.generator.DataGenerator;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class MappedProductReaderTest {
+
+	private static final String FILENAME_DATASET_1 = "src/test/resources/dataset1.txt";
+	private static final Path TEMP_FILE = Paths.get("DELETE_ME_MAPPED.txt");
+
+	@After
+	public void cleanup() throws IOException {
+		Files.deleteIfExists(TEMP_FILE);
+	}
+
+	@Test
+	public void testReadAll_MatchesLineParsing() throws IOException {
+		List<Product> expected = DataGenerator.parseProductsFromFile(FILENAME_DATASET_1, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		List<Product> actual = new MappedProductReader(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE).readAll(Paths.get(FILENAME_DATASET_1));
+		assertEquals(toStrings(expected), toStrings(actual));
+	}
+
+	@Test
+	public void testReadAll_SmallWindows() throws IOException {
+		List<Product> expected = DataGenerator.parseProductsFromFile(FILENAME_DATASET_1, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		List<Product> actual = new MappedProductReader(ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE), 128).readAll(Paths.get(FILENAME_DATASET_1));
+		assertEquals(toStrings(expected), toStrings(actual));
+	}
+
+	@Test
+	public void testReadAll_CarriageReturnsAndMultiByteDelimiter() throws IOException {
+		Files.write(TEMP_FILE, ("08f7751c-c495-469d-b4ca-5b1f118c91a7::Lemons::Produce::2017-10-08\r\n" +
+				"a6b65395-e757-4688-8bd3-5326c5193621::Tea, green, bags::Beverages::2018-04-24").getBytes(StandardCharsets.UTF_8));
+
+		List<Product> products = new MappedProductReader("::", DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE).readAll(TEMP_FILE);
+		assertEquals(2, products.size());
+		assertEquals("Lemons", products.get(0).getName());
+		assertEquals(LocalDate.of(2017, 10, 8), products.get(0).getExpirationDate());
+		assertEquals("Tea, green, bags", products.get(1).getName());
+	}
+
+	@Test
+	public void testParseProductsFromMappedFile_Exception() throws IOException {
+		Files.write(TEMP_FILE, "08f7751c-c495-469d-b4ca-5b1f118c91a7;Produce;2017-10-08\n".getBytes(StandardCharsets.UTF_8));
+		try {
+			DataGenerator.parseProductsFromMappedFile(TEMP_FILE.toString(), DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+			fail();
+		} catch(IllegalArgumentException e) {
+			assertTrue(e.getMessage().startsWith("Unable to parse"));
+			assertTrue(e.getCause().getMessage().startsWith("Unable to parse"));
+		}
+	}
+
+	@Test
+	public void testParseProductsFromMappedFile_SharesNames() {
+		List<Product> products = DataGenerator.parseProductsFromMappedFile(FILENAME_DATASET_1, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		for(Product first : products) {
+			for(Product second : products) {
+				if(first.getName().equals(second.getName()))
+					assertSame(first.getName(), second.getName());
+			}
+		}
+	}
+
+	private static List<String> toStrings(List<Product> products) {
+		return products.stream()
+				.map(product -> product.toDelimitedString(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE))
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,96 @@
+package whitaker.anthony.io;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import whitaker.anthony.generator.DataGenerator;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class ParallelProductReaderTest {
+
+	private static final Path TEMP_FILE = Paths.get("DELETE_ME_PARALLEL.txt");
+
+	private ProductCodec codec;
+
+	@Before
+	public void setup() throws IOException {
+		codec = ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		List<String> lines = new ArrayList<>();
+		for(int i = 0; i < 20; i++) {
+			lines.addAll(Files.readAllLines(Paths.get("src/test/resources/dataset1.txt")));
+			lines.addAll(Files.readAllLines(Paths.get("src/test/resources/dataset2.txt")));
+			lines.addAll(Files.readAllLines(Paths.get("src/test/resources/dataset3.txt")));
+		}
+		Files.write(TEMP_FILE, lines);
+	}
+
+	@After
+	public void cleanup() throws IOException {
+		Files.deleteIfExists(TEMP_FILE);
+	}
+
+	@Test
+	public void testReadAll_Ordered() throws IOException {
+		List<String> expected = toStrings(DataGenerator.parseProductsFromFile(TEMP_FILE.toString(), DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE));
+		List<String> actual = toStrings(new ParallelProductReader(codec, 4, 1000).readAll(TEMP_FILE, true));
+		assertEquals(1500, actual.size());
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testReadAll_Unordered() throws IOException {
+		List<String> expected = toStrings(DataGenerator.parseProductsFromFile(TEMP_FILE.toString(), DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE));
+		List<String> actual = toStrings(new ParallelProductReader(codec, 3, 1000).readAll(TEMP_FILE, false));
+		Collections.sort(expected);
+		Collections.sort(actual);
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testChunkBoundaries_AlignedOnLines() throws IOException {
+		byte[] bytes = Files.readAllBytes(TEMP_FILE);
+		try(FileChannel channel = FileChannel.open(TEMP_FILE, StandardOpenOption.READ)) {
+			long[] boundaries = new ParallelProductReader(codec, 8, 1000).chunkBoundaries(channel);
+			assertEquals(33, boundaries.length);
+			assertEquals(0, boundaries[0]);
+			assertEquals(bytes.length, boundaries[boundaries.length - 1]);
+			for(int i = 1; i < boundaries.length - 1; i++) {
+				assertTrue(boundaries[i] > boundaries[i - 1]);
+				assertEquals('\n', bytes[(int)boundaries[i] - 1]);
+			}
+		}
+	}
+
+	@Test
+	public void testParseProductsFromFileInParallel_SingleThread() {
+		List<Product> products = DataGenerator.parseProductsFromFileInParallel(TEMP_FILE.toString(), DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE, 1, true);
+		assertEquals(1500, products.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseProductsFromFileInParallel_InvalidParallelism() {
+		DataGenerator.parseProductsFromFileInParallel(TEMP_FILE.toString(), DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE, 0, true);
+	}
+
+	private static List<String> toStrings(List<Product> products) {
+		ProductCodec codec = ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		return products.stream().map(codec::format).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,176 @@
+package whitaker.anthony.io;
+
+import org.junit.After;
+import org.junit.Test;
+import whitaker.anthony.generator.DataGenerator;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class ProductFileTest {
+
+	private static final ProductCodec CODEC = ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+	private static final String FILENAME_DATASET_1 = "src/test/resources/dataset1.txt";
+	private static final Path TEMP_FILE = Paths.get("DELETE_ME_PRODUCT_FILE.txt");
+
+	@After
+	public void cleanup() throws IOException {
+		Files.deleteIfExists(TEMP_FILE);
+	}
+
+	@Test
+	public void testWrite_MatchesCodecFormat() throws IOException {
+		List<Product> products = DataGenerator.parseProductsFromMappedFile(FILENAME_DATASET_1, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try(ProductFileWriter out = new ProductFileWriter(bytes, CODEC)) {
+			for(Product product : products) {
+				out.write(product);
+			}
+		}
+
+		StringBuilder expected = new StringBuilder();
+		products.forEach(product -> CODEC.appendTo(expected, product).append('\n'));
+		assertEquals(expected.toString(), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testRoundTrip_Plain() throws IOException {
+		List<Product> products = DataGenerator.parseProductsFromMappedFile(FILENAME_DATASET_1, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		TransferStats written = write(products, CODEC, false);
+		assertEquals(products.size(), written.getRecords());
+		assertEquals(Files.size(TEMP_FILE), written.getFileBytes());
+		assertEquals(written.getBytes(), written.getFileBytes());
+
+		List<Product> read = new ArrayList<>();
+		TransferStats stats = new ProductFileReader(CODEC).read(TEMP_FILE, read::add);
+		assertEquals(toStrings(products), toStrings(read));
+		assertEquals(written.getBytes(), stats.getBytes());
+		assertEquals(written.getFileBytes(), stats.getFileBytes());
+		assertTrue(stats.getMegabytesPerSecond() > 0);
+	}
+
+	@Test
+	public void testRoundTrip_Gzip() throws IOException {
+		List<Product> products = new ArrayList<>();
+		for(int i = 0; i < 5; i++) {
+			products.addAll(DataGenerator.parseProductsFromMappedFile(FILENAME_DATASET_1, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE));
+		}
+		TransferStats written = write(products, CODEC, true);
+		assertEquals(Files.size(TEMP_FILE), written.getFileBytes());
+		assertTrue(written.getCompressionRatio() > 1);
+		assertTrue(written.getMegabytesPerSecond() > 0);
+
+		List<Product> read = new ArrayList<>();
+		TransferStats stats = new ProductFileReader(CODEC).read(TEMP_FILE, read::add);
+		assertEquals(toStrings(products), toStrings(read));
+		assertEquals(products.size(), stats.getRecords());
+		assertEquals(written.getBytes(), stats.getBytes());
+		assertEquals(written.getFileBytes(), stats.getFileBytes());
+	}
+
+	@Test
+	public void testRoundTrip_NonAsciiAndFormattedDate() throws IOException {
+		ProductCodec codec = ProductCodec.of("¦", "dd MMMM yyyy", Locale.FRANCE);
+		List<Product> products = new ArrayList<>();
+		products.add(new Product("08f7751c-c495-469d-b4ca-5b1f118c91a7", "Crème brûlée", Category.REFRIGERATED, LocalDate.of(2017, 8, 15)));
+		products.add(new Product("a6b65395-e757-4688-8bd3-5326c5193621", "Café 😀", Category.BEVERAGES, LocalDate.of(2018, 2, 1)));
+
+		TransferStats written = write(products, codec, false);
+		assertEquals(Files.size(TEMP_FILE), written.getBytes());
+		List<Product> read = new ProductFileReader(codec).readAll(TEMP_FILE);
+		assertEquals(products.size(), read.size());
+		for(int i = 0; i < products.size(); i++) {
+			assertEquals(codec.format(products.get(i)), codec.format(read.get(i)));
+		}
+	}
+
+	@Test
+	public void testRead_LineLongerThanBuffer() throws IOException {
+		StringBuilder name = new StringBuilder();
+		while(name.length() <= ProductFileReader.BUFFER_SIZE * 2) {
+			name.append("Tea, green, bags ");
+		}
+		Product product = new Product("08f7751c-c495-469d-b4ca-5b1f118c91a7", name.toString(), Category.BEVERAGES, LocalDate.of(2017, 10, 8));
+		write(Collections.singletonList(product), CODEC, true);
+
+		List<Product> read = new ProductFileReader(CODEC).readAll(TEMP_FILE);
+		assertEquals(1, read.size());
+		assertEquals(name.toString(), read.get(0).getName());
+	}
+
+	@Test
+	public void testRead_CarriageReturnsAndNoTrailingNewline() throws IOException {
+		Files.write(TEMP_FILE, ("08f7751c-c495-469d-b4ca-5b1f118c91a7;Lemons;Produce;2017-10-08\r\n" +
+				"a6b65395-e757-4688-8bd3-5326c5193621;Tea, green, bags;Beverages;2018-04-24").getBytes(StandardCharsets.UTF_8));
+
+		List<Product> products = new ProductFileReader(CODEC).readAll(TEMP_FILE);
+		assertEquals(2, products.size());
+		assertEquals("Lemons", products.get(0).getName());
+		assertEquals("Tea, green, bags", products.get(1).getName());
+	}
+
+	@Test
+	public void testRead_Empty() throws IOException {
+		Files.write(TEMP_FILE, new byte[0]);
+		TransferStats stats = new ProductFileReader(CODEC).read(TEMP_FILE, product -> fail());
+		assertEquals(0, stats.getRecords());
+		assertEquals(0, stats.getFileBytes());
+	}
+
+	@Test
+	public void testDataGenerator_CompressedRoundTrip() {
+		DataGenerator generator = new DataGenerator("src/main/resources/ProductCandidates.txt", DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		List<Product> products = DataGenerator.parseProductsFromMappedFile(FILENAME_DATASET_1, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		TransferStats written = generator.writeDataSetToFile(products, TEMP_FILE.toString(), DELIMITER, true);
+
+		List<Product> read = new ArrayList<>();
+		TransferStats stats = DataGenerator.streamProductsFromFile(TEMP_FILE.toString(), DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE, read::add);
+		assertEquals(toStrings(products), toStrings(read));
+		assertEquals(written.getRecords(), stats.getRecords());
+	}
+
+	@Test
+	public void testStreamProductsFromFile_Exception() throws IOException {
+		Files.write(TEMP_FILE, "08f7751c-c495-469d-b4ca-5b1f118c91a7;Produce;2017-10-08\n".getBytes(StandardCharsets.UTF_8));
+		try {
+			DataGenerator.streamProductsFromFile(TEMP_FILE.toString(), DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE, product -> {
+			});
+			fail();
+		} catch(IllegalArgumentException e) {
+			assertTrue(e.getMessage().startsWith("Unable to parse"));
+		}
+	}
+
+	private static TransferStats write(List<Product> products, ProductCodec codec, boolean compress) throws IOException {
+		try(ProductFileWriter out = ProductFileWriter.open(TEMP_FILE, codec, compress)) {
+			for(Product product : products) {
+				out.write(product);
+			}
+			return out.finish();
+		}
+	}
+
+	private static List<String> toStrings(List<Product> products) {
+		return products.stream()
+				.map(CODEC::format)
+				.collect(Collectors.toList());
+	}
+}
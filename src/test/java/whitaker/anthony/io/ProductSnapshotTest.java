@@ -0,0 +1,89 @@
+package whitaker.anthony.io;
+
+import org.junit.After;
+import org.junit.Test;
+import whitaker.anthony.generator.DataGenerator;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.model.ProductCodec;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class ProductSnapshotTest {
+
+	private static final String FILENAME_DATASET_1 = "src/test/resources/dataset1.txt";
+	private static final Path TEMP_FILE = Paths.get("DELETE_ME_SNAPSHOT.bin");
+	private static final Path TEMP_TEXT_FILE = Paths.get("DELETE_ME_SNAPSHOT.txt");
+
+	@After
+	public void cleanup() throws IOException {
+		Files.deleteIfExists(TEMP_FILE);
+		Files.deleteIfExists(TEMP_TEXT_FILE);
+	}
+
+	@Test
+	public void testWriteDataSetToSnapshot_RoundTrip() throws IOException {
+		DataGenerator generator = new DataGenerator("src/main/resources/ProductCandidates.txt", DELIMITER, null, null);
+		List<Product> dataset = DataGenerator.parseProductsFromFile(FILENAME_DATASET_1, DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+
+		generator.writeDataSetToSnapshot(dataset, TEMP_FILE.toString());
+		List<Product> products = DataGenerator.parseProductsFromSnapshot(TEMP_FILE.toString());
+
+		assertEquals(toStrings(dataset), toStrings(products));
+	}
+
+	@Test
+	public void testWriteDataSetToSnapshot_SmallerThanText() throws IOException {
+		DataGenerator generator = new DataGenerator("src/main/resources/ProductCandidates.txt", DELIMITER, null, null);
+		Collection<Product> dataset = generator.generateDataSet(157, LocalDate.of(2017, 1, 1), LocalDate.of(2018, 1, 1));
+
+		generator.writeDataSetToSnapshot(dataset, TEMP_FILE.toString());
+		generator.writeDataSetToFile(dataset, TEMP_TEXT_FILE.toString(), DELIMITER);
+
+		assertTrue(Files.size(TEMP_FILE) < Files.size(TEMP_TEXT_FILE));
+		assertEquals(toStrings(new ArrayList<>(dataset)), toStrings(DataGenerator.parseProductsFromSnapshot(TEMP_FILE.toString())));
+	}
+
+	@Test
+	public void testRoundTrip_NonUuidNumbersAndUnknownNames() throws IOException {
+		List<Product> dataset = Arrays.asList(
+				new Product("12346567", "Apple, Fuji", Category.PRODUCE, LocalDate.of(2017, 10, 8)),
+				new Product("08f7751c-c495-469d-b4ca-5b1f118c91a7", "Apple, Fuji", Category.PRODUCE, LocalDate.of(2017, 10, 9)),
+				new Product("08F7751C-C495-469D-B4CA-5B1F118C91A7", "Lemons", Category.REFRIGERATED, LocalDate.of(1969, 1, 1)));
+
+		try(ProductSnapshotWriter out = new ProductSnapshotWriter(TEMP_FILE, Collections.singletonList("Lemons"))) {
+			for(Product product : dataset) {
+				out.write(product);
+			}
+		}
+		List<Product> products = ProductSnapshotReader.readAll(TEMP_FILE);
+
+		assertEquals(toStrings(dataset), toStrings(products));
+		assertSame(products.get(0).getName(), products.get(1).getName());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testParseProductsFromSnapshot_NotASnapshot() {
+		DataGenerator.parseProductsFromSnapshot(FILENAME_DATASET_1);
+	}
+
+	private static List<String> toStrings(List<Product> products) {
+		ProductCodec codec = ProductCodec.of(DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		return products.stream().map(codec::format).collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,84 @@
+package whitaker.anthony.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class CompactProductTest {
+
+	private static final List<ProductCandidate> CANDIDATES = Arrays.asList(
+			new ProductCandidate(Category.BEVERAGES, "Tea, green, bags"),
+			new ProductCandidate(Category.PRODUCE, "Apple, Fuji"),
+			new ProductCandidate(Category.FROZEN, "Peas, frozen"));
+
+	@Test
+	public void testGetters_MatchProduct() {
+		NameDictionary names = new NameDictionary(CANDIDATES);
+		Product product = new Product("08f7751c-c495-469d-b4ca-5b1f118c91a7", new String("Tea, green, bags"), Category.BEVERAGES, LocalDate.of(2018, 4, 24));
+
+		CompactProduct compact = CompactProduct.of(product, names);
+
+		assertEquals(product.getNumber(), compact.getNumber());
+		assertEquals(product.getName(), compact.getName());
+		assertSame(names.intern("Tea, green, bags"), compact.getName());
+		assertEquals(product.getCategory(), compact.getCategory());
+		assertEquals(product.getExpirationDate(), compact.getExpirationDate());
+		assertEquals(product.toString(), compact.toProduct().toString());
+	}
+
+	@Test
+	public void testNonUuidNumberAndUnknownName() {
+		NameDictionary names = new NameDictionary(CANDIDATES);
+		CompactProduct compact = new CompactProduct("08F7751C-C495-469D-B4CA-5B1F118C91A7", "Lemons", Category.PRODUCE, LocalDate.of(1969, 7, 20), names);
+
+		assertEquals("08F7751C-C495-469D-B4CA-5B1F118C91A7", compact.getNumber());
+		assertEquals("Lemons", compact.getName());
+		assertEquals(LocalDate.of(1969, 7, 20), compact.getExpirationDate());
+		assertEquals(4, names.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_NullNames() {
+		new CompactProduct("12346567", "Lemons", Category.PRODUCE, LocalDate.of(2017, 10, 8), null);
+	}
+
+	@Test
+	public void testComparators_MatchProduct() {
+		NameDictionary names = new NameDictionary(CANDIDATES);
+		Random random = new Random(42);
+		List<Product> products = new ArrayList<>();
+		for(int i = 0; i < 500; i++) {
+			ProductCandidate candidate = CANDIDATES.get(random.nextInt(CANDIDATES.size()));
+			String number = i % 50 == 0 ? Integer.toString(random.nextInt(1000)) : UUID.randomUUID().toString();
+			products.add(new Product(number, candidate.getName(), candidate.getCategory(), LocalDate.ofEpochDay(17000 + random.nextInt(400))));
+		}
+		List<CompactProduct> compacts = products.stream().map(product -> CompactProduct.of(product, names)).collect(Collectors.toList());
+
+		for(Comparator<InventoryItem> comparator : Arrays.asList(Product.BY_CATEGORY, Product.BY_EXPIRATION_DATE, Product.BY_NAME, Product.BY_NUMBER)) {
+			List<Product> expected = new ArrayList<>(products);
+			expected.sort(comparator);
+			List<CompactProduct> actual = new ArrayList<>(compacts);
+			actual.sort(comparator);
+			assertEquals(expected.stream().map(Product::toString).collect(Collectors.toList()),
+					actual.stream().map(compact -> compact.toProduct().toString()).collect(Collectors.toList()));
+		}
+	}
+
+	@Test
+	public void testEquals() {
+		NameDictionary names = new NameDictionary(CANDIDATES);
+		Product product = new Product("08f7751c-c495-469d-b4ca-5b1f118c91a7", "Apple, Fuji", Category.PRODUCE, LocalDate.of(2018, 4, 24));
+		assertEquals(CompactProduct.of(product, names), CompactProduct.of(product, names));
+		assertEquals(CompactProduct.of(product, names).hashCode(), CompactProduct.of(product, names).hashCode());
+		assertNotEquals(CompactProduct.of(product, names), CompactProduct.of(new Product("12346567", "Apple, Fuji", Category.PRODUCE, LocalDate.of(2018, 4, 24)), names));
+	}
+}
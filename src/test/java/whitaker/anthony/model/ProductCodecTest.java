@@ -0,0 +1,101 @@
+package whitaker.anthony.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.regex.PatternSyntaxException;
+
+import static org.junit.Assert.*;
+
+public class ProductCodecTest {
+
+	private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ofPattern(ProductCodec.ISO_DATE_FORMAT).withLocale(Locale.US);
+
+	@Test
+	public void testFormatAndParse_RoundTrip() {
+		ProductCodec codec = new ProductCodec(";", ProductCodec.ISO_DATE_FORMAT, Locale.US);
+		Product product = new Product("08f7751c-c495-469d-b4ca-5b1f118c91a7", "Tea, green, bags", Category.BEVERAGES, LocalDate.of(2018, 4, 24));
+
+		String text = codec.format(product);
+		assertEquals("08f7751c-c495-469d-b4ca-5b1f118c91a7;Tea, green, bags;Beverages;2018-04-24", text);
+
+		Product parsed = codec.parse(text);
+		assertEquals(product.getNumber(), parsed.getNumber());
+		assertEquals(product.getName(), parsed.getName());
+		assertEquals(product.getCategory(), parsed.getCategory());
+		assertEquals(product.getExpirationDate(), parsed.getExpirationDate());
+	}
+
+	@Test
+	public void testIsoDate_MatchesFormatter() {
+		ProductCodec codec = new ProductCodec(";", ProductCodec.ISO_DATE_FORMAT, Locale.US);
+		assertTrue(codec.isIsoDate());
+		for(LocalDate date = LocalDate.of(1999, 12, 1); date.isBefore(LocalDate.of(2001, 3, 31)); date = date.plusDays(1)) {
+			String expected = date.format(ISO_FORMATTER);
+			assertEquals(expected, codec.appendDate(new StringBuilder(), date).toString());
+			assertEquals(date, codec.parseDate(expected));
+		}
+	}
+
+	@Test
+	public void testIsoDate_FallsBackToFormatter() {
+		ProductCodec codec = new ProductCodec(";", ProductCodec.ISO_DATE_FORMAT, Locale.US);
+		assertEquals(LocalDate.parse("2017-02-30", ISO_FORMATTER), codec.parseDate("2017-02-30"));
+		assertEquals(LocalDate.of(12017, 1, 1).format(ISO_FORMATTER), codec.appendDate(new StringBuilder(), LocalDate.of(12017, 1, 1)).toString());
+
+		try {
+			codec.parseDate("2017-10-");
+			fail();
+		} catch(DateTimeParseException e) {
+			assertTrue(e.getMessage().endsWith("could not be parsed at index 8"));
+		}
+	}
+
+	@Test
+	public void testCustomDateFormat() {
+		ProductCodec codec = new ProductCodec("::", "dd MMM yyyy", Locale.US);
+		assertFalse(codec.isIsoDate());
+		Product product = codec.parse("08f7751c-c495-469d-b4ca-5b1f118c91a7::Lemons::Produce::08 Oct 2017");
+		assertEquals(LocalDate.of(2017, 10, 8), product.getExpirationDate());
+		assertEquals("08f7751c-c495-469d-b4ca-5b1f118c91a7::Lemons::Produce::08 Oct 2017", codec.format(product));
+	}
+
+	@Test
+	public void testParse_SplitsLikeStringSplit() {
+		ProductCodec codec = new ProductCodec(";", ProductCodec.ISO_DATE_FORMAT, Locale.US);
+		assertEquals("Lemons", codec.parse("08f7751c-c495-469d-b4ca-5b1f118c91a7;Lemons;Produce;2017-10-08;;").getName());
+
+		try {
+			codec.parse("08f7751c-c495-469d-b4ca-5b1f118c91a7;Lemons;Produce;2017-10-08;x");
+			fail();
+		} catch(IllegalArgumentException e) {
+			assertTrue(e.getMessage().startsWith("Unable to parse"));
+		}
+	}
+
+	@Test
+	public void testOf_ReusesCodec() {
+		assertSame(ProductCodec.of(";", ProductCodec.ISO_DATE_FORMAT, Locale.US), ProductCodec.of(";", ProductCodec.ISO_DATE_FORMAT, Locale.US));
+	}
+
+	@Test
+	public void testInvalidRegexDelimiter_FormatsButCannotParse() {
+		ProductCodec codec = new ProductCodec("(", ProductCodec.ISO_DATE_FORMAT, Locale.US);
+		String text = codec.format(new Product("1", "Lemons", Category.PRODUCE, LocalDate.of(2017, 10, 8)));
+		assertEquals("1(Lemons(Produce(2017-10-08", text);
+		try {
+			codec.parse(text);
+			fail();
+		} catch(PatternSyntaxException e) {
+			assertEquals("(", e.getPattern());
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructor_Exception() {
+		new ProductCodec(";", "bbbb-MM-dd", Locale.US);
+	}
+}
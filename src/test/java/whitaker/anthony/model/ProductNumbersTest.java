@@ -0,0 +1,43 @@
+package whitaker.anthony.model;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class ProductNumbersTest {
+
+	@Test
+	public void testRoundTrip() {
+		for(int i = 0; i < 1000; i++) {
+			UUID uuid = UUID.randomUUID();
+			String number = uuid.toString();
+			assertTrue(ProductNumbers.isUuid(number));
+			assertEquals(uuid.getMostSignificantBits(), ProductNumbers.mostSignificantBits(number));
+			assertEquals(uuid.getLeastSignificantBits(), ProductNumbers.leastSignificantBits(number));
+			assertEquals(number, ProductNumbers.toNumber(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits()));
+		}
+	}
+
+	@Test
+	public void testIsUuid() {
+		assertFalse(ProductNumbers.isUuid(null));
+		assertFalse(ProductNumbers.isUuid("12346567"));
+		assertFalse(ProductNumbers.isUuid("08F7751C-C495-469D-B4CA-5B1F118C91A7"));
+		assertFalse(ProductNumbers.isUuid("08f7751c-c495-469d-b4ca+5b1f118c91a7"));
+		assertTrue(ProductNumbers.isUuid("08f7751c-c495-469d-b4ca-5b1f118c91a7"));
+	}
+
+	@Test
+	public void testCompare_MatchesStringOrder() {
+		for(int i = 0; i < 1000; i++) {
+			String first = UUID.randomUUID().toString();
+			String second = UUID.randomUUID().toString();
+			int expected = Integer.signum(first.compareTo(second));
+			int actual = Integer.signum(ProductNumbers.compare(ProductNumbers.mostSignificantBits(first), ProductNumbers.leastSignificantBits(first),
+					ProductNumbers.mostSignificantBits(second), ProductNumbers.leastSignificantBits(second)));
+			assertEquals(expected, actual);
+		}
+	}
+}
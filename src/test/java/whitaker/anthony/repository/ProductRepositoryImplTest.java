@@ -0,0 +1,208 @@
+package whitaker.anthony.repository;
+
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.util.CloseableIterator;
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ProductRepositoryImplTest {
+
+	private static final Product LAST = new Product("08f7751c-c495-469d-b4ca-5b1f118c91a7", "Tea, green, bags", Category.CANNED_PACKAGED, LocalDate.of(2018, 4, 24));
+
+	private MongoOperations mongoOperations;
+	private ProductRepositoryImpl repository;
+
+	@Before
+	public void setup() {
+		mongoOperations = mock(MongoOperations.class);
+		when(mongoOperations.find(any(Query.class), eq(Product.class))).thenReturn(new ArrayList<>());
+		repository = new ProductRepositoryImpl(mongoOperations);
+	}
+
+	@Test
+	public void testFindPage_FirstPage() {
+		repository.findPage(SortKey.NAME, null, 100);
+
+		Query query = capture(1).get(0);
+		assertEquals("{ }", query.getQueryObject().toString());
+		assertEquals("{ \"name\" : 1 , \"number\" : 1}", query.getSortObject().toString());
+		assertEquals(100, query.getLimit());
+		assertEquals(0, query.getSkip());
+	}
+
+	@Test
+	public void testFindPage_SeeksPastLastProduct() {
+		repository.findPage(SortKey.EXPIRATION_DATE, LAST, 50);
+
+		Query query = capture(1).get(0);
+		List<?> or = (List<?>)query.getQueryObject().get("$or");
+		assertEquals(2, or.size());
+		DBObject after = (DBObject)or.get(0);
+		assertEquals(LAST.getExpirationDate(), ((DBObject)after.get("expirationDate")).get("$gt"));
+		DBObject tie = (DBObject)or.get(1);
+		assertEquals(LAST.getExpirationDate(), tie.get("expirationDate"));
+		assertEquals(LAST.getNumber(), ((DBObject)tie.get("number")).get("$gt"));
+		assertEquals("{ \"expirationDate\" : 1 , \"number\" : 1}", query.getSortObject().toString());
+		assertEquals(0, query.getSkip());
+	}
+
+	@Test
+	public void testFindPage_Number() {
+		repository.findPage(SortKey.NUMBER, LAST, 10);
+
+		Query query = capture(1).get(0);
+		assertEquals("{ \"number\" : { \"$gt\" : \"" + LAST.getNumber() + "\"}}", query.getQueryObject().toString());
+		assertEquals("{ \"number\" : 1}", query.getSortObject().toString());
+	}
+
+	@Test
+	public void testFindPage_CategoryContinuesInDeclarationOrder() {
+		Product product = new Product("1", "Apple, Fuji", Category.BAKERY_BREAKFAST_CEREAL, LocalDate.of(2018, 1, 1));
+		when(mongoOperations.find(any(Query.class), eq(Product.class)))
+				.thenReturn(new ArrayList<>(Collections.singletonList(product)))
+				.thenReturn(new ArrayList<>(Arrays.asList(product, product)))
+				.thenReturn(new ArrayList<>());
+
+		List<Product> page = repository.findPage(SortKey.CATEGORY, LAST, 3);
+
+		assertEquals(3, page.size());
+		List<Query> queries = capture(2);
+		assertEquals(Category.CANNED_PACKAGED, queries.get(0).getQueryObject().get("category"));
+		assertEquals("{ \"$gt\" : \"" + LAST.getNumber() + "\"}", queries.get(0).getQueryObject().get("number").toString());
+		assertEquals(3, queries.get(0).getLimit());
+		assertEquals(Category.BAKERY_BREAKFAST_CEREAL, queries.get(1).getQueryObject().get("category"));
+		assertNull(queries.get(1).getQueryObject().get("number"));
+		assertEquals(2, queries.get(1).getLimit());
+	}
+
+	@Test
+	public void testFindNextToExpire() {
+		repository.findNextToExpire(LocalDate.of(2018, 1, 1), 100);
+
+		Query query = capture(1).get(0);
+		assertEquals(LocalDate.of(2018, 1, 1), ((DBObject)query.getQueryObject().get("expirationDate")).get("$gte"));
+		assertEquals("{ \"expirationDate\" : 1 , \"number\" : 1}", query.getSortObject().toString());
+		assertEquals(100, query.getLimit());
+	}
+
+	@Test
+	public void testStreamAll_ClosesCursor() {
+		AtomicBoolean closed = new AtomicBoolean();
+		Iterator<Product> products = Collections.singletonList(LAST).iterator();
+		when(mongoOperations.stream(any(Query.class), eq(Product.class))).thenReturn(new CloseableIterator<Product>() {
+			@Override
+			public boolean hasNext() {
+				return products.hasNext();
+			}
+
+			@Override
+			public Product next() {
+				return products.next();
+			}
+
+			@Override
+			public void close() {
+				closed.set(true);
+			}
+		});
+
+		try(Stream<Product> stream = repository.streamAll(Category.CANNED_PACKAGED)) {
+			assertEquals(Collections.singletonList(LAST), stream.collect(Collectors.toList()));
+		}
+
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoOperations).stream(captor.capture(), eq(Product.class));
+		assertEquals(Category.CANNED_PACKAGED, captor.getValue().getQueryObject().get("category"));
+		assertTrue(closed.get());
+	}
+
+	@Test
+	public void testFindExpiringBetween() {
+		repository.findExpiringBetween(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 1, 7), Category.PRODUCE);
+
+		Query query = capture(1).get(0);
+		DBObject expirationDate = (DBObject)query.getQueryObject().get("expirationDate");
+		assertEquals(LocalDate.of(2018, 1, 1), expirationDate.get("$gte"));
+		assertEquals(LocalDate.of(2018, 1, 7), expirationDate.get("$lte"));
+		assertEquals(Category.PRODUCE, query.getQueryObject().get("category"));
+		assertEquals("{ \"expirationDate\" : 1 , \"number\" : 1}", query.getSortObject().toString());
+
+		repository.findExpiringBetween(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 1, 7), null);
+		assertNull(capture(2).get(1).getQueryObject().get("category"));
+	}
+
+	@Test
+	public void testCountExpiringByDayAndCategory() {
+		ExpiryCount frozen = new ExpiryCount(LocalDate.of(2018, 1, 1), Category.FROZEN, 3);
+		ExpiryCount beverages = new ExpiryCount(LocalDate.of(2018, 1, 1), Category.BEVERAGES, 5);
+		ExpiryCount later = new ExpiryCount(LocalDate.of(2018, 1, 2), Category.BEVERAGES, 1);
+		when(mongoOperations.aggregate(any(Aggregation.class), eq(Product.class), eq(ExpiryCount.class)))
+				.thenReturn(new AggregationResults<>(Arrays.asList(later, frozen, beverages), new BasicDBObject()));
+
+		List<ExpiryCount> counts = repository.countExpiringByDayAndCategory(LocalDate.of(2018, 1, 1), LocalDate.of(2018, 1, 7));
+
+		assertEquals(Arrays.asList(beverages, frozen, later), counts);
+		ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoOperations).aggregate(captor.capture(), eq(Product.class), eq(ExpiryCount.class));
+		List<?> pipeline = (List<?>)captor.getValue().toDbObject("product", Aggregation.DEFAULT_CONTEXT).get("pipeline");
+		assertEquals(3, pipeline.size());
+		assertTrue(((DBObject)pipeline.get(0)).containsField("$match"));
+		assertEquals("{ \"$group\" : { \"_id\" : { \"expirationDate\" : \"$expirationDate\" , \"category\" : \"$category\"} , \"count\" : { \"$sum\" : 1}}}",
+				pipeline.get(1).toString());
+		assertEquals("{ \"$project\" : { \"expirationDate\" : \"$_id.expirationDate\" , \"category\" : \"$_id.category\" , \"count\" : 1 , \"_id\" : 0}}",
+				pipeline.get(2).toString());
+	}
+
+	@Test
+	public void testCountByDayAndCategory_EveryProduct() {
+		when(mongoOperations.aggregate(any(Aggregation.class), eq(Product.class), eq(ExpiryCount.class)))
+				.thenReturn(new AggregationResults<>(new ArrayList<>(), new BasicDBObject()));
+
+		repository.countByDayAndCategory();
+
+		ArgumentCaptor<Aggregation> captor = ArgumentCaptor.forClass(Aggregation.class);
+		verify(mongoOperations).aggregate(captor.capture(), eq(Product.class), eq(ExpiryCount.class));
+		List<?> pipeline = (List<?>)captor.getValue().toDbObject("product", Aggregation.DEFAULT_CONTEXT).get("pipeline");
+		assertEquals("{ \"$match\" : { }}", pipeline.get(0).toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindExpiringBetween_NullDate() {
+		repository.findExpiringBetween(null, LocalDate.of(2018, 1, 7), null);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFindPage_InvalidLimit() {
+		repository.findPage(SortKey.NAME, null, 0);
+	}
+
+	private List<Query> capture(int times) {
+		ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+		verify(mongoOperations, times(times)).find(captor.capture(), eq(Product.class));
+		return captor.getAllValues();
+	}
+}
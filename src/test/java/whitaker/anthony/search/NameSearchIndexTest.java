@@ -0,0 +1,138 @@
+package whitaker.anthony.search;
+
+import org.junit.Before;
+import org.junit.Test;
+import whitaker.anthony.generator.DataGenerator;
+import whitaker.anthony.generator.ProductGenerator;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class NameSearchIndexTest {
+
+	private NameSearchIndex index;
+
+	@Before
+	public void setup() {
+		index = new NameSearchIndex();
+		index.addCandidates(ProductGenerator.parseProductCandidateFile("src/main/resources/ProductCandidates.txt", DELIMITER));
+	}
+
+	@Test
+	public void testSearch_ExactMatchFirst() {
+		List<NameMatch> matches = index.search("soda can", 5);
+
+		assertEquals("Soda, can", matches.get(0).getName());
+		assertEquals(1.0, matches.get(0).getScore(), 0);
+		assertEquals("Soda, can (Coke product)", matches.get(1).getName());
+	}
+
+	@Test
+	public void testSearch_WordPrefixes() {
+		List<String> names = names(index.search("so ca co", 5));
+		assertEquals("Soda, can (Coke product)", names.get(0));
+
+		assertTrue(names(index.search("coke", 10)).containsAll(Arrays.asList("Soda, bottle (Coke product)", "Soda, can (Coke product)")));
+	}
+
+	@Test
+	public void testSearch_Misspelled() {
+		assertEquals("Soda, can (Coke product)", index.search("sodda cann coke", 3).get(0).getName());
+	}
+
+	@Test
+	public void testSearch_TiesGoToMoreProducts() {
+		index.add("Soda, bottle", Category.BEVERAGES, 2);
+		index.add("Soda, bottle", Category.CANNED_PACKAGED, 1);
+		index.add("Soda, can", Category.BEVERAGES, 1);
+		List<NameMatch> matches = index.search("soda", 2);
+
+		assertEquals(Arrays.asList("Soda, bottle", "Soda, can"), names(matches));
+		assertEquals(3, matches.get(0).getCount());
+
+		index.remove("Soda, bottle", Category.BEVERAGES, 5);
+		assertEquals(1, index.search("soda", 2).get(1).getCount());
+		index.remove("Soda, bottle", Category.CANNED_PACKAGED, 1);
+		assertEquals("Soda, can", index.search("soda", 1).get(0).getName());
+	}
+
+	@Test
+	public void testReconcile_ReplacesCounts() {
+		List<Product> products = DataGenerator.parseProductsFromFile("src/test/resources/dataset1.txt", DELIMITER, DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE);
+		NameSearchIndex.NameCounts nameCounts = new NameSearchIndex.NameCounts();
+		products.forEach(nameCounts::add);
+		int candidates = index.size();
+		index.add("Soda, can", Category.BEVERAGES, 4);
+
+		index.reconcile(nameCounts);
+
+		assertEquals(candidates, index.size());
+		Product product = products.get(0);
+		NameMatch match = index.search(product.getName(), 1).get(0);
+		assertEquals(product.getName(), match.getName());
+		assertEquals(products.stream().filter(other -> other.getName().equals(product.getName())).count(), match.getCount());
+		assertEquals(products.stream().filter(other -> other.getName().equals("Soda, can")).count(), index.search("Soda, can", 1).get(0).getCount());
+	}
+
+	@Test
+	public void testProductsInserted() {
+		index.productsInserted(Arrays.asList(product("1", "Soda, can"), product("2", "Soda, can"), product("3", "Kombucha")));
+
+		assertEquals(2, index.search("Soda, can", 1).get(0).getCount());
+		assertEquals(1, index.search("Kombucha", 1).get(0).getCount());
+	}
+
+	@Test
+	public void testWriteListener() {
+		index.productSaved(null, product("1", "Soda, can"));
+		index.productSaved(null, new Product("2", "Soda, can", Category.CANNED_PACKAGED, LocalDate.of(2018, 1, 1)));
+		assertEquals(2, index.search("Soda, can", 1).get(0).getCount());
+
+		index.productSaved(product("1", "Soda, can"), product("1", "Soda, bottle"));
+		assertEquals(1, index.search("Soda, can", 1).get(0).getCount());
+		assertEquals(1, index.search("Soda, bottle", 1).get(0).getCount());
+
+		index.categoryDeleted(Category.BEVERAGES);
+		assertEquals(1, index.search("Soda, can", 1).get(0).getCount());
+		assertEquals(0, index.search("Soda, bottle", 1).get(0).getCount());
+
+		index.productsDeleted(Collections.singletonList(new Product("2", "Soda, can", Category.CANNED_PACKAGED, LocalDate.of(2018, 1, 1))));
+		assertEquals(0, index.search("Soda, can", 1).get(0).getCount());
+	}
+
+	@Test
+	public void testSearch_NothingSearchable() {
+		assertTrue(index.search(" ,() ", 5).isEmpty());
+		assertTrue(index.search("zzzzqqqq", 5).isEmpty());
+	}
+
+	@Test
+	public void testConfiguration_SeedsCandidatesFromClasspath() {
+		NameSearchIndex configured = new NameSearchConfiguration().nameSearchIndex("ProductCandidates.txt", DELIMITER);
+		assertEquals(index.size(), configured.size());
+	}
+
+	@Test
+	public void testNormalize() {
+		assertEquals("soda can coke product", NameSearchIndex.normalize("Soda, can (Coke product)"));
+		assertEquals("", NameSearchIndex.normalize(" ,"));
+	}
+
+	private static Product product(String number, String name) {
+		return new Product(number, name, Category.BEVERAGES, LocalDate.of(2018, 1, 1));
+	}
+
+	private static List<String> names(List<NameMatch> matches) {
+		return matches.stream().map(NameMatch::getName).collect(Collectors.toList());
+	}
+}
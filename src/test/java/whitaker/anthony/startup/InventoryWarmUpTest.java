@@ -0,0 +1,91 @@
+package whitaker.anthony.startup;
+
+import org.junit.Before;
+import org.junit.Test;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductRepository;
+import whitaker.anthony.search.NameSearchIndex;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class InventoryWarmUpTest {
+
+	private NameSearchIndex nameSearchIndex;
+	private ProductRepository productRepository;
+	private StartupTimings startupTimings;
+
+	@Before
+	public void setup() {
+		productRepository = mock(ProductRepository.class);
+		nameSearchIndex = new NameSearchIndex();
+		startupTimings = new StartupTimings();
+	}
+
+	@Test
+	public void testRun_CountsNames() throws InterruptedException {
+		List<Product> products = IntStream.range(0, 10_005)
+				.mapToObj(i -> new Product(Integer.toString(i), i % 2 == 0 ? "Lemons" : "Limes", Category.PRODUCE, LocalDate.of(2017, 10, 8).plusDays(i % 30)))
+				.collect(Collectors.toList());
+		when(productRepository.count()).thenReturn((long)products.size());
+		when(productRepository.streamAll(null)).thenReturn(products.stream());
+		InventoryWarmUp warmUp = new InventoryWarmUp(productRepository, nameSearchIndex, startupTimings, true, 1000);
+		nameSearchIndex.add("Lemons", Category.PRODUCE, 3);
+		nameSearchIndex.add("Oranges", Category.PRODUCE, 2);
+		assertEquals(InventoryWarmUp.State.PENDING, warmUp.getState());
+
+		warmUp.start().join();
+
+		assertEquals(InventoryWarmUp.State.COMPLETE, warmUp.getState());
+		assertEquals(products.size(), warmUp.getProgress().getLoadedCount());
+		assertEquals(100, warmUp.getProgress().getPercentComplete());
+		assertEquals((products.size() + 1) / 2, nameSearchIndex.search("lemons", 1).get(0).getCount());
+		assertEquals(products.size() / 2, nameSearchIndex.search("limes", 1).get(0).getCount());
+		assertEquals(0, nameSearchIndex.search("oranges", 1).get(0).getCount());
+		assertTrue(startupTimings.getWarmUpMillis() >= 0);
+	}
+
+	@Test
+	public void testRun_Failure() {
+		when(productRepository.count()).thenReturn(1L);
+		when(productRepository.streamAll(null)).thenReturn(Stream.of((Product)null));
+		InventoryWarmUp warmUp = new InventoryWarmUp(productRepository, nameSearchIndex, startupTimings, true, 1000);
+
+		warmUp.run();
+
+		assertEquals(InventoryWarmUp.State.FAILED, warmUp.getState());
+		assertEquals(0, nameSearchIndex.size());
+		assertTrue(startupTimings.getWarmUpMillis() >= 0);
+	}
+
+	@Test
+	public void testStart_Disabled() {
+		InventoryWarmUp warmUp = new InventoryWarmUp(productRepository, nameSearchIndex, startupTimings, false, 1000);
+
+		assertNull(warmUp.start());
+		assertEquals(InventoryWarmUp.State.DISABLED, warmUp.getState());
+		verifyZeroInteractions(productRepository);
+		assertEquals(StartupTimings.UNKNOWN, startupTimings.getWarmUpMillis());
+	}
+
+	@Test
+	public void testStartupTimings_IndexCreation() {
+		assertEquals(StartupTimings.UNKNOWN, startupTimings.getIndexCreationMillis());
+		startupTimings.postProcessBeforeInstantiation(Object.class, StartupTimings.MONGO_TEMPLATE);
+		startupTimings.postProcessAfterInitialization(new Object(), StartupTimings.MONGO_TEMPLATE);
+		assertTrue(startupTimings.getIndexCreationMillis() >= 0);
+
+		assertEquals(StartupTimings.UNKNOWN, startupTimings.getContextMillis());
+		startupTimings.contextRefreshed();
+		startupTimings.ready();
+		assertTrue(startupTimings.getContextMillis() >= 0);
+		assertTrue(startupTimings.getReadyMillis() >= startupTimings.getJvmMillis());
+	}
+}
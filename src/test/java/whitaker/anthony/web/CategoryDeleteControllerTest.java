@@ -0,0 +1,22 @@
+package whitaker.anthony.web;
+
+import org.junit.Test;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.repository.ProductRepository;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CategoryDeleteControllerTest {
+
+	@Test
+	public void testDeleteCategory() {
+		ProductRepository productRepository = mock(ProductRepository.class);
+		when(productRepository.deleteByCategory(Category.FROZEN)).thenReturn(3L);
+		CategoryDeleteController controller = new CategoryDeleteController(productRepository);
+
+		assertEquals(3, controller.deleteCategory(Category.FROZEN));
+		assertEquals(0, controller.deleteCategory(Category.PRODUCE));
+		verify(productRepository).deleteByCategory(Category.FROZEN);
+	}
+}
@@ -0,0 +1,48 @@
+package whitaker.anthony.web;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.repository.ProductRepository;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ExpirationControllerTest {
+
+	private static final LocalDate TODAY = LocalDate.of(2018, 3, 1);
+
+	private ProductRepository productRepository;
+	private ExpirationController controller;
+
+	@Before
+	public void setup() {
+		productRepository = mock(ProductRepository.class);
+		Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneOffset.UTC).toInstant(), ZoneOffset.UTC);
+		controller = new ExpirationController(productRepository, clock);
+	}
+
+	@Test
+	public void testExpiring_DefaultsToToday() {
+		assertEquals(HttpStatus.OK, controller.expiring(7, null, Category.FROZEN).getStatusCode());
+		verify(productRepository).findExpiringBetween(TODAY, LocalDate.of(2018, 3, 8), Category.FROZEN);
+	}
+
+	@Test
+	public void testExpiringCounts_FromGivenDate() {
+		assertEquals(HttpStatus.OK, controller.expiringCounts(0, LocalDate.of(2018, 5, 1)).getStatusCode());
+		verify(productRepository).countExpiringByDayAndCategory(LocalDate.of(2018, 5, 1), LocalDate.of(2018, 5, 1));
+	}
+
+	@Test
+	public void testNegativeDays() {
+		assertEquals(HttpStatus.BAD_REQUEST, controller.expiring(-1, null, null).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.expiringCounts(-1, null).getStatusCode());
+		verifyZeroInteractions(productRepository);
+	}
+}
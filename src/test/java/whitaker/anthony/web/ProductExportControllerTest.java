@@ -0,0 +1,110 @@
+package whitaker.anthony.web;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_FORMAT;
+import static whitaker.anthony.generator.DataGenerator.DEFAULT_EXPIRATION_DATE_LOCALE;
+
+public class ProductExportControllerTest {
+
+	private static final Product TEA = new Product("08f7751c-c495-469d-b4ca-5b1f118c91a7", "Tea, green, bags", Category.BEVERAGES, LocalDate.of(2018, 4, 24));
+	private static final Product QUOTED = new Product("12346567", "Apple \"Fuji\"\\\t", Category.PRODUCE, LocalDate.of(2017, 10, 8));
+
+	private AtomicBoolean closed;
+	private ProductRepository productRepository;
+	private ProductExportController controller;
+
+	@Before
+	public void setup() {
+		closed = new AtomicBoolean();
+		productRepository = mock(ProductRepository.class);
+		when(productRepository.streamAll(null)).thenAnswer(invocation -> Stream.of(TEA, QUOTED).onClose(() -> closed.set(true)));
+		when(productRepository.streamAll(Category.PRODUCE)).thenAnswer(invocation -> Stream.of(QUOTED).onClose(() -> closed.set(true)));
+		controller = new ProductExportController(productRepository, 600_000);
+	}
+
+	@Test
+	public void testExport_Ndjson() throws IOException {
+		ResponseEntity<StreamingResponseBody> response = controller.export("ndjson", ";", null, new MockHttpServletRequest());
+
+		assertEquals(ProductExportController.APPLICATION_NDJSON, response.getHeaders().getContentType());
+		assertEquals("{\"number\":\"08f7751c-c495-469d-b4ca-5b1f118c91a7\",\"name\":\"Tea, green, bags\",\"category\":\"BEVERAGES\",\"expirationDate\":\"2018-04-24\"}\n"
+						+ "{\"number\":\"12346567\",\"name\":\"Apple \\\"Fuji\\\"\\\\\\u0009\",\"category\":\"PRODUCE\",\"expirationDate\":\"2017-10-08\"}\n",
+				write(response));
+		assertTrue(closed.get());
+	}
+
+	@Test
+	public void testExport_DelimitedMatchesToDelimitedString() throws IOException {
+		ResponseEntity<StreamingResponseBody> response = controller.export("delimited", "|", Category.PRODUCE, new MockHttpServletRequest());
+
+		assertEquals(QUOTED.toDelimitedString("|", DEFAULT_EXPIRATION_DATE_FORMAT, DEFAULT_EXPIRATION_DATE_LOCALE) + "\n", write(response));
+		verify(productRepository).streamAll(Category.PRODUCE);
+		assertTrue(closed.get());
+	}
+
+	@Test
+	public void testExport_RegexDelimiterWrittenLiterally() throws IOException {
+		ResponseEntity<StreamingResponseBody> response = controller.export("delimited", "(", Category.PRODUCE, new MockHttpServletRequest());
+
+		assertEquals("12346567(Apple \"Fuji\"\\\t(Produce(2017-10-08\n", write(response));
+	}
+
+	@Test
+	public void testExport_UnusableDelimiter() {
+		assertEquals(HttpStatus.BAD_REQUEST, controller.export("delimited", "\n", null, new MockHttpServletRequest()).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.export("delimited", ";\r", null, new MockHttpServletRequest()).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.export("delimited", "123456789", null, new MockHttpServletRequest()).getStatusCode());
+		verifyZeroInteractions(productRepository);
+	}
+
+	@Test
+	public void testExport_UnknownFormat() {
+		assertEquals(HttpStatus.BAD_REQUEST, controller.export("xml", ";", null, new MockHttpServletRequest()).getStatusCode());
+		assertEquals(HttpStatus.BAD_REQUEST, controller.export("delimited", "", null, new MockHttpServletRequest()).getStatusCode());
+		verifyZeroInteractions(productRepository);
+	}
+
+	@Test
+	public void testExport_SetsOwnAsyncTimeout() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAsyncSupported(true);
+		StandardServletAsyncWebRequest asyncWebRequest = new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+		asyncWebRequest.setTimeout(10_000L);
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+		asyncManager.setAsyncWebRequest(asyncWebRequest);
+
+		controller.export("ndjson", ";", null, request);
+		asyncManager.startCallableProcessing(() -> null);
+
+		assertEquals(600_000, request.getAsyncContext().getTimeout());
+	}
+
+	private static String write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+		assertEquals(HttpStatus.OK, response.getStatusCode());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		response.getBody().writeTo(out);
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,33 @@
+package whitaker.anthony.web;
+
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import whitaker.anthony.cache.ProductNumberCache;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductRepository;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class ProductLookupControllerTest {
+
+	@Test
+	public void testLookup_ReadsThroughCache() {
+		Product lemons = new Product("1", "Lemons", Category.PRODUCE, LocalDate.of(2017, 10, 8));
+		ProductRepository productRepository = mock(ProductRepository.class);
+		when(productRepository.findByNumber("1")).thenReturn(lemons);
+		ProductLookupController controller = new ProductLookupController(productRepository, new ProductNumberCache(10, 60_000, 5_000));
+
+		assertSame(lemons, controller.lookup("1").getBody());
+		assertSame(lemons, controller.lookup("1").getBody());
+		assertEquals(HttpStatus.NOT_FOUND, controller.lookup("2").getStatusCode());
+		assertEquals(HttpStatus.NOT_FOUND, controller.lookup("2").getStatusCode());
+
+		verify(productRepository, times(1)).findByNumber("1");
+		verify(productRepository, times(1)).findByNumber("2");
+		assertEquals(2, controller.cacheStats().getMisses());
+	}
+}
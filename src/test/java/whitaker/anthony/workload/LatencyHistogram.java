@@ -0,0 +1,95 @@
+package whitaker.anthony.workload;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of latencies, in nanoseconds, from which percentiles are read without keeping every sample.
+ * <p>
+ * Buckets are log-linear: each power of two is split into {@value #SUB_BUCKETS} equal buckets, so every latency is counted
+ * to within about 3% whether it took microseconds or minutes, in a fixed few thousand counters. Recording is a single
+ * atomic increment, cheap enough to leave on the measured path.
+ */
+public class LatencyHistogram {
+
+	static final int SUB_BUCKETS = 32;
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+	private final LongAdder samples = new LongAdder();
+	private final LongAdder total = new LongAdder();
+
+	/**
+	 * Records one latency.
+	 *
+	 * @param nanos Latency in nanoseconds; negative values count as 0.
+	 */
+	public void record(long nanos) {
+		long value = Math.max(0, nanos);
+		counts.incrementAndGet(bucketOf(value));
+		max.accumulate(value);
+		samples.increment();
+		total.add(value);
+	}
+
+	/**
+	 * Returns the latency at or below which given fraction of recorded latencies fall, to within bucket precision.
+	 * The highest value of the bucket holding that latency is returned, never more than the largest latency recorded.
+	 *
+	 * @param percentile Fraction of latencies, between 0 and 100, e.g. 99.9.
+	 * @return Latency in nanoseconds, or 0 if nothing has been recorded.
+	 * @throws IllegalArgumentException If percentile is outside 0 to 100.
+	 */
+	public long getPercentile(double percentile) {
+		if(!(percentile >= 0 && percentile <= 100))
+			throw new IllegalArgumentException("Percentile must be between 0 and 100.");
+		long count = getCount();
+		if(count == 0)
+			return 0;
+		long rank = Math.max(1, (long)Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for(int i = 0; i < BUCKETS; i++) {
+			seen += counts.get(i);
+			if(seen >= rank)
+				return Math.min(highestValueOf(i), getMax());
+		}
+		return getMax();
+	}
+
+	/**
+	 * Returns the mean of recorded latencies.
+	 *
+	 * @return Mean latency in nanoseconds, or 0 if nothing has been recorded.
+	 */
+	public double getMean() {
+		long count = samples.sum();
+		return count == 0 ? 0 : (double)total.sum() / count;
+	}
+
+	static int bucketOf(long value) {
+		if(value < SUB_BUCKETS)
+			return (int)value;
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		int subBucket = (int)(value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+
+	static long highestValueOf(int bucket) {
+		if(bucket < SUB_BUCKETS)
+			return bucket;
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long)(SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	public long getCount() {
+		return samples.sum();
+	}
+
+	public long getMax() {
+		return max.get();
+	}
+}
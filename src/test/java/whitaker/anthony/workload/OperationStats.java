@@ -0,0 +1,92 @@
+package whitaker.anthony.workload;
+
+/**
+ * Throughput and latency of one kind of operation over a workload run. Latencies are in nanoseconds and include failed
+ * operations, which are also counted as errors.
+ */
+public class OperationStats {
+
+	private static final double NANOS_PER_MILLI = 1_000_000;
+	private static final double NANOS_PER_SECOND = 1_000_000_000;
+
+	private final long count;
+	private final long errors;
+	private final long max;
+	private final double mean;
+	private final WorkloadOperation operation;
+	private final long p50;
+	private final long p90;
+	private final long p99;
+	private final long p999;
+	private final long results;
+	private final double throughput;
+
+	OperationStats(WorkloadOperation operation, LatencyHistogram latencies, long errors, long results, long elapsedNanos) {
+		this.operation = operation;
+		this.count = latencies.getCount();
+		this.errors = errors;
+		this.results = results;
+		this.mean = latencies.getMean();
+		this.p50 = latencies.getPercentile(50);
+		this.p90 = latencies.getPercentile(90);
+		this.p99 = latencies.getPercentile(99);
+		this.p999 = latencies.getPercentile(99.9);
+		this.max = latencies.getMax();
+		this.throughput = elapsedNanos <= 0 ? 0 : count / (elapsedNanos / NANOS_PER_SECOND);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%-16s %9d ops %7d err %10.1f ops/s  mean %8.2f  p50 %8.2f  p90 %8.2f  p99 %8.2f  p99.9 %8.2f  max %8.2f ms",
+				operation, count, errors, throughput, mean / NANOS_PER_MILLI, p50 / NANOS_PER_MILLI, p90 / NANOS_PER_MILLI,
+				p99 / NANOS_PER_MILLI, p999 / NANOS_PER_MILLI, max / NANOS_PER_MILLI);
+	}
+
+	/** Operations completed, successfully or not. */
+	public long getCount() {
+		return count;
+	}
+
+	/** Operations that threw. */
+	public long getErrors() {
+		return errors;
+	}
+
+	public long getMax() {
+		return max;
+	}
+
+	public double getMean() {
+		return mean;
+	}
+
+	public WorkloadOperation getOperation() {
+		return operation;
+	}
+
+	public long getP50() {
+		return p50;
+	}
+
+	public long getP90() {
+		return p90;
+	}
+
+	public long getP99() {
+		return p99;
+	}
+
+	public long getP999() {
+		return p999;
+	}
+
+	/** Products touched by successful operations, e.g. lookups that found their product. */
+	public long getResults() {
+		return results;
+	}
+
+	/** Operations per second over the whole run. */
+	public double getThroughput() {
+		return throughput;
+	}
+}
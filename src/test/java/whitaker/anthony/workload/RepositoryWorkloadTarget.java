@@ -0,0 +1,70 @@
+package whitaker.anthony.workload;
+
+import whitaker.anthony.cache.ProductNumberCache;
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Runs workloads straight against {@link ProductRepository}, measuring the data layer without HTTP in between.
+ * Listings use keyset pagination and lookups go through the number cache, as the service's own endpoints do.
+ */
+public class RepositoryWorkloadTarget implements WorkloadTarget {
+
+	private final ProductNumberCache productNumberCache;
+	private final ProductRepository productRepository;
+
+	/**
+	 * Constructs a RepositoryWorkloadTarget whose lookups are not cached.
+	 *
+	 * @param productRepository Repository to run against, not null.
+	 * @throws IllegalArgumentException If productRepository is null.
+	 */
+	public RepositoryWorkloadTarget(ProductRepository productRepository) {
+		this(productRepository, ProductNumberCache.disabled());
+	}
+
+	/**
+	 * Constructs a RepositoryWorkloadTarget.
+	 *
+	 * @param productRepository  Repository to run against, not null.
+	 * @param productNumberCache Cache in front of lookups, typically the service's own, not null.
+	 * @throws IllegalArgumentException If any parameters are null.
+	 */
+	public RepositoryWorkloadTarget(ProductRepository productRepository, ProductNumberCache productNumberCache) {
+		if(productRepository == null || productNumberCache == null)
+			throw new IllegalArgumentException("Parameters to RepositoryWorkloadTarget constructor cannot be null.");
+		this.productRepository = productRepository;
+		this.productNumberCache = productNumberCache;
+	}
+
+	@Override
+	public long ingest(List<Product> products) {
+		return productRepository.insert(products).size();
+	}
+
+	@Override
+	public long listSorted(SortKey sortKey, int limit) {
+		return productRepository.findPage(sortKey, null, limit).size();
+	}
+
+	@Override
+	public long deleteCategory(Category category) {
+		Long deleted = productRepository.deleteByCategory(category);
+		return deleted == null ? 0 : deleted;
+	}
+
+	@Override
+	public long findByNumber(String number) {
+		return productNumberCache.get(number, productRepository::findByNumber) == null ? 0 : 1;
+	}
+
+	@Override
+	public long findExpiring(LocalDate from, int days) {
+		return productRepository.findExpiringBetween(from, from.plusDays(days), null).size();
+	}
+}
@@ -0,0 +1,117 @@
+package whitaker.anthony.workload;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs workloads against a running service over HTTP, the way its clients use it:
+ * <ul>
+ * <li>sorted listings read the first page of {@code /products} sorted by the key's field, then number;</li>
+ * <li>category deletes use {@code DELETE /categories/{category}/products}, one server-side delete as in {@link RepositoryWorkloadTarget};</li>
+ * <li>lookups use {@code /lookup/{number}} and expiration queries {@code /expiring}.</li>
+ * </ul>
+ * The REST layer cannot create products, as they have no JSON creator and dates no JSON module, so ingest goes to a
+ * separate target, typically a {@link RepositoryWorkloadTarget} on the same database.
+ */
+public class RestWorkloadTarget implements WorkloadTarget {
+
+	private static final Map<SortKey, String> SORT_FIELDS = new EnumMap<>(SortKey.class);
+
+	static {
+		SORT_FIELDS.put(SortKey.CATEGORY, "category");
+		SORT_FIELDS.put(SortKey.EXPIRATION_DATE, "expirationDate");
+		SORT_FIELDS.put(SortKey.NAME, "name");
+		SORT_FIELDS.put(SortKey.NUMBER, "number");
+	}
+
+	private final String baseUrl;
+	private final WorkloadTarget ingestTarget;
+	private final RestTemplate restTemplate;
+
+	/**
+	 * Constructs a RestWorkloadTarget with a default RestTemplate.
+	 *
+	 * @param baseUrl      Root URL of service, e.g. {@code http://localhost:8080}, not null.
+	 * @param ingestTarget Target receiving ingests, not null.
+	 * @throws IllegalArgumentException If any parameters are null.
+	 */
+	public RestWorkloadTarget(String baseUrl, WorkloadTarget ingestTarget) {
+		this(new RestTemplate(), baseUrl, ingestTarget);
+	}
+
+	/**
+	 * Constructs a RestWorkloadTarget.
+	 *
+	 * @param restTemplate Template making requests; must be able to read JSON, not null.
+	 * @param baseUrl      Root URL of service, e.g. {@code http://localhost:8080}, not null.
+	 * @param ingestTarget Target receiving ingests, not null.
+	 * @throws IllegalArgumentException If any parameters are null.
+	 */
+	public RestWorkloadTarget(RestTemplate restTemplate, String baseUrl, WorkloadTarget ingestTarget) {
+		if(restTemplate == null || baseUrl == null || ingestTarget == null)
+			throw new IllegalArgumentException("Parameters to RestWorkloadTarget constructor cannot be null.");
+		this.restTemplate = restTemplate;
+		this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+		this.ingestTarget = ingestTarget;
+	}
+
+	@Override
+	public long ingest(List<Product> products) {
+		return ingestTarget.ingest(products);
+	}
+
+	@Override
+	public long listSorted(SortKey sortKey, int limit) {
+		URI uri = uri("/products")
+				.queryParam("sort", SORT_FIELDS.get(sortKey) + ",asc")
+				.queryParam("sort", "number,asc")
+				.queryParam("size", limit)
+				.build().toUri();
+		return embeddedProducts(restTemplate.getForObject(uri, JsonNode.class)).size();
+	}
+
+	@Override
+	public long deleteCategory(Category category) {
+		URI uri = uri("/categories/{category}/products").buildAndExpand(category.name()).toUri();
+		return restTemplate.exchange(uri, HttpMethod.DELETE, null, Long.class).getBody();
+	}
+
+	@Override
+	public long findByNumber(String number) {
+		try {
+			restTemplate.getForObject(uri("/lookup/{number}").buildAndExpand(number).toUri(), JsonNode.class);
+			return 1;
+		} catch(HttpClientErrorException e) {
+			if(e.getStatusCode() == HttpStatus.NOT_FOUND)
+				return 0;
+			throw e;
+		}
+	}
+
+	@Override
+	public long findExpiring(LocalDate from, int days) {
+		URI uri = uri("/expiring").queryParam("from", from.toString()).queryParam("days", days).build().toUri();
+		return restTemplate.getForObject(uri, JsonNode.class).size();
+	}
+
+	private UriComponentsBuilder uri(String path) {
+		return UriComponentsBuilder.fromHttpUrl(baseUrl + path);
+	}
+
+	private static JsonNode embeddedProducts(JsonNode collection) {
+		return collection.path("_embedded").path("products");
+	}
+}
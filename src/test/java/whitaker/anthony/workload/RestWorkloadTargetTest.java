@@ -0,0 +1,90 @@
+package whitaker.anthony.workload;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestTemplate;
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+public class RestWorkloadTargetTest {
+
+	private static final String BASE_URL = "http://inventory:8080";
+
+	private WorkloadTarget ingestTarget;
+	private MockRestServiceServer server;
+	private RestWorkloadTarget target;
+
+	@Before
+	public void setup() {
+		RestTemplate restTemplate = new RestTemplate();
+		server = MockRestServiceServer.createServer(restTemplate);
+		ingestTarget = mock(WorkloadTarget.class);
+		target = new RestWorkloadTarget(restTemplate, BASE_URL + "/", ingestTarget);
+	}
+
+	@Test
+	public void testListSorted() {
+		server.expect(requestTo(BASE_URL + "/products?sort=expirationDate,asc&sort=number,asc&size=2"))
+				.andRespond(withSuccess("{\"_embedded\":{\"products\":[{},{}]}}", MediaType.APPLICATION_JSON));
+		assertEquals(2, target.listSorted(SortKey.EXPIRATION_DATE, 2));
+		server.verify();
+	}
+
+	@Test
+	public void testDeleteCategory() {
+		server.expect(requestTo(BASE_URL + "/categories/FROZEN/products")).andExpect(method(HttpMethod.DELETE))
+				.andRespond(withSuccess("2", MediaType.APPLICATION_JSON));
+		assertEquals(2, target.deleteCategory(Category.FROZEN));
+		server.verify();
+	}
+
+	@Test
+	public void testFindByNumber() {
+		server.expect(requestTo(BASE_URL + "/lookup/found")).andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+		server.expect(requestTo(BASE_URL + "/lookup/missing")).andRespond(withStatus(HttpStatus.NOT_FOUND));
+		server.expect(requestTo(BASE_URL + "/lookup/broken")).andRespond(withServerError());
+		assertEquals(1, target.findByNumber("found"));
+		assertEquals(0, target.findByNumber("missing"));
+		try {
+			target.findByNumber("broken");
+			fail();
+		} catch(HttpServerErrorException e) {
+			assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, e.getStatusCode());
+		}
+		server.verify();
+	}
+
+	@Test
+	public void testFindExpiring() {
+		server.expect(requestTo(BASE_URL + "/expiring?from=2018-03-01&days=7"))
+				.andRespond(withSuccess("[{},{},{}]", MediaType.APPLICATION_JSON));
+		assertEquals(3, target.findExpiring(LocalDate.of(2018, 3, 1), 7));
+		server.verify();
+	}
+
+	@Test
+	public void testIngest_GoesToIngestTarget() {
+		List<Product> products = Collections.singletonList(new Product("n", "Lemons", Category.PRODUCE, LocalDate.of(2018, 3, 1)));
+		when(ingestTarget.ingest(products)).thenReturn(1L);
+		assertEquals(1, target.ingest(products));
+		server.verify();
+	}
+}
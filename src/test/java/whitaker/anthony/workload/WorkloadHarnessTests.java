@@ -0,0 +1,95 @@
+package whitaker.anthony.workload;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.embedded.LocalServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import whitaker.anthony.cache.ProductNumberCache;
+import whitaker.anthony.generator.ProductGenerator;
+import whitaker.anthony.generator.StreamingProductGenerator;
+import whitaker.anthony.repository.ProductRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Runs a workload against the whole service on the embedded MongoDB, once through {@link ProductRepository} and once
+ * through the REST layer, and logs both reports. Ingests of the REST run go through the repository, see {@link RestWorkloadTarget}.
+ * <p>
+ * The workload is planned from the script named by system property {@code workload.script}, by default
+ * {@code src/test/resources/workload/mixed.properties}, and recorded to {@code target/workload-trace.txt}. Setting
+ * {@code workload.trace} replays that trace instead, paced at its recorded times; the script then only supplies the preload
+ * and product generation settings. {@code workload.threads} sets the number of concurrent clients, 4 by default.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class WorkloadHarnessTests {
+
+	private static final String FILENAME_PRODUCT_CANDIDATES = "src/main/resources/ProductCandidates.txt";
+	private static final Logger LOGGER = LoggerFactory.getLogger(WorkloadHarnessTests.class);
+	private static final Path RECORDED_TRACE = Paths.get("target", "workload-trace.txt");
+
+	@Autowired
+	private ProductNumberCache productNumberCache;
+	@Autowired
+	private ProductRepository productRepository;
+	@LocalServerPort
+	private int port;
+
+	private StreamingProductGenerator generator;
+	private WorkloadMix mix;
+	private boolean paced;
+	private List<WorkloadStep> steps;
+	private int threads;
+
+	@Before
+	public void setup() throws IOException {
+		mix = WorkloadMix.load(Paths.get(System.getProperty("workload.script", "src/test/resources/workload/mixed.properties")));
+		generator = mix.createGenerator(ProductGenerator.parseProductCandidateFile(FILENAME_PRODUCT_CANDIDATES, ";"));
+		threads = Integer.getInteger("workload.threads", 4);
+		String trace = System.getProperty("workload.trace");
+		if(trace != null) {
+			steps = WorkloadTrace.read(Paths.get(trace));
+			paced = true;
+		}
+		else {
+			steps = mix.plan(generator);
+			Files.createDirectories(RECORDED_TRACE.getParent());
+			WorkloadTrace.write(RECORDED_TRACE, steps);
+		}
+	}
+
+	@Test
+	public void testRepository() {
+		run("repository", new RepositoryWorkloadTarget(productRepository, productNumberCache));
+	}
+
+	@Test
+	public void testRest() {
+		// A plain RestTemplate, as TestRestTemplate ignores error statuses and would count missed lookups as found.
+		run("REST", new RestWorkloadTarget("http://localhost:" + port, new RepositoryWorkloadTarget(productRepository)));
+	}
+
+	private void run(String name, WorkloadTarget target) {
+		productRepository.deleteAll();
+		WorkloadRunner runner = new WorkloadRunner(target, generator, threads);
+		WorkloadReport preload = runner.run(mix.preload(), false);
+		assertEquals(0, preload.getErrors());
+		LOGGER.info("Preloaded {} products through {}: {}", mix.getPreload(), name, preload);
+
+		WorkloadReport report = runner.run(steps, paced);
+		LOGGER.info("Workload of {} steps on {} threads through {}:\n{}", steps.size(), threads, name, report);
+		assertEquals(steps.size(), report.getCount());
+		assertEquals(0, report.getErrors());
+	}
+}
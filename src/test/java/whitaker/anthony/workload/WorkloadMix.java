@@ -0,0 +1,344 @@
+package whitaker.anthony.workload;
+
+import whitaker.anthony.generator.StreamingProductGenerator;
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.ProductCandidate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * A workload script: how many operations of each kind to run, with what arguments and how fast, turned into concrete
+ * {@link WorkloadStep}s by {@link #plan}.
+ * <p>
+ * Scripts are properties files. Every key is optional; the defaults are:
+ * <pre>
+ * seed=1
+ * preload=10000
+ * operations=10000
+ * rate=0
+ * weight.INGEST=1
+ * weight.LIST_SORTED=10
+ * weight.DELETE_CATEGORY=1
+ * weight.FIND_BY_NUMBER=70
+ * weight.EXPIRING=18
+ * ingest.batch-size=1000
+ * list.limit=100
+ * expiring.days=7
+ * expiration.min=2017-01-01
+ * expiration.max=2018-12-31
+ * </pre>
+ * {@code seed} fixes every choice made in planning, so a script always plans the same steps. {@code preload} products are
+ * ingested before the mix starts, see {@link #preload}. The mix is {@code operations} steps issued at {@code rate} per second
+ * when replayed paced, or all at once if rate is 0. Each step's operation is picked in proportion to its {@code weight.*};
+ * 0 leaves an operation out. Ingest steps insert {@code ingest.batch-size} products, listings read {@code list.limit}
+ * products in a random sort key and expiration queries cover {@code expiring.days} days from a random day between
+ * {@code expiration.min} and {@code expiration.max}, which also bound the expiration dates of generated products.
+ * <p>
+ * Lookups pick numbers of products ingested earlier in the plan, so most find their product; those of categories deleted
+ * since, and every lookup planned before anything was ingested, miss as they would in production.
+ */
+public class WorkloadMix {
+
+	/** Numbers remembered for lookups; further ingested numbers replace remembered ones at random. */
+	static final int MAX_KNOWN_NUMBERS = 100_000;
+
+	private final Map<WorkloadOperation, Double> weights = new EnumMap<>(WorkloadOperation.class);
+	private LocalDate expirationDateMax = LocalDate.of(2018, 12, 31);
+	private LocalDate expirationDateMin = LocalDate.of(2017, 1, 1);
+	private int expiringDays = 7;
+	private int ingestBatchSize = 1000;
+	private int listLimit = 100;
+	private int operations = 10_000;
+	private long preload = 10_000;
+	private double rate;
+	private long seed = 1;
+
+	/**
+	 * Constructs a WorkloadMix with every setting at its default.
+	 */
+	public WorkloadMix() {
+		weights.put(WorkloadOperation.INGEST, 1.0);
+		weights.put(WorkloadOperation.LIST_SORTED, 10.0);
+		weights.put(WorkloadOperation.DELETE_CATEGORY, 1.0);
+		weights.put(WorkloadOperation.FIND_BY_NUMBER, 70.0);
+		weights.put(WorkloadOperation.EXPIRING, 18.0);
+	}
+
+	/**
+	 * Reads a script file.
+	 *
+	 * @param path Properties file, as described in class documentation.
+	 * @return Mix described by file.
+	 * @throws IOException              If file cannot be read.
+	 * @throws IllegalArgumentException If any setting is invalid.
+	 */
+	public static WorkloadMix load(Path path) throws IOException {
+		try(Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			Properties properties = new Properties();
+			properties.load(in);
+			return load(properties);
+		}
+	}
+
+	/**
+	 * Builds a mix from script properties.
+	 *
+	 * @param properties Settings, as described in class documentation, not null.
+	 * @return Mix described by properties.
+	 * @throws IllegalArgumentException If any setting is invalid.
+	 */
+	public static WorkloadMix load(Properties properties) {
+		WorkloadMix mix = new WorkloadMix();
+		try {
+			mix.setSeed(Long.parseLong(properties.getProperty("seed", String.valueOf(mix.seed))));
+			mix.setPreload(Long.parseLong(properties.getProperty("preload", String.valueOf(mix.preload))));
+			mix.setOperations(Integer.parseInt(properties.getProperty("operations", String.valueOf(mix.operations))));
+			mix.setRate(Double.parseDouble(properties.getProperty("rate", String.valueOf(mix.rate))));
+			for(WorkloadOperation operation : WorkloadOperation.values()) {
+				String weight = properties.getProperty("weight." + operation);
+				if(weight != null)
+					mix.setWeight(operation, Double.parseDouble(weight));
+			}
+			mix.setIngestBatchSize(Integer.parseInt(properties.getProperty("ingest.batch-size", String.valueOf(mix.ingestBatchSize))));
+			mix.setListLimit(Integer.parseInt(properties.getProperty("list.limit", String.valueOf(mix.listLimit))));
+			mix.setExpiringDays(Integer.parseInt(properties.getProperty("expiring.days", String.valueOf(mix.expiringDays))));
+			mix.setExpirationDates(LocalDate.parse(properties.getProperty("expiration.min", mix.expirationDateMin.toString())),
+					LocalDate.parse(properties.getProperty("expiration.max", mix.expirationDateMax.toString())));
+		} catch(IllegalArgumentException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Invalid workload script: " + e.getMessage(), e);
+		}
+		return mix;
+	}
+
+	/**
+	 * Returns a generator making products with this mix's expiration dates, for planning and for {@link WorkloadRunner}.
+	 *
+	 * @param productCandidates Candidates to sample, not null or empty.
+	 * @return Generator.
+	 * @throws IllegalArgumentException If there are no candidates.
+	 */
+	public StreamingProductGenerator createGenerator(Collection<ProductCandidate> productCandidates) {
+		return new StreamingProductGenerator(productCandidates, expirationDateMin, expirationDateMax);
+	}
+
+	/**
+	 * Returns the ingest steps loading this mix's initial dataset, all at time 0. They are meant to be run, unpaced,
+	 * before the steps of {@link #plan} so that lookups and queries have products to find.
+	 *
+	 * @return Ingest steps, together inserting {@code preload} products.
+	 */
+	public List<WorkloadStep> preload() {
+		SplittableRandom random = new SplittableRandom(seed);
+		List<WorkloadStep> steps = new ArrayList<>();
+		for(long loaded = 0; loaded < preload; loaded += ingestBatchSize) {
+			steps.add(WorkloadStep.ingest(0, (int)Math.min(ingestBatchSize, preload - loaded), random.nextLong()));
+		}
+		return steps;
+	}
+
+	/**
+	 * Plans the steps of this mix. The same settings and generator always give the same steps.
+	 *
+	 * @param generator Generator making the products of ingest steps, as given to {@link WorkloadRunner}, not null.
+	 * @return {@code operations} steps, spaced evenly at {@code rate} per second.
+	 * @throws IllegalArgumentException If generator is null or if every weight is 0.
+	 */
+	public List<WorkloadStep> plan(StreamingProductGenerator generator) {
+		if(generator == null)
+			throw new IllegalArgumentException("Generator cannot be null.");
+		double totalWeight = weights.values().stream().mapToDouble(Double::doubleValue).sum();
+		if(totalWeight <= 0)
+			throw new IllegalArgumentException("At least one operation must have a positive weight.");
+
+		KnownNumbers known = new KnownNumbers(new SplittableRandom(~seed));
+		for(WorkloadStep step : preload()) {
+			generator.generate(step.getCount(), step.getSeed(), 1, product -> known.add(product.getNumber()));
+		}
+
+		SplittableRandom random = new SplittableRandom(seed).split();
+		long expirationDays = expirationDateMax.toEpochDay() - expirationDateMin.toEpochDay() + 1;
+		List<WorkloadStep> steps = new ArrayList<>(operations);
+		for(int i = 0; i < operations; i++) {
+			long atMillis = rate > 0 ? (long)(i * 1000 / rate) : 0;
+			switch(pick(random.nextDouble() * totalWeight)) {
+				case INGEST:
+					WorkloadStep ingest = WorkloadStep.ingest(atMillis, ingestBatchSize, random.nextLong());
+					generator.generate(ingest.getCount(), ingest.getSeed(), 1, product -> known.add(product.getNumber()));
+					steps.add(ingest);
+					break;
+				case LIST_SORTED:
+					steps.add(WorkloadStep.listSorted(atMillis, SortKey.values()[random.nextInt(SortKey.values().length)], listLimit));
+					break;
+				case DELETE_CATEGORY:
+					steps.add(WorkloadStep.deleteCategory(atMillis, Category.values()[random.nextInt(Category.values().length)]));
+					break;
+				case FIND_BY_NUMBER:
+					String number = known.pick(random);
+					steps.add(WorkloadStep.findByNumber(atMillis, number != null ? number : new UUID(random.nextLong(), random.nextLong()).toString()));
+					break;
+				default:
+					LocalDate from = expirationDateMin.plusDays(random.nextLong(expirationDays));
+					steps.add(WorkloadStep.expiring(atMillis, from, expiringDays));
+			}
+		}
+		return steps;
+	}
+
+	private WorkloadOperation pick(double value) {
+		WorkloadOperation picked = null;
+		for(Map.Entry<WorkloadOperation, Double> weight : weights.entrySet()) {
+			if(weight.getValue() <= 0)
+				continue;
+			picked = weight.getKey();
+			value -= weight.getValue();
+			if(value < 0)
+				break;
+		}
+		return picked;
+	}
+
+	public LocalDate getExpirationDateMax() {
+		return expirationDateMax;
+	}
+
+	public LocalDate getExpirationDateMin() {
+		return expirationDateMin;
+	}
+
+	/**
+	 * Sets the range of expiration dates of generated products, from which expiration windows also start.
+	 *
+	 * @param expirationDateMin Earliest expiration date, not null.
+	 * @param expirationDateMax Latest expiration date, not before expirationDateMin, not null.
+	 * @throws IllegalArgumentException If either date is null or if they are out of order.
+	 */
+	public void setExpirationDates(LocalDate expirationDateMin, LocalDate expirationDateMax) {
+		if(expirationDateMin == null || expirationDateMax == null || expirationDateMax.isBefore(expirationDateMin))
+			throw new IllegalArgumentException("Expiration dates cannot be null and must be in order.");
+		this.expirationDateMin = expirationDateMin;
+		this.expirationDateMax = expirationDateMax;
+	}
+
+	public int getExpiringDays() {
+		return expiringDays;
+	}
+
+	public void setExpiringDays(int expiringDays) {
+		if(expiringDays < 0)
+			throw new IllegalArgumentException("Expiring days cannot be negative.");
+		this.expiringDays = expiringDays;
+	}
+
+	public int getIngestBatchSize() {
+		return ingestBatchSize;
+	}
+
+	public void setIngestBatchSize(int ingestBatchSize) {
+		if(ingestBatchSize < 1)
+			throw new IllegalArgumentException("Ingest batch size must be at least 1.");
+		this.ingestBatchSize = ingestBatchSize;
+	}
+
+	public int getListLimit() {
+		return listLimit;
+	}
+
+	public void setListLimit(int listLimit) {
+		if(listLimit < 1)
+			throw new IllegalArgumentException("List limit must be at least 1.");
+		this.listLimit = listLimit;
+	}
+
+	public int getOperations() {
+		return operations;
+	}
+
+	public void setOperations(int operations) {
+		if(operations < 0)
+			throw new IllegalArgumentException("Operations cannot be negative.");
+		this.operations = operations;
+	}
+
+	public long getPreload() {
+		return preload;
+	}
+
+	public void setPreload(long preload) {
+		if(preload < 0)
+			throw new IllegalArgumentException("Preload cannot be negative.");
+		this.preload = preload;
+	}
+
+	/** Steps per second when replayed paced; 0 if every step is issued at once. */
+	public double getRate() {
+		return rate;
+	}
+
+	public void setRate(double rate) {
+		if(!(rate >= 0) || Double.isInfinite(rate))
+			throw new IllegalArgumentException("Rate must be finite and not negative.");
+		this.rate = rate;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public void setSeed(long seed) {
+		this.seed = seed;
+	}
+
+	public double getWeight(WorkloadOperation operation) {
+		return weights.get(operation);
+	}
+
+	public void setWeight(WorkloadOperation operation, double weight) {
+		if(operation == null || !(weight >= 0) || Double.isInfinite(weight))
+			throw new IllegalArgumentException("Operation cannot be null and weight must be finite and not negative.");
+		weights.put(operation, weight);
+	}
+
+	/**
+	 * Uniform sample of the numbers ingested so far, of bounded size.
+	 */
+	private static class KnownNumbers {
+		private final List<String> numbers = new ArrayList<>();
+		private final SplittableRandom random;
+		private long seen;
+
+		private KnownNumbers(SplittableRandom random) {
+			this.random = random;
+		}
+
+		private void add(String number) {
+			seen++;
+			if(numbers.size() < MAX_KNOWN_NUMBERS) {
+				numbers.add(number);
+			}
+			else {
+				long slot = random.nextLong(seen);
+				if(slot < MAX_KNOWN_NUMBERS)
+					numbers.set((int)slot, number);
+			}
+		}
+
+		private String pick(SplittableRandom random) {
+			return numbers.isEmpty() ? null : numbers.get(random.nextInt(numbers.size()));
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package whitaker.anthony.workload;
+
+/**
+ * Kinds of operation a workload is made of, each reported separately by {@link WorkloadRunner}.
+ */
+public enum WorkloadOperation {
+	/** Inserts a batch of generated products. */
+	INGEST,
+	/** Reads the first page of products in a {@link whitaker.anthony.inventory.SortKey} order. */
+	LIST_SORTED,
+	/** Deletes every product of one category. */
+	DELETE_CATEGORY,
+	/** Looks up one product by number. */
+	FIND_BY_NUMBER,
+	/** Reads products expiring within some days of a date. */
+	EXPIRING
+}
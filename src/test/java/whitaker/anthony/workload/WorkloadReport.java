@@ -0,0 +1,67 @@
+package whitaker.anthony.workload;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Outcome of a workload run: overall throughput and, per kind of operation that ran, throughput and latency percentiles.
+ */
+public class WorkloadReport {
+
+	private static final double NANOS_PER_SECOND = 1_000_000_000;
+
+	private final long elapsedNanos;
+	private final Map<WorkloadOperation, OperationStats> operations;
+
+	WorkloadReport(Map<WorkloadOperation, OperationStats> operations, long elapsedNanos) {
+		this.operations = Collections.unmodifiableMap(operations);
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Returns a table of one line per operation, preceded by totals.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder report = new StringBuilder(String.format("%d ops, %d errors in %.3f s, %.1f ops/s",
+				getCount(), getErrors(), elapsedNanos / NANOS_PER_SECOND, getThroughput()));
+		for(OperationStats stats : operations.values()) {
+			report.append('\n').append(stats);
+		}
+		return report.toString();
+	}
+
+	/** Operations completed, successfully or not. */
+	public long getCount() {
+		return operations.values().stream().mapToLong(OperationStats::getCount).sum();
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/** Operations that threw. */
+	public long getErrors() {
+		return operations.values().stream().mapToLong(OperationStats::getErrors).sum();
+	}
+
+	/**
+	 * Returns statistics of given kind of operation.
+	 *
+	 * @param operation Kind of operation.
+	 * @return Statistics, or null if no operation of that kind ran.
+	 */
+	public OperationStats getOperation(WorkloadOperation operation) {
+		return operations.get(operation);
+	}
+
+	/** Statistics of each kind of operation that ran, in declaration order. */
+	public Map<WorkloadOperation, OperationStats> getOperations() {
+		return operations;
+	}
+
+	/** Operations per second over the whole run. */
+	public double getThroughput() {
+		return elapsedNanos <= 0 ? 0 : getCount() / (elapsedNanos / NANOS_PER_SECOND);
+	}
+}
@@ -0,0 +1,179 @@
+package whitaker.anthony.workload;
+
+import whitaker.anthony.generator.StreamingProductGenerator;
+import whitaker.anthony.model.Product;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs workload steps against a {@link WorkloadTarget} on several threads and reports throughput and latency per operation.
+ * <p>
+ * Steps are claimed in order by a fixed number of workers, each running one step at a time. Unpaced, workers issue steps as
+ * fast as the target answers, which finds its peak throughput. Paced, each step waits until its {@code atMillis}, replaying a
+ * trace at its recorded rate; its latency is then measured from when it was due rather than from when a worker got to it, so
+ * a target that falls behind shows its queueing delay in the percentiles instead of hiding it.
+ * <p>
+ * Ingest steps are turned into products by this runner's generator from their seed before they are timed, so the same
+ * generator settings always replay the same products.
+ */
+public class WorkloadRunner {
+
+	private final StreamingProductGenerator generator;
+	private final WorkloadTarget target;
+	private final int threads;
+
+	/**
+	 * Constructs a WorkloadRunner.
+	 *
+	 * @param target    Target to run steps against, not null.
+	 * @param generator Generator making the products of ingest steps, not null.
+	 * @param threads   Number of steps run at once, at least 1.
+	 * @throws IllegalArgumentException If target or generator is null or if threads is less than 1.
+	 */
+	public WorkloadRunner(WorkloadTarget target, StreamingProductGenerator generator, int threads) {
+		if(target == null || generator == null)
+			throw new IllegalArgumentException("Parameters to WorkloadRunner constructor cannot be null.");
+		if(threads < 1)
+			throw new IllegalArgumentException("Threads must be at least 1.");
+		this.target = target;
+		this.generator = generator;
+		this.threads = threads;
+	}
+
+	/**
+	 * Runs every given step once. A step that throws is counted as an error and the run carries on.
+	 *
+	 * @param steps Steps to run, in order of issue, not null.
+	 * @param paced If true, no step is issued before its {@code atMillis}; if false, step times are ignored.
+	 * @return Throughput and latency of each kind of operation that ran.
+	 * @throws IllegalArgumentException If steps is null.
+	 * @throws IllegalStateException    If interrupted while waiting for the run to finish.
+	 */
+	public WorkloadReport run(List<WorkloadStep> steps, boolean paced) {
+		if(steps == null)
+			throw new IllegalArgumentException("Steps cannot be null.");
+		Run run = new Run(steps, paced);
+		ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "workload");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<Future<?>> futures = new ArrayList<>(threads);
+			for(int i = 0; i < threads; i++) {
+				futures.add(workers.submit(run::work));
+			}
+			for(Future<?> future : futures) {
+				future.get();
+			}
+		} catch(InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while running workload.", e);
+		} catch(ExecutionException e) {
+			throw new IllegalStateException("Workload worker failed.", e.getCause());
+		} finally {
+			workers.shutdownNow();
+		}
+		return run.report(System.nanoTime() - run.start);
+	}
+
+	private long execute(WorkloadStep step, List<Product> products) {
+		switch(step.getOperation()) {
+			case INGEST:
+				return target.ingest(products);
+			case LIST_SORTED:
+				return target.listSorted(step.getSortKey(), step.getCount());
+			case DELETE_CATEGORY:
+				return target.deleteCategory(step.getCategory());
+			case FIND_BY_NUMBER:
+				return target.findByNumber(step.getNumber());
+			default:
+				return target.findExpiring(step.getDate(), step.getCount());
+		}
+	}
+
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * State of a single run: the next step to claim and the measurements of each kind of operation.
+	 */
+	private class Run {
+		private final LongAdder[] errors = new LongAdder[WorkloadOperation.values().length];
+		private final LatencyHistogram[] latencies = new LatencyHistogram[WorkloadOperation.values().length];
+		private final AtomicInteger next = new AtomicInteger();
+		private final boolean paced;
+		private final LongAdder[] results = new LongAdder[WorkloadOperation.values().length];
+		private final long start = System.nanoTime();
+		private final List<WorkloadStep> steps;
+
+		private Run(List<WorkloadStep> steps, boolean paced) {
+			this.steps = steps;
+			this.paced = paced;
+			for(int i = 0; i < latencies.length; i++) {
+				errors[i] = new LongAdder();
+				latencies[i] = new LatencyHistogram();
+				results[i] = new LongAdder();
+			}
+		}
+
+		private void work() {
+			for(int i = next.getAndIncrement(); i < steps.size(); i = next.getAndIncrement()) {
+				WorkloadStep step = steps.get(i);
+				List<Product> products = null;
+				if(step.getOperation() == WorkloadOperation.INGEST) {
+					products = new ArrayList<>(step.getCount());
+					generator.generate(step.getCount(), step.getSeed(), 1, products::add);
+				}
+
+				long issued = paced ? waitUntil(start + TimeUnit.MILLISECONDS.toNanos(step.getAtMillis())) : System.nanoTime();
+				int operation = step.getOperation().ordinal();
+				try {
+					results[operation].add(execute(step, products));
+				} catch(RuntimeException e) {
+					errors[operation].increment();
+				}
+				latencies[operation].record(System.nanoTime() - issued);
+				if(Thread.currentThread().isInterrupted())
+					return;
+			}
+		}
+
+		/**
+		 * Sleeps until given time, unless it has passed.
+		 *
+		 * @return Given time, from which the step's latency is measured.
+		 */
+		private long waitUntil(long due) {
+			for(long remaining = due - System.nanoTime(); remaining > 0; remaining = due - System.nanoTime()) {
+				LockSupport.parkNanos(remaining);
+				if(Thread.currentThread().isInterrupted())
+					break;
+			}
+			return due;
+		}
+
+		private WorkloadReport report(long elapsedNanos) {
+			Map<WorkloadOperation, OperationStats> operations = new EnumMap<>(WorkloadOperation.class);
+			for(WorkloadOperation operation : WorkloadOperation.values()) {
+				LatencyHistogram histogram = latencies[operation.ordinal()];
+				if(histogram.getCount() > 0)
+					operations.put(operation, new OperationStats(operation, histogram, errors[operation.ordinal()].sum(),
+							results[operation.ordinal()].sum(), elapsedNanos));
+			}
+			return new WorkloadReport(operations, elapsedNanos);
+		}
+	}
+}
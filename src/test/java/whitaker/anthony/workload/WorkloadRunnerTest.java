@@ -0,0 +1,246 @@
+package whitaker.anthony.workload;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import whitaker.anthony.generator.ProductGenerator;
+import whitaker.anthony.generator.StreamingProductGenerator;
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+import whitaker.anthony.repository.ProductRepository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static whitaker.anthony.generator.DataGeneratorTest.DELIMITER;
+
+public class WorkloadRunnerTest {
+
+	private static final String FILENAME_PRODUCT_CANDIDATES = "src/main/resources/ProductCandidates.txt";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private StreamingProductGenerator generator;
+	private WorkloadMix mix;
+	private ProductRepository productRepository;
+
+	@Before
+	public void setup() {
+		mix = new WorkloadMix();
+		mix.setPreload(500);
+		mix.setIngestBatchSize(100);
+		mix.setOperations(1000);
+		generator = mix.createGenerator(ProductGenerator.parseProductCandidateFile(FILENAME_PRODUCT_CANDIDATES, DELIMITER));
+		productRepository = mock(ProductRepository.class);
+		when(productRepository.insert(anyListOf(Product.class))).then(invocation -> invocation.getArguments()[0]);
+	}
+
+	@Test
+	public void testStep_RoundTrip() {
+		List<WorkloadStep> steps = Arrays.asList(
+				WorkloadStep.ingest(0, 100, -42),
+				WorkloadStep.listSorted(5, SortKey.EXPIRATION_DATE, 50),
+				WorkloadStep.deleteCategory(10, Category.CANNED_PACKAGED),
+				WorkloadStep.findByNumber(15, "08f7751c-c495-469d-b4ca-5b1f118c91a7"),
+				WorkloadStep.expiring(20, LocalDate.of(2018, 2, 28), 7));
+		for(WorkloadStep step : steps) {
+			assertEquals(step.toString(), WorkloadStep.parse(step.toString()).toString());
+		}
+		assertEquals("10 DELETE_CATEGORY CANNED_PACKAGED", steps.get(2).toString());
+		assertEquals(Category.CANNED_PACKAGED, WorkloadStep.parse(steps.get(2).toString()).getCategory());
+	}
+
+	@Test
+	public void testStep_ParseExceptions() {
+		for(String line : Arrays.asList("", "0 INGEST 100", "0 FETCH x", "-1 FIND_BY_NUMBER x", "0 EXPIRING 2018-02-30 7",
+				"0 LIST_SORTED PRICE 10", "0 INGEST 0 1", "0 DELETE_CATEGORY Produce extra")) {
+			try {
+				WorkloadStep.parse(line);
+				fail(line);
+			} catch(IllegalArgumentException e) {
+				assertTrue(e.getMessage().startsWith("Unable to parse workload step"));
+			}
+		}
+	}
+
+	@Test
+	public void testTrace_RoundTrip() throws IOException {
+		List<WorkloadStep> steps = mix.plan(generator);
+		Path trace = folder.getRoot().toPath().resolve("trace.txt");
+		WorkloadTrace.write(trace, steps);
+		assertEquals(toStrings(steps), toStrings(WorkloadTrace.read(trace)));
+		assertEquals(1, WorkloadTrace.read(new StringReader("# recorded\n\n  0 DELETE_CATEGORY FROZEN  \n")).size());
+	}
+
+	@Test
+	public void testMix_Load() {
+		Properties properties = new Properties();
+		properties.setProperty("seed", "7");
+		properties.setProperty("operations", "20");
+		properties.setProperty("rate", "100");
+		properties.setProperty("weight.FIND_BY_NUMBER", "0");
+		properties.setProperty("expiration.min", "2018-01-01");
+		properties.setProperty("expiration.max", "2018-01-31");
+		WorkloadMix loaded = WorkloadMix.load(properties);
+		assertEquals(7, loaded.getSeed());
+		assertEquals(20, loaded.getOperations());
+		assertEquals(0, loaded.getWeight(WorkloadOperation.FIND_BY_NUMBER), 0);
+		assertEquals(18, loaded.getWeight(WorkloadOperation.EXPIRING), 0);
+		assertEquals(LocalDate.of(2018, 1, 1), loaded.getExpirationDateMin());
+
+		properties.setProperty("expiration.max", "2017-12-31");
+		try {
+			WorkloadMix.load(properties);
+			fail();
+		} catch(IllegalArgumentException e) {
+			assertTrue(e.getMessage().startsWith("Invalid workload script"));
+		}
+	}
+
+	@Test
+	public void testMix_PlanIsReproducible() {
+		List<WorkloadStep> steps = mix.plan(generator);
+		assertEquals(mix.getOperations(), steps.size());
+		assertEquals(toStrings(steps), toStrings(mix.plan(generator)));
+
+		mix.setSeed(2);
+		assertNotEquals(toStrings(steps), toStrings(mix.plan(generator)));
+	}
+
+	@Test
+	public void testMix_Plan() {
+		mix.setRate(200);
+		mix.setWeight(WorkloadOperation.INGEST, 0);
+		mix.setWeight(WorkloadOperation.DELETE_CATEGORY, 0);
+		List<WorkloadStep> steps = mix.plan(generator);
+
+		Set<String> preloaded = new HashSet<>();
+		for(WorkloadStep step : mix.preload()) {
+			generator.generate(step.getCount(), step.getSeed(), 1, product -> preloaded.add(product.getNumber()));
+		}
+		assertEquals(5, mix.preload().size());
+		assertEquals(500, preloaded.size());
+
+		int lookups = 0;
+		for(int i = 0; i < steps.size(); i++) {
+			WorkloadStep step = steps.get(i);
+			assertEquals(i * 5, step.getAtMillis());
+			assertNotEquals(WorkloadOperation.INGEST, step.getOperation());
+			assertNotEquals(WorkloadOperation.DELETE_CATEGORY, step.getOperation());
+			if(step.getOperation() == WorkloadOperation.FIND_BY_NUMBER) {
+				assertTrue(preloaded.contains(step.getNumber()));
+				lookups++;
+			}
+			if(step.getOperation() == WorkloadOperation.EXPIRING)
+				assertFalse(step.getDate().isAfter(mix.getExpirationDateMax()));
+		}
+		assertTrue("Lookups should dominate default mix, got " + lookups, lookups > steps.size() / 2);
+	}
+
+	@Test
+	public void testRun_ReportsEveryOperation() {
+		when(productRepository.findByNumber(any(String.class))).thenReturn(new Product("x", "Lemons", Category.PRODUCE, LocalDate.now()));
+		when(productRepository.deleteByCategory(any(Category.class))).thenReturn(3L);
+		WorkloadRunner runner = new WorkloadRunner(new RepositoryWorkloadTarget(productRepository), generator, 4);
+
+		assertEquals(500, runner.run(mix.preload(), false).getOperation(WorkloadOperation.INGEST).getResults());
+		List<WorkloadStep> steps = mix.plan(generator);
+		WorkloadReport report = runner.run(steps, false);
+
+		assertEquals(steps.size(), report.getCount());
+		assertEquals(0, report.getErrors());
+		assertTrue(report.getThroughput() > 0);
+		for(WorkloadOperation operation : WorkloadOperation.values()) {
+			long planned = steps.stream().filter(step -> step.getOperation() == operation).count();
+			OperationStats stats = report.getOperation(operation);
+			assertNotNull(operation.toString(), stats);
+			assertEquals(planned, stats.getCount());
+			assertTrue(stats.getP50() <= stats.getP99() && stats.getP99() <= stats.getMax());
+		}
+		assertEquals(report.getOperation(WorkloadOperation.FIND_BY_NUMBER).getCount(), report.getOperation(WorkloadOperation.FIND_BY_NUMBER).getResults());
+		assertEquals(3 * report.getOperation(WorkloadOperation.DELETE_CATEGORY).getCount(), report.getOperation(WorkloadOperation.DELETE_CATEGORY).getResults());
+		verify(productRepository, times((int)report.getOperation(WorkloadOperation.LIST_SORTED).getCount())).findPage(any(SortKey.class), eq(null), eq(100));
+	}
+
+	@Test
+	public void testRun_CountsErrorsAndCarriesOn() {
+		when(productRepository.findExpiringBetween(any(LocalDate.class), any(LocalDate.class), eq(null))).thenThrow(new IllegalStateException("down"));
+		WorkloadRunner runner = new WorkloadRunner(new RepositoryWorkloadTarget(productRepository), generator, 2);
+		List<WorkloadStep> steps = Arrays.asList(
+				WorkloadStep.expiring(0, LocalDate.of(2018, 1, 1), 7),
+				WorkloadStep.findByNumber(0, "08f7751c-c495-469d-b4ca-5b1f118c91a7"),
+				WorkloadStep.expiring(0, LocalDate.of(2018, 1, 2), 7));
+
+		WorkloadReport report = runner.run(steps, false);
+		assertEquals(3, report.getCount());
+		assertEquals(2, report.getErrors());
+		assertEquals(2, report.getOperation(WorkloadOperation.EXPIRING).getErrors());
+		assertEquals(0, report.getOperation(WorkloadOperation.FIND_BY_NUMBER).getResults());
+		assertNull(report.getOperation(WorkloadOperation.INGEST));
+	}
+
+	@Test
+	public void testRun_PacedMeasuresFromDueTime() {
+		WorkloadTarget slow = mock(WorkloadTarget.class);
+		when(slow.findByNumber(any(String.class))).then(invocation -> {
+			Thread.sleep(20);
+			return 1L;
+		});
+		List<WorkloadStep> steps = new ArrayList<>();
+		for(int i = 0; i < 5; i++) {
+			steps.add(WorkloadStep.findByNumber(i * 5, "n" + i));
+		}
+
+		WorkloadReport report = new WorkloadRunner(slow, generator, 1).run(steps, true);
+		// One worker falls further behind every step; the last is due at 20 ms but can only start after 80 ms.
+		assertTrue(report.getElapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(100));
+		assertTrue(report.getOperation(WorkloadOperation.FIND_BY_NUMBER).getMax() >= TimeUnit.MILLISECONDS.toNanos(80));
+	}
+
+	@Test
+	public void testHistogram_Percentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentile(99));
+		for(long micros = 1; micros <= 1000; micros++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+		}
+		assertEquals(1000, histogram.getCount());
+		assertEquals(TimeUnit.MICROSECONDS.toNanos(1000), histogram.getMax());
+		assertEquals(500_500, histogram.getMean(), 0.001);
+		assertEquals(500_000, histogram.getPercentile(50), 500_000 / LatencyHistogram.SUB_BUCKETS);
+		assertEquals(990_000, histogram.getPercentile(99), 990_000 / LatencyHistogram.SUB_BUCKETS);
+		assertEquals(histogram.getMax(), histogram.getPercentile(100));
+	}
+
+	@Test
+	public void testHistogram_Buckets() {
+		for(long value : new long[]{0, 1, 31, 32, 33, 63, 64, 65, 1000, 123_456_789, Long.MAX_VALUE}) {
+			int bucket = LatencyHistogram.bucketOf(value);
+			assertTrue(value + " above its bucket", value <= LatencyHistogram.highestValueOf(bucket));
+			assertTrue(value + " below its bucket", bucket == 0 || value > LatencyHistogram.highestValueOf(bucket - 1));
+		}
+		assertEquals(64, LatencyHistogram.bucketOf(64));
+		assertEquals(65, LatencyHistogram.highestValueOf(64));
+	}
+
+	private static List<String> toStrings(List<WorkloadStep> steps) {
+		List<String> lines = new ArrayList<>(steps.size());
+		steps.forEach(step -> lines.add(step.toString()));
+		return lines;
+	}
+}
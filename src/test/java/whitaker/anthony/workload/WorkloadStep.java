@@ -0,0 +1,221 @@
+package whitaker.anthony.workload;
+
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * One operation of a workload together with everything needed to repeat it exactly, and when to issue it.
+ * <p>
+ * Steps are written to and read from traces as single lines, {@code <atMillis> <OPERATION> <arguments...>}, separated by spaces:
+ * <ul>
+ * <li>{@code INGEST <count> <seed>}: insert the {@code count} products {@link WorkloadRunner}'s generator makes from {@code seed}.</li>
+ * <li>{@code LIST_SORTED <sortKey> <limit>}: read the first {@code limit} products in {@link SortKey} order.</li>
+ * <li>{@code DELETE_CATEGORY <category>}: delete every product of given {@link Category}, by enum name.</li>
+ * <li>{@code FIND_BY_NUMBER <number>}: look up one product number.</li>
+ * <li>{@code EXPIRING <from> <days>}: read products expiring within {@code days} days of ISO date {@code from}.</li>
+ * </ul>
+ */
+public class WorkloadStep {
+
+	private final long atMillis;
+	private final Category category;
+	private final int count;
+	private final LocalDate date;
+	private final String number;
+	private final WorkloadOperation operation;
+	private final long seed;
+	private final SortKey sortKey;
+
+	private WorkloadStep(long atMillis, WorkloadOperation operation, int count, long seed, SortKey sortKey, Category category,
+	                     String number, LocalDate date) {
+		if(atMillis < 0)
+			throw new IllegalArgumentException("Step time cannot be negative.");
+		this.atMillis = atMillis;
+		this.operation = operation;
+		this.count = count;
+		this.seed = seed;
+		this.sortKey = sortKey;
+		this.category = category;
+		this.number = number;
+		this.date = date;
+	}
+
+	/**
+	 * Returns a step inserting {@code count} products generated from {@code seed}.
+	 *
+	 * @param atMillis Time to issue step, in milliseconds from start of run, at least 0.
+	 * @param count    Number of products, at least 1.
+	 * @param seed     Seed fixing which products are generated.
+	 * @return Step.
+	 * @throws IllegalArgumentException If atMillis is negative or if count is less than 1.
+	 */
+	public static WorkloadStep ingest(long atMillis, int count, long seed) {
+		if(count < 1)
+			throw new IllegalArgumentException("Ingest count must be at least 1.");
+		return new WorkloadStep(atMillis, WorkloadOperation.INGEST, count, seed, null, null, null, null);
+	}
+
+	/**
+	 * Returns a step reading the first {@code limit} products in given order.
+	 *
+	 * @param atMillis Time to issue step, in milliseconds from start of run, at least 0.
+	 * @param sortKey  Order of products, not null.
+	 * @param limit    Number of products, at least 1.
+	 * @return Step.
+	 * @throws IllegalArgumentException If atMillis is negative, if sortKey is null or if limit is less than 1.
+	 */
+	public static WorkloadStep listSorted(long atMillis, SortKey sortKey, int limit) {
+		if(sortKey == null || limit < 1)
+			throw new IllegalArgumentException("Sort key cannot be null and limit must be at least 1.");
+		return new WorkloadStep(atMillis, WorkloadOperation.LIST_SORTED, limit, 0, sortKey, null, null, null);
+	}
+
+	/**
+	 * Returns a step deleting every product of given category.
+	 *
+	 * @param atMillis Time to issue step, in milliseconds from start of run, at least 0.
+	 * @param category Category to delete, not null.
+	 * @return Step.
+	 * @throws IllegalArgumentException If atMillis is negative or if category is null.
+	 */
+	public static WorkloadStep deleteCategory(long atMillis, Category category) {
+		if(category == null)
+			throw new IllegalArgumentException("Category cannot be null.");
+		return new WorkloadStep(atMillis, WorkloadOperation.DELETE_CATEGORY, 0, 0, null, category, null, null);
+	}
+
+	/**
+	 * Returns a step looking up given product number.
+	 *
+	 * @param atMillis Time to issue step, in milliseconds from start of run, at least 0.
+	 * @param number   Product number, without spaces, not null or empty.
+	 * @return Step.
+	 * @throws IllegalArgumentException If atMillis is negative or if number is null, empty or contains whitespace.
+	 */
+	public static WorkloadStep findByNumber(long atMillis, String number) {
+		if(number == null || number.isEmpty() || number.chars().anyMatch(Character::isWhitespace))
+			throw new IllegalArgumentException("Number cannot be null, empty or contain whitespace.");
+		return new WorkloadStep(atMillis, WorkloadOperation.FIND_BY_NUMBER, 0, 0, null, null, number, null);
+	}
+
+	/**
+	 * Returns a step reading products expiring within {@code days} days of {@code from}, inclusive of both ends.
+	 *
+	 * @param atMillis Time to issue step, in milliseconds from start of run, at least 0.
+	 * @param from     First day of window, not null.
+	 * @param days     Length of window in days, at least 0.
+	 * @return Step.
+	 * @throws IllegalArgumentException If atMillis is negative, if from is null or if days is negative.
+	 */
+	public static WorkloadStep expiring(long atMillis, LocalDate from, int days) {
+		if(from == null || days < 0)
+			throw new IllegalArgumentException("Date cannot be null and days cannot be negative.");
+		return new WorkloadStep(atMillis, WorkloadOperation.EXPIRING, days, 0, null, null, null, from);
+	}
+
+	/**
+	 * Parses a trace line written by {@link #toString()}.
+	 *
+	 * @param line Line to parse, not null.
+	 * @return Step represented by line.
+	 * @throws IllegalArgumentException If line is not a valid step.
+	 */
+	public static WorkloadStep parse(String line) {
+		String[] fields = line.trim().split("\\s+");
+		try {
+			if(fields.length < 3)
+				throw new IllegalArgumentException("Too few fields.");
+			long atMillis = Long.parseLong(fields[0]);
+			WorkloadOperation operation = WorkloadOperation.valueOf(fields[1]);
+			int arguments = operation == WorkloadOperation.DELETE_CATEGORY || operation == WorkloadOperation.FIND_BY_NUMBER ? 1 : 2;
+			if(fields.length != 2 + arguments)
+				throw new IllegalArgumentException(operation + " takes " + arguments + " argument(s).");
+			switch(operation) {
+				case INGEST:
+					return ingest(atMillis, Integer.parseInt(fields[2]), Long.parseLong(fields[3]));
+				case LIST_SORTED:
+					return listSorted(atMillis, SortKey.valueOf(fields[2]), Integer.parseInt(fields[3]));
+				case DELETE_CATEGORY:
+					return deleteCategory(atMillis, Category.valueOf(fields[2]));
+				case FIND_BY_NUMBER:
+					return findByNumber(atMillis, fields[2]);
+				default:
+					return expiring(atMillis, LocalDate.parse(fields[2]), Integer.parseInt(fields[3]));
+			}
+		} catch(IllegalArgumentException | DateTimeParseException e) {
+			throw new IllegalArgumentException("Unable to parse workload step \"" + line + "\"", e);
+		}
+	}
+
+	/**
+	 * Returns a copy of this step issued at another time.
+	 *
+	 * @param atMillis Time to issue step, in milliseconds from start of run, at least 0.
+	 * @return Step differing from this one only in time.
+	 */
+	public WorkloadStep at(long atMillis) {
+		return new WorkloadStep(atMillis, operation, count, seed, sortKey, category, number, date);
+	}
+
+	/**
+	 * Returns this step as a trace line, readable by {@link #parse(String)}.
+	 */
+	@Override
+	public String toString() {
+		StringBuilder line = new StringBuilder().append(atMillis).append(' ').append(operation).append(' ');
+		switch(operation) {
+			case INGEST:
+				return line.append(count).append(' ').append(seed).toString();
+			case LIST_SORTED:
+				return line.append(sortKey).append(' ').append(count).toString();
+			case DELETE_CATEGORY:
+				return line.append(category.name()).toString();
+			case FIND_BY_NUMBER:
+				return line.append(number).toString();
+			default:
+				return line.append(date).append(' ').append(count).toString();
+		}
+	}
+
+	/** Time to issue step, in milliseconds from start of run. */
+	public long getAtMillis() {
+		return atMillis;
+	}
+
+	/** Category to delete; null unless {@link WorkloadOperation#DELETE_CATEGORY}. */
+	public Category getCategory() {
+		return category;
+	}
+
+	/** Products to ingest, page size of a listing or days of an expiration window; 0 for other operations. */
+	public int getCount() {
+		return count;
+	}
+
+	/** First day of expiration window; null unless {@link WorkloadOperation#EXPIRING}. */
+	public LocalDate getDate() {
+		return date;
+	}
+
+	/** Number to look up; null unless {@link WorkloadOperation#FIND_BY_NUMBER}. */
+	public String getNumber() {
+		return number;
+	}
+
+	public WorkloadOperation getOperation() {
+		return operation;
+	}
+
+	/** Seed of products to ingest; 0 unless {@link WorkloadOperation#INGEST}. */
+	public long getSeed() {
+		return seed;
+	}
+
+	/** Order of a listing; null unless {@link WorkloadOperation#LIST_SORTED}. */
+	public SortKey getSortKey() {
+		return sortKey;
+	}
+}
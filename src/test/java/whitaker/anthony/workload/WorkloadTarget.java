@@ -0,0 +1,53 @@
+package whitaker.anthony.workload;
+
+import whitaker.anthony.inventory.SortKey;
+import whitaker.anthony.model.Category;
+import whitaker.anthony.model.Product;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * What a workload runs against: the service reached one way or another. Implementations must be thread-safe, as
+ * {@link WorkloadRunner} calls them from several threads at once.
+ * <p>
+ * Every operation returns how many products it touched, so reports can show e.g. how many lookups found their product.
+ * Failures are reported by throwing any RuntimeException.
+ */
+public interface WorkloadTarget {
+
+	/**
+	 * Inserts given products.
+	 *
+	 * @return Number of products inserted.
+	 */
+	long ingest(List<Product> products);
+
+	/**
+	 * Reads the first {@code limit} products in given order.
+	 *
+	 * @return Number of products read.
+	 */
+	long listSorted(SortKey sortKey, int limit);
+
+	/**
+	 * Deletes every product of given category.
+	 *
+	 * @return Number of products deleted.
+	 */
+	long deleteCategory(Category category);
+
+	/**
+	 * Looks up one product by number.
+	 *
+	 * @return 1 if found, else 0.
+	 */
+	long findByNumber(String number);
+
+	/**
+	 * Reads products expiring within {@code days} days of {@code from}, inclusive of both ends.
+	 *
+	 * @return Number of products read.
+	 */
+	long findExpiring(LocalDate from, int days);
+}
@@ -0,0 +1,83 @@
+package whitaker.anthony.workload;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads and writes traces: workloads recorded one {@link WorkloadStep} per line, so that a run can be replayed exactly.
+ * Blank lines and lines starting with {@code #} are ignored when reading.
+ */
+public final class WorkloadTrace {
+
+	private WorkloadTrace() {
+	}
+
+	/**
+	 * Reads every step of given trace file, in file order.
+	 *
+	 * @param path Trace file.
+	 * @return Steps of trace.
+	 * @throws IOException              If file cannot be read.
+	 * @throws IllegalArgumentException If any line is not a valid step.
+	 */
+	public static List<WorkloadStep> read(Path path) throws IOException {
+		try(Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			return read(in);
+		}
+	}
+
+	/**
+	 * Reads every step of given trace, in order. The reader is not closed.
+	 *
+	 * @param in Trace to read.
+	 * @return Steps of trace.
+	 * @throws IOException              If reader fails.
+	 * @throws IllegalArgumentException If any line is not a valid step.
+	 */
+	public static List<WorkloadStep> read(Reader in) throws IOException {
+		BufferedReader lines = in instanceof BufferedReader ? (BufferedReader)in : new BufferedReader(in);
+		List<WorkloadStep> steps = new ArrayList<>();
+		String line;
+		while((line = lines.readLine()) != null) {
+			String trimmed = line.trim();
+			if(!trimmed.isEmpty() && !trimmed.startsWith("#"))
+				steps.add(WorkloadStep.parse(trimmed));
+		}
+		return steps;
+	}
+
+	/**
+	 * Writes given steps to a trace file, creating or overwriting it.
+	 *
+	 * @param path  Trace file.
+	 * @param steps Steps to write, in order.
+	 * @throws IOException If file cannot be written.
+	 */
+	public static void write(Path path, List<WorkloadStep> steps) throws IOException {
+		try(Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			write(out, steps);
+		}
+	}
+
+	/**
+	 * Writes given steps to a trace, one line each. The writer is neither flushed nor closed.
+	 *
+	 * @param out   Writer to append to.
+	 * @param steps Steps to write, in order.
+	 * @throws IOException If writer fails.
+	 */
+	public static void write(Writer out, List<WorkloadStep> steps) throws IOException {
+		for(WorkloadStep step : steps) {
+			out.write(step.toString());
+			out.write('\n');
+		}
+	}
+}